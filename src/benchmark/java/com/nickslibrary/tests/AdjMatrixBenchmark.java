@@ -78,6 +78,41 @@ public class AdjMatrixBenchmark {
         }
     }
 
+    @Benchmark
+    public int testCustomGraphDegree(BenchmarkState state) {
+        return state.customGraph.degree(500);
+    }
+
+    @Benchmark
+    public int testJavaGraphDegree(BenchmarkState state) {
+        int degree = 0;
+        for (int edge : state.javaGraph[500]) {
+            degree += edge;
+        }
+        return degree;
+    }
+
+    @Benchmark
+    public long testCustomGraphCountTriangles(BenchmarkState state) {
+        return state.customGraph.countTriangles();
+    }
+
+    @Benchmark
+    public long testJavaGraphCountTriangles(BenchmarkState state) {
+        int[][] graph = state.javaGraph;
+        long triangles = 0;
+        for (int u = 0; u < state.numVertices; u++) {
+            for (int v = u + 1; v < state.numVertices; v++) {
+                if (graph[u][v] == 1) {
+                    for (int x = v + 1; x < state.numVertices; x++) {
+                        triangles += graph[u][x] & graph[v][x];
+                    }
+                }
+            }
+        }
+        return triangles;
+    }
+
     public static void main(String[] args) throws Exception {
         System.setProperty("jmh.ignoreLock", "true");
         org.openjdk.jmh.Main.main(args);
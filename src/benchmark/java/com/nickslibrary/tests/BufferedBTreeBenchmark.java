@@ -0,0 +1,56 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.trees.BTree;
+import com.nickslibrary.datastructures.trees.BufferedBTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = { "-Xmx8g" })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BufferedBTreeBenchmark {
+
+    private static final int INSERTS = 10_000_000;
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        Integer[] keys;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            keys = new Integer[INSERTS];
+            for (int i = 0; i < INSERTS; i++) {
+                keys[i] = random.nextInt();
+            }
+        }
+    }
+
+    @Benchmark
+    public int testBTreeRandomInsert(BenchmarkState state) {
+        BTree<Integer, Integer> tree = new BTree<>();
+        for (Integer key : state.keys) {
+            tree.put(key, key);
+        }
+        return tree.size();
+    }
+
+    @Benchmark
+    public int testBufferedBTreeRandomInsert(BenchmarkState state) {
+        BufferedBTree<Integer, Integer> tree = new BufferedBTree<>();
+        for (Integer key : state.keys) {
+            tree.put(key, key);
+        }
+        // size() flushes every buffered message, so both trees are timed for the same durable work
+        return tree.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
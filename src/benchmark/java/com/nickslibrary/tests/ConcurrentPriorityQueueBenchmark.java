@@ -0,0 +1,86 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.heaps.MinHeap;
+import com.nickslibrary.datastructures.heaps.MultiQueue;
+import com.nickslibrary.datastructures.heaps.SkipListPriorityQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(Threads.MAX)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentPriorityQueueBenchmark {
+
+    private static final int NUM_ELEMENTS = 100_000;
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        SkipListPriorityQueue<Integer> skipListQueue;
+        MultiQueue<Integer> multiQueue;
+        PriorityBlockingQueue<Integer> blockingQueue;
+        MinHeap<Integer> lockedHeap;
+        ReentrantLock lock;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            skipListQueue = new SkipListPriorityQueue<>();
+            multiQueue = new MultiQueue<>();
+            blockingQueue = new PriorityBlockingQueue<>();
+            lockedHeap = new MinHeap<>(NUM_ELEMENTS);
+            lock = new ReentrantLock();
+
+            // Every benchmark keeps the queue at a steady size: one insert, one extraction
+            Random random = new Random(42);
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                int value = random.nextInt();
+                skipListQueue.insert(value);
+                multiQueue.insert(value);
+                blockingQueue.add(value);
+                lockedHeap.insert(value);
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer testCustomSkipListQueue(BenchmarkState state) {
+        state.skipListQueue.insert(ThreadLocalRandom.current().nextInt());
+        return state.skipListQueue.extractMin();
+    }
+
+    @Benchmark
+    public Integer testCustomMultiQueue(BenchmarkState state) {
+        state.multiQueue.insert(ThreadLocalRandom.current().nextInt());
+        return state.multiQueue.extractMin();
+    }
+
+    @Benchmark
+    public Integer testCustomLockedMinHeap(BenchmarkState state) {
+        int value = ThreadLocalRandom.current().nextInt();
+        state.lock.lock();
+        try {
+            state.lockedHeap.insert(value);
+            return state.lockedHeap.extractMin();
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public Integer testJavaPriorityBlockingQueue(BenchmarkState state) {
+        state.blockingQueue.add(ThreadLocalRandom.current().nextInt());
+        return state.blockingQueue.poll();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,77 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.advanced.ConcurrentSkipList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(Threads.MAX)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentSkipListBenchmark {
+
+    private static final int KEY_RANGE = 1_000_000;
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        ConcurrentSkipList<Integer, Integer> customSkipList;
+        ConcurrentSkipListMap<Integer, Integer> javaSkipListMap;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            customSkipList = new ConcurrentSkipList<>();
+            javaSkipListMap = new ConcurrentSkipListMap<>();
+
+            for (int i = 0; i < KEY_RANGE; i += 2) {
+                customSkipList.put(i, i);
+                javaSkipListMap.put(i, i);
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer testCustomSkipListGet(BenchmarkState state) {
+        return state.customSkipList.get(ThreadLocalRandom.current().nextInt(KEY_RANGE));
+    }
+
+    @Benchmark
+    public Integer testJavaSkipListMapGet(BenchmarkState state) {
+        return state.javaSkipListMap.get(ThreadLocalRandom.current().nextInt(KEY_RANGE));
+    }
+
+    @Benchmark
+    public Integer testCustomSkipListMixed(BenchmarkState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(KEY_RANGE);
+        int op = random.nextInt(10);
+        if (op == 0) {
+            return state.customSkipList.put(key, key);
+        } else if (op == 1) {
+            return state.customSkipList.remove(key);
+        }
+        return state.customSkipList.get(key);
+    }
+
+    @Benchmark
+    public Integer testJavaSkipListMapMixed(BenchmarkState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(KEY_RANGE);
+        int op = random.nextInt(10);
+        if (op == 0) {
+            return state.javaSkipListMap.put(key, key);
+        } else if (op == 1) {
+            return state.javaSkipListMap.remove(key);
+        }
+        return state.javaSkipListMap.get(key);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,88 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.trees.ConcurrentTrie;
+import com.nickslibrary.datastructures.trees.StandardTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(Threads.MAX)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentTrieBenchmark {
+
+    private static final int NUM_WORDS = 100_000;
+
+    @State(Scope.Benchmark)
+    public static class BenchmarkState {
+        ConcurrentTrie customTrie;
+        StandardTrie lockedTrie;
+        ReentrantReadWriteLock lock;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            lockedTrie = new StandardTrie();
+            lock = new ReentrantReadWriteLock();
+            for (int i = 0; i < NUM_WORDS; i++) {
+                lockedTrie.insert("word" + i);
+            }
+            customTrie = lockedTrie.toConcurrent();
+        }
+    }
+
+    @Benchmark
+    public boolean testCustomTrieSearch(BenchmarkState state) {
+        return state.customTrie.search("word" + ThreadLocalRandom.current().nextInt(NUM_WORDS));
+    }
+
+    @Benchmark
+    public boolean testLockedTrieSearch(BenchmarkState state) {
+        String word = "word" + ThreadLocalRandom.current().nextInt(NUM_WORDS);
+        state.lock.readLock().lock();
+        try {
+            return state.lockedTrie.search(word);
+        } finally {
+            state.lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    public boolean testCustomTrieMixed(BenchmarkState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String word = "word" + random.nextInt(NUM_WORDS);
+        if (random.nextInt(100) == 0) {
+            return state.customTrie.incrementFrequency(word);
+        }
+        return state.customTrie.search(word);
+    }
+
+    @Benchmark
+    public boolean testLockedTrieMixed(BenchmarkState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String word = "word" + random.nextInt(NUM_WORDS);
+        if (random.nextInt(100) == 0) {
+            state.lock.writeLock().lock();
+            try {
+                return state.lockedTrie.incrementFrequency(word);
+            } finally {
+                state.lock.writeLock().unlock();
+            }
+        }
+        state.lock.readLock().lock();
+        try {
+            return state.lockedTrie.search(word);
+        } finally {
+            state.lock.readLock().unlock();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,138 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.graphs.CsrGraph;
+import com.nickslibrary.datastructures.graphs.GraphAdjList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsrGraphBenchmark {
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        int numVertices = 100_000;
+        int numEdges = 1_000_000;
+        int numQueries = 100_000;
+        int[] sources;
+        int[] destinations;
+        int[] querySources;
+        int[] queryDestinations;
+        GraphAdjList customGraph;
+        CsrGraph csrGraph;
+        HashMap<Integer, List<Integer>> javaGraph;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            sources = new int[numEdges];
+            destinations = new int[numEdges];
+            customGraph = new GraphAdjList(numVertices);
+            javaGraph = new HashMap<>();
+            for (int i = 0; i < numVertices; i++) {
+                javaGraph.put(i, new ArrayList<>());
+            }
+            for (int i = 0; i < numEdges; i++) {
+                sources[i] = random.nextInt(numVertices);
+                destinations[i] = random.nextInt(numVertices);
+                customGraph.addEdge(sources[i], destinations[i]);
+                javaGraph.get(sources[i]).add(destinations[i]);
+                javaGraph.get(destinations[i]).add(sources[i]);
+            }
+            csrGraph = customGraph.freeze();
+
+            // Half the queries hit an existing edge
+            querySources = new int[numQueries];
+            queryDestinations = new int[numQueries];
+            for (int i = 0; i < numQueries; i++) {
+                int edge = random.nextInt(numEdges);
+                querySources[i] = sources[edge];
+                queryDestinations[i] = random.nextBoolean() ? destinations[edge] : random.nextInt(numVertices);
+            }
+        }
+    }
+
+    @Benchmark
+    public long testCustomAdjListNeighborScan(BenchmarkState state) {
+        long sum = 0;
+        for (int v = 0; v < state.numVertices; v++) {
+            for (int neighbor : state.customGraph.getNeighbors(v)) {
+                sum += neighbor;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long testCustomCsrNeighborScan(BenchmarkState state) {
+        int[] offsets = state.csrGraph.offsets();
+        int[] targets = state.csrGraph.targets();
+        long sum = 0;
+        for (int v = 0; v < state.numVertices; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                sum += targets[i];
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long testJavaGraphNeighborScan(BenchmarkState state) {
+        long sum = 0;
+        for (int v = 0; v < state.numVertices; v++) {
+            for (int neighbor : state.javaGraph.get(v)) {
+                sum += neighbor;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int testCustomAdjListHasEdge(BenchmarkState state) {
+        int found = 0;
+        for (int i = 0; i < state.numQueries; i++) {
+            if (state.customGraph.hasEdge(state.querySources[i], state.queryDestinations[i])) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int testCustomCsrHasEdge(BenchmarkState state) {
+        int found = 0;
+        for (int i = 0; i < state.numQueries; i++) {
+            if (state.csrGraph.hasEdge(state.querySources[i], state.queryDestinations[i])) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public CsrGraph testCustomCsrFreeze(BenchmarkState state) {
+        return state.customGraph.freeze();
+    }
+
+    @Benchmark
+    public CsrGraph testCustomCsrBuilder(BenchmarkState state) {
+        CsrGraph.Builder builder = new CsrGraph.Builder(state.numVertices, false);
+        for (int i = 0; i < state.numEdges; i++) {
+            builder.addEdge(state.sources[i], state.destinations[i]);
+        }
+        return builder.build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,79 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.trees.AVLTree;
+import com.nickslibrary.datastructures.trees.EytzingerTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EytzingerTreeBenchmark {
+
+    private static final int SIZE = 1_000_000;
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        AVLTree<Integer> avlTree;
+        EytzingerTree<Integer> eytzingerTree;
+        EytzingerTree.OfLong eytzingerLongs;
+        long[] sortedArray;
+        int[] queries;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            avlTree = new AVLTree<>();
+            for (int i = 0; i < SIZE; i++) {
+                avlTree.insert(i * 2);
+            }
+            eytzingerTree = new EytzingerTree<>(avlTree.inOrderTraversal());
+            eytzingerLongs = EytzingerTree.OfLong.from(avlTree.inOrderTraversal());
+            sortedArray = new long[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                sortedArray[i] = i * 2L;
+            }
+
+            Random random = new Random(42);
+            queries = new int[1 << 16];
+            for (int i = 0; i < queries.length; i++) {
+                queries[i] = random.nextInt(SIZE * 2);
+            }
+        }
+
+        int nextQuery() {
+            next = (next + 1) & (queries.length - 1);
+            return queries[next];
+        }
+    }
+
+    @Benchmark
+    public boolean testAVLTreeSearch(BenchmarkState state) {
+        return state.avlTree.search(state.nextQuery());
+    }
+
+    @Benchmark
+    public boolean testEytzingerTreeContains(BenchmarkState state) {
+        return state.eytzingerTree.contains(state.nextQuery());
+    }
+
+    @Benchmark
+    public boolean testEytzingerLongContains(BenchmarkState state) {
+        return state.eytzingerLongs.contains(state.nextQuery());
+    }
+
+    @Benchmark
+    public boolean testJavaArraysBinarySearch(BenchmarkState state) {
+        return Arrays.binarySearch(state.sortedArray, state.nextQuery()) >= 0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,92 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.heaps.LeftistHeap;
+import com.nickslibrary.datastructures.heaps.MinHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HeapMeldBenchmark {
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        int numShards = 16;
+        int shardSize = 50_000;
+        List<List<Integer>> shards; // Per-shard queues, as a partitioned scheduler would hold them
+        List<Integer> all;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            shards = new ArrayList<>();
+            all = new ArrayList<>();
+            for (int s = 0; s < numShards; s++) {
+                List<Integer> shard = new ArrayList<>();
+                for (int i = 0; i < shardSize; i++) {
+                    shard.add(random.nextInt());
+                }
+                shards.add(shard);
+                all.addAll(shard);
+            }
+        }
+    }
+
+    @Benchmark
+    public int testCustomLeftistHeapMergeAll(BenchmarkState state) {
+        List<LeftistHeap<Integer>> heaps = new ArrayList<>();
+        for (List<Integer> shard : state.shards) {
+            heaps.add(LeftistHeap.build(shard));
+        }
+        return LeftistHeap.mergeAll(heaps).peekMin();
+    }
+
+    @Benchmark
+    public int testCustomLeftistHeapParallelBuild(BenchmarkState state) {
+        return LeftistHeap.parallelBuild(state.all).peekMin();
+    }
+
+    @Benchmark
+    public int testCustomMinHeapMerge(BenchmarkState state) {
+        MinHeap<Integer> merged = new MinHeap<>(state.shards.get(0));
+        for (int s = 1; s < state.shards.size(); s++) {
+            merged.merge(new MinHeap<>(state.shards.get(s)));
+        }
+        return merged.peek();
+    }
+
+    @Benchmark
+    public int testCustomMinHeapDrainMerge(BenchmarkState state) {
+        // The old way: extract every element of the other heaps and insert it
+        MinHeap<Integer> merged = new MinHeap<>(state.shards.get(0));
+        for (int s = 1; s < state.shards.size(); s++) {
+            MinHeap<Integer> other = new MinHeap<>(state.shards.get(s));
+            while (!other.isEmpty()) {
+                merged.insert(other.extractMin());
+            }
+        }
+        return merged.peek();
+    }
+
+    @Benchmark
+    public int testJavaPriorityQueueMerge(BenchmarkState state) {
+        PriorityQueue<Integer> merged = new PriorityQueue<>(state.shards.get(0));
+        for (int s = 1; s < state.shards.size(); s++) {
+            merged.addAll(new PriorityQueue<>(state.shards.get(s)));
+        }
+        return merged.peek();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,83 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.heaps.IndexedMinHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IndexedMinHeapBenchmark {
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        @Param({ "2", "4", "8" })
+        int arity;
+
+        int numElements = 1_000_000;
+        double[] priorities;
+        int[] decreases; // Handles to lower, as a Dijkstra relaxation would
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            priorities = new double[numElements];
+            decreases = new int[numElements];
+            for (int i = 0; i < numElements; i++) {
+                priorities[i] = random.nextDouble();
+                decreases[i] = random.nextInt(numElements);
+            }
+        }
+    }
+
+    @Benchmark
+    public int testCustomIndexedHeapFrontier(BenchmarkState state) {
+        IndexedMinHeap heap = new IndexedMinHeap(state.numElements, state.arity);
+        for (int i = 0; i < state.numElements; i++) {
+            heap.insert(i, state.priorities[i]);
+        }
+        for (int handle : state.decreases) {
+            if (heap.contains(handle)) {
+                heap.decreaseKey(handle, heap.getPriority(handle) * 0.5);
+            }
+        }
+        int last = -1;
+        while (!heap.isEmpty()) {
+            last = heap.extractMin();
+        }
+        return last;
+    }
+
+    @Benchmark
+    public int testJavaPriorityQueueFrontier(BenchmarkState state) {
+        // Without decreaseKey, a lowered priority is inserted again and stale entries are skipped
+        double[] current = state.priorities.clone();
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        for (int i = 0; i < state.numElements; i++) {
+            queue.add(new double[] { current[i], i });
+        }
+        for (int handle : state.decreases) {
+            current[handle] *= 0.5;
+            queue.add(new double[] { current[handle], handle });
+        }
+        int last = -1;
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            if (entry[0] == current[(int) entry[1]]) {
+                current[(int) entry[1]] = Double.NaN; // Settled
+                last = (int) entry[1];
+            }
+        }
+        return last;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
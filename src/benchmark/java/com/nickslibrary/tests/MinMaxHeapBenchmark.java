@@ -0,0 +1,125 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.heaps.MaxHeap;
+import com.nickslibrary.datastructures.heaps.MinHeap;
+import com.nickslibrary.datastructures.heaps.MinMaxHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MinMaxHeapBenchmark {
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        // A bounded buffer that evicts from alternating ends once full
+        int numElements = 1_000_000;
+        int capacity = 100_000;
+        Integer[] values;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            values = new Integer[numElements];
+            for (int i = 0; i < numElements; i++) {
+                values[i] = random.nextInt();
+            }
+        }
+    }
+
+    /**
+     * An element shared by the two heaps of the side-by-side baseline, marked
+     * when one heap removes it so the other skips it.
+     */
+    static class Entry implements Comparable<Entry> {
+        final int value;
+        boolean removed;
+
+        Entry(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Integer.compare(value, other.value);
+        }
+    }
+
+    @Benchmark
+    public long testCustomMinMaxHeap(BenchmarkState state) {
+        MinMaxHeap<Integer> heap = new MinMaxHeap<>(state.capacity + 1);
+        long sum = 0;
+        for (int i = 0; i < state.numElements; i++) {
+            heap.insert(state.values[i]);
+            if (heap.size() > state.capacity) {
+                sum += (i & 1) == 0 ? heap.extractMin() : heap.extractMax();
+            }
+        }
+        return sum + heap.peekMin() + heap.peekMax();
+    }
+
+    @Benchmark
+    public long testCustomMinAndMaxHeap(BenchmarkState state) {
+        MinHeap<Entry> minHeap = new MinHeap<>(state.capacity + 1);
+        MaxHeap<Entry> maxHeap = new MaxHeap<>(state.capacity + 1);
+        int size = 0;
+        long sum = 0;
+        for (int i = 0; i < state.numElements; i++) {
+            Entry entry = new Entry(state.values[i]);
+            minHeap.insert(entry);
+            maxHeap.insert(entry);
+            if (++size > state.capacity) {
+                Entry evicted;
+                if ((i & 1) == 0) {
+                    while (minHeap.peek().removed) {
+                        minHeap.extractMin();
+                    }
+                    evicted = minHeap.extractMin();
+                } else {
+                    while (maxHeap.peek().removed) {
+                        maxHeap.extractMax();
+                    }
+                    evicted = maxHeap.extractMax();
+                }
+                evicted.removed = true;
+                size--;
+                sum += evicted.value;
+            }
+        }
+        while (minHeap.peek().removed) {
+            minHeap.extractMin();
+        }
+        while (maxHeap.peek().removed) {
+            maxHeap.extractMax();
+        }
+        return sum + minHeap.peek().value + maxHeap.peek().value;
+    }
+
+    @Benchmark
+    public long testJavaTreeMap(BenchmarkState state) {
+        TreeMap<Integer, Integer> counts = new TreeMap<>();
+        int size = 0;
+        long sum = 0;
+        for (int i = 0; i < state.numElements; i++) {
+            counts.merge(state.values[i], 1, Integer::sum);
+            if (++size > state.capacity) {
+                int evicted = (i & 1) == 0 ? counts.firstKey() : counts.lastKey();
+                counts.computeIfPresent(evicted, (key, count) -> count == 1 ? null : count - 1);
+                size--;
+                sum += evicted;
+            }
+        }
+        return sum + counts.firstKey() + counts.lastKey();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
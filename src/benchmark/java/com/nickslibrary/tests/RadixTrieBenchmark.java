@@ -0,0 +1,84 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.trees.RadixTrie;
+import org.apache.commons.collections4.trie.PatriciaTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RadixTrieBenchmark {
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        RadixTrie customTrie;
+        PatriciaTrie<String> apacheTrie;
+        String[] routes;
+        int numElements = 100_000;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            customTrie = new RadixTrie();
+            apacheTrie = new PatriciaTrie<>();
+            routes = new String[numElements];
+
+            // URL-like paths sharing long prefixes
+            String[] services = { "users", "orders", "products", "payments", "search", "images" };
+            Random random = new Random(42);
+            for (int i = 0; i < numElements; i++) {
+                String route = "/api/v" + random.nextInt(3) + "/" + services[random.nextInt(services.length)]
+                        + "/" + random.nextInt(1_000_000) + (random.nextBoolean() ? "/details" : "");
+                routes[i] = route;
+                customTrie.add(route);
+                apacheTrie.put(route, route);
+            }
+        }
+
+        String nextRoute() {
+            next = (next + 1) % numElements;
+            return routes[next];
+        }
+    }
+
+    @Benchmark
+    public boolean testCustomTrieSearch(BenchmarkState state) {
+        return state.customTrie.search(state.nextRoute());
+    }
+
+    @Benchmark
+    public boolean testApacheTrieSearch(BenchmarkState state) {
+        return state.apacheTrie.containsKey(state.nextRoute());
+    }
+
+    @Benchmark
+    public boolean testCustomTrieHasPrefix(BenchmarkState state) {
+        return state.customTrie.hasPrefix("/api/v1/orders/5");
+    }
+
+    @Benchmark
+    public boolean testApacheTrieHasPrefix(BenchmarkState state) {
+        return !state.apacheTrie.prefixMap("/api/v1/orders/5").isEmpty();
+    }
+
+    @Benchmark
+    public boolean testCustomTrieInsert(BenchmarkState state) {
+        return state.customTrie.add(state.nextRoute());
+    }
+
+    @Benchmark
+    public String testApacheTrieInsert(BenchmarkState state) {
+        String route = state.nextRoute();
+        return state.apacheTrie.put(route, route);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
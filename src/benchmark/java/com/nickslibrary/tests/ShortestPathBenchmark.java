@@ -0,0 +1,216 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.heaps.FibonacciHeap;
+import com.nickslibrary.datastructures.heaps.IndexedLongMinHeap;
+import com.nickslibrary.datastructures.heaps.PairingHeap;
+import com.nickslibrary.datastructures.heaps.RadixHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ShortestPathBenchmark {
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        int numVertices = 100_000;
+        int edgesPerVertex = 8;
+        int maxWeight = 1000;
+
+        // The graph in compressed sparse row form: the edges of v are offsets[v]..offsets[v + 1]
+        int[] offsets;
+        int[] targets;
+        int[] weights;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            int numEdges = numVertices * edgesPerVertex;
+            offsets = new int[numVertices + 1];
+            targets = new int[numEdges];
+            weights = new int[numEdges];
+            for (int v = 0; v < numVertices; v++) {
+                offsets[v + 1] = offsets[v] + edgesPerVertex;
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    targets[e] = random.nextInt(numVertices);
+                    weights[e] = 1 + random.nextInt(maxWeight);
+                }
+            }
+        }
+    }
+
+    /**
+     * A tentative distance, ordered by distance and then vertex, for the
+     * comparison-based heaps.
+     */
+    static final class Entry implements Comparable<Entry> {
+        final long distance;
+        final int vertex;
+
+        Entry(long distance, int vertex) {
+            this.distance = distance;
+            this.vertex = vertex;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byDistance = Long.compare(distance, other.distance);
+            return byDistance != 0 ? byDistance : Integer.compare(vertex, other.vertex);
+        }
+    }
+
+    @Benchmark
+    public long testCustomFibonacciHeapDijkstra(BenchmarkState state) {
+        long[] dist = newDistances(state);
+        @SuppressWarnings("unchecked")
+        FibonacciHeap.Node<Entry>[] nodes = new FibonacciHeap.Node[state.numVertices];
+        FibonacciHeap<Entry> heap = new FibonacciHeap<>();
+        nodes[0] = heap.insert(new Entry(0, 0));
+        while (!heap.isEmpty()) {
+            Entry min = heap.extractMin();
+            int u = min.vertex;
+            for (int e = state.offsets[u]; e < state.offsets[u + 1]; e++) {
+                int v = state.targets[e];
+                long candidate = min.distance + state.weights[e];
+                if (candidate < dist[v]) {
+                    if (nodes[v] == null) {
+                        nodes[v] = heap.insert(new Entry(candidate, v));
+                    } else {
+                        heap.decreaseKey(nodes[v], new Entry(candidate, v));
+                    }
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum(dist);
+    }
+
+    @Benchmark
+    public long testCustomPairingHeapDijkstra(BenchmarkState state) {
+        long[] dist = newDistances(state);
+        @SuppressWarnings("unchecked")
+        PairingHeap.Node<Entry>[] nodes = new PairingHeap.Node[state.numVertices];
+        PairingHeap<Entry> heap = new PairingHeap<>();
+        nodes[0] = heap.insert(new Entry(0, 0));
+        while (!heap.isEmpty()) {
+            Entry min = heap.extractMin();
+            int u = min.vertex;
+            for (int e = state.offsets[u]; e < state.offsets[u + 1]; e++) {
+                int v = state.targets[e];
+                long candidate = min.distance + state.weights[e];
+                if (candidate < dist[v]) {
+                    if (nodes[v] == null) {
+                        nodes[v] = heap.insert(new Entry(candidate, v));
+                    } else {
+                        heap.decreaseKey(nodes[v], new Entry(candidate, v));
+                    }
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum(dist);
+    }
+
+    @Benchmark
+    public long testCustomRadixHeapDijkstra(BenchmarkState state) {
+        long[] dist = newDistances(state);
+        @SuppressWarnings("unchecked")
+        RadixHeap.Node<Integer>[] nodes = new RadixHeap.Node[state.numVertices];
+        RadixHeap<Integer> heap = new RadixHeap<>();
+        nodes[0] = heap.insert(0, 0);
+        while (!heap.isEmpty()) {
+            long distance = heap.peekMinKey();
+            int u = heap.extractMin();
+            for (int e = state.offsets[u]; e < state.offsets[u + 1]; e++) {
+                int v = state.targets[e];
+                long candidate = distance + state.weights[e];
+                if (candidate < dist[v]) {
+                    if (nodes[v] == null) {
+                        nodes[v] = heap.insert(candidate, v);
+                    } else {
+                        heap.decreaseKey(nodes[v], candidate);
+                    }
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum(dist);
+    }
+
+    @Benchmark
+    public long testCustomIndexedHeapDijkstra(BenchmarkState state) {
+        long[] dist = newDistances(state);
+        IndexedLongMinHeap heap = new IndexedLongMinHeap(state.numVertices);
+        heap.insert(0, 0);
+        while (!heap.isEmpty()) {
+            long distance = heap.peekMinPriority();
+            int u = heap.extractMin();
+            for (int e = state.offsets[u]; e < state.offsets[u + 1]; e++) {
+                int v = state.targets[e];
+                long candidate = distance + state.weights[e];
+                if (candidate < dist[v]) {
+                    if (heap.contains(v)) {
+                        heap.decreaseKey(v, candidate);
+                    } else {
+                        heap.insert(v, candidate);
+                    }
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return checksum(dist);
+    }
+
+    @Benchmark
+    public long testJavaPriorityQueueDijkstra(BenchmarkState state) {
+        // Without decreaseKey, an improved distance is inserted again and stale entries are skipped
+        long[] dist = newDistances(state);
+        PriorityQueue<Entry> queue = new PriorityQueue<>();
+        queue.add(new Entry(0, 0));
+        while (!queue.isEmpty()) {
+            Entry min = queue.poll();
+            int u = min.vertex;
+            if (min.distance > dist[u]) {
+                continue;
+            }
+            for (int e = state.offsets[u]; e < state.offsets[u + 1]; e++) {
+                int v = state.targets[e];
+                long candidate = min.distance + state.weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    queue.add(new Entry(candidate, v));
+                }
+            }
+        }
+        return checksum(dist);
+    }
+
+    private static long[] newDistances(BenchmarkState state) {
+        long[] dist = new long[state.numVertices];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[0] = 0;
+        return dist;
+    }
+
+    private static long checksum(long[] dist) {
+        long sum = 0;
+        for (long d : dist) {
+            if (d != Long.MAX_VALUE) {
+                sum += d;
+            }
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -15,16 +15,16 @@ public class SplayTreeBenchmark {
 
     @State(Scope.Thread)
     public static class BenchmarkState {
-        SplayTree customSplayTree;
+        SplayTree<Integer, Integer> customSplayTree;
         TreeMap<Integer, Integer> javaTreeMap;
 
         @Setup(Level.Trial)
         public void setUp() {
-            customSplayTree = new SplayTree();
+            customSplayTree = new SplayTree<>();
             javaTreeMap = new TreeMap<>();
 
             for (int i = 0; i < 1000; i++) {
-                customSplayTree.insert(i);
+                customSplayTree.put(i, i);
                 javaTreeMap.put(i, i);
             }
         }
@@ -32,7 +32,7 @@ public class SplayTreeBenchmark {
 
     @Benchmark
     public void testCustomSplayTreeInsert(BenchmarkState state) {
-        state.customSplayTree.insert(1001);
+        state.customSplayTree.put(1001, 1001);
     }
 
     @Benchmark
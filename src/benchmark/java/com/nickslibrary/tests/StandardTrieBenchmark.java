@@ -4,6 +4,7 @@ import com.nickslibrary.datastructures.trees.StandardTrie;
 import org.apache.commons.collections4.trie.PatriciaTrie;
 import org.openjdk.jmh.annotations.*;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @BenchmarkMode(Mode.AverageTime)
@@ -72,6 +73,21 @@ public class StandardTrieBenchmark {
         state.apacheTrie.prefixMap("word");
     }
 
+    @Benchmark
+    public List<String> testCustomTrieSuggest(BenchmarkState state) {
+        return state.customTrie.suggest("word5", 5);
+    }
+
+    @Benchmark
+    public List<String> testCustomTrieFuzzySearch(BenchmarkState state) {
+        return state.customTrie.fuzzySearch("wrod500", 2);
+    }
+
+    @Benchmark
+    public List<String> testCustomTrieFuzzySearchTopK(BenchmarkState state) {
+        return state.customTrie.fuzzySearch("wrod500", 2, 5);
+    }
+
     public static void main(String[] args) throws Exception {
         System.setProperty("jmh.ignoreLock", "true");
         org.openjdk.jmh.Main.main(args);
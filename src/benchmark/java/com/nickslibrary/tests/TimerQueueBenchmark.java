@@ -0,0 +1,151 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.heaps.CalendarQueue;
+import com.nickslibrary.datastructures.heaps.MinHeap;
+import com.nickslibrary.datastructures.heaps.TimingWheel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TimerQueueBenchmark {
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        // A server arming a request timeout per operation; most requests answer in time
+        int numOperations = 1_000_000;
+        int timeoutTicks = 30_000;
+        int opsPerTick = 32;
+        int cancelLag = 64; // A request is answered this many operations after it starts
+        long[] timeouts;
+        boolean[] answered;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            timeouts = new long[numOperations];
+            answered = new boolean[numOperations];
+            for (int i = 0; i < numOperations; i++) {
+                timeouts[i] = 1 + random.nextInt(timeoutTicks);
+                answered[i] = random.nextInt(10) != 0;
+            }
+        }
+    }
+
+    /**
+     * An event for the heap baselines, which cannot remove from the middle and
+     * so skip cancelled events when they reach the top.
+     */
+    static class Event implements Comparable<Event> {
+        final long deadline;
+        boolean cancelled;
+
+        Event(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            return Long.compare(deadline, other.deadline);
+        }
+    }
+
+    @Benchmark
+    public int testCustomTimingWheel(BenchmarkState state) {
+        TimingWheel<Integer> wheel = new TimingWheel<>();
+        @SuppressWarnings("unchecked")
+        TimingWheel.Timer<Integer>[] timers = new TimingWheel.Timer[state.numOperations];
+        int[] expired = new int[1];
+        for (int i = 0; i < state.numOperations; i++) {
+            timers[i] = wheel.schedule(wheel.currentTime() + state.timeouts[i], i);
+            int answered = i - state.cancelLag;
+            if (answered >= 0 && state.answered[answered]) {
+                wheel.cancel(timers[answered]);
+            }
+            if (i % state.opsPerTick == 0) {
+                wheel.advanceTo(wheel.currentTime() + 1, value -> expired[0]++);
+            }
+        }
+        return expired[0];
+    }
+
+    @Benchmark
+    public int testCustomCalendarQueue(BenchmarkState state) {
+        CalendarQueue<Integer> queue = new CalendarQueue<>();
+        @SuppressWarnings("unchecked")
+        CalendarQueue.Event<Integer>[] events = new CalendarQueue.Event[state.numOperations];
+        int[] expired = new int[1];
+        for (int i = 0; i < state.numOperations; i++) {
+            events[i] = queue.schedule(queue.currentTime() + state.timeouts[i], i);
+            int answered = i - state.cancelLag;
+            if (answered >= 0 && state.answered[answered]) {
+                queue.cancel(events[answered]);
+            }
+            if (i % state.opsPerTick == 0) {
+                queue.advanceTo(queue.currentTime() + 1, value -> expired[0]++);
+            }
+        }
+        return expired[0];
+    }
+
+    @Benchmark
+    public int testCustomMinHeap(BenchmarkState state) {
+        MinHeap<Event> heap = new MinHeap<>(16);
+        Event[] events = new Event[state.numOperations];
+        long now = 0;
+        int expired = 0;
+        for (int i = 0; i < state.numOperations; i++) {
+            events[i] = new Event(now + state.timeouts[i]);
+            heap.insert(events[i]);
+            int answered = i - state.cancelLag;
+            if (answered >= 0 && state.answered[answered]) {
+                events[answered].cancelled = true;
+            }
+            if (i % state.opsPerTick == 0) {
+                now++;
+                while (!heap.isEmpty() && heap.peek().deadline <= now) {
+                    if (!heap.extractMin().cancelled) {
+                        expired++;
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    @Benchmark
+    public int testJavaPriorityQueue(BenchmarkState state) {
+        PriorityQueue<Event> queue = new PriorityQueue<>();
+        Event[] events = new Event[state.numOperations];
+        long now = 0;
+        int expired = 0;
+        for (int i = 0; i < state.numOperations; i++) {
+            events[i] = new Event(now + state.timeouts[i]);
+            queue.add(events[i]);
+            int answered = i - state.cancelLag;
+            if (answered >= 0 && state.answered[answered]) {
+                events[answered].cancelled = true;
+            }
+            if (i % state.opsPerTick == 0) {
+                now++;
+                while (!queue.isEmpty() && queue.peek().deadline <= now) {
+                    if (!queue.poll().cancelled) {
+                        expired++;
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
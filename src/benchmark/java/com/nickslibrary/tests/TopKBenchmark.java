@@ -0,0 +1,88 @@
+package com.nickslibrary;
+
+import com.nickslibrary.datastructures.heaps.DoubleTopK;
+import com.nickslibrary.datastructures.heaps.MaxHeap;
+import com.nickslibrary.datastructures.heaps.Selection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TopKBenchmark {
+
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        int numElements = 1_000_000;
+        int k = 1000;
+        double[] scores;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            scores = new double[numElements];
+            for (int i = 0; i < numElements; i++) {
+                scores[i] = random.nextDouble();
+            }
+        }
+    }
+
+    @Benchmark
+    public double testCustomDoubleTopK(BenchmarkState state) {
+        DoubleTopK topK = new DoubleTopK(state.k);
+        topK.offerAll(state.scores);
+        return topK.peekMinScore();
+    }
+
+    @Benchmark
+    public double testCustomMaxHeapTopK(BenchmarkState state) {
+        // The unbounded approach: keep every score, then extract the best K
+        MaxHeap<Double> heap = new MaxHeap<>(16);
+        for (double score : state.scores) {
+            heap.insert(score);
+        }
+        double last = 0;
+        for (int i = 0; i < state.k; i++) {
+            last = heap.extractMax();
+        }
+        return last;
+    }
+
+    @Benchmark
+    public double testCustomNthElement(BenchmarkState state) {
+        double[] copy = state.scores.clone();
+        return Selection.nthElement(copy, copy.length - state.k);
+    }
+
+    @Benchmark
+    public double testJavaPriorityQueueTopK(BenchmarkState state) {
+        PriorityQueue<Double> queue = new PriorityQueue<>(state.k);
+        for (double score : state.scores) {
+            if (queue.size() < state.k) {
+                queue.add(score);
+            } else if (score > queue.peek()) {
+                queue.poll();
+                queue.add(score);
+            }
+        }
+        return queue.peek();
+    }
+
+    @Benchmark
+    public double testJavaSortTopK(BenchmarkState state) {
+        double[] copy = state.scores.clone();
+        Arrays.sort(copy);
+        return copy[copy.length - state.k];
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.ignoreLock", "true");
+        org.openjdk.jmh.Main.main(args);
+    }
+}
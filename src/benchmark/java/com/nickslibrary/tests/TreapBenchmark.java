@@ -15,12 +15,12 @@ public class TreapBenchmark {
 
     @State(Scope.Thread)
     public static class BenchmarkState {
-        Treap customTreap;
+        Treap<Integer> customTreap;
         TreeMap<Integer, Integer> javaTreeMap;
 
         @Setup(Level.Trial)
         public void setUp() {
-            customTreap = new Treap();
+            customTreap = new Treap<>();
             javaTreeMap = new TreeMap<>();
 
             for (int i = 0; i < 1000; i++) {
@@ -0,0 +1,498 @@
+package com.nickslibrary.datastructures.advanced;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, sorted key-value SkipList that can be shared between threads.
+ *
+ * Every tower is linked with {@link AtomicMarkableReference}s. A node is
+ * removed by first marking its links (logical deletion) and then unlinking it
+ * with CAS (physical deletion), which any traversing thread may help finish.
+ * Before any of that, the remover takes the value out with a CAS to null, and
+ * replacing a value is a CAS from the old value to the new one, so a put and a
+ * remove racing on the same key settle on a single winner. Values therefore
+ * cannot be null. A put that meets a node whose value is gone but whose links
+ * are not yet marked marks them itself and inserts a fresh node, rather than
+ * waiting for the remover.
+ * Levels are drawn from {@link ThreadLocalRandom}, and the level searches start
+ * from grows with the list instead of always starting at a fixed maximum.
+ *
+ * Iteration is weakly consistent: it never throws
+ * {@link java.util.ConcurrentModificationException} and reflects some of the
+ * updates made after it was created.
+ *
+ * @param <K> The type of keys, which must be comparable.
+ * @param <V> The type of values.
+ */
+public class ConcurrentSkipList<K extends Comparable<K>, V> implements Iterable<Map.Entry<K, V>> {
+
+    private static final int MAX_LEVEL = 32;
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Node.class, "value", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Node<K, V> head;
+    private final AtomicInteger topLevel;
+    private final LongAdder size;
+
+    /**
+     * Constructs an empty ConcurrentSkipList.
+     */
+    public ConcurrentSkipList() {
+        head = new Node<>(null, null, MAX_LEVEL);
+        topLevel = new AtomicInteger(0);
+        size = new LongAdder();
+    }
+
+    /**
+     * Associates the value with the key, replacing any existing mapping.
+     *
+     * @param key   The key to insert.
+     * @param value The value to associate with the key.
+     * @return The previous value for the key, or null if there was none.
+     * @throws IllegalArgumentException if the key or the value is null.
+     */
+    public V put(K key, V value) {
+        if (key == null)
+            throw new IllegalArgumentException("argument key to put() is null");
+        if (value == null)
+            throw new IllegalArgumentException("argument value to put() is null");
+
+        int level = randomLevel();
+        raiseTopLevel(level);
+
+        @SuppressWarnings("unchecked")
+        Node<K, V>[] preds = (Node<K, V>[]) new Node[MAX_LEVEL + 1];
+        @SuppressWarnings("unchecked")
+        Node<K, V>[] succs = (Node<K, V>[]) new Node[MAX_LEVEL + 1];
+
+        while (true) {
+            if (find(key, preds, succs)) {
+                Node<K, V> existing = succs[0];
+                Object old = existing.value;
+                if (old == null) {
+                    // A remove has taken the value but may not have marked the node yet; finish that
+                    // for it, so the retry's find() unlinks the node and a fresh one is inserted
+                    markTower(existing);
+                    continue;
+                }
+                if (VALUE.compareAndSet(existing, old, value)) {
+                    @SuppressWarnings("unchecked")
+                    V previous = (V) old;
+                    return previous;
+                }
+                continue;
+            }
+
+            Node<K, V> newNode = new Node<>(key, value, level);
+            for (int i = 0; i <= level; i++) {
+                newNode.next[i].set(succs[i], false);
+            }
+
+            // Linking the bottom level is the linearization point of the insert
+            if (!preds[0].next[0].compareAndSet(succs[0], newNode, false, false)) {
+                continue;
+            }
+            size.increment();
+
+            // Link the remaining levels, refreshing preds/succs whenever a CAS loses
+            for (int i = 1; i <= level; i++) {
+                while (true) {
+                    Node<K, V> succ = succs[i];
+                    Node<K, V> current = newNode.next[i].getReference();
+                    if (current != succ && !newNode.next[i].compareAndSet(current, succ, false, false)) {
+                        // The new node was marked by a concurrent remove, stop building the tower
+                        return null;
+                    }
+                    if (preds[i].next[i].compareAndSet(succ, newNode, false, false)) {
+                        break;
+                    }
+                    find(key, preds, succs);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * This never modifies the list, so readers do not contend with each other.
+     *
+     * @param key The key to look up.
+     * @return The associated value, or null if the key is not present.
+     */
+    public V get(K key) {
+        if (key == null)
+            throw new IllegalArgumentException("argument to get() is null");
+        Node<K, V> node = ceilingNode(key);
+        if (node != null && node.key.compareTo(key) == 0) {
+            return node.value;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the key is present.
+     *
+     * @param key The key to look up.
+     * @return True if the key is present, false otherwise.
+     */
+    public boolean containsKey(K key) {
+        if (key == null)
+            throw new IllegalArgumentException("argument to containsKey() is null");
+        Node<K, V> node = ceilingNode(key);
+        return node != null && node.key.compareTo(key) == 0 && node.value != null;
+    }
+
+    /**
+     * Removes the mapping for the key.
+     *
+     * @param key The key to remove.
+     * @return The removed value, or null if the key was not present.
+     */
+    public V remove(K key) {
+        if (key == null)
+            throw new IllegalArgumentException("argument to remove() is null");
+
+        @SuppressWarnings("unchecked")
+        Node<K, V>[] preds = (Node<K, V>[]) new Node[MAX_LEVEL + 1];
+        @SuppressWarnings("unchecked")
+        Node<K, V>[] succs = (Node<K, V>[]) new Node[MAX_LEVEL + 1];
+
+        if (!find(key, preds, succs)) {
+            return null;
+        }
+        Node<K, V> victim = succs[0];
+
+        // Taking the value out is the linearization point; it races with puts replacing it
+        Object taken;
+        do {
+            taken = victim.value;
+            if (taken == null) {
+                return null; // Another remove got there first
+            }
+        } while (!VALUE.compareAndSet(victim, taken, null));
+
+        size.decrement();
+        markTower(victim);
+        // Physically unlink the victim
+        find(key, preds, succs);
+        @SuppressWarnings("unchecked")
+        V removed = (V) taken;
+        return removed;
+    }
+
+    /**
+     * Marks every link of a node whose value has been taken, top level first so
+     * no new links are made through it. A put that finds the node before its
+     * remover has marked it calls this too, so neither waits for the other.
+     *
+     * @param node The node being removed.
+     */
+    private void markTower(Node<K, V> node) {
+        boolean[] marked = { false };
+        for (int i = node.level; i >= 0; i--) {
+            Node<K, V> succ = node.next[i].get(marked);
+            while (!marked[0]) {
+                node.next[i].compareAndSet(succ, succ, false, true);
+                succ = node.next[i].get(marked);
+            }
+        }
+    }
+
+    /**
+     * Returns the smallest key in the list.
+     *
+     * @return The smallest key, or null if the list is empty.
+     */
+    public K firstKey() {
+        Node<K, V> node = firstNode();
+        return node == null ? null : node.key;
+    }
+
+    /**
+     * Returns the number of mappings in the list.
+     *
+     * The count is exact when the list is quiescent and an estimate while it is
+     * being modified.
+     *
+     * @return The number of mappings in the list.
+     */
+    public int size() {
+        long count = size.sum();
+        return count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max(0, count);
+    }
+
+    /**
+     * Checks if the list is empty.
+     *
+     * @return True if the list is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return firstNode() == null;
+    }
+
+    /**
+     * Returns an iterator over all mappings in ascending key order.
+     *
+     * @return An iterator over the mappings.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new RangeIterator(firstNode(), null);
+    }
+
+    /**
+     * Returns an iterator over the mappings whose keys lie in
+     * [fromKey, toKey), in ascending key order.
+     *
+     * @param fromKey The lowest key to include, or null for no lower bound.
+     * @param toKey   The key to stop before, or null for no upper bound.
+     * @return An iterator over the mappings in the range.
+     */
+    public Iterator<Map.Entry<K, V>> range(K fromKey, K toKey) {
+        Node<K, V> start = fromKey == null ? firstNode() : ceilingNode(fromKey);
+        return new RangeIterator(start, toKey);
+    }
+
+    /**
+     * Finds the predecessors and successors of the key on every level up to the
+     * current top level, unlinking any marked nodes it passes.
+     *
+     * @param key   The key to search for.
+     * @param preds Filled with the last node before the key on each level.
+     * @param succs Filled with the first node at or after the key on each level.
+     * @return True if an unmarked node with the key was found.
+     */
+    private boolean find(K key, Node<K, V>[] preds, Node<K, V>[] succs) {
+        boolean[] marked = { false };
+        retry: while (true) {
+            Node<K, V> pred = head;
+            Node<K, V> current = null;
+            int top = topLevel.get();
+
+            for (int i = MAX_LEVEL; i > top; i--) {
+                preds[i] = head;
+                succs[i] = null;
+            }
+
+            for (int i = top; i >= 0; i--) {
+                current = pred.next[i].getReference();
+                while (current != null) {
+                    Node<K, V> succ = current.next[i].get(marked);
+                    // Help unlink nodes that have been logically deleted
+                    while (marked[0]) {
+                        if (!pred.next[i].compareAndSet(current, succ, false, false)) {
+                            continue retry;
+                        }
+                        current = succ;
+                        if (current == null) {
+                            break;
+                        }
+                        succ = current.next[i].get(marked);
+                    }
+                    if (current == null || current.key.compareTo(key) >= 0) {
+                        break;
+                    }
+                    pred = current;
+                    current = succ;
+                }
+                preds[i] = pred;
+                succs[i] = current;
+            }
+            return current != null && current.key.compareTo(key) == 0;
+        }
+    }
+
+    /**
+     * Returns the first unmarked node whose key is at least the given key,
+     * without modifying any links.
+     *
+     * @param key The key to search for.
+     * @return The node, or null if every key is smaller.
+     */
+    private Node<K, V> ceilingNode(K key) {
+        boolean[] marked = { false };
+        Node<K, V> pred = head;
+        Node<K, V> current = null;
+
+        for (int i = topLevel.get(); i >= 0; i--) {
+            current = pred.next[i].getReference();
+            while (current != null) {
+                Node<K, V> succ = current.next[i].get(marked);
+                // Skip over logically deleted nodes instead of unlinking them
+                while (marked[0]) {
+                    current = succ;
+                    if (current == null) {
+                        break;
+                    }
+                    succ = current.next[i].get(marked);
+                }
+                if (current == null || current.key.compareTo(key) >= 0) {
+                    break;
+                }
+                pred = current;
+                current = succ;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns the first unmarked node on the bottom level.
+     *
+     * @return The first node, or null if the list is empty.
+     */
+    private Node<K, V> firstNode() {
+        return nextLive(head.next[0].getReference());
+    }
+
+    /**
+     * Returns the given node or the first node after it on the bottom level
+     * that is neither marked nor claimed by a remove.
+     *
+     * @param node The node to start from.
+     * @return The first live node, or null if there is none.
+     */
+    private Node<K, V> nextLive(Node<K, V> node) {
+        while (node != null && (node.next[0].isMarked() || node.value == null)) {
+            node = node.next[0].getReference();
+        }
+        return node;
+    }
+
+    /**
+     * Generates a random level for a new node. Each level is reached with
+     * probability 1/2, and a node may be at most one level taller than the
+     * current top, so the height grows with the list.
+     *
+     * @return The random level.
+     */
+    private int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        int level = Integer.numberOfTrailingZeros(~bits);
+        return Math.min(level, Math.min(topLevel.get() + 1, MAX_LEVEL));
+    }
+
+    /**
+     * Raises the level that searches start from to at least the given level.
+     *
+     * @param level The level of a node about to be inserted.
+     */
+    private void raiseTopLevel(int level) {
+        int top = topLevel.get();
+        while (level > top && !topLevel.compareAndSet(top, level)) {
+            top = topLevel.get();
+        }
+    }
+
+    /**
+     * Weakly consistent iterator over a key range on the bottom level.
+     */
+    private class RangeIterator implements Iterator<Map.Entry<K, V>> {
+        private Node<K, V> nextNode;
+        private V nextValue; // Read when nextNode was found, so a later remove cannot null it
+        private final K toKey;
+
+        /**
+         * Constructs an iterator starting at the given node.
+         *
+         * @param start The first node to consider.
+         * @param toKey The exclusive upper bound, or null for none.
+         */
+        RangeIterator(Node<K, V> start, K toKey) {
+            this.toKey = toKey;
+            advance(start);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<>(nextNode.key, nextValue);
+            advance(nextNode.next[0].getReference());
+            return entry;
+        }
+
+        /**
+         * Moves to the first live node from the given one that still has a
+         * value when it is read.
+         */
+        private void advance(Node<K, V> node) {
+            while (true) {
+                nextNode = bounded(nextLive(node));
+                if (nextNode == null) {
+                    return;
+                }
+                nextValue = nextNode.value;
+                if (nextValue != null) {
+                    return;
+                }
+                node = nextNode.next[0].getReference();
+            }
+        }
+
+        /**
+         * Returns the node if it is below the upper bound, or null otherwise.
+         */
+        private Node<K, V> bounded(Node<K, V> node) {
+            if (node != null && toKey != null && node.key.compareTo(toKey) >= 0) {
+                return null;
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Node class for ConcurrentSkipList.
+     *
+     * @param <K> The type of the key.
+     * @param <V> The type of the value.
+     */
+    private static class Node<K, V> {
+        private final K key;
+        private volatile V value;
+        private final int level;
+        private final AtomicMarkableReference<Node<K, V>>[] next;
+
+        /**
+         * Constructs a new node with the specified key, value and level.
+         *
+         * @param key   The key to store in the node.
+         * @param value The value to store in the node.
+         * @param level The level of the node.
+         */
+        @SuppressWarnings("unchecked")
+        public Node(K key, V value, int level) {
+            this.key = key;
+            this.value = value;
+            this.level = level;
+            this.next = new AtomicMarkableReference[level + 1];
+            for (int i = 0; i <= level; i++) {
+                next[i] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+    }
+}
@@ -1,99 +1,153 @@
 package com.nickslibrary.datastructures.advanced;
 
-public class SplayTree {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
 
-    private static class Node {
-        int key;
-        Node left, right;
+/**
+ * A self-adjusting binary search tree mapping keys to values.
+ *
+ * Every access splays the accessed key to the root, so recently and frequently
+ * used keys stay near the top. Splaying is top-down: the search path is split
+ * into a left and a right tree while descending and they are reassembled around
+ * the found node, in a single pass and without parent pointers.
+ *
+ * The tree counts the depth reached and the rotations performed by every
+ * splay, which shows how well it is adapting to the access pattern: under a
+ * skewed workload the average splay depth stays far below log2(n).
+ *
+ * @param <K> The type of keys, which must be comparable.
+ * @param <V> The type of values.
+ */
+public class SplayTree<K extends Comparable<K>, V> {
 
-        Node(int key) {
+    private static class Node<K, V> {
+        K key;
+        V value;
+        Node<K, V> left, right;
+
+        Node(K key, V value) {
             this.key = key;
+            this.value = value;
             this.left = this.right = null;
         }
     }
 
-    private Node root;
+    // Scratch node collecting the left and right trees during a splay
+    private final Node<K, V> header = new Node<>(null, null);
+    private Node<K, V> root;
+
+    private int lastSplayDepth;
+    private int lastRotations;
+    private long splayCount;
+    private long totalSplayDepth;
+    private long totalRotations;
 
     public SplayTree() {
         root = null;
     }
 
-    // Right rotation
-    private Node rotateRight(Node x) {
-        Node y = x.left;
-        x.left = y.right;
-        y.right = x;
-        return y;
-    }
-
-    // Left rotation
-    private Node rotateLeft(Node x) {
-        Node y = x.right;
-        x.right = y.left;
-        y.left = x;
-        return y;
-    }
-
-    // Splay operation
-    private Node splay(Node root, int key) {
-        if (root == null || root.key == key) {
-            return root;
+    // Top-down splay: brings the key, or the last node on its search path, to the root
+    private Node<K, V> splay(Node<K, V> t, K key) {
+        if (t == null) {
+            return null;
         }
 
-        // Key lies in left subtree
-        if (key < root.key) {
-            if (root.left == null) {
-                return root;
-            }
+        Node<K, V> l = header;
+        Node<K, V> r = header;
+        header.left = header.right = null;
+        int depth = 0;
+        int rotations = 0;
 
-            // Zig-Zig (Left Left)
-            if (key < root.left.key) {
-                root.left.left = splay(root.left.left, key);
-                root = rotateRight(root);
-            } else if (key > root.left.key) { // Zig-Zag (Left Right)
-                root.left.right = splay(root.left.right, key);
-                if (root.left.right != null) {
-                    root.left = rotateLeft(root.left);
+        while (true) {
+            int cmp = key.compareTo(t.key);
+            if (cmp < 0) {
+                if (t.left == null) {
+                    break;
                 }
-            }
-
-            return (root.left == null) ? root : rotateRight(root);
-        } else { // Key lies in right subtree
-            if (root.right == null) {
-                return root;
-            }
-
-            // Zag-Zig (Right Left)
-            if (key < root.right.key) {
-                root.right.left = splay(root.right.left, key);
-                if (root.right.left != null) {
-                    root.right = rotateRight(root.right);
+                // Zig-Zig: rotate right before linking
+                if (key.compareTo(t.left.key) < 0) {
+                    Node<K, V> y = t.left;
+                    t.left = y.right;
+                    y.right = t;
+                    t = y;
+                    rotations++;
+                    depth++;
+                    if (t.left == null) {
+                        break;
+                    }
                 }
-            } else if (key > root.right.key) { // Zag-Zag (Right Right)
-                root.right.right = splay(root.right.right, key);
-                root = rotateLeft(root);
+                // Link right
+                r.left = t;
+                r = t;
+                t = t.left;
+                depth++;
+            } else if (cmp > 0) {
+                if (t.right == null) {
+                    break;
+                }
+                // Zag-Zag: rotate left before linking
+                if (key.compareTo(t.right.key) > 0) {
+                    Node<K, V> y = t.right;
+                    t.right = y.left;
+                    y.left = t;
+                    t = y;
+                    rotations++;
+                    depth++;
+                    if (t.right == null) {
+                        break;
+                    }
+                }
+                // Link left
+                l.right = t;
+                l = t;
+                t = t.right;
+                depth++;
+            } else {
+                break;
             }
-
-            return (root.right == null) ? root : rotateLeft(root);
         }
+
+        // Reassemble
+        l.right = t.left;
+        r.left = t.right;
+        t.left = header.right;
+        t.right = header.left;
+        header.left = header.right = null;
+
+        lastSplayDepth = depth;
+        lastRotations = rotations;
+        splayCount++;
+        totalSplayDepth += depth;
+        totalRotations += rotations;
+        return t;
     }
 
-    // Insert a new key
-    public void insert(int key) {
+    /**
+     * Associates the value with the key, replacing any existing value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value, or null if the key was not present
+     */
+    public V put(K key, V value) {
         if (root == null) {
-            root = new Node(key);
-            return;
+            root = new Node<>(key, value);
+            return null;
         }
 
         root = splay(root, key);
 
-        if (root.key == key) {
-            return;
+        int cmp = key.compareTo(root.key);
+        if (cmp == 0) {
+            V old = root.value;
+            root.value = value;
+            return old;
         }
 
-        Node newNode = new Node(key);
+        Node<K, V> newNode = new Node<>(key, value);
 
-        if (key < root.key) {
+        if (cmp < 0) {
             newNode.right = root;
             newNode.left = root.left;
             root.left = null;
@@ -104,46 +158,236 @@ public class SplayTree {
         }
 
         root = newNode;
+        return null;
+    }
+
+    /**
+     * Returns the value for the key, splaying it to the root.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not present
+     */
+    public V get(K key) {
+        root = splay(root, key);
+        return root != null && root.key.compareTo(key) == 0 ? root.value : null;
     }
 
-    // Delete a key
-    public void delete(int key) {
+    // Search for a key
+    public boolean search(K key) {
+        root = splay(root, key);
+        return root != null && root.key.compareTo(key) == 0;
+    }
+
+    /**
+     * Removes the key.
+     *
+     * @param key the key
+     * @return the removed value, or null if the key was not present
+     */
+    public V delete(K key) {
         if (root == null) {
-            return;
+            return null;
         }
 
         root = splay(root, key);
 
-        if (root.key != key) {
-            return;
+        if (root.key.compareTo(key) != 0) {
+            return null;
         }
 
+        V removed = root.value;
         if (root.left == null) {
             root = root.right;
         } else {
-            Node temp = root.right;
-            root = root.left;
-            splay(root, key);
+            // Every key on the left is smaller, so splaying brings its maximum up with no right child
+            Node<K, V> temp = root.right;
+            root = splay(root.left, key);
             root.right = temp;
         }
+        return removed;
     }
 
-    // Search for a key
-    public boolean search(int key) {
+    /**
+     * Returns the greatest key less than or equal to the given key.
+     *
+     * @param key the key
+     * @return the floor key, or null if there is none
+     */
+    public K floor(K key) {
         root = splay(root, key);
-        return root != null && root.key == key;
+        if (root == null) {
+            return null;
+        }
+        if (root.key.compareTo(key) <= 0) {
+            return root.key;
+        }
+        if (root.left == null) {
+            return null;
+        }
+        root = splay(root, max(root.left).key);
+        return root.key;
+    }
+
+    /**
+     * Returns the smallest key greater than or equal to the given key.
+     *
+     * @param key the key
+     * @return the ceiling key, or null if there is none
+     */
+    public K ceiling(K key) {
+        root = splay(root, key);
+        if (root == null) {
+            return null;
+        }
+        if (root.key.compareTo(key) >= 0) {
+            return root.key;
+        }
+        if (root.right == null) {
+            return null;
+        }
+        root = splay(root, min(root.right).key);
+        return root.key;
+    }
+
+    /**
+     * Removes every key greater than or equal to the given key and returns them
+     * as a new tree.
+     *
+     * @param key the key to split at
+     * @return a tree with the keys that are at least the given key
+     */
+    public SplayTree<K, V> split(K key) {
+        SplayTree<K, V> upper = new SplayTree<>();
+        root = splay(root, key);
+        if (root == null) {
+            return upper;
+        }
+        if (root.key.compareTo(key) < 0) {
+            upper.root = root.right;
+            root.right = null;
+        } else {
+            upper.root = root;
+            root = root.left;
+            upper.root.left = null;
+        }
+        return upper;
+    }
+
+    /**
+     * Moves every key of the other tree into this one. All keys of this tree
+     * must be smaller than all keys of the other, as after {@link #split}.
+     *
+     * @param other the tree to append; it is left empty
+     */
+    public void join(SplayTree<K, V> other) {
+        if (other.root == null) {
+            return;
+        }
+        if (root == null) {
+            root = other.root;
+            other.root = null;
+            return;
+        }
+        root = splay(root, max(root).key);
+        if (root.key.compareTo(min(other.root).key) >= 0) {
+            throw new IllegalArgumentException("all keys of this tree must be smaller than the other's");
+        }
+        // The maximum is now the root, so it has no right child
+        root.right = other.root;
+        other.root = null;
+    }
+
+    public boolean isEmpty() {
+        return root == null;
     }
 
     // In-order traversal
-    public void inorder() {
-        inorder(root);
+    public void inorder(BiConsumer<K, V> consumer) {
+        inorder(root, consumer);
     }
 
-    private void inorder(Node root) {
+    private void inorder(Node<K, V> root, BiConsumer<K, V> consumer) {
         if (root != null) {
-            inorder(root.left);
-            System.out.print(root.key + " ");
-            inorder(root.right);
+            inorder(root.left, consumer);
+            consumer.accept(root.key, root.value);
+            inorder(root.right, consumer);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the keys in ascending order.
+     *
+     * @return a list of the keys in in-order sequence
+     */
+    public List<K> inOrderTraversal() {
+        List<K> result = new ArrayList<>();
+        inorder((key, value) -> result.add(key));
+        return result;
+    }
+
+    private static <K, V> Node<K, V> min(Node<K, V> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static <K, V> Node<K, V> max(Node<K, V> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    // Access statistics
+
+    /**
+     * Returns how many links the most recent splay descended.
+     *
+     * @return the depth of the most recent splay
+     */
+    public int getLastSplayDepth() {
+        return lastSplayDepth;
+    }
+
+    /**
+     * Returns how many rotations the most recent splay performed.
+     *
+     * @return the rotations of the most recent splay
+     */
+    public int getLastRotations() {
+        return lastRotations;
+    }
+
+    public long getSplayCount() {
+        return splayCount;
+    }
+
+    public long getTotalSplayDepth() {
+        return totalSplayDepth;
+    }
+
+    public long getTotalRotations() {
+        return totalRotations;
+    }
+
+    /**
+     * Returns the mean depth of all splays since the statistics were last reset.
+     *
+     * @return the average splay depth, or 0 if nothing was splayed
+     */
+    public double getAverageSplayDepth() {
+        return splayCount == 0 ? 0 : (double) totalSplayDepth / splayCount;
+    }
+
+    /**
+     * Clears the access statistics.
+     */
+    public void resetStatistics() {
+        lastSplayDepth = 0;
+        lastRotations = 0;
+        splayCount = 0;
+        totalSplayDepth = 0;
+        totalRotations = 0;
+    }
+}
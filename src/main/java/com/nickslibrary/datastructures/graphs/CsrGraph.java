@@ -0,0 +1,334 @@
+package com.nickslibrary.datastructures.graphs;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable graph in compressed sparse row (CSR) form.
+ *
+ * The neighbors of every vertex are stored back to back in one int array,
+ * targets, and vertex v's neighbors are targets[offsets[v]] up to, but not
+ * including, targets[offsets[v + 1]]. Each run is sorted, so
+ * {@link #hasEdge(int, int)} is a binary search, and iterating over
+ * neighbors reads a contiguous slice of the array without copying or boxing.
+ * Edge weights, if any, sit in a parallel float array.
+ *
+ * An adjacency entry costs 4 bytes, plus 4 for a weight, against a linked-list
+ * node and a boxed Integer, about 40 bytes, in a {@link GraphAdjList}. An
+ * undirected edge is stored as two entries, one in each direction. The total
+ * number of entries must fit in an int, so up to about a billion undirected
+ * edges.
+ *
+ * Instances are created with {@link GraphAdjList#freeze()}, or with a
+ * {@link Builder} for graphs too large to build as a GraphAdjList first.
+ */
+public class CsrGraph {
+    private static final int MAX_ENTRIES = Integer.MAX_VALUE - 8; // Largest array the JVM reliably allocates
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final float[] weights; // Null if the graph is unweighted
+    private final boolean directed;
+
+    /**
+     * Wraps CSR arrays whose neighbor runs are already sorted.
+     */
+    CsrGraph(int[] offsets, int[] targets, float[] weights, boolean directed) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.directed = directed;
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return The number of vertices.
+     */
+    public int numVertices() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the number of adjacency entries, in which an undirected edge
+     * counts twice.
+     *
+     * @return The length of the targets array.
+     */
+    public int numEntries() {
+        return targets.length;
+    }
+
+    /**
+     * Checks whether each edge was stored in one direction only.
+     *
+     * @return True if the graph is directed, false otherwise.
+     */
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Checks whether the graph has edge weights.
+     *
+     * @return True if the graph is weighted, false otherwise.
+     */
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * Returns the number of neighbors of a vertex, counting repeated edges.
+     *
+     * @param vertex The vertex.
+     * @return The out-degree of the vertex.
+     */
+    public int degree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    /**
+     * Checks if there is an edge from src to dest in O(log degree).
+     *
+     * @param src  The source vertex.
+     * @param dest The destination vertex.
+     * @return True if the edge exists, false otherwise.
+     */
+    public boolean hasEdge(int src, int dest) {
+        return Arrays.binarySearch(targets, offsets[src], offsets[src + 1], dest) >= 0;
+    }
+
+    /**
+     * Returns the weight of the edge from src to dest. If the edge was added
+     * more than once, the weight of any one of the copies is returned.
+     *
+     * @param src  The source vertex.
+     * @param dest The destination vertex.
+     * @return The weight of the edge.
+     * @throws IllegalStateException    if the graph is unweighted.
+     * @throws IllegalArgumentException if there is no such edge.
+     */
+    public float getWeight(int src, int dest) {
+        if (weights == null) {
+            throw new IllegalStateException("Graph is unweighted.");
+        }
+        int index = Arrays.binarySearch(targets, offsets[src], offsets[src + 1], dest);
+        if (index < 0) {
+            throw new IllegalArgumentException("No edge from " + src + " to " + dest + ".");
+        }
+        return weights[index];
+    }
+
+    /**
+     * Runs an action for every neighbor of a vertex, in ascending order.
+     *
+     * @param vertex The vertex.
+     * @param action The action to run for each neighbor.
+     */
+    public void forEachNeighbor(int vertex, IntConsumer action) {
+        for (int i = offsets[vertex], end = offsets[vertex + 1]; i < end; i++) {
+            action.accept(targets[i]);
+        }
+    }
+
+    /**
+     * Returns the offsets array, of length numVertices() + 1, for loops that
+     * walk the arrays directly. It must not be modified.
+     *
+     * @return The offsets array, not a copy.
+     */
+    public int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * Returns the targets array; vertex v's neighbors are at indices
+     * offsets()[v] to offsets()[v + 1] - 1. It must not be modified.
+     *
+     * @return The targets array, not a copy.
+     */
+    public int[] targets() {
+        return targets;
+    }
+
+    /**
+     * Returns the weights array, parallel to the targets array. It must not
+     * be modified.
+     *
+     * @return The weights array, not a copy, or null if the graph is
+     *         unweighted.
+     */
+    public float[] weights() {
+        return weights;
+    }
+
+    /**
+     * Sorts each vertex's run of targets, carrying the weights along.
+     */
+    static void sortRuns(int[] offsets, int[] targets, float[] weights) {
+        int vertices = offsets.length - 1;
+        if (weights == null) {
+            for (int v = 0; v < vertices; v++) {
+                Arrays.sort(targets, offsets[v], offsets[v + 1]);
+            }
+            return;
+        }
+
+        int maxDegree = 0;
+        for (int v = 0; v < vertices; v++) {
+            maxDegree = Math.max(maxDegree, offsets[v + 1] - offsets[v]);
+        }
+        // Pack each (target, weight) pair into a long so one primitive sort orders both
+        long[] pairs = new long[maxDegree];
+        for (int v = 0; v < vertices; v++) {
+            int from = offsets[v];
+            int degree = offsets[v + 1] - from;
+            for (int i = 0; i < degree; i++) {
+                pairs[i] = (long) targets[from + i] << 32 | Float.floatToRawIntBits(weights[from + i]) & 0xFFFFFFFFL;
+            }
+            Arrays.sort(pairs, 0, degree);
+            for (int i = 0; i < degree; i++) {
+                targets[from + i] = (int) (pairs[i] >>> 32);
+                weights[from + i] = Float.intBitsToFloat((int) pairs[i]);
+            }
+        }
+    }
+
+    /**
+     * Checks that a number of adjacency entries fits in the targets array.
+     */
+    static int checkEntries(long entries) {
+        if (entries > MAX_ENTRIES) {
+            throw new IllegalArgumentException("Graph has " + entries + " adjacency entries; at most " + MAX_ENTRIES
+                    + " fit in a CSR graph.");
+        }
+        return (int) entries;
+    }
+
+    /**
+     * Collects edges in primitive arrays and builds a {@link CsrGraph} from
+     * them with a counting sort by source vertex, without ever boxing an
+     * edge. It needs about 8 bytes per edge added, plus 4 for a weight, on top
+     * of the finished graph.
+     */
+    public static class Builder {
+        private final int numVertices;
+        private final boolean directed;
+        private int[] sources;
+        private int[] destinations;
+        private float[] weights; // Allocated when the first weighted edge is added
+        private int edges;
+
+        /**
+         * Constructs a builder for a graph with the given number of vertices.
+         *
+         * @param numVertices The number of vertices, numbered from 0.
+         * @param directed    Whether edges go one way only; undirected edges
+         *                    are stored in both directions, as in
+         *                    {@link GraphAdjList}.
+         * @throws IllegalArgumentException if numVertices is negative.
+         */
+        public Builder(int numVertices, boolean directed) {
+            if (numVertices < 0) {
+                throw new IllegalArgumentException("Number of vertices cannot be negative.");
+            }
+            this.numVertices = numVertices;
+            this.directed = directed;
+            this.sources = new int[16];
+            this.destinations = new int[16];
+        }
+
+        /**
+         * Adds an edge. In a weighted graph it has weight 1.
+         *
+         * @param src  The source vertex.
+         * @param dest The destination vertex.
+         * @return This builder.
+         * @throws IllegalArgumentException if either vertex is out of range.
+         */
+        public Builder addEdge(int src, int dest) {
+            return addEdge(src, dest, 1f);
+        }
+
+        /**
+         * Adds a weighted edge. Once any edge has a weight, the built graph is
+         * weighted.
+         *
+         * @param src    The source vertex.
+         * @param dest   The destination vertex.
+         * @param weight The weight of the edge.
+         * @return This builder.
+         * @throws IllegalArgumentException if either vertex is out of range.
+         */
+        public Builder addEdge(int src, int dest, float weight) {
+            if (src < 0 || src >= numVertices || dest < 0 || dest >= numVertices) {
+                throw new IllegalArgumentException(
+                        "Edge (" + src + ", " + dest + ") is outside [0, " + numVertices + ").");
+            }
+            if (edges == sources.length) {
+                int capacity = (int) Math.min((long) edges * 2, MAX_ENTRIES);
+                if (capacity == edges) {
+                    throw new IllegalArgumentException("Builder cannot hold more than " + MAX_ENTRIES + " edges.");
+                }
+                sources = Arrays.copyOf(sources, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+                if (weights != null) {
+                    weights = Arrays.copyOf(weights, capacity);
+                }
+            }
+            if (weights == null && weight != 1f) {
+                weights = new float[sources.length];
+                Arrays.fill(weights, 0, edges, 1f);
+            }
+            sources[edges] = src;
+            destinations[edges] = dest;
+            if (weights != null) {
+                weights[edges] = weight;
+            }
+            edges++;
+            return this;
+        }
+
+        /**
+         * Builds the graph. The builder can keep adding edges afterwards and
+         * build again.
+         *
+         * @return A new CSR graph holding the edges added so far.
+         * @throws IllegalArgumentException if the graph has too many adjacency
+         *                                  entries for int offsets.
+         */
+        public CsrGraph build() {
+            int entries = checkEntries(directed ? edges : 2L * edges);
+            int[] offsets = new int[numVertices + 1];
+            for (int i = 0; i < edges; i++) {
+                offsets[sources[i] + 1]++;
+                if (!directed) {
+                    offsets[destinations[i] + 1]++;
+                }
+            }
+            for (int v = 0; v < numVertices; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+
+            int[] targets = new int[entries];
+            float[] edgeWeights = weights == null ? null : new float[entries];
+            int[] next = Arrays.copyOf(offsets, numVertices); // Next free index in each run
+            for (int i = 0; i < edges; i++) {
+                int position = next[sources[i]]++;
+                targets[position] = destinations[i];
+                if (edgeWeights != null) {
+                    edgeWeights[position] = weights[i];
+                }
+                if (!directed) {
+                    position = next[destinations[i]]++;
+                    targets[position] = sources[i];
+                    if (edgeWeights != null) {
+                        edgeWeights[position] = weights[i];
+                    }
+                }
+            }
+            sortRuns(offsets, targets, edgeWeights);
+            return new CsrGraph(offsets, targets, edgeWeights, directed);
+        }
+    }
+}
@@ -39,6 +39,25 @@ public class GraphAdjList {
         return new ArrayList<>(adjList.get(vertex));
     }
 
+    // Freeze into an immutable CSR graph with sorted neighbor runs; this graph is left unchanged
+    public CsrGraph freeze() {
+        long entries = 0;
+        for (List<Integer> neighbors : adjList) {
+            entries += neighbors.size();
+        }
+        int[] offsets = new int[numVertices + 1];
+        int[] targets = new int[CsrGraph.checkEntries(entries)];
+        int position = 0;
+        for (int i = 0; i < numVertices; i++) {
+            for (int neighbor : adjList.get(i)) {
+                targets[position++] = neighbor;
+            }
+            offsets[i + 1] = position;
+        }
+        CsrGraph.sortRuns(offsets, targets, null);
+        return new CsrGraph(offsets, targets, null, false);
+    }
+
     // Print the adjacency list
     public void printGraph() {
         for (int i = 0; i < numVertices; i++) {
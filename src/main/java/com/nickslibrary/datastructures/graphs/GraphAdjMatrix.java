@@ -2,50 +2,128 @@ package com.nickslibrary.datastructures.graphs;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 public class GraphAdjMatrix {
-    private int[][] adjMatrix;
+    // Row i has bit j set when there is an edge from i to j: one bit per potential edge, 64 per long
+    private long[][] adjMatrix;
     private int numVertices;
 
     // Constructor
     public GraphAdjMatrix(int numVertices) {
         this.numVertices = numVertices;
-        adjMatrix = new int[numVertices][numVertices];
+        adjMatrix = new long[numVertices][(numVertices + 63) >>> 6];
     }
 
     // Add edge
     public void addEdge(int src, int dest) {
-        adjMatrix[src][dest] = 1;
-        adjMatrix[dest][src] = 1; // For undirected graph
+        checkEdge(src, dest);
+        adjMatrix[src][dest >>> 6] |= 1L << dest;
+        adjMatrix[dest][src >>> 6] |= 1L << src; // For undirected graph
     }
 
     // Remove edge
     public void removeEdge(int src, int dest) {
-        adjMatrix[src][dest] = 0;
-        adjMatrix[dest][src] = 0; // For undirected graph
+        checkEdge(src, dest);
+        adjMatrix[src][dest >>> 6] &= ~(1L << dest);
+        adjMatrix[dest][src >>> 6] &= ~(1L << src); // For undirected graph
     }
 
     // Check if there is an edge between two vertices
     public boolean hasEdge(int src, int dest) {
-        return adjMatrix[src][dest] == 1;
+        checkEdge(src, dest);
+        return (adjMatrix[src][dest >>> 6] & 1L << dest) != 0;
+    }
+
+    // A vertex past numVertices can still land inside the last word of a row, so check before touching the bits
+    private void checkEdge(int src, int dest) {
+        if (src < 0 || src >= numVertices || dest < 0 || dest >= numVertices) {
+            throw new IllegalArgumentException("Edge (" + src + ", " + dest + ") is outside [0, " + numVertices + ").");
+        }
     }
 
     // Get all neighbors of a vertex
     public List<Integer> getNeighbors(int vertex) {
-        List<Integer> neighbors = new ArrayList<>();
-        for (int i = 0; i < numVertices; i++) {
-            if (adjMatrix[vertex][i] == 1) {
-                neighbors.add(i);
+        List<Integer> neighbors = new ArrayList<>(degree(vertex));
+        forEachNeighbor(vertex, neighbors::add);
+        return neighbors;
+    }
+
+    // Visit the neighbors of a vertex in ascending order, skipping empty words of the row
+    public void forEachNeighbor(int vertex, IntConsumer action) {
+        long[] row = adjMatrix[vertex];
+        for (int w = 0; w < row.length; w++) {
+            for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                action.accept(w << 6 | Long.numberOfTrailingZeros(bits));
             }
         }
-        return neighbors;
+    }
+
+    // Number of neighbors of a vertex, counted 64 at a time
+    public int degree(int vertex) {
+        int degree = 0;
+        for (long bits : adjMatrix[vertex]) {
+            degree += Long.bitCount(bits);
+        }
+        return degree;
+    }
+
+    // Number of vertices adjacent to both u and v (row AND)
+    public int countCommonNeighbors(int u, int v) {
+        long[] rowU = adjMatrix[u];
+        long[] rowV = adjMatrix[v];
+        int count = 0;
+        for (int w = 0; w < rowU.length; w++) {
+            count += Long.bitCount(rowU[w] & rowV[w]);
+        }
+        return count;
+    }
+
+    // Number of vertices adjacent to u or v (row OR), e.g. for Jaccard similarity
+    public int countCombinedNeighbors(int u, int v) {
+        long[] rowU = adjMatrix[u];
+        long[] rowV = adjMatrix[v];
+        int count = 0;
+        for (int w = 0; w < rowU.length; w++) {
+            count += Long.bitCount(rowU[w] | rowV[w]);
+        }
+        return count;
+    }
+
+    // Count triangles u < v < x, each once, by intersecting rows u and v above v for every edge u-v
+    public long countTriangles() {
+        long triangles = 0;
+        for (int u = 0; u < numVertices; u++) {
+            long[] rowU = adjMatrix[u];
+            int first = (u + 1) >>> 6;
+            for (int w = first; w < rowU.length; w++) {
+                // In the first word, only neighbors above u; the shift wraps to no-op at a word boundary
+                long bits = w == first ? rowU[w] & -1L << (u + 1) : rowU[w];
+                for (; bits != 0; bits &= bits - 1) {
+                    int v = w << 6 | Long.numberOfTrailingZeros(bits);
+                    triangles += countCommonAbove(rowU, adjMatrix[v], v);
+                }
+            }
+        }
+        return triangles;
+    }
+
+    // Popcount of the AND of two rows, counting only vertices above the given one
+    private static int countCommonAbove(long[] rowA, long[] rowB, int vertex) {
+        int first = (vertex + 1) >>> 6;
+        int count = 0;
+        for (int w = first; w < rowA.length; w++) {
+            long common = rowA[w] & rowB[w];
+            count += Long.bitCount(w == first ? common & -1L << (vertex + 1) : common);
+        }
+        return count;
     }
 
     // Print the adjacency matrix
     public void printGraph() {
         for (int i = 0; i < numVertices; i++) {
             for (int j = 0; j < numVertices; j++) {
-                System.out.print(adjMatrix[i][j] + " ");
+                System.out.print((hasEdge(i, j) ? 1 : 0) + " ");
             }
             System.out.println();
         }
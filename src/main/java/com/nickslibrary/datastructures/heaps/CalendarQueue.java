@@ -0,0 +1,407 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.function.Consumer;
+
+/**
+ * A calendar queue: a priority queue of events keyed by integer time, with
+ * O(1) expected schedule, cancel and extractMin when event times are spread
+ * reasonably evenly.
+ *
+ * Like a desk calendar, the queue has an array of buckets ("days") of equal
+ * width; together they cover one "year" ahead of the current day. An event is
+ * filed in the bucket for its day, in a short list kept sorted by time.
+ * {@link #extractMin()} looks at the current day's bucket and moves on a day
+ * at a time until it finds an event due that day. The number of buckets
+ * follows the number of pending events, and the day width is re-estimated
+ * from the spacing of the earliest events whenever the bucket count changes,
+ * so a bucket holds a few events on average.
+ *
+ * Events more than a year ahead wait in an overflow {@link MinHeap} and join
+ * the calendar as the year moves forward over them. Events with equal times
+ * leave in the order they were scheduled.
+ *
+ * @param <T> The type of values carried by the events.
+ */
+public class CalendarQueue<T> {
+    private static final int MIN_BUCKETS = 16;
+    private static final int WIDTH_SAMPLE = 32; // Events whose spacing sets the day width
+    private static final int MAX_WIDTH_BITS = 32; // Keeps the year within a long
+
+    private Event<T>[] heads;
+    private Event<T>[] tails;
+    private int mask; // Bucket count - 1
+    private int widthBits; // Day width is 1 << widthBits ticks
+    private long currentDay; // Start of the day being dequeued
+    private int bucketed; // Events in the buckets, not the overflow heap
+    private MinHeap<Event<T>> overflow;
+    private long now;
+    private long sequence;
+    private int size;
+
+    /**
+     * Constructs an empty CalendarQueue starting at time 0.
+     */
+    public CalendarQueue() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty CalendarQueue starting at the given time.
+     *
+     * @param startTime The current time, in ticks.
+     */
+    public CalendarQueue(long startTime) {
+        this.now = startTime;
+        this.overflow = new MinHeap<>(16);
+        allocate(MIN_BUCKETS, 0);
+    }
+
+    /**
+     * Schedules a value at the given time. A time that has already passed is
+     * treated as the current time.
+     *
+     * @param time  The tick at which the event is due.
+     * @param value The value carried by the event.
+     * @return The event, which can be passed to {@link #cancel(Event)}.
+     */
+    public Event<T> schedule(long time, T value) {
+        Event<T> event = new Event<>(Math.max(time, now), value, sequence++);
+        place(event);
+        size++;
+        if (size > 2 * (mask + 1)) {
+            resize((mask + 1) * 2);
+        }
+        return event;
+    }
+
+    /**
+     * Cancels a pending event.
+     *
+     * @param event The event to cancel.
+     * @return True if the event was pending, false if it had already been
+     *         extracted or cancelled.
+     */
+    public boolean cancel(Event<T> event) {
+        if (event.bucket == Event.DONE) {
+            return false;
+        }
+        size--;
+        if (event.bucket == Event.OVERFLOW) {
+            event.bucket = Event.DONE; // Dropped when it leaves the overflow heap
+        } else {
+            unlink(event);
+            shrinkIfSparse();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the time of the earliest pending event.
+     *
+     * @return The earliest event time.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public long peekMinTime() {
+        return findMin().time;
+    }
+
+    /**
+     * Removes the earliest pending event, advances the current time to it and
+     * returns its value.
+     *
+     * @return The value of the earliest event.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public T extractMin() {
+        Event<T> min = findMin();
+        unlink(min);
+        size--;
+        now = min.time;
+        shrinkIfSparse();
+        return min.value;
+    }
+
+    /**
+     * Advances the current time to the given tick, extracting every event due
+     * by then in time order. The action may schedule and cancel events.
+     *
+     * @param time   The tick to advance to.
+     * @param action The action to run for the value of each event extracted.
+     * @return The number of events extracted.
+     * @throws IllegalArgumentException if time is before the current time.
+     */
+    public int advanceTo(long time, Consumer<? super T> action) {
+        if (time < now) {
+            throw new IllegalArgumentException("Cannot move time back from " + now + " to " + time + ".");
+        }
+        int fired = 0;
+        while (size > 0 && findMin().time <= time) {
+            action.accept(extractMin());
+            fired++;
+        }
+        now = time;
+        return fired;
+    }
+
+    /**
+     * Returns the current time: the time of the last extracted event, or the
+     * time last advanced to.
+     *
+     * @return The current time, in ticks.
+     */
+    public long currentTime() {
+        return now;
+    }
+
+    /**
+     * Returns the number of pending events.
+     *
+     * @return The number of pending events.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if no events are pending.
+     *
+     * @return True if no events are pending, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the earliest pending event, moving the current day forward to
+     * its bucket.
+     */
+    private Event<T> findMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        if (bucketed == 0) {
+            // The calendar is empty, so jump the year forward to the next overflow event
+            currentDay = dayStart(overflowMin().time);
+            pullOverflow();
+        }
+        int emptyDays = 0;
+        while (true) {
+            Event<T> head = heads[bucketOf(currentDay)];
+            if (head != null && head.time < currentDay + (1L << widthBits)) {
+                return head;
+            }
+            if (++emptyDays > mask) {
+                // A whole year with nothing due: the buckets only hold events from later years, which
+                // happens after place() moves the day back, so jump straight to the earliest of them
+                currentDay = dayStart(earliestBucketed().time);
+                emptyDays = 0;
+            } else {
+                currentDay += 1L << widthBits;
+            }
+            pullOverflow();
+        }
+    }
+
+    /**
+     * Returns the earliest event in the buckets by looking at every bucket's
+     * head, which is the earliest event in its bucket.
+     */
+    private Event<T> earliestBucketed() {
+        Event<T> earliest = null;
+        for (Event<T> head : heads) {
+            if (head != null && (earliest == null || head.compareTo(earliest) < 0)) {
+                earliest = head;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Returns the earliest pending overflow event, dropping cancelled ones.
+     */
+    private Event<T> overflowMin() {
+        while (overflow.peek().bucket == Event.DONE) {
+            overflow.extractMin();
+        }
+        return overflow.peek();
+    }
+
+    /**
+     * Moves the overflow events that now fall within the year onto the
+     * calendar.
+     */
+    private void pullOverflow() {
+        long yearEnd = currentDay + ((long) (mask + 1) << widthBits);
+        while (!overflow.isEmpty() && overflow.peek().time < yearEnd) {
+            Event<T> event = overflow.extractMin();
+            if (event.bucket != Event.DONE) {
+                place(event);
+            }
+        }
+    }
+
+    /**
+     * Files an event in its day's bucket, keeping the bucket sorted, or in the
+     * overflow heap if it falls beyond the current year.
+     */
+    private void place(Event<T> event) {
+        if (event.time < currentDay) {
+            // advanceTo can leave the day being dequeued ahead of the current time
+            currentDay = dayStart(event.time);
+        }
+        if (event.time - currentDay >= (long) (mask + 1) << widthBits) {
+            event.bucket = Event.OVERFLOW;
+            overflow.insert(event);
+            return;
+        }
+        int bucket = bucketOf(event.time);
+        event.bucket = bucket;
+
+        // Events tend to arrive in time order, so search for the spot from the tail
+        Event<T> after = tails[bucket];
+        while (after != null && after.time > event.time) {
+            after = after.prev;
+        }
+        event.prev = after;
+        if (after == null) {
+            event.next = heads[bucket];
+            heads[bucket] = event;
+        } else {
+            event.next = after.next;
+            after.next = event;
+        }
+        if (event.next == null) {
+            tails[bucket] = event;
+        } else {
+            event.next.prev = event;
+        }
+        bucketed++;
+    }
+
+    private void unlink(Event<T> event) {
+        int bucket = event.bucket;
+        if (event.prev == null) {
+            heads[bucket] = event.next;
+        } else {
+            event.prev.next = event.next;
+        }
+        if (event.next == null) {
+            tails[bucket] = event.prev;
+        } else {
+            event.next.prev = event.prev;
+        }
+        event.prev = null;
+        event.next = null;
+        event.bucket = Event.DONE;
+        bucketed--;
+    }
+
+    private void shrinkIfSparse() {
+        if (mask + 1 > MIN_BUCKETS && size < (mask + 1) / 2) {
+            resize((mask + 1) / 2);
+        }
+    }
+
+    /**
+     * Rebuilds the calendar with the given number of buckets and a day width
+     * of about three times the average spacing of the earliest events.
+     */
+    private void resize(int buckets) {
+        @SuppressWarnings("unchecked")
+        Event<T>[] events = new Event[bucketed];
+        int count = 0;
+        for (Event<T> head : heads) {
+            for (Event<T> event = head; event != null; event = event.next) {
+                events[count++] = event;
+            }
+        }
+
+        allocate(buckets, estimateWidthBits(events, count));
+        currentDay = dayStart(currentDay);
+        for (int i = 0; i < count; i++) {
+            events[i].prev = null;
+            events[i].next = null;
+            place(events[i]);
+        }
+        pullOverflow();
+    }
+
+    private int estimateWidthBits(Event<T>[] events, int count) {
+        if (count < 2) {
+            return widthBits;
+        }
+        int sample = Math.min(count, WIDTH_SAMPLE + 1);
+        long[] times = new long[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = events[i].time;
+        }
+        // The earliest events matter most: they are the ones dequeued next
+        long first = Selection.nthElement(times, 0);
+        long last = Selection.nthElement(times, sample - 1);
+        long width = Math.max(1, (last - first) / (sample - 1) * 3);
+        return Math.min(MAX_WIDTH_BITS, 63 - Long.numberOfLeadingZeros(width));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int buckets, int widthBits) {
+        this.heads = new Event[buckets];
+        this.tails = new Event[buckets];
+        this.mask = buckets - 1;
+        this.widthBits = widthBits;
+        this.bucketed = 0;
+    }
+
+    private int bucketOf(long time) {
+        return (int) (time >> widthBits) & mask;
+    }
+
+    private long dayStart(long time) {
+        return time >> widthBits << widthBits;
+    }
+
+    /**
+     * A scheduled event, used as the handle for cancelling it.
+     *
+     * @param <T> The type of value carried by the event.
+     */
+    public static class Event<T> implements Comparable<Event<T>> {
+        private static final int OVERFLOW = -1;
+        private static final int DONE = -2;
+
+        private final long time;
+        private final T value;
+        private final long sequence; // Orders equal times
+        private int bucket; // Calendar bucket, OVERFLOW or DONE
+        private Event<T> prev;
+        private Event<T> next;
+
+        Event(long time, T value, long sequence) {
+            this.time = time;
+            this.value = value;
+            this.sequence = sequence;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Checks whether the event has neither been extracted nor cancelled.
+         *
+         * @return True if the event is pending, false otherwise.
+         */
+        public boolean isPending() {
+            return bucket != DONE;
+        }
+
+        @Override
+        public int compareTo(Event<T> other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,21 +1,26 @@
 package com.nickslibrary.datastructures.heaps;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * A Fibonacci Heap is a data structure that consists of a collection of
  * heap-ordered trees.
  * It supports efficient operations for merging heaps and extracting the minimum
  * element.
  *
+ * Inserting, merging and decreasing a key take O(1) amortized time, and
+ * extracting the minimum or deleting a node O(log n) amortized. The bounds rely
+ * on cascading cuts: a node that loses a second child is cut from its own
+ * parent, which keeps every tree of degree d at least F(d + 2) nodes large, so
+ * no degree exceeds log-phi(n).
+ *
  * @param <T> The type of elements in the Fibonacci Heap, which must be
  *            comparable.
  */
 public class FibonacciHeap<T extends Comparable<T>> {
+    private static final double LOG_PHI = Math.log((1 + Math.sqrt(5)) / 2);
 
     private Node<T> minNode;
     private int size;
+    private Node<T>[] degreeTable; // Reused by consolidate, grown only as the heap grows
 
     /**
      * Constructs an empty Fibonacci Heap.
@@ -33,18 +38,9 @@ public class FibonacciHeap<T extends Comparable<T>> {
      */
     public Node<T> insert(T value) {
         Node<T> newNode = new Node<>(value);
-
-        if (minNode == null) {
+        addToRootList(newNode);
+        if (newNode.getValue().compareTo(minNode.getValue()) < 0) {
             minNode = newNode;
-        } else {
-            minNode.getPrev().setNext(newNode);
-            newNode.setPrev(minNode.getPrev());
-            minNode.setPrev(newNode);
-            newNode.setNext(minNode);
-
-            if (newNode.getValue().compareTo(minNode.getValue()) < 0) {
-                minNode = newNode;
-            }
         }
 
         size++;
@@ -57,7 +53,7 @@ public class FibonacciHeap<T extends Comparable<T>> {
      * @param other The Fibonacci Heap to merge.
      */
     public void merge(FibonacciHeap<T> other) {
-        if (other == null || other.minNode == null) {
+        if (other == null || other == this || other.minNode == null) {
             return;
         }
 
@@ -95,31 +91,25 @@ public class FibonacciHeap<T extends Comparable<T>> {
         }
 
         Node<T> min = minNode;
-        T minValue = min.getValue();
 
-        if (min.getChild() != null) {
-            Node<T> child = min.getChild();
-            do {
-                Node<T> nextChild = child.getNext();
-                removeFromRootList(child); // Call to removeFromRootList
-                insertIntoRootList(child);
-                child.setParent(null);
-                child = nextChild;
-            } while (child != min.getChild());
+        // Move every child up to the root list; each next link is read before it is overwritten
+        Node<T> child = min.getChild();
+        for (int i = min.getDegree(); i > 0; i--) {
+            Node<T> nextChild = child.getNext();
+            child.setMarked(false);
+            addToRootList(child);
+            child = nextChild;
         }
+        min.setChild(null);
+        min.setDegree(0);
 
-        removeFromRootList(min); // Call to removeFromRootList
-
-        if (min.getNext() == min) {
-            minNode = null;
-        } else {
-            minNode = min.getNext();
+        removeFromRootList(min);
+        size--;
+        if (minNode != null) {
             consolidate();
         }
 
-        size--;
-
-        return minValue;
+        return min.getValue();
     }
 
     /**
@@ -149,10 +139,6 @@ public class FibonacciHeap<T extends Comparable<T>> {
 
         node.setValue(newKey);
 
-        if (node.isMarked()) {
-            return; // Do nothing if the node is marked for deletion
-        }
-
         Node<T> parent = node.getParent();
         if (parent != null && newKey.compareTo(parent.getValue()) < 0) {
             cut(node, parent);
@@ -164,6 +150,43 @@ public class FibonacciHeap<T extends Comparable<T>> {
         }
     }
 
+    /**
+     * Deletes a node from the Fibonacci Heap.
+     *
+     * This is a decrease to minus infinity followed by {@link #extractMin()}:
+     * the node is cut to the root list as if its key were below every other,
+     * made the minimum and extracted.
+     *
+     * @param node The node to delete.
+     */
+    public void delete(Node<T> node) {
+        Node<T> parent = node.getParent();
+        if (parent != null) {
+            cut(node, parent);
+            cascadingCut(parent);
+        }
+        minNode = node;
+        extractMin();
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * @return The size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return True if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return minNode == null;
+    }
+
     /**
      * Cuts a node from its parent and adds it to the root list.
      *
@@ -177,55 +200,53 @@ public class FibonacciHeap<T extends Comparable<T>> {
     }
 
     /**
-     * Performs a cascading cut starting from the parent node.
+     * Performs a cascading cut starting from the parent node: an unmarked node
+     * is marked for losing a child, and a marked one, having now lost two, is
+     * cut as well and the check moves on to its parent.
      *
      * @param node The parent node.
      */
     private void cascadingCut(Node<T> node) {
         Node<T> parent = node.getParent();
-        if (parent != null) {
+        while (parent != null) {
             if (!node.isMarked()) {
                 node.setMarked(true);
-            } else {
-                if (!node.isMarked()) {
-                    cut(node, parent);
-                    cascadingCut(parent);
-                }
+                return;
             }
+            cut(node, parent);
+            node = parent;
+            parent = node.getParent();
         }
     }
 
-    /**
-     * Deletes a node from the Fibonacci Heap.
-     *
-     * @param node The node to delete.
-     */
-    public void delete(Node<T> node) {
-        node.setMarked(true);
-    }
-
     /**
      * Consolidates the heap by combining trees of the same degree.
+     *
+     * No degree can exceed log-phi(n), so the degree table has that many slots.
+     * The table is kept between calls and emptied again as the new root list is
+     * read back from it.
      */
     private void consolidate() {
-        int maxDegree = (int) Math.floor(Math.log(size) / Math.log(2)) + 1;
-        List<Node<T>> degreeTable = new ArrayList<>(maxDegree);
-
-        for (int i = 0; i < maxDegree; i++) {
-            degreeTable.add(null);
+        int maxDegree = (int) (Math.log(size) / LOG_PHI) + 2;
+        if (degreeTable == null || degreeTable.length < maxDegree) {
+            @SuppressWarnings("unchecked")
+            Node<T>[] table = new Node[Math.max(maxDegree, 16)];
+            degreeTable = table;
         }
 
+        int roots = 0;
         Node<T> current = minNode;
-        List<Node<T>> roots = new ArrayList<>();
         do {
-            roots.add(current);
+            roots++;
             current = current.getNext();
         } while (current != minNode);
 
-        for (Node<T> root : roots) {
+        for (int i = 0; i < roots; i++) {
+            Node<T> root = current;
+            current = current.getNext(); // Read before root can be linked below another tree
             int degree = root.getDegree();
-            while (degreeTable.get(degree) != null) {
-                Node<T> other = degreeTable.get(degree);
+            while (degreeTable[degree] != null) {
+                Node<T> other = degreeTable[degree];
 
                 if (root.getValue().compareTo(other.getValue()) > 0) {
                     Node<T> temp = root;
@@ -233,51 +254,27 @@ public class FibonacciHeap<T extends Comparable<T>> {
                     other = temp;
                 }
 
-                link(root, other); // Call to link method
-                degreeTable.set(degree, null);
+                link(root, other);
+                degreeTable[degree] = null;
 
                 degree++;
             }
-            degreeTable.set(degree, root);
+            degreeTable[degree] = root;
         }
 
+        // The root list now holds exactly the trees in the table
         minNode = null;
-        for (Node<T> node : degreeTable) {
+        for (int degree = 0; degree < maxDegree; degree++) {
+            Node<T> node = degreeTable[degree];
             if (node != null) {
-                if (minNode == null) {
+                degreeTable[degree] = null;
+                if (minNode == null || node.getValue().compareTo(minNode.getValue()) < 0) {
                     minNode = node;
-                } else {
-                    insertIntoRootList(node);
-                    if (node.getValue().compareTo(minNode.getValue()) < 0) {
-                        minNode = node;
-                    }
                 }
             }
         }
     }
 
-    /**
-     * Removes a node from the root list.
-     *
-     * @param node The node to be removed from the root list.
-     */
-    private void removeNodeFromRootList(Node<T> node) {
-        node.getPrev().setNext(node.getNext());
-        node.getNext().setPrev(node.getPrev());
-    }
-
-    /**
-     * Inserts a node into the root list.
-     *
-     * @param node The node to be inserted into the root list.
-     */
-    private void insertIntoRootList(Node<T> node) {
-        node.setPrev(minNode.getPrev());
-        node.setNext(minNode);
-        minNode.getPrev().setNext(node);
-        minNode.setPrev(node);
-    }
-
     /**
      * Links two trees of the same degree.
      *
@@ -286,19 +283,11 @@ public class FibonacciHeap<T extends Comparable<T>> {
      */
     private void link(Node<T> node1, Node<T> node2) {
         // Make node2 a child of node1
-        removeNodeFromRootList(node2);
-        node2.setParent(node1);
+        node2.getPrev().setNext(node2.getNext());
+        node2.getNext().setPrev(node2.getPrev());
         node2.setNext(node2);
         node2.setPrev(node2);
-        if (node1.getChild() == null) {
-            node1.setChild(node2);
-        } else {
-            node2.setNext(node1.getChild());
-            node2.setPrev(node1.getChild().getPrev());
-            node1.getChild().getPrev().setNext(node2);
-            node1.getChild().setPrev(node2);
-        }
-        node1.setDegree(node1.getDegree() + 1);
+        node1.addChild(node2);
         node2.setMarked(false);
     }
 
@@ -437,15 +426,17 @@ public class FibonacciHeap<T extends Comparable<T>> {
          * @param child The node to remove as a child.
          */
         public void removeChild(Node<T> child) {
-            if (this.child == child) {
-                if (child.getNext() == child) {
-                    this.child = null;
-                } else {
+            if (child.getNext() == child) {
+                this.child = null;
+            } else {
+                if (this.child == child) {
                     this.child = child.getNext();
                 }
+                child.getPrev().setNext(child.getNext());
+                child.getNext().setPrev(child.getPrev());
             }
-            child.setPrev(null);
-            child.setNext(null);
+            child.setPrev(child);
+            child.setNext(child);
             child.setParent(null);
             this.degree--;
         }
@@ -486,4 +477,4 @@ public class FibonacciHeap<T extends Comparable<T>> {
             this.marked = marked;
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,311 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.Arrays;
+
+/**
+ * An indexed d-ary min-heap of int handles with long priorities. It works
+ * exactly like {@link IndexedMinHeap}, for algorithms whose costs are whole
+ * numbers (hop counts, integer edge weights, timestamps) and should not be
+ * rounded through a double.
+ */
+public class IndexedLongMinHeap {
+    private static final int DEFAULT_ARITY = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int ABSENT = -1;
+
+    private final int arity;
+    private long[] priorities; // Priority of the handle at each heap position
+    private int[] handles; // Handle at each heap position
+    private int[] positions; // Heap position of each handle, or ABSENT
+    private int size;
+
+    /**
+     * Constructs an empty 4-ary IndexedLongMinHeap.
+     */
+    public IndexedLongMinHeap() {
+        this(DEFAULT_CAPACITY, DEFAULT_ARITY);
+    }
+
+    /**
+     * Constructs an empty 4-ary IndexedLongMinHeap with room for handles below the
+     * given capacity.
+     *
+     * @param capacity The number of handles to allocate room for initially.
+     */
+    public IndexedLongMinHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Constructs an empty IndexedLongMinHeap with the given fan-out.
+     *
+     * @param capacity The number of handles to allocate room for initially.
+     * @param arity    The number of children of each node (at least 2).
+     * @throws IllegalArgumentException if the capacity is negative or the arity
+     *                                  is below 2.
+     */
+    public IndexedLongMinHeap(int capacity, int arity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2.");
+        }
+        this.arity = arity;
+        this.priorities = new long[Math.max(capacity, 1)];
+        this.handles = new int[Math.max(capacity, 1)];
+        this.positions = new int[Math.max(capacity, 1)];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * Inserts a handle with the given priority.
+     *
+     * @param handle   The handle to insert.
+     * @param priority The priority of the handle.
+     * @throws IllegalArgumentException if the handle is negative or already in
+     *                                  the heap.
+     */
+    public void insert(int handle, long priority) {
+        if (handle < 0) {
+            throw new IllegalArgumentException("Handle cannot be negative.");
+        }
+        if (handle >= positions.length) {
+            growIndex(handle);
+        } else if (positions[handle] != ABSENT) {
+            throw new IllegalArgumentException("Handle " + handle + " is already in the heap.");
+        }
+        if (size == handles.length) {
+            int newCapacity = handles.length * 2;
+            priorities = Arrays.copyOf(priorities, newCapacity);
+            handles = Arrays.copyOf(handles, newCapacity);
+        }
+        siftUp(size++, handle, priority);
+    }
+
+    /**
+     * Checks whether a handle is in the heap.
+     *
+     * @param handle The handle to look for.
+     * @return True if the handle is in the heap, false otherwise.
+     */
+    public boolean contains(int handle) {
+        return handle >= 0 && handle < positions.length && positions[handle] != ABSENT;
+    }
+
+    /**
+     * Returns the priority of a handle in the heap.
+     *
+     * @param handle The handle to look up.
+     * @return The priority of the handle.
+     * @throws IllegalArgumentException if the handle is not in the heap.
+     */
+    public long getPriority(int handle) {
+        return priorities[positionOf(handle)];
+    }
+
+    /**
+     * Returns the handle with the smallest priority without removing it.
+     *
+     * @return The handle with the smallest priority.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public int peekMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+        return handles[0];
+    }
+
+    /**
+     * Returns the smallest priority in the heap.
+     *
+     * @return The smallest priority.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public long peekMinPriority() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+        return priorities[0];
+    }
+
+    /**
+     * Removes and returns the handle with the smallest priority.
+     *
+     * @return The handle with the smallest priority.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public int extractMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+        int min = handles[0];
+        positions[min] = ABSENT;
+        size--;
+        if (size > 0) {
+            siftDown(0, handles[size], priorities[size]);
+        }
+        return min;
+    }
+
+    /**
+     * Lowers the priority of a handle in the heap.
+     *
+     * @param handle   The handle whose priority to lower.
+     * @param priority The new priority.
+     * @throws IllegalArgumentException if the handle is not in the heap or the
+     *                                  new priority is greater than the current
+     *                                  one.
+     */
+    public void decreaseKey(int handle, long priority) {
+        int position = positionOf(handle);
+        if (priority > priorities[position]) {
+            throw new IllegalArgumentException("New priority cannot be greater than the current priority.");
+        }
+        siftUp(position, handle, priority);
+    }
+
+    /**
+     * Sets the priority of a handle in the heap, whether higher or lower.
+     *
+     * @param handle   The handle whose priority to change.
+     * @param priority The new priority.
+     * @throws IllegalArgumentException if the handle is not in the heap.
+     */
+    public void changePriority(int handle, long priority) {
+        int position = positionOf(handle);
+        if (priority < priorities[position]) {
+            siftUp(position, handle, priority);
+        } else {
+            siftDown(position, handle, priority);
+        }
+    }
+
+    /**
+     * Removes a handle from the heap.
+     *
+     * @param handle The handle to remove.
+     * @throws IllegalArgumentException if the handle is not in the heap.
+     */
+    public void remove(int handle) {
+        int position = positionOf(handle);
+        positions[handle] = ABSENT;
+        size--;
+        if (position == size) {
+            return; // It was the last slot
+        }
+
+        // Fill the hole with the last entry, which may belong above or below it
+        int last = handles[size];
+        long lastPriority = priorities[size];
+        if (position > 0 && lastPriority < priorities[parent(position)]) {
+            siftUp(position, last, lastPriority);
+        } else {
+            siftDown(position, last, lastPriority);
+        }
+    }
+
+    /**
+     * Returns the number of handles in the heap.
+     *
+     * @return The size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return True if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all handles from the heap.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[handles[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private int parent(int position) {
+        return (position - 1) / arity;
+    }
+
+    private int positionOf(int handle) {
+        if (!contains(handle)) {
+            throw new IllegalArgumentException("Handle " + handle + " is not in the heap.");
+        }
+        return positions[handle];
+    }
+
+    private void growIndex(int handle) {
+        int oldLength = positions.length;
+        positions = Arrays.copyOf(positions, Math.max(handle + 1, oldLength * 2));
+        Arrays.fill(positions, oldLength, positions.length, ABSENT);
+    }
+
+    /**
+     * Moves the hole at the given position up until the entry fits, shifting
+     * parents down instead of swapping, then stores the entry there.
+     */
+    private void siftUp(int position, int handle, long priority) {
+        while (position > 0) {
+            int parent = parent(position);
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            move(parent, position);
+            position = parent;
+        }
+        place(position, handle, priority);
+    }
+
+    /**
+     * Moves the hole at the given position down until the entry fits. Each
+     * level picks the smallest of up to {@code arity} adjacent children in a
+     * single scan.
+     */
+    private void siftDown(int position, int handle, long priority) {
+        while (true) {
+            int first = position * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            int end = Math.min(first + arity, size);
+            int smallest = first;
+            long smallestPriority = priorities[first];
+            for (int child = first + 1; child < end; child++) {
+                long childPriority = priorities[child];
+                if (childPriority < smallestPriority) {
+                    smallest = child;
+                    smallestPriority = childPriority;
+                }
+            }
+            if (smallestPriority >= priority) {
+                break;
+            }
+            move(smallest, position);
+            position = smallest;
+        }
+        place(position, handle, priority);
+    }
+
+    private void move(int from, int to) {
+        priorities[to] = priorities[from];
+        handles[to] = handles[from];
+        positions[handles[to]] = to;
+    }
+
+    private void place(int position, int handle, long priority) {
+        priorities[position] = priority;
+        handles[position] = handle;
+        positions[handle] = position;
+    }
+}
@@ -0,0 +1,281 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * A Leftist Heap is a heap-ordered binary tree that can be melded with another
+ * in O(log n) worst-case time.
+ *
+ * Every node records its rank, the length of its right spine (the path that
+ * keeps taking the right child). The tree is kept leftist: a left child's rank
+ * is never smaller than its sibling's, so the right spine of a heap of n nodes
+ * has at most log2(n + 1) nodes. Melding walks only the two right spines,
+ * merging them like sorted lists and swapping children where the rank rule
+ * breaks. Insert and extractMin are both melds, so every operation is
+ * O(log n).
+ *
+ * This suits partitioned work: per-shard heaps can be built independently,
+ * even in parallel with {@link #parallelBuild(List)}, and combined cheaply
+ * with {@link #merge(LeftistHeap)} or {@link #mergeAll(Collection)}.
+ *
+ * @param <T> The type of elements in the Leftist Heap, which must be
+ *            comparable.
+ */
+public class LeftistHeap<T extends Comparable<T>> {
+    private static final int PARALLEL_THRESHOLD = 1 << 13; // parallelBuild builds ranges this small sequentially
+    private static final int BUILD_BLOCK = 1 << 10; // Builds meld blocks this large while they are in cache
+
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Constructs an empty Leftist Heap.
+     */
+    public LeftistHeap() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    private LeftistHeap(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Builds a Leftist Heap from a collection in O(n) by melding the elements
+     * in pairs, then the pairs in pairs, and so on. This runs block by block,
+     * and the block heaps are then melded the same way.
+     *
+     * @param <T>    The type of elements.
+     * @param values The values to put in the heap.
+     * @return A new heap holding the values.
+     */
+    public static <T extends Comparable<T>> LeftistHeap<T> build(Collection<? extends T> values) {
+        @SuppressWarnings("unchecked")
+        Node<T>[] nodes = new Node[values.size()];
+        int count = 0;
+        for (T value : values) {
+            nodes[count++] = new Node<>(value);
+        }
+        return new LeftistHeap<>(meldBlocks(nodes, count), count);
+    }
+
+    /**
+     * Builds a Leftist Heap from a list by splitting it into ranges that are
+     * built on the common {@link ForkJoinPool} and melded as they complete.
+     *
+     * @param <T>    The type of elements.
+     * @param values The values to put in the heap; the list should support
+     *               fast random access.
+     * @return A new heap holding the values.
+     */
+    public static <T extends Comparable<T>> LeftistHeap<T> parallelBuild(List<? extends T> values) {
+        Node<T> root = ForkJoinPool.commonPool()
+                .invoke(ForkJoinTask.adapt(() -> buildRange(values, 0, values.size())));
+        return new LeftistHeap<>(root, values.size());
+    }
+
+    /**
+     * Melds a collection of heaps into a new one in O(k log n), pairing them up
+     * so no meld involves a long chain. The given heaps are left empty.
+     *
+     * @param <T>   The type of elements.
+     * @param heaps The heaps to meld.
+     * @return A new heap holding every element.
+     */
+    public static <T extends Comparable<T>> LeftistHeap<T> mergeAll(Collection<LeftistHeap<T>> heaps) {
+        @SuppressWarnings("unchecked")
+        Node<T>[] roots = new Node[heaps.size()];
+        int count = 0;
+        int size = 0;
+        for (LeftistHeap<T> heap : heaps) {
+            if (heap.root != null) {
+                roots[count++] = heap.root;
+                size += heap.size;
+                heap.root = null;
+                heap.size = 0;
+            }
+        }
+        return new LeftistHeap<>(meldAll(roots, 0, count), size);
+    }
+
+    /**
+     * Inserts a new element into the Leftist Heap.
+     *
+     * @param value The value to insert into the heap.
+     */
+    public void insert(T value) {
+        root = meld(root, new Node<>(value));
+        size++;
+    }
+
+    /**
+     * Merges another Leftist Heap into this one in O(log n), leaving the other
+     * heap empty.
+     *
+     * @param other The Leftist Heap to merge.
+     */
+    public void merge(LeftistHeap<T> other) {
+        if (other == null || other == this || other.root == null) {
+            return;
+        }
+        root = meld(root, other.root);
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+    }
+
+    /**
+     * Returns the minimum element without removing it.
+     *
+     * @return The minimum element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T peekMin() {
+        if (root == null) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return root.value;
+    }
+
+    /**
+     * Extracts and returns the minimum element from the Leftist Heap.
+     *
+     * @return The minimum element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T extractMin() {
+        if (root == null) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        T min = root.value;
+        root = meld(root.left, root.right);
+        size--;
+        return min;
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * @return The size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return True if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Removes all elements from the heap.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Melds two trees along their right spines.
+     *
+     * @param a The root of the first tree, or null.
+     * @param b The root of the second tree, or null.
+     * @return The root of the melded tree.
+     */
+    private static <T extends Comparable<T>> Node<T> meld(Node<T> a, Node<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.value.compareTo(a.value) < 0) {
+            Node<T> temp = a;
+            a = b;
+            b = temp;
+        }
+        a.right = meld(a.right, b);
+        if (rank(a.left) < rank(a.right)) {
+            Node<T> temp = a.left;
+            a.left = a.right;
+            a.right = temp;
+        }
+        a.rank = rank(a.right) + 1;
+        return a;
+    }
+
+    private static <T extends Comparable<T>> int rank(Node<T> node) {
+        return node == null ? 0 : node.rank;
+    }
+
+    /**
+     * Melds count trees of the array, starting at from, in rounds of pairs,
+     * reusing that part of the array. Each round halves the number of trees,
+     * so n single nodes are melded in O(n) total.
+     */
+    private static <T extends Comparable<T>> Node<T> meldAll(Node<T>[] trees, int from, int count) {
+        if (count == 0) {
+            return null;
+        }
+        while (count > 1) {
+            int next = from;
+            int end = from + count;
+            for (int i = from; i + 1 < end; i += 2) {
+                trees[next++] = meld(trees[i], trees[i + 1]);
+            }
+            if ((count & 1) == 1) {
+                trees[next++] = trees[end - 1];
+            }
+            count = next - from;
+        }
+        return trees[from];
+    }
+
+    /**
+     * Melds the first count trees of the array a block at a time, then melds
+     * the block heaps.
+     */
+    private static <T extends Comparable<T>> Node<T> meldBlocks(Node<T>[] trees, int count) {
+        int blocks = 0;
+        for (int from = 0; from < count; from += BUILD_BLOCK) {
+            trees[blocks++] = meldAll(trees, from, Math.min(BUILD_BLOCK, count - from));
+        }
+        return meldAll(trees, 0, blocks);
+    }
+
+    private static <T extends Comparable<T>> Node<T> buildRange(List<? extends T> values, int from, int to) {
+        if (to - from <= PARALLEL_THRESHOLD) {
+            @SuppressWarnings("unchecked")
+            Node<T>[] nodes = new Node[to - from];
+            for (int i = from; i < to; i++) {
+                nodes[i - from] = new Node<>(values.get(i));
+            }
+            return meldBlocks(nodes, to - from);
+        }
+        int mid = (from + to) >>> 1;
+        ForkJoinTask<Node<T>> left = ForkJoinTask.adapt(() -> buildRange(values, from, mid));
+        ForkJoinTask<Node<T>> right = ForkJoinTask.adapt(() -> buildRange(values, mid, to));
+        ForkJoinTask.invokeAll(left, right);
+        return meld(left.join(), right.join());
+    }
+
+    private static class Node<T> {
+        private final T value;
+        private Node<T> left;
+        private Node<T> right;
+        private int rank; // Length of the right spine, counting this node
+
+        Node(T value) {
+            this.value = value;
+            this.rank = 1;
+        }
+    }
+}
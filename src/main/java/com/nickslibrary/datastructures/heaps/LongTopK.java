@@ -0,0 +1,244 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-capacity collector of the K highest-scoring ids in a stream, with
+ * primitive long scores such as counts or timestamps. It works like
+ * {@link DoubleTopK}.
+ *
+ * Ties with the root are rejected, so among equal scores the earliest offered
+ * are kept.
+ */
+public class LongTopK {
+    private final long[] scores; // Min-heap on score
+    private final int[] ids; // Id of the entry at each heap position
+    private int size;
+
+    /**
+     * Constructs an empty collector that keeps the given number of entries.
+     *
+     * @param k The number of highest-scoring entries to keep.
+     * @throws IllegalArgumentException if k is less than 1.
+     */
+    public LongTopK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("K must be at least 1.");
+        }
+        this.scores = new long[k];
+        this.ids = new int[k];
+        this.size = 0;
+    }
+
+    /**
+     * Offers an entry to the collector.
+     *
+     * @param id    The id of the entry.
+     * @param score The score of the entry.
+     * @return True if the entry was kept, false if it was rejected.
+     */
+    public boolean offer(int id, long score) {
+        if (size == scores.length) {
+            if (score <= scores[0]) {
+                return false;
+            }
+            siftDown(id, score);
+            return true;
+        }
+        siftUp(size++, id, score);
+        return true;
+    }
+
+    /**
+     * Offers every score in the array, using each index as its id.
+     *
+     * @param scores The scores to offer.
+     * @return The number of entries kept.
+     */
+    public int offerAll(long[] scores) {
+        return offerAll(scores, 0);
+    }
+
+    /**
+     * Offers every score in the array, using each index plus the offset as its
+     * id. Streams that arrive in chunks can pass the number of scores seen so
+     * far as the offset.
+     *
+     * @param scores   The scores to offer.
+     * @param idOffset The id of the first score.
+     * @return The number of entries kept.
+     */
+    public int offerAll(long[] scores, int idOffset) {
+        int kept = 0;
+        int i = 0;
+        while (i < scores.length && size < this.scores.length) {
+            if (offer(idOffset + i, scores[i])) {
+                kept++;
+            }
+            i++;
+        }
+
+        if (i == scores.length) {
+            return kept;
+        }
+
+        // Full from here on: keep the bar in a local so a rejection is one comparison
+        long threshold = this.scores[0];
+        for (; i < scores.length; i++) {
+            long score = scores[i];
+            if (score > threshold) {
+                siftDown(idOffset + i, score);
+                threshold = this.scores[0];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Returns the lowest score kept, which an offered score must beat once the
+     * collector is full.
+     *
+     * @return The lowest score kept.
+     * @throws IllegalStateException if the collector is empty.
+     */
+    public long peekMinScore() {
+        if (size == 0) {
+            throw new IllegalStateException("Collector is empty.");
+        }
+        return scores[0];
+    }
+
+    /**
+     * Returns the kept ids, highest score first.
+     *
+     * @return A new array of the kept ids.
+     */
+    public int[] toSortedIds() {
+        int[] order = sortedPositions();
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = ids[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the kept scores in descending order, matching
+     * {@link #toSortedIds()}.
+     *
+     * @return A new array of the kept scores.
+     */
+    public long[] toSortedScores() {
+        int[] order = sortedPositions();
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = scores[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of entries kept.
+     *
+     * @return The size of the collector.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of entries the collector keeps at most.
+     *
+     * @return K.
+     */
+    public int capacity() {
+        return scores.length;
+    }
+
+    /**
+     * Checks if the collector holds K entries.
+     *
+     * @return True if the collector is full, false otherwise.
+     */
+    public boolean isFull() {
+        return size == scores.length;
+    }
+
+    /**
+     * Checks if the collector is empty.
+     *
+     * @return True if the collector is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts the heap positions by descending score with a heapsort over a copy,
+     * leaving the collector unchanged.
+     */
+    private int[] sortedPositions() {
+        long[] heapScores = Arrays.copyOf(scores, size);
+        int[] heapPositions = new int[size];
+        for (int i = 0; i < size; i++) {
+            heapPositions[i] = i;
+        }
+        // Repeatedly moving the min-heap's root to the end leaves the largest first
+        for (int end = size - 1; end > 0; end--) {
+            long rootScore = heapScores[0];
+            int rootPosition = heapPositions[0];
+            siftDown(heapScores, heapPositions, end, heapPositions[end], heapScores[end]);
+            heapScores[end] = rootScore;
+            heapPositions[end] = rootPosition;
+        }
+        return heapPositions;
+    }
+
+    private void siftUp(int position, int id, long score) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (scores[parent] <= score) {
+                break;
+            }
+            scores[position] = scores[parent];
+            ids[position] = ids[parent];
+            position = parent;
+        }
+        scores[position] = score;
+        ids[position] = id;
+    }
+
+    /**
+     * Replaces the root with the given entry and moves it down into place.
+     */
+    private void siftDown(int id, long score) {
+        siftDown(scores, ids, size, id, score);
+    }
+
+    private static void siftDown(long[] scores, int[] ids, int size, int id, long score) {
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && scores[child + 1] < scores[child]) {
+                child++;
+            }
+            if (scores[child] >= score) {
+                break;
+            }
+            scores[position] = scores[child];
+            ids[position] = ids[child];
+            position = child;
+        }
+        scores[position] = score;
+        ids[position] = id;
+    }
+}
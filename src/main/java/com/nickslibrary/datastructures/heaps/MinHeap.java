@@ -130,18 +130,58 @@ public class MinHeap<T extends Comparable<T>> {
      * @param values The array of values to insert.
      */
     public void insertAll(T[] values) {
-        int newSize = size + values.length;
+        appendAll(values, values.length);
+    }
+
+    /**
+     * Merges another MinHeap into this one in O(n + m), leaving the other heap
+     * unchanged. For melding many heaps repeatedly, {@link LeftistHeap} does it
+     * in O(log n).
+     *
+     * @param other The MinHeap to merge.
+     */
+    public void merge(MinHeap<T> other) {
+        if (other == null || other == this) {
+            return;
+        }
+        appendAll(other.heap, other.size);
+    }
+
+    /**
+     * Appends the first count elements of an array and restores the heap
+     * property. Only the appended slots and their ancestors can be out of
+     * order, so they are heapified level by level from the bottom, in
+     * O(count + log^2 n) rather than the O(n) of re-heapifying everything.
+     *
+     * @param values The array holding the values to append.
+     * @param count  The number of values to append.
+     */
+    private void appendAll(T[] values, int count) {
+        if (count == 0) {
+            return;
+        }
+        int oldSize = size;
+        int newSize = size + count;
 
         // Ensure capacity before inserting all elements
         ensureCapacity(newSize);
 
         // Copy new elements to the heap array
-        System.arraycopy(values, 0, heap, size, values.length);
+        System.arraycopy(values, 0, heap, size, count);
         size = newSize;
 
-        // Heapify: restore heap property from the last non-leaf node
-        for (int i = parent(size - 1); i >= 0; i--) {
-            heapifyDown(i);
+        // Each level's affected nodes form a contiguous range; heapify it, then move up to the parents
+        int lo = parent(oldSize);
+        int hi = parent(newSize - 1);
+        while (true) {
+            for (int i = hi; i >= lo; i--) {
+                heapifyDown(i);
+            }
+            if (lo == 0) {
+                break;
+            }
+            hi = Math.min(parent(hi), lo - 1);
+            lo = parent(lo);
         }
     }
 
@@ -0,0 +1,272 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A Min-Max Heap: a double-ended priority queue in a single array, giving the
+ * minimum and the maximum in O(1) and removing either in O(log n).
+ *
+ * The array is laid out like a binary heap, but levels alternate between min
+ * levels (the root's level, then every second one) and max levels. An element
+ * on a min level is no greater than anything below it, and one on a max level
+ * is no smaller, so the root is the minimum and the larger of its two children
+ * is the maximum. Inserting compares the new element with its parent to decide
+ * whether it belongs among the min or the max levels, then moves it up two
+ * levels at a time; extracting moves the replacement down two levels at a time,
+ * looking at up to four grandchildren per step.
+ *
+ * This replaces a {@link MinHeap} and a {@link MaxHeap} kept side by side over
+ * the same elements: there is one copy of each element and one structure to
+ * update, and removing from one end needs no lazy deletion at the other. A
+ * bounded buffer, for example, inserts and then calls {@link #extractMin()} or
+ * {@link #extractMax()} to evict once it is over capacity.
+ *
+ * @param <T> The type of elements in the heap, must be Comparable.
+ */
+public class MinMaxHeap<T extends Comparable<T>> {
+    private T[] heap;
+    private int size;
+
+    /**
+     * Constructs a Min-Max Heap with the given initial capacity.
+     *
+     * @param capacity The number of elements the heap can hold before growing.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    @SuppressWarnings("unchecked")
+    public MinMaxHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        this.heap = (T[]) new Comparable[Math.max(capacity, 2)];
+        this.size = 0;
+    }
+
+    /**
+     * Constructs a Min-Max Heap from a collection of elements in O(n), trickling
+     * elements down from the last parent to the root.
+     *
+     * @param elements The elements to put in the heap.
+     */
+    @SuppressWarnings("unchecked")
+    public MinMaxHeap(Collection<? extends T> elements) {
+        this.heap = (T[]) new Comparable[Math.max(elements.size(), 2)];
+        for (T element : elements) {
+            heap[size++] = element;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            trickleDown(i);
+        }
+    }
+
+    /**
+     * Inserts a new element into the heap.
+     *
+     * @param value The value to insert.
+     */
+    public void insert(T value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        int index = size++;
+        if (index == 0) {
+            heap[0] = value;
+            return;
+        }
+
+        // The parent decides which set of levels the new element belongs to
+        int parent = (index - 1) >>> 1;
+        boolean min = isMinLevel(index);
+        if (min ? value.compareTo(heap[parent]) > 0 : value.compareTo(heap[parent]) < 0) {
+            heap[index] = heap[parent];
+            bubbleUp(parent, value, !min);
+        } else {
+            bubbleUp(index, value, min);
+        }
+    }
+
+    /**
+     * Returns the minimum element without removing it.
+     *
+     * @return The smallest element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T peekMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Returns the maximum element without removing it.
+     *
+     * @return The largest element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T peekMax() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+        return heap[maxIndex()];
+    }
+
+    /**
+     * Removes and returns the minimum element from the heap.
+     *
+     * @return The smallest element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T extractMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+        return removeAt(0);
+    }
+
+    /**
+     * Removes and returns the maximum element from the heap.
+     *
+     * @return The largest element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T extractMax() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty.");
+        }
+        return removeAt(maxIndex());
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * @return The size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return True if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Clears all elements from the heap.
+     */
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the index of the maximum: the root if it is alone, otherwise the
+     * larger of its children.
+     */
+    private int maxIndex() {
+        if (size == 1) {
+            return 0;
+        }
+        if (size == 2 || heap[1].compareTo(heap[2]) >= 0) {
+            return 1;
+        }
+        return 2;
+    }
+
+    /**
+     * Removes the element at the index, which is the root or one of its
+     * children, by moving the last element there and trickling it down.
+     */
+    private T removeAt(int index) {
+        T removed = heap[index];
+        size--;
+        heap[index] = heap[size];
+        heap[size] = null;
+        if (index < size) {
+            trickleDown(index);
+        }
+        return removed;
+    }
+
+    /**
+     * Checks whether an index is on a min level: levels are numbered from 0 at
+     * the root, and even levels are min levels.
+     */
+    private static boolean isMinLevel(int index) {
+        return ((31 - Integer.numberOfLeadingZeros(index + 1)) & 1) == 0;
+    }
+
+    /**
+     * Moves a value up from the given hole through its grandparents, which are
+     * on the same kind of level, until it is in order with them.
+     */
+    private void bubbleUp(int index, T value, boolean min) {
+        while (index > 2) {
+            int grandparent = (((index - 1) >>> 1) - 1) >>> 1;
+            int order = value.compareTo(heap[grandparent]);
+            if (min ? order >= 0 : order <= 0) {
+                break;
+            }
+            heap[index] = heap[grandparent];
+            index = grandparent;
+        }
+        heap[index] = value;
+    }
+
+    /**
+     * Moves the element at the index down, two levels at a time, until it is
+     * in order with its children and grandchildren.
+     */
+    private void trickleDown(int index) {
+        boolean min = isMinLevel(index);
+        T value = heap[index];
+        while (true) {
+            // The most extreme of the children and grandchildren, in this level's direction
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            int best = child;
+            if (child + 1 < size && before(heap[child + 1], heap[best], min)) {
+                best = child + 1;
+            }
+            int grandchild = 2 * child + 1;
+            int grandchildEnd = Math.min(grandchild + 4, size);
+            for (int i = grandchild; i < grandchildEnd; i++) {
+                if (before(heap[i], heap[best], min)) {
+                    best = i;
+                }
+            }
+            if (!before(heap[best], value, min)) {
+                break;
+            }
+            heap[index] = heap[best];
+            index = best;
+            if (best < grandchild) {
+                break; // A child has no grandchildren below this value to disturb
+            }
+            // The value now sits on this kind of level again; its parent is of the other kind
+            int parent = (best - 1) >>> 1;
+            if (before(heap[parent], value, min)) {
+                T temp = heap[parent];
+                heap[parent] = value;
+                value = temp;
+            }
+        }
+        heap[index] = value;
+    }
+
+    /**
+     * Checks whether a comes strictly before b: smaller on min levels, larger
+     * on max levels.
+     */
+    private static <T extends Comparable<T>> boolean before(T a, T b, boolean min) {
+        int order = a.compareTo(b);
+        return min ? order < 0 : order > 0;
+    }
+}
@@ -0,0 +1,206 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A relaxed concurrent priority queue made of c * p sequential
+ * {@link MinHeap}s, each behind its own lock, for p threads.
+ *
+ * An insert goes to a random heap whose lock is free. {@link #extractMin()}
+ * samples two random heaps, compares their published minimums without
+ * locking, and extracts from the better one (two-choice deletion). With many
+ * more heaps than threads, threads rarely meet on a lock, so throughput grows
+ * almost linearly with the thread count.
+ *
+ * The price is strict ordering: an extraction returns a small element, not
+ * necessarily the smallest. With two choices the expected rank of the returned
+ * element is O(c * p) and does not grow with the number of elements. Use
+ * {@link SkipListPriorityQueue} when every extraction must return the minimum.
+ *
+ * @param <T> The type of elements in the queue, which must be comparable.
+ */
+public class MultiQueue<T extends Comparable<T>> {
+    private static final int DEFAULT_QUEUES_PER_THREAD = 2;
+    private static final int INITIAL_HEAP_CAPACITY = 16;
+
+    private final Shard<T>[] shards;
+    private final LongAdder size;
+
+    /**
+     * Constructs an empty MultiQueue sized for the number of available
+     * processors.
+     */
+    public MultiQueue() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an empty MultiQueue with two heaps per thread.
+     *
+     * @param threads The number of threads expected to share the queue.
+     * @throws IllegalArgumentException if threads is less than 1.
+     */
+    public MultiQueue(int threads) {
+        this(threads, DEFAULT_QUEUES_PER_THREAD);
+    }
+
+    /**
+     * Constructs an empty MultiQueue with the given number of heaps per thread.
+     * More heaps reduce contention but loosen the ordering.
+     *
+     * @param threads         The number of threads expected to share the queue.
+     * @param queuesPerThread The number of heaps per thread (c).
+     * @throws IllegalArgumentException if either argument is less than 1.
+     */
+    @SuppressWarnings("unchecked")
+    public MultiQueue(int threads, int queuesPerThread) {
+        if (threads < 1 || queuesPerThread < 1) {
+            throw new IllegalArgumentException("Threads and queues per thread must be at least 1.");
+        }
+        int count = Math.max(2, threads * queuesPerThread);
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard<>();
+        }
+        this.size = new LongAdder();
+    }
+
+    /**
+     * Inserts a new element into the queue.
+     *
+     * @param value The value to insert.
+     * @throws IllegalArgumentException if the value is null.
+     */
+    public void insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Shard<T> shard;
+        do {
+            shard = shards[random.nextInt(shards.length)];
+        } while (!shard.lock.tryLock());
+        try {
+            shard.heap.insert(value);
+            shard.publishMin();
+        } finally {
+            shard.lock.unlock();
+        }
+        size.increment();
+    }
+
+    /**
+     * Removes and returns a small element: the smaller of the minimums of two
+     * randomly chosen heaps.
+     *
+     * Another thread may empty the queue between a call to {@link #isEmpty()}
+     * and this one, so an empty queue is reported by returning null rather
+     * than by throwing.
+     *
+     * @return A small element, or null if every heap is empty.
+     */
+    public T extractMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < shards.length; attempt++) {
+            Shard<T> first = shards[random.nextInt(shards.length)];
+            Shard<T> second = shards[random.nextInt(shards.length)];
+            T firstMin = first.min;
+            T secondMin = second.min;
+            if (firstMin == null && secondMin == null) {
+                continue;
+            }
+            Shard<T> chosen = secondMin == null || (firstMin != null && firstMin.compareTo(secondMin) <= 0)
+                    ? first
+                    : second;
+            T value = tryExtract(chosen);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        // Random sampling keeps missing: the queue is empty or nearly so, so look everywhere
+        for (Shard<T> shard : shards) {
+            if (shard.min != null) {
+                shard.lock.lock();
+                try {
+                    if (!shard.heap.isEmpty()) {
+                        return extractLocked(shard);
+                    }
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     *
+     * The count is exact when the queue is quiescent and an estimate while it
+     * is being modified.
+     *
+     * @return The size of the queue.
+     */
+    public int size() {
+        long count = size.sum();
+        return count > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max(0, count);
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return True if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        for (Shard<T> shard : shards) {
+            if (shard.min != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extracts from a heap unless its lock is taken or it has been emptied.
+     *
+     * @param shard The heap to extract from.
+     * @return The extracted element, or null if nothing was extracted.
+     */
+    private T tryExtract(Shard<T> shard) {
+        if (!shard.lock.tryLock()) {
+            return null;
+        }
+        try {
+            return shard.heap.isEmpty() ? null : extractLocked(shard);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private T extractLocked(Shard<T> shard) {
+        T value = shard.heap.extractMin();
+        shard.publishMin();
+        size.decrement();
+        return value;
+    }
+
+    /**
+     * One sequential heap and its lock. The heap's minimum is published in a
+     * volatile field so deletions can compare heaps without locking them.
+     */
+    private static final class Shard<T extends Comparable<T>> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final MinHeap<T> heap = new MinHeap<>(INITIAL_HEAP_CAPACITY);
+        private volatile T min;
+
+        /**
+         * Publishes the heap's current minimum. Must hold the lock.
+         */
+        private void publishMin() {
+            min = heap.isEmpty() ? null : heap.peek();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.nickslibrary.datastructures.heaps;
+
+/**
+ * A Pairing Heap is a heap-ordered multiway tree that is restructured only
+ * when the minimum is removed.
+ *
+ * Each node keeps just three links: its first child, its next sibling, and the
+ * node before it (its previous sibling, or its parent if it is the first
+ * child). Inserting, merging and decreasing a key link two trees in O(1);
+ * {@link #extractMin()} pairs up the root's children left to right and then
+ * merges the pairs right to left (two-pass merging), which keeps it O(log n)
+ * amortized. It offers the same handle API as {@link FibonacciHeap} with much
+ * smaller constant factors.
+ *
+ * @param <T> The type of elements in the Pairing Heap, which must be
+ *            comparable.
+ */
+public class PairingHeap<T extends Comparable<T>> {
+
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Constructs an empty Pairing Heap.
+     */
+    public PairingHeap() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    /**
+     * Inserts a new element into the Pairing Heap.
+     *
+     * @param value The value to insert into the heap.
+     * @return The inserted node, which can be passed to
+     *         {@link #decreaseKey(Node, Comparable)} and {@link #delete(Node)}.
+     */
+    public Node<T> insert(T value) {
+        Node<T> node = new Node<>(value);
+        root = link(root, node);
+        size++;
+        return node;
+    }
+
+    /**
+     * Merges another Pairing Heap into this one, leaving the other heap empty.
+     *
+     * @param other The Pairing Heap to merge.
+     */
+    public void merge(PairingHeap<T> other) {
+        if (other == null || other == this || other.root == null) {
+            return;
+        }
+        root = link(root, other.root);
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+    }
+
+    /**
+     * Returns the minimum element without removing it.
+     *
+     * @return The minimum element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T peekMin() {
+        if (root == null) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return root.value;
+    }
+
+    /**
+     * Extracts and returns the minimum element from the Pairing Heap.
+     *
+     * @return The minimum element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T extractMin() {
+        if (root == null) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        Node<T> min = root;
+        root = mergePairs(min.child);
+        if (root != null) {
+            root.prev = null;
+        }
+        min.child = null;
+        size--;
+        return min.value;
+    }
+
+    /**
+     * Decreases the key of a node in the Pairing Heap.
+     *
+     * @param node   The node whose key should be decreased.
+     * @param newKey The new value for the key.
+     * @throws IllegalArgumentException if newKey is greater than the current key.
+     */
+    public void decreaseKey(Node<T> node, T newKey) {
+        if (newKey.compareTo(node.value) > 0) {
+            throw new IllegalArgumentException("newKey cannot be greater than the current key.");
+        }
+        node.value = newKey;
+        if (node != root) {
+            cut(node);
+            root = link(root, node);
+        }
+    }
+
+    /**
+     * Deletes a node from the Pairing Heap.
+     *
+     * @param node The node to delete.
+     */
+    public void delete(Node<T> node) {
+        if (node == root) {
+            extractMin();
+            return;
+        }
+        cut(node);
+        Node<T> children = mergePairs(node.child);
+        node.child = null;
+        if (children != null) {
+            children.prev = null;
+            root = link(root, children);
+        }
+        size--;
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * @return The size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return True if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Makes the root with the larger key the first child of the other.
+     *
+     * @param a The root of the first tree, or null.
+     * @param b The root of the second tree, or null.
+     * @return The root of the combined tree.
+     */
+    private Node<T> link(Node<T> a, Node<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.value.compareTo(a.value) < 0) {
+            Node<T> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.prev = a;
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        a.child = b;
+        a.next = null;
+        a.prev = null;
+        return a;
+    }
+
+    /**
+     * Detaches a non-root node, with its subtree, from its parent or siblings.
+     *
+     * @param node The node to detach.
+     */
+    private void cut(Node<T> node) {
+        if (node.prev.child == node) {
+            node.prev.child = node.next; // First child, so prev is the parent
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.next = null;
+        node.prev = null;
+    }
+
+    /**
+     * Combines a list of sibling trees with two-pass merging: link them in
+     * pairs from left to right, then link the pairs from right to left.
+     *
+     * @param first The first sibling, or null.
+     * @return The root of the combined tree, or null.
+     */
+    private Node<T> mergePairs(Node<T> first) {
+        // First pass: link neighbours, chaining the results through prev
+        Node<T> last = null;
+        Node<T> current = first;
+        while (current != null) {
+            Node<T> second = current.next;
+            Node<T> rest = second == null ? null : second.next;
+            current.next = null;
+            if (second != null) {
+                second.next = null;
+            }
+            Node<T> pair = link(current, second);
+            pair.prev = last;
+            last = pair;
+            current = rest;
+        }
+
+        // Second pass: fold the pairs from the rightmost one back
+        Node<T> result = null;
+        while (last != null) {
+            Node<T> previous = last.prev;
+            last.prev = null;
+            result = link(result, last);
+            last = previous;
+        }
+        return result;
+    }
+
+    public static class Node<T extends Comparable<T>> {
+
+        private T value;
+        private Node<T> child;
+        private Node<T> next;
+        private Node<T> prev;
+
+        /**
+         * Constructs a new node with the specified value.
+         *
+         * @param value The value to store in the node.
+         */
+        public Node(T value) {
+            this.value = value;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+}
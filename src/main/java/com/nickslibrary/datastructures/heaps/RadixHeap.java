@@ -0,0 +1,298 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.Arrays;
+
+/**
+ * A monotone Radix Heap for non-negative integer keys, such as the distances in
+ * Dijkstra's algorithm over integer edge weights.
+ *
+ * The heap remembers the last key extracted and only accepts keys at least as
+ * large (it is monotone). Each entry sits in the bucket numbered by the highest
+ * bit in which its key differs from that last key, so bucket 0 holds keys
+ * equal to it and bucket i holds keys that differ first in bit i - 1. Extracting
+ * from an empty bucket 0 finds the smallest key in the first non-empty bucket,
+ * makes it the new last key and redistributes that bucket into lower ones. An
+ * entry can only move down, at most 64 times in total, so operations are
+ * O(log C) amortized for keys up to C, with no comparisons between entries.
+ *
+ * It offers the same handle API as {@link FibonacciHeap}, with a long key
+ * carried next to each value.
+ *
+ * @param <T> The type of values stored with the keys.
+ */
+public class RadixHeap<T> {
+    private static final int BUCKETS = Long.SIZE + 1;
+
+    @SuppressWarnings("unchecked")
+    private final Node<T>[][] buckets = new Node[BUCKETS][];
+    private final int[] bucketSizes = new int[BUCKETS];
+    private long last;
+    private int size;
+
+    /**
+     * Constructs an empty Radix Heap.
+     */
+    public RadixHeap() {
+        this.last = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Inserts a new value with the given key.
+     *
+     * @param key   The key, which must not be below the last key extracted.
+     * @param value The value to store with the key.
+     * @return The inserted node, which can be passed to
+     *         {@link #decreaseKey(Node, long)} and {@link #delete(Node)}.
+     * @throws IllegalArgumentException if the key is below the last key
+     *                                  extracted.
+     */
+    public Node<T> insert(long key, T value) {
+        checkMonotone(key);
+        Node<T> node = new Node<>(key, value);
+        add(node);
+        size++;
+        return node;
+    }
+
+    /**
+     * Merges another Radix Heap into this one, leaving the other heap empty.
+     * Afterwards the heap accepts keys down to the smaller of the two last
+     * keys. This takes O(n), as the other heap's entries are rebucketed (and
+     * this heap's too, if the other's last key is smaller).
+     *
+     * @param other The Radix Heap to merge.
+     */
+    public void merge(RadixHeap<T> other) {
+        if (other == null || other == this || other.size == 0) {
+            return;
+        }
+        if (other.last < last) {
+            rebucket(other.last);
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            for (int i = 0; i < other.bucketSizes[b]; i++) {
+                add(other.buckets[b][i]);
+            }
+        }
+        size += other.size;
+        other.clear();
+    }
+
+    /**
+     * Returns the value with the smallest key without removing it.
+     *
+     * @return The value with the smallest key.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T peekMin() {
+        settleMin();
+        return buckets[0][0].value;
+    }
+
+    /**
+     * Returns the smallest key without removing it.
+     *
+     * @return The smallest key.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public long peekMinKey() {
+        settleMin();
+        return buckets[0][0].key;
+    }
+
+    /**
+     * Extracts and returns the value with the smallest key.
+     *
+     * @return The value with the smallest key.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T extractMin() {
+        settleMin();
+        Node<T> min = buckets[0][0];
+        remove(min);
+        size--;
+        return min.value;
+    }
+
+    /**
+     * Decreases the key of a node in the Radix Heap.
+     *
+     * @param node   The node whose key should be decreased.
+     * @param newKey The new key, which must not be below the last key
+     *               extracted.
+     * @throws IllegalArgumentException if newKey is greater than the current key
+     *                                  or below the last key extracted.
+     */
+    public void decreaseKey(Node<T> node, long newKey) {
+        if (newKey > node.key) {
+            throw new IllegalArgumentException("newKey cannot be greater than the current key.");
+        }
+        checkMonotone(newKey);
+        remove(node);
+        node.key = newKey;
+        add(node);
+    }
+
+    /**
+     * Deletes a node from the Radix Heap.
+     *
+     * @param node The node to delete.
+     */
+    public void delete(Node<T> node) {
+        remove(node);
+        size--;
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * @return The size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return True if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements and accepts any non-negative key again.
+     */
+    public void clear() {
+        for (int b = 0; b < BUCKETS; b++) {
+            if (buckets[b] != null) {
+                Arrays.fill(buckets[b], 0, bucketSizes[b], null);
+            }
+            bucketSizes[b] = 0;
+        }
+        last = 0;
+        size = 0;
+    }
+
+    private void checkMonotone(long key) {
+        if (key < last) {
+            throw new IllegalArgumentException("Key " + key + " is below the last extracted key " + last + ".");
+        }
+    }
+
+    private int bucketOf(long key) {
+        return key == last ? 0 : Long.SIZE - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    /**
+     * Makes sure bucket 0 holds the smallest keys, redistributing the first
+     * non-empty bucket if it does not.
+     */
+    private void settleMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        if (bucketSizes[0] > 0) {
+            return;
+        }
+
+        int b = 1;
+        while (bucketSizes[b] == 0) {
+            b++;
+        }
+        Node<T>[] bucket = buckets[b];
+        int count = bucketSizes[b];
+        long min = bucket[0].key;
+        for (int i = 1; i < count; i++) {
+            min = Math.min(min, bucket[i].key);
+        }
+
+        // Every key in the bucket now differs from the new last key in a lower bit
+        last = min;
+        bucketSizes[b] = 0;
+        for (int i = 0; i < count; i++) {
+            Node<T> node = bucket[i];
+            bucket[i] = null;
+            add(node);
+        }
+    }
+
+    private void rebucket(long newLast) {
+        int count = 0;
+        @SuppressWarnings("unchecked")
+        Node<T>[] all = new Node[size];
+        for (int b = 0; b < BUCKETS; b++) {
+            for (int i = 0; i < bucketSizes[b]; i++) {
+                all[count++] = buckets[b][i];
+                buckets[b][i] = null;
+            }
+            bucketSizes[b] = 0;
+        }
+        last = newLast;
+        for (int i = 0; i < count; i++) {
+            add(all[i]);
+        }
+    }
+
+    private void add(Node<T> node) {
+        int b = bucketOf(node.key);
+        Node<T>[] bucket = buckets[b];
+        if (bucket == null) {
+            @SuppressWarnings("unchecked")
+            Node<T>[] created = new Node[8];
+            bucket = created;
+            buckets[b] = bucket;
+        } else if (bucketSizes[b] == bucket.length) {
+            bucket = Arrays.copyOf(bucket, bucket.length * 2);
+            buckets[b] = bucket;
+        }
+        node.bucket = b;
+        node.index = bucketSizes[b];
+        bucket[bucketSizes[b]++] = node;
+    }
+
+    /**
+     * Removes a node from its bucket by moving the bucket's last node into
+     * its slot.
+     */
+    private void remove(Node<T> node) {
+        int b = node.bucket;
+        Node<T>[] bucket = buckets[b];
+        int lastIndex = --bucketSizes[b];
+        Node<T> moved = bucket[lastIndex];
+        bucket[node.index] = moved;
+        moved.index = node.index;
+        bucket[lastIndex] = null;
+        node.bucket = -1;
+    }
+
+    public static class Node<T> {
+
+        private long key;
+        private final T value;
+        private int bucket; // Bucket holding the node, or -1
+        private int index; // Slot within the bucket
+
+        /**
+         * Constructs a new node with the specified key and value.
+         *
+         * @param key   The key of the node.
+         * @param value The value to store in the node.
+         */
+        public Node(long key, T value) {
+            this.key = key;
+            this.value = value;
+            this.bucket = -1;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+}
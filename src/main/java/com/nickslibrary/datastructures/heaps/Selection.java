@@ -0,0 +1,322 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.Arrays;
+
+/**
+ * Quickselect over primitive arrays, for picking order statistics such as the
+ * median or the K-th largest score without sorting.
+ *
+ * {@link #nthElement(double[], int)} rearranges the array in place so that the
+ * element at index n is the one a full sort would put there, every element
+ * before it is no greater and every element after it is no smaller. It runs
+ * in O(n) expected time with median-of-three pivots and falls back to sorting
+ * the remaining range if partitioning stops making progress, so the worst case
+ * is O(n log n).
+ *
+ * The top K of an array are then the last K elements after
+ * {@code nthElement(a, a.length - K)}, in no particular order.
+ */
+public final class Selection {
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private Selection() {
+    }
+
+    /**
+     * Partially sorts the array so that index n holds its sorted value.
+     *
+     * Values are compared with {@code <}; the result is unspecified if the
+     * array contains NaN.
+     *
+     * @param a The array to rearrange.
+     * @param n The index to select.
+     * @return The n-th smallest value, counting from 0.
+     * @throws IllegalArgumentException if n is outside the array.
+     */
+    public static double nthElement(double[] a, int n) {
+        return nthElement(a, 0, a.length, n);
+    }
+
+    /**
+     * Partially sorts the range [from, to) so that index n holds the value a
+     * sort of the range would put there.
+     *
+     * @param a    The array to rearrange.
+     * @param from The first index of the range.
+     * @param to   The index just past the range.
+     * @param n    The index to select, within the range.
+     * @return The selected value.
+     * @throws IllegalArgumentException if the range or n is out of bounds.
+     */
+    public static double nthElement(double[] a, int from, int to, int n) {
+        checkRange(a.length, from, to, n);
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+        int lo = from;
+        int hi = to - 1;
+        while (lo <= n && n <= hi && hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (budget-- == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return a[n];
+            }
+            // Median of three moves the pivot to lo, with sentinels at lo + 1 and hi
+            int mid = (lo + hi) >>> 1;
+            swap(a, mid, lo + 1);
+            if (a[lo + 1] > a[hi]) {
+                swap(a, lo + 1, hi);
+            }
+            if (a[lo] > a[hi]) {
+                swap(a, lo, hi);
+            }
+            if (a[lo + 1] > a[lo]) {
+                swap(a, lo + 1, lo);
+            }
+            double pivot = a[lo];
+            int i = lo + 1;
+            int j = hi;
+            while (true) {
+                do {
+                    i++;
+                } while (a[i] < pivot);
+                do {
+                    j--;
+                } while (a[j] > pivot);
+                if (i > j) {
+                    break;
+                }
+                swap(a, i, j);
+            }
+            a[lo] = a[j];
+            a[j] = pivot;
+            if (j >= n) {
+                hi = j - 1;
+            }
+            if (j <= n) {
+                lo = i;
+            }
+            if (j == n) {
+                return a[n];
+            }
+        }
+        if (lo <= n && n <= hi) {
+            insertionSort(a, lo, hi);
+        }
+        return a[n];
+    }
+
+    /**
+     * Partially sorts the array so that index n holds its sorted value.
+     *
+     * @param a The array to rearrange.
+     * @param n The index to select.
+     * @return The n-th smallest value, counting from 0.
+     * @throws IllegalArgumentException if n is outside the array.
+     */
+    public static long nthElement(long[] a, int n) {
+        return nthElement(a, 0, a.length, n);
+    }
+
+    /**
+     * Partially sorts the range [from, to) so that index n holds the value a
+     * sort of the range would put there.
+     *
+     * @param a    The array to rearrange.
+     * @param from The first index of the range.
+     * @param to   The index just past the range.
+     * @param n    The index to select, within the range.
+     * @return The selected value.
+     * @throws IllegalArgumentException if the range or n is out of bounds.
+     */
+    public static long nthElement(long[] a, int from, int to, int n) {
+        checkRange(a.length, from, to, n);
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+        int lo = from;
+        int hi = to - 1;
+        while (lo <= n && n <= hi && hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (budget-- == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return a[n];
+            }
+            int mid = (lo + hi) >>> 1;
+            swap(a, mid, lo + 1);
+            if (a[lo + 1] > a[hi]) {
+                swap(a, lo + 1, hi);
+            }
+            if (a[lo] > a[hi]) {
+                swap(a, lo, hi);
+            }
+            if (a[lo + 1] > a[lo]) {
+                swap(a, lo + 1, lo);
+            }
+            long pivot = a[lo];
+            int i = lo + 1;
+            int j = hi;
+            while (true) {
+                do {
+                    i++;
+                } while (a[i] < pivot);
+                do {
+                    j--;
+                } while (a[j] > pivot);
+                if (i > j) {
+                    break;
+                }
+                swap(a, i, j);
+            }
+            a[lo] = a[j];
+            a[j] = pivot;
+            if (j >= n) {
+                hi = j - 1;
+            }
+            if (j <= n) {
+                lo = i;
+            }
+            if (j == n) {
+                return a[n];
+            }
+        }
+        if (lo <= n && n <= hi) {
+            insertionSort(a, lo, hi);
+        }
+        return a[n];
+    }
+
+    /**
+     * Partially sorts the array so that index n holds its sorted value.
+     *
+     * @param a The array to rearrange.
+     * @param n The index to select.
+     * @return The n-th smallest value, counting from 0.
+     * @throws IllegalArgumentException if n is outside the array.
+     */
+    public static int nthElement(int[] a, int n) {
+        return nthElement(a, 0, a.length, n);
+    }
+
+    /**
+     * Partially sorts the range [from, to) so that index n holds the value a
+     * sort of the range would put there.
+     *
+     * @param a    The array to rearrange.
+     * @param from The first index of the range.
+     * @param to   The index just past the range.
+     * @param n    The index to select, within the range.
+     * @return The selected value.
+     * @throws IllegalArgumentException if the range or n is out of bounds.
+     */
+    public static int nthElement(int[] a, int from, int to, int n) {
+        checkRange(a.length, from, to, n);
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+        int lo = from;
+        int hi = to - 1;
+        while (lo <= n && n <= hi && hi - lo >= INSERTION_SORT_THRESHOLD) {
+            if (budget-- == 0) {
+                Arrays.sort(a, lo, hi + 1);
+                return a[n];
+            }
+            int mid = (lo + hi) >>> 1;
+            swap(a, mid, lo + 1);
+            if (a[lo + 1] > a[hi]) {
+                swap(a, lo + 1, hi);
+            }
+            if (a[lo] > a[hi]) {
+                swap(a, lo, hi);
+            }
+            if (a[lo + 1] > a[lo]) {
+                swap(a, lo + 1, lo);
+            }
+            int pivot = a[lo];
+            int i = lo + 1;
+            int j = hi;
+            while (true) {
+                do {
+                    i++;
+                } while (a[i] < pivot);
+                do {
+                    j--;
+                } while (a[j] > pivot);
+                if (i > j) {
+                    break;
+                }
+                swap(a, i, j);
+            }
+            a[lo] = a[j];
+            a[j] = pivot;
+            if (j >= n) {
+                hi = j - 1;
+            }
+            if (j <= n) {
+                lo = i;
+            }
+            if (j == n) {
+                return a[n];
+            }
+        }
+        if (lo <= n && n <= hi) {
+            insertionSort(a, lo, hi);
+        }
+        return a[n];
+    }
+
+    private static void checkRange(int length, int from, int to, int n) {
+        if (from < 0 || to > length || from >= to) {
+            throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ") for length " + length + ".");
+        }
+        if (n < from || n >= to) {
+            throw new IllegalArgumentException("Index " + n + " is outside [" + from + ", " + to + ").");
+        }
+    }
+
+    private static void insertionSort(double[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double value = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void insertionSort(long[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            long value = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void insertionSort(int[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int value = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+}
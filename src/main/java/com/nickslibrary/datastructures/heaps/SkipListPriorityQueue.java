@@ -0,0 +1,125 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.nickslibrary.datastructures.advanced.ConcurrentSkipList;
+
+/**
+ * A strict, lock-free priority queue that can be shared between threads, built
+ * on {@link ConcurrentSkipList}.
+ *
+ * Elements are kept sorted in the skip list, so the minimum is always the first
+ * live node on the bottom level. {@link #extractMin()} reads that node and then
+ * races to remove it; only the thread whose CAS takes the node's value out wins,
+ * and the others move on to the next minimum (the Lotan-Shavit scheme, with the
+ * value CAS in {@link ConcurrentSkipList#remove} as the linearization point
+ * rather than the mark on the bottom link). Each element is
+ * tagged with an insertion sequence number, so equal elements are kept apart
+ * and leave in the order they arrived.
+ *
+ * Every extraction returns an element that was the minimum at some point during
+ * the call. For workloads that can tolerate slightly out-of-order extractions,
+ * {@link MultiQueue} scales further.
+ *
+ * @param <T> The type of elements in the queue, which must be comparable.
+ */
+public class SkipListPriorityQueue<T extends Comparable<T>> {
+
+    private final ConcurrentSkipList<Entry<T>, T> list;
+    private final AtomicLong sequence;
+
+    /**
+     * Constructs an empty SkipListPriorityQueue.
+     */
+    public SkipListPriorityQueue() {
+        this.list = new ConcurrentSkipList<>();
+        this.sequence = new AtomicLong();
+    }
+
+    /**
+     * Inserts a new element into the queue.
+     *
+     * @param value The value to insert.
+     * @throws IllegalArgumentException if the value is null.
+     */
+    public void insert(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        list.put(new Entry<>(value, sequence.getAndIncrement()), value);
+    }
+
+    /**
+     * Removes and returns the minimum element.
+     *
+     * Another thread may empty the queue between a call to {@link #isEmpty()}
+     * and this one, so an empty queue is reported by returning null rather
+     * than by throwing.
+     *
+     * @return The minimum element, or null if the queue is empty.
+     */
+    public T extractMin() {
+        while (true) {
+            Entry<T> first = list.firstKey();
+            if (first == null) {
+                return null;
+            }
+            T value = list.remove(first);
+            if (value != null) {
+                return value;
+            }
+            // Another thread took it first, so try the new minimum
+        }
+    }
+
+    /**
+     * Returns the minimum element without removing it.
+     *
+     * @return The minimum element, or null if the queue is empty.
+     */
+    public T peekMin() {
+        Entry<T> first = list.firstKey();
+        return first == null ? null : first.value;
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     *
+     * The count is exact when the queue is quiescent and an estimate while it
+     * is being modified.
+     *
+     * @return The size of the queue.
+     */
+    public int size() {
+        return list.size();
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return True if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return list.isEmpty();
+    }
+
+    /**
+     * A queued element with the sequence number that keeps equal elements
+     * distinct in the skip list.
+     */
+    private static final class Entry<T extends Comparable<T>> implements Comparable<Entry<T>> {
+        private final T value;
+        private final long sequence;
+
+        Entry(T value, long sequence) {
+            this.value = value;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry<T> other) {
+            int byValue = value.compareTo(other.value);
+            return byValue != 0 ? byValue : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel for scheduling large numbers of timeouts, with
+ * O(1) schedule and cancel and advancing time in O(1) amortized per timer.
+ *
+ * Time is measured in integer ticks chosen by the caller (milliseconds, for
+ * example). The wheel has four levels of 64 slots. A timer is filed on the level
+ * of the highest 6-bit group in which its deadline differs from the current
+ * time, in the slot given by that group of the deadline, so level 0 holds the
+ * timers due in the current block of 64 ticks, level 1 those due in the current
+ * block of 4096 ticks, and so on. When time reaches the start of a slot's range,
+ * the slot is cascaded: its timers are filed again on lower levels. Each timer
+ * moves down at most three times, and each level keeps a 64-bit occupancy mask,
+ * so {@link #advanceTo(long, Consumer)} skips empty stretches of time without
+ * visiting them.
+ *
+ * Timers due more than 2^24 ticks ahead do not fit on the wheel and wait in an
+ * overflow {@link MinHeap} until time comes within range.
+ *
+ * @param <T> The type of values carried by the timers.
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final int WHEEL_BITS = SLOT_BITS * LEVELS; // Ticks the wheel covers, as a power of two
+
+    private final Timer<T>[][] heads; // First timer in each slot, per level
+    private final Timer<T>[][] tails;
+    private final long[] occupied; // Bit s of occupied[level] is set when the slot has timers
+    private final MinHeap<Timer<T>> overflow;
+    private long now;
+    private long sequence;
+    private int size;
+
+    /**
+     * Constructs an empty TimingWheel starting at time 0.
+     */
+    public TimingWheel() {
+        this(0);
+    }
+
+    /**
+     * Constructs an empty TimingWheel starting at the given time.
+     *
+     * @param startTime The current time, in ticks.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startTime) {
+        this.heads = new Timer[LEVELS][SLOTS];
+        this.tails = new Timer[LEVELS][SLOTS];
+        this.occupied = new long[LEVELS];
+        this.overflow = new MinHeap<>(16);
+        this.now = startTime;
+    }
+
+    /**
+     * Schedules a value to fire at the given deadline. A deadline that has
+     * already passed fires on the next call to {@link #advanceTo}.
+     *
+     * @param deadline The tick at which the timer fires.
+     * @param value    The value to hand to the action when the timer fires.
+     * @return The timer, which can be passed to {@link #cancel(Timer)}.
+     */
+    public Timer<T> schedule(long deadline, T value) {
+        Timer<T> timer = new Timer<>(deadline, value, sequence++);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a pending timer in O(1).
+     *
+     * @param timer The timer to cancel.
+     * @return True if the timer was pending, false if it had already fired or
+     *         been cancelled.
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.level == Timer.DONE) {
+            return false;
+        }
+        if (timer.level == Timer.OVERFLOW) {
+            timer.level = Timer.DONE; // Dropped when it leaves the overflow heap
+        } else {
+            unlink(timer);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the current time to the given tick, firing every timer due by
+     * then. Timers fire in deadline order; timers due on the same tick fire in
+     * no particular order. The action may schedule and cancel timers.
+     *
+     * @param time   The tick to advance to.
+     * @param action The action to run for the value of each timer that fires.
+     * @return The number of timers fired.
+     * @throws IllegalArgumentException if time is before the current time.
+     */
+    public int advanceTo(long time, Consumer<? super T> action) {
+        if (time < now) {
+            throw new IllegalArgumentException("Cannot move time back from " + now + " to " + time + ".");
+        }
+        int fired = 0;
+        while (true) {
+            long next = nextEventTime();
+            if (next > time) {
+                break;
+            }
+            now = next;
+            pullOverflow();
+            cascade();
+            fired += fireSlot(action);
+        }
+        now = time;
+        return fired;
+    }
+
+    /**
+     * Returns the current time.
+     *
+     * @return The current time, in ticks.
+     */
+    public long currentTime() {
+        return now;
+    }
+
+    /**
+     * Returns the number of pending timers.
+     *
+     * @return The number of pending timers.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if no timers are pending.
+     *
+     * @return True if no timers are pending, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Files a timer on the level of the highest 6-bit group in which its
+     * deadline differs from the current time, or in the overflow heap.
+     */
+    private void place(Timer<T> timer) {
+        long due = Math.max(timer.deadline, now);
+        long difference = due ^ now;
+        if (difference >>> WHEEL_BITS != 0) {
+            timer.level = Timer.OVERFLOW;
+            overflow.insert(timer);
+            return;
+        }
+        int level = difference == 0 ? 0 : (63 - Long.numberOfLeadingZeros(difference)) / SLOT_BITS;
+        int slot = (int) (due >>> (level * SLOT_BITS)) & (SLOTS - 1);
+        timer.level = level;
+        timer.slot = slot;
+        timer.next = null;
+        timer.prev = tails[level][slot];
+        if (timer.prev == null) {
+            heads[level][slot] = timer;
+            occupied[level] |= 1L << slot;
+        } else {
+            timer.prev.next = timer;
+        }
+        tails[level][slot] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        int level = timer.level;
+        int slot = timer.slot;
+        if (timer.prev == null) {
+            heads[level][slot] = timer.next;
+        } else {
+            timer.prev.next = timer.next;
+        }
+        if (timer.next == null) {
+            tails[level][slot] = timer.prev;
+        } else {
+            timer.next.prev = timer.prev;
+        }
+        if (heads[level][slot] == null) {
+            occupied[level] &= ~(1L << slot);
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.level = Timer.DONE;
+    }
+
+    /**
+     * Returns the first tick at or after the current time at which a level-0
+     * slot is due, a higher slot must be cascaded or the overflow heap must be
+     * drained, or Long.MAX_VALUE if no timers are pending.
+     */
+    private long nextEventTime() {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            int current = (int) (now >>> shift) & (SLOTS - 1);
+            // Level 0 includes the current slot; higher levels only hold slots still ahead
+            long ahead = level == 0 ? -1L << current : current == SLOTS - 1 ? 0 : -1L << (current + 1);
+            long mask = occupied[level] & ahead;
+            if (mask != 0) {
+                long block = now >>> (shift + SLOT_BITS) << (shift + SLOT_BITS);
+                return block | ((long) Long.numberOfTrailingZeros(mask) << shift);
+            }
+        }
+        while (!overflow.isEmpty()) {
+            Timer<T> first = overflow.peek();
+            if (first.level == Timer.DONE) {
+                overflow.extractMin();
+                continue;
+            }
+            return first.deadline >>> WHEEL_BITS << WHEEL_BITS;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Moves the overflow timers that now fall within the wheel's range onto it.
+     */
+    private void pullOverflow() {
+        while (!overflow.isEmpty() && (overflow.peek().deadline ^ now) >>> WHEEL_BITS == 0) {
+            Timer<T> timer = overflow.extractMin();
+            if (timer.level != Timer.DONE) {
+                place(timer);
+            }
+        }
+    }
+
+    /**
+     * Files again, on lower levels, the timers in every slot whose range starts
+     * at the current time, from the top level down.
+     */
+    private void cascade() {
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            int shift = level * SLOT_BITS;
+            if ((now & ((1L << shift) - 1)) != 0) {
+                continue; // Not at the start of a slot on this level
+            }
+            int slot = (int) (now >>> shift) & (SLOTS - 1);
+            Timer<T> timer = heads[level][slot];
+            heads[level][slot] = null;
+            tails[level][slot] = null;
+            occupied[level] &= ~(1L << slot);
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                place(timer);
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * Fires the timers in the level-0 slot for the current time, including any
+     * the action schedules for it.
+     */
+    private int fireSlot(Consumer<? super T> action) {
+        int slot = (int) now & (SLOTS - 1);
+        int fired = 0;
+        Timer<T> timer;
+        while ((timer = heads[0][slot]) != null) {
+            unlink(timer);
+            size--;
+            fired++;
+            action.accept(timer.value);
+        }
+        return fired;
+    }
+
+    /**
+     * A scheduled timer, used as the handle for cancelling it.
+     *
+     * @param <T> The type of value carried by the timer.
+     */
+    public static class Timer<T> implements Comparable<Timer<T>> {
+        private static final int OVERFLOW = -1;
+        private static final int DONE = -2;
+
+        private final long deadline;
+        private final T value;
+        private final long sequence; // Orders equal deadlines in the overflow heap
+        private int level; // Wheel level, OVERFLOW or DONE
+        private int slot;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        Timer(long deadline, T value, long sequence) {
+            this.deadline = deadline;
+            this.value = value;
+            this.sequence = sequence;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Checks whether the timer has neither fired nor been cancelled.
+         *
+         * @return True if the timer is pending, false otherwise.
+         */
+        public boolean isPending() {
+            return level != DONE;
+        }
+
+        @Override
+        public int compareTo(Timer<T> other) {
+            int byDeadline = Long.compare(deadline, other.deadline);
+            return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.nickslibrary.datastructures.heaps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fixed-capacity collector of the K largest elements in a stream.
+ *
+ * Unlike {@link MinHeap} and {@link MaxHeap}, it never resizes: the kept
+ * elements form a binary min-heap of at most K entries whose root is the
+ * smallest kept, the bar a new element has to beat. Once the collector is full,
+ * an element that does not beat the root is rejected with a single comparison;
+ * one that does replaces the root and is sifted down in O(log K).
+ *
+ * For primitive scores, {@link DoubleTopK} and {@link LongTopK} avoid boxing.
+ *
+ * @param <T> The type of elements, which must be comparable.
+ */
+public class TopK<T extends Comparable<T>> {
+    private final T[] heap;
+    private int size;
+
+    /**
+     * Constructs an empty collector that keeps the given number of elements.
+     *
+     * @param k The number of largest elements to keep.
+     * @throws IllegalArgumentException if k is less than 1.
+     */
+    @SuppressWarnings("unchecked")
+    public TopK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("K must be at least 1.");
+        }
+        this.heap = (T[]) new Comparable[k];
+        this.size = 0;
+    }
+
+    /**
+     * Offers an element to the collector. Ties with the smallest kept element
+     * are rejected, so among equal elements the earliest offered are kept.
+     *
+     * @param value The value to offer.
+     * @return True if the value was kept, false if it was rejected.
+     * @throws IllegalArgumentException if the value is null.
+     */
+    public boolean offer(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        if (size == heap.length) {
+            if (value.compareTo(heap[0]) <= 0) {
+                return false;
+            }
+            siftDown(heap, size, value);
+            return true;
+        }
+
+        int position = size++;
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heap[parent].compareTo(value) <= 0) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = value;
+        return true;
+    }
+
+    /**
+     * Offers every element of the iterable.
+     *
+     * @param values The values to offer.
+     * @return The number of values kept.
+     */
+    public int offerAll(Iterable<? extends T> values) {
+        int kept = 0;
+        for (T value : values) {
+            if (offer(value)) {
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Returns the smallest element kept, which an offered element must beat
+     * once the collector is full.
+     *
+     * @return The smallest element kept.
+     * @throws IllegalStateException if the collector is empty.
+     */
+    public T peekMin() {
+        if (size == 0) {
+            throw new IllegalStateException("Collector is empty.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Returns the kept elements, largest first.
+     *
+     * @return A new list of the kept elements.
+     */
+    public List<T> toSortedList() {
+        T[] copy = Arrays.copyOf(heap, size);
+        // Repeatedly moving the min-heap's root to the end leaves the largest first
+        for (int end = size - 1; end > 0; end--) {
+            T root = copy[0];
+            siftDown(copy, end, copy[end]);
+            copy[end] = root;
+        }
+        return new ArrayList<>(Arrays.asList(copy));
+    }
+
+    /**
+     * Returns the number of elements kept.
+     *
+     * @return The size of the collector.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of elements the collector keeps at most.
+     *
+     * @return K.
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * Checks if the collector holds K elements.
+     *
+     * @return True if the collector is full, false otherwise.
+     */
+    public boolean isFull() {
+        return size == heap.length;
+    }
+
+    /**
+     * Checks if the collector is empty.
+     *
+     * @return True if the collector is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements, keeping the capacity.
+     */
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Replaces the root of a min-heap with the given value and moves it down
+     * into place.
+     */
+    private static <T extends Comparable<T>> void siftDown(T[] heap, int size, T value) {
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && heap[child + 1].compareTo(heap[child]) < 0) {
+                child++;
+            }
+            if (heap[child].compareTo(value) >= 0) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = value;
+    }
+}
@@ -1,38 +1,95 @@
 package com.nickslibrary.datastructures.trees;
 
-import java.util.ArrayList;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
+/**
+ * An in-memory B+ tree. Internal nodes hold only separator keys, all values
+ * live in the leaves, and the leaves are linked left to right so range scans
+ * never go back up the tree.
+ *
+ * Each node keeps its keys in a flat array sized by the order (the maximum
+ * number of children of a node) and is searched with a binary search, so one
+ * node costs a handful of contiguous cache lines instead of a list of entry
+ * objects. An order of 32-64 keeps a node within a few cache lines, while
+ * larger orders approach page-sized nodes.
+ *
+ * @param <Key>   The type of keys, which must be comparable.
+ * @param <Value> The type of values.
+ */
 public class BTree<Key extends Comparable<Key>, Value> {
-    private final int M = 4;
+    public static final int DEFAULT_ORDER = 64;
+
+    private final int maxKeys;
+    private final int minKeys;
     private Node root;
     private int height;
     private int n;
 
-    private final class Node {
-        private int m;
-        private List<Entry<Key, Value>> children;
+    private abstract class Node {
+        int m;
+        final Object[] keys;
+
+        private Node() {
+            keys = new Object[maxKeys + 1]; // One spare slot to overflow into before a split
+        }
 
-        private Node(int k) {
-            m = k;
-            children = new ArrayList<>(M); // Avoids unchecked array creation
+        @SuppressWarnings("unchecked")
+        Key key(int i) {
+            return (Key) keys[i];
         }
     }
 
-    private class Entry<K extends Comparable<K>, V> {
-        private K key;
-        private V val;
-        private Node next;
+    private final class Leaf extends Node {
+        private final Object[] vals;
+        private Leaf next;
 
-        public Entry(K key, V val, Node next) {
-            this.key = key;
-            this.val = val;
-            this.next = next;
+        private Leaf() {
+            vals = new Object[maxKeys + 1];
+        }
+
+        @SuppressWarnings("unchecked")
+        private Value val(int i) {
+            return (Value) vals[i];
         }
     }
 
+    private final class Internal extends Node {
+        private final Object[] children;
+
+        private Internal() {
+            children = new Object[maxKeys + 2];
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node child(int i) {
+            return (Node) children[i];
+        }
+    }
+
+    /**
+     * Constructs an empty B+ tree with the default order.
+     */
     public BTree() {
-        root = new Node(0);
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * Constructs an empty B+ tree.
+     *
+     * @param order The maximum number of children of an internal node, which is
+     *              also the maximum number of entries in a leaf plus one.
+     */
+    public BTree(int order) {
+        if (order < 4)
+            throw new IllegalArgumentException("order must be at least 4");
+        maxKeys = order - 1;
+        minKeys = maxKeys / 2;
+        root = new Leaf();
     }
 
     public boolean isEmpty() {
@@ -43,6 +100,11 @@ public class BTree<Key extends Comparable<Key>, Value> {
         return n;
     }
 
+    /**
+     * Returns the number of internal levels above the leaves.
+     *
+     * @return The height of the tree, 0 when the root is a leaf.
+     */
     public int height() {
         return height;
     }
@@ -50,98 +112,462 @@ public class BTree<Key extends Comparable<Key>, Value> {
     public Value get(Key key) {
         if (key == null)
             throw new IllegalArgumentException("argument to get() is null");
-        return search(root, key, height);
+        Leaf leaf = findLeaf(key);
+        int i = indexOf(leaf, key);
+        return i >= 0 ? leaf.val(i) : null;
     }
 
-    private Value search(Node x, Key key, int ht) {
-        List<Entry<Key, Value>> children = x.children;
-
-        if (ht == 0) {
-            for (int j = 0; j < x.m; j++) {
-                if (eq(key, children.get(j).key))
-                    return children.get(j).val;
-            }
-        } else {
-            for (int j = 0; j < x.m; j++) {
-                if (j + 1 == x.m || less(key, children.get(j + 1).key))
-                    return search(children.get(j).next, key, ht - 1);
-            }
-        }
-        return null;
+    public boolean contains(Key key) {
+        if (key == null)
+            throw new IllegalArgumentException("argument to contains() is null");
+        return indexOf(findLeaf(key), key) >= 0;
     }
 
+    /**
+     * Inserts the key-value pair, replacing the value if the key is present.
+     *
+     * @param key The key to insert.
+     * @param val The value to associate with the key.
+     */
     public void put(Key key, Value val) {
         if (key == null)
             throw new IllegalArgumentException("argument key to put() is null");
         Node u = insert(root, key, val, height);
-        n++;
         if (u == null)
             return;
 
-        Node t = new Node(2);
-        t.children.add(new Entry<>(root.children.get(0).key, null, root));
-        t.children.add(new Entry<>(u.children.get(0).key, null, u));
+        Internal t = new Internal();
+        t.keys[0] = firstKey(u);
+        t.children[0] = root;
+        t.children[1] = u;
+        t.m = 1;
         root = t;
         height++;
     }
 
-    private Node insert(Node h, Key key, Value val, int ht) {
-        int j;
-        Entry<Key, Value> t = new Entry<>(key, val, null);
+    /**
+     * Removes the key and its value, merging or redistributing nodes that fall
+     * below half full.
+     *
+     * @param key The key to remove.
+     * @return The removed value, or null if the key was not present.
+     */
+    public Value remove(Key key) {
+        if (key == null)
+            throw new IllegalArgumentException("argument to remove() is null");
+        int before = n;
+        Value removed = delete(root, key, height);
+        if (n == before)
+            return null;
 
-        if (ht == 0) {
-            for (j = 0; j < h.m; j++) {
-                if (less(key, h.children.get(j).key))
-                    break;
-            }
+        if (height > 0 && root.m == 0) {
+            root = ((Internal) root).child(0);
+            height--;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the smallest key in the tree.
+     *
+     * @return The smallest key, or null if the tree is empty.
+     */
+    public Key min() {
+        if (isEmpty())
+            return null;
+        return firstLeaf().key(0);
+    }
+
+    /**
+     * Returns the largest key in the tree.
+     *
+     * @return The largest key, or null if the tree is empty.
+     */
+    public Key max() {
+        if (isEmpty())
+            return null;
+        Node x = root;
+        for (int ht = height; ht > 0; ht--) {
+            x = ((Internal) x).child(x.m);
+        }
+        return x.key(x.m - 1);
+    }
+
+    /**
+     * Returns an iterator over the entries whose keys lie in [lo, hi), in
+     * ascending order, by walking the linked leaves.
+     *
+     * @param lo The lowest key to include, or null for no lower bound.
+     * @param hi The key to stop before, or null for no upper bound.
+     * @return An iterator over the entries in the range.
+     */
+    public Iterator<Map.Entry<Key, Value>> range(Key lo, Key hi) {
+        Leaf leaf;
+        int i;
+        if (lo == null) {
+            leaf = firstLeaf();
+            i = 0;
         } else {
-            for (j = 0; j < h.m; j++) {
-                if ((j + 1 == h.m) || less(key, h.children.get(j + 1).key)) {
-                    Node u = insert(h.children.get(j++).next, key, val, ht - 1);
-                    if (u == null)
-                        return null;
-                    t.key = u.children.get(0).key;
-                    t.val = null;
-                    t.next = u;
-                    break;
+            leaf = findLeaf(lo);
+            i = indexOf(leaf, lo);
+            if (i < 0)
+                i = -i - 1;
+        }
+        return new RangeIterator(leaf, i, hi);
+    }
+
+    /**
+     * Replaces the contents of an empty tree with the given entries, building
+     * full leaves and internal levels bottom-up instead of inserting one by one.
+     *
+     * @param keys The keys, in strictly ascending order.
+     * @param vals The values, in the same order as the keys.
+     */
+    public void bulkLoad(List<Key> keys, List<Value> vals) {
+        if (!isEmpty())
+            throw new IllegalStateException("bulkLoad() requires an empty tree");
+        if (keys.size() != vals.size())
+            throw new IllegalArgumentException("keys and values must have the same size");
+        for (int i = 1; i < keys.size(); i++) {
+            if (!less(keys.get(i - 1), keys.get(i)))
+                throw new IllegalArgumentException("keys must be in strictly ascending order");
+        }
+        if (keys.isEmpty())
+            return;
+
+        // Spread entries evenly so every leaf is at least half full
+        int total = keys.size();
+        int count = (total + maxKeys - 1) / maxKeys;
+        Object[] level = new Object[count];
+        Object[] lows = new Object[count];
+        Leaf previous = null;
+        int pos = 0;
+        for (int j = 0; j < count; j++) {
+            int size = total / count + (j < total % count ? 1 : 0);
+            Leaf leaf = new Leaf();
+            for (int k = 0; k < size; k++, pos++) {
+                leaf.keys[k] = keys.get(pos);
+                leaf.vals[k] = vals.get(pos);
+            }
+            leaf.m = size;
+            if (previous != null)
+                previous.next = leaf;
+            previous = leaf;
+            level[j] = leaf;
+            lows[j] = leaf.keys[0];
+        }
+
+        // Group each level's nodes under parents until a single root remains
+        int ht = 0;
+        while (count > 1) {
+            int parents = (count + maxKeys) / (maxKeys + 1);
+            Object[] upper = new Object[parents];
+            Object[] upperLows = new Object[parents];
+            pos = 0;
+            for (int j = 0; j < parents; j++) {
+                int size = count / parents + (j < count % parents ? 1 : 0);
+                Internal parent = new Internal();
+                upperLows[j] = lows[pos];
+                for (int k = 0; k < size; k++, pos++) {
+                    parent.children[k] = level[pos];
+                    if (k > 0)
+                        parent.keys[k - 1] = lows[pos];
                 }
+                parent.m = size - 1;
+                upper[j] = parent;
             }
+            level = upper;
+            lows = upperLows;
+            count = parents;
+            ht++;
+        }
+
+        @SuppressWarnings("unchecked")
+        Node top = (Node) level[0];
+        root = top;
+        height = ht;
+        n = total;
+    }
+
+    private Leaf findLeaf(Key key) {
+        Node x = root;
+        for (int ht = height; ht > 0; ht--) {
+            x = ((Internal) x).child(childIndex(x, key));
+        }
+        return (Leaf) x;
+    }
+
+    private Leaf firstLeaf() {
+        Node x = root;
+        for (int ht = height; ht > 0; ht--) {
+            x = ((Internal) x).child(0);
         }
+        return (Leaf) x;
+    }
 
-        h.children.add(j, t); // List handles shifting automatically
-        h.m++;
-        return h.m < M ? null : split(h);
+    private Key firstKey(Node x) {
+        while (x instanceof Internal) {
+            x = ((Internal) x).child(0);
+        }
+        return x.key(0);
     }
 
-    private Node split(Node h) {
-        Node t = new Node(M / 2);
-        for (int j = 0; j < M / 2; j++) {
-            t.children.add(h.children.get(M / 2 + j));
+    // Binary search over the node's keys, in the style of Arrays.binarySearch
+    private int indexOf(Node x, Key key) {
+        int lo = 0;
+        int hi = x.m - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = x.key(mid).compareTo(key);
+            if (cmp < 0)
+                lo = mid + 1;
+            else if (cmp > 0)
+                hi = mid - 1;
+            else
+                return mid;
         }
-        for (int j = M / 2; j < h.children.size(); j++) {
-            h.children.remove(M / 2); // Remove elements that were moved
+        return -(lo + 1);
+    }
+
+    // Child j holds keys in [keys[j - 1], keys[j])
+    private int childIndex(Node x, Key key) {
+        int i = indexOf(x, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private Node insert(Node h, Key key, Value val, int ht) {
+        if (ht == 0) {
+            Leaf leaf = (Leaf) h;
+            int i = indexOf(leaf, key);
+            if (i >= 0) {
+                leaf.vals[i] = val;
+                return null;
+            }
+            i = -i - 1;
+            System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.m - i);
+            System.arraycopy(leaf.vals, i, leaf.vals, i + 1, leaf.m - i);
+            leaf.keys[i] = key;
+            leaf.vals[i] = val;
+            leaf.m++;
+            n++;
+            return leaf.m <= maxKeys ? null : splitLeaf(leaf);
         }
-        h.m = M / 2;
+
+        Internal x = (Internal) h;
+        int j = childIndex(x, key);
+        Node u = insert(x.child(j), key, val, ht - 1);
+        if (u == null)
+            return null;
+
+        System.arraycopy(x.keys, j, x.keys, j + 1, x.m - j);
+        System.arraycopy(x.children, j + 1, x.children, j + 2, x.m - j);
+        x.keys[j] = firstKey(u);
+        x.children[j + 1] = u;
+        x.m++;
+        return x.m <= maxKeys ? null : splitInternal(x);
+    }
+
+    private Leaf splitLeaf(Leaf h) {
+        int half = h.m / 2;
+        Leaf t = new Leaf();
+        t.m = h.m - half;
+        System.arraycopy(h.keys, half, t.keys, 0, t.m);
+        System.arraycopy(h.vals, half, t.vals, 0, t.m);
+        Arrays.fill(h.keys, half, h.m, null);
+        Arrays.fill(h.vals, half, h.m, null);
+        h.m = half;
+        t.next = h.next;
+        h.next = t;
         return t;
     }
 
+    // The middle key moves up, so it is dropped from both halves
+    private Internal splitInternal(Internal h) {
+        int half = h.m / 2;
+        Internal t = new Internal();
+        t.m = h.m - half - 1;
+        System.arraycopy(h.keys, half + 1, t.keys, 0, t.m);
+        System.arraycopy(h.children, half + 1, t.children, 0, t.m + 1);
+        Arrays.fill(h.keys, half, h.m, null);
+        Arrays.fill(h.children, half + 1, h.m + 1, null);
+        h.m = half;
+        return t;
+    }
+
+    private Value delete(Node h, Key key, int ht) {
+        if (ht == 0) {
+            Leaf leaf = (Leaf) h;
+            int i = indexOf(leaf, key);
+            if (i < 0)
+                return null;
+            Value removed = leaf.val(i);
+            System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.m - i - 1);
+            System.arraycopy(leaf.vals, i + 1, leaf.vals, i, leaf.m - i - 1);
+            leaf.m--;
+            leaf.keys[leaf.m] = null;
+            leaf.vals[leaf.m] = null;
+            n--;
+            return removed;
+        }
+
+        Internal x = (Internal) h;
+        int j = childIndex(x, key);
+        Node child = x.child(j);
+        Value removed = delete(child, key, ht - 1);
+        if (child.m < minKeys)
+            rebalance(x, j, ht - 1);
+        return removed;
+    }
+
+    // Fixes an underfull child by borrowing from a sibling or merging with it
+    private void rebalance(Internal parent, int j, int childHeight) {
+        Node child = parent.child(j);
+        Node left = j > 0 ? parent.child(j - 1) : null;
+        Node right = j < parent.m ? parent.child(j + 1) : null;
+
+        if (left != null && left.m > minKeys) {
+            borrowFromLeft(parent, j, left, child, childHeight);
+        } else if (right != null && right.m > minKeys) {
+            borrowFromRight(parent, j, child, right, childHeight);
+        } else if (left != null) {
+            merge(parent, j - 1, left, child, childHeight);
+        } else if (right != null) {
+            merge(parent, j, child, right, childHeight);
+        }
+    }
+
+    private void borrowFromLeft(Internal parent, int j, Node left, Node child, int childHeight) {
+        System.arraycopy(child.keys, 0, child.keys, 1, child.m);
+        if (childHeight == 0) {
+            Leaf l = (Leaf) left;
+            Leaf c = (Leaf) child;
+            System.arraycopy(c.vals, 0, c.vals, 1, c.m);
+            c.keys[0] = l.keys[l.m - 1];
+            c.vals[0] = l.vals[l.m - 1];
+            l.keys[l.m - 1] = null;
+            l.vals[l.m - 1] = null;
+            parent.keys[j - 1] = c.keys[0];
+        } else {
+            Internal l = (Internal) left;
+            Internal c = (Internal) child;
+            System.arraycopy(c.children, 0, c.children, 1, c.m + 1);
+            c.keys[0] = parent.keys[j - 1];
+            c.children[0] = l.children[l.m];
+            parent.keys[j - 1] = l.keys[l.m - 1];
+            l.keys[l.m - 1] = null;
+            l.children[l.m] = null;
+        }
+        left.m--;
+        child.m++;
+    }
+
+    private void borrowFromRight(Internal parent, int j, Node child, Node right, int childHeight) {
+        if (childHeight == 0) {
+            Leaf c = (Leaf) child;
+            Leaf r = (Leaf) right;
+            c.keys[c.m] = r.keys[0];
+            c.vals[c.m] = r.vals[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.m - 1);
+            System.arraycopy(r.vals, 1, r.vals, 0, r.m - 1);
+            r.keys[r.m - 1] = null;
+            r.vals[r.m - 1] = null;
+            parent.keys[j] = r.keys[0];
+        } else {
+            Internal c = (Internal) child;
+            Internal r = (Internal) right;
+            c.keys[c.m] = parent.keys[j];
+            c.children[c.m + 1] = r.children[0];
+            parent.keys[j] = r.keys[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.m - 1);
+            System.arraycopy(r.children, 1, r.children, 0, r.m);
+            r.keys[r.m - 1] = null;
+            r.children[r.m] = null;
+        }
+        right.m--;
+        child.m++;
+    }
+
+    // Folds parent.child(j + 1) into parent.child(j) and drops their separator
+    private void merge(Internal parent, int j, Node left, Node right, int childHeight) {
+        if (childHeight == 0) {
+            Leaf l = (Leaf) left;
+            Leaf r = (Leaf) right;
+            System.arraycopy(r.keys, 0, l.keys, l.m, r.m);
+            System.arraycopy(r.vals, 0, l.vals, l.m, r.m);
+            l.m += r.m;
+            l.next = r.next;
+        } else {
+            Internal l = (Internal) left;
+            Internal r = (Internal) right;
+            l.keys[l.m] = parent.keys[j];
+            System.arraycopy(r.keys, 0, l.keys, l.m + 1, r.m);
+            System.arraycopy(r.children, 0, l.children, l.m + 1, r.m + 1);
+            l.m += r.m + 1;
+        }
+
+        System.arraycopy(parent.keys, j + 1, parent.keys, j, parent.m - j - 1);
+        System.arraycopy(parent.children, j + 2, parent.children, j + 1, parent.m - j - 1);
+        parent.m--;
+        parent.keys[parent.m] = null;
+        parent.children[parent.m + 1] = null;
+    }
+
+    private class RangeIterator implements Iterator<Map.Entry<Key, Value>> {
+        private Leaf leaf;
+        private int i;
+        private final Key hi;
+
+        private RangeIterator(Leaf leaf, int i, Key hi) {
+            this.leaf = leaf;
+            this.i = i;
+            this.hi = hi;
+            advance();
+        }
+
+        // Moves to the next leaf when the current one is used up, and stops at hi
+        private void advance() {
+            while (leaf != null && i >= leaf.m) {
+                leaf = leaf.next;
+                i = 0;
+            }
+            if (leaf != null && hi != null && !less(leaf.key(i), hi))
+                leaf = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        public Map.Entry<Key, Value> next() {
+            if (leaf == null)
+                throw new NoSuchElementException();
+            Map.Entry<Key, Value> entry = new AbstractMap.SimpleImmutableEntry<>(leaf.key(i), leaf.val(i));
+            i++;
+            advance();
+            return entry;
+        }
+    }
+
     public String toString() {
         return toString(root, height, "") + "\n";
     }
 
     private String toString(Node h, int ht, String indent) {
         StringBuilder s = new StringBuilder();
-        List<Entry<Key, Value>> children = h.children;
 
         if (ht == 0) {
-            for (int j = 0; j < h.m; j++) {
-                s.append(indent).append(children.get(j).key).append(" ").append(children.get(j).val).append("\n");
+            Leaf leaf = (Leaf) h;
+            for (int j = 0; j < leaf.m; j++) {
+                s.append(indent).append(leaf.key(j)).append(" ").append(leaf.val(j)).append("\n");
             }
         } else {
-            for (int j = 0; j < h.m; j++) {
+            Internal x = (Internal) h;
+            for (int j = 0; j <= x.m; j++) {
                 if (j > 0)
-                    s.append(indent).append("(").append(children.get(j).key).append(")\n");
-                s.append(toString(children.get(j).next, ht - 1, indent + "     "));
+                    s.append(indent).append("(").append(x.key(j - 1)).append(")\n");
+                s.append(toString(x.child(j), ht - 1, indent + "     "));
             }
         }
         return s.toString();
@@ -150,8 +576,4 @@ public class BTree<Key extends Comparable<Key>, Value> {
     private boolean less(Key k1, Key k2) {
         return k1.compareTo(k2) < 0;
     }
-
-    private boolean eq(Key k1, Key k2) {
-        return k1.compareTo(k2) == 0;
-    }
 }
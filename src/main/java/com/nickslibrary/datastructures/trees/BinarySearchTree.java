@@ -96,6 +96,32 @@ public class BinarySearchTree<T extends Comparable<T>> {
         }
     }
 
+    /**
+     * Performs an in-order traversal of the tree and returns a list of elements.
+     * The elements come out in ascending order.
+     *
+     * @return a list of elements in inorder sequence
+     */
+    public List<T> inOrderTraversal() {
+        List<T> result = new ArrayList<>();
+        inOrderCollect(root, result);
+        return result;
+    }
+
+    /**
+     * Helper method for in-order traversal into a list.
+     *
+     * @param node   the current node being processed
+     * @param result the list collecting elements in inorder sequence
+     */
+    private void inOrderCollect(BinaryTreeNode<T> node, List<T> result) {
+        if (node != null) {
+            inOrderCollect(node.getLeft(), result);
+            result.add(node.getValue());
+            inOrderCollect(node.getRight(), result);
+        }
+    }
+
     /**
      * Deletes the specified value from the binary search tree, if it exists.
      * If the value is not found, the tree remains unchanged.
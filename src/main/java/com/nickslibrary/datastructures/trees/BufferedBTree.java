@@ -0,0 +1,487 @@
+package com.nickslibrary.datastructures.trees;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A write-optimized B-epsilon tree (buffered B-tree).
+ *
+ * Internal nodes carry a buffer of pending insert and delete messages. An
+ * update is just appended to the root's buffer; only when a buffer overflows
+ * is it sorted and the messages for the child that would receive the most of
+ * them are pushed one level down, so every step down the tree is paid for by a
+ * whole batch of updates instead of a single one. Leaves apply a batch with
+ * one sorted merge and split as many times as needed afterwards.
+ *
+ * A buffer is kept searchable without re-sorting it on every update: new
+ * messages go to a short unsorted tail, a full tail is sorted into a run, and
+ * runs are merged while the newer one is at least half the size of the older,
+ * so a buffer of B messages has O(log B) runs. When two messages for the same
+ * key meet in a merge, the newer one wins. Across levels, newer messages
+ * always sit above older ones, so a point query returns the first message it
+ * finds on its root-to-leaf path. In each buffer it scans the tail newest
+ * first and binary searches the runs newest first, and it never modifies the
+ * tree. The runs are merged into one only when the node flushes or splits.
+ *
+ * Deleting leaves nodes underfull rather than merging them.
+ *
+ * @param <Key>   The type of keys, which must be comparable.
+ * @param <Value> The type of values.
+ */
+public class BufferedBTree<Key extends Comparable<Key>, Value> {
+    public static final int DEFAULT_FANOUT = 16;
+    public static final int DEFAULT_BUFFER_CAPACITY = 4096;
+    public static final int DEFAULT_LEAF_CAPACITY = 128;
+
+    private static final Object TOMBSTONE = new Object();
+    private static final int TAIL_CAPACITY = 32; // Unsorted messages a point query scans per buffer
+
+    private final int fanout;
+    private final int bufferCapacity;
+    private final int leafCapacity;
+    private Node root;
+    private int height;
+    private int n;
+
+    private abstract class Node {
+    }
+
+    private final class Leaf extends Node {
+        private Object[] keys = new Object[0];
+        private Object[] vals = new Object[0];
+        private int m;
+
+        @SuppressWarnings("unchecked")
+        private Key key(int i) {
+            return (Key) keys[i];
+        }
+    }
+
+    private final class Internal extends Node {
+        private final List<Key> pivots = new ArrayList<>();
+        private final List<Node> children = new ArrayList<>();
+        // Oldest sorted run; after compact() it holds the whole buffer
+        private List<Message<Key>> buffer = new ArrayList<>();
+        // Newer sorted runs, each less than half the size of the one before, newest last
+        private final List<List<Message<Key>>> runs = new ArrayList<>();
+        // Newest messages, in arrival order
+        private final List<Message<Key>> tail = new ArrayList<>();
+        private int pending; // Messages across buffer, runs and tail
+
+        private List<Message<Key>> newest(int r) {
+            return r < runs.size() ? runs.get(runs.size() - 1 - r) : buffer;
+        }
+    }
+
+    private static final class Message<K> {
+        private final K key;
+        private final Object value;
+
+        private Message(K key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // A node split off to the right of another, with the smallest key it may hold
+    private final class Sibling {
+        private final Key pivot;
+        private final Node node;
+
+        private Sibling(Key pivot, Node node) {
+            this.pivot = pivot;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Constructs an empty tree with the default fanout and buffer sizes.
+     */
+    public BufferedBTree() {
+        this(DEFAULT_FANOUT, DEFAULT_BUFFER_CAPACITY, DEFAULT_LEAF_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty tree.
+     *
+     * @param fanout         The maximum number of children of an internal node.
+     * @param bufferCapacity The number of messages an internal node holds before
+     *                       flushing some of them to a child.
+     * @param leafCapacity   The maximum number of entries in a leaf.
+     */
+    public BufferedBTree(int fanout, int bufferCapacity, int leafCapacity) {
+        if (fanout < 2 || bufferCapacity < 1 || leafCapacity < 1)
+            throw new IllegalArgumentException("fanout must be at least 2 and capacities at least 1");
+        this.fanout = fanout;
+        this.bufferCapacity = bufferCapacity;
+        this.leafCapacity = leafCapacity;
+        root = new Leaf();
+    }
+
+    /**
+     * Returns the number of entries. This first flushes every pending message,
+     * since buffered inserts and deletes may or may not change the count.
+     *
+     * @return The number of entries in the tree.
+     */
+    public int size() {
+        flush();
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public Value get(Key key) {
+        if (key == null)
+            throw new IllegalArgumentException("argument to get() is null");
+        Node x = root;
+        for (int ht = height; ht > 0; ht--) {
+            Internal in = (Internal) x;
+            Message<Key> message = find(in, key);
+            if (message != null)
+                return message.value == TOMBSTONE ? null : cast(message.value);
+            x = in.children.get(childIndex(in, key));
+        }
+
+        Leaf leaf = (Leaf) x;
+        int i = indexOf(leaf, key);
+        return i >= 0 ? cast(leaf.vals[i]) : null;
+    }
+
+    public boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Inserts the key-value pair, replacing the value if the key is present.
+     *
+     * @param key The key to insert.
+     * @param val The value to associate with the key; must not be null.
+     */
+    public void put(Key key, Value val) {
+        if (key == null)
+            throw new IllegalArgumentException("argument key to put() is null");
+        if (val == null)
+            throw new IllegalArgumentException("argument val to put() is null");
+        send(key, val);
+    }
+
+    /**
+     * Removes the key and its value, if present.
+     *
+     * @param key The key to remove.
+     */
+    public void remove(Key key) {
+        if (key == null)
+            throw new IllegalArgumentException("argument to remove() is null");
+        send(key, TOMBSTONE);
+    }
+
+    /**
+     * Pushes every pending message down to the leaves.
+     */
+    public void flush() {
+        if (height > 0)
+            growRoot(flushAll(root, height));
+    }
+
+    private void send(Key key, Object message) {
+        if (height == 0) {
+            growRoot(apply(root, 0, Collections.singletonList(new Message<>(key, message))));
+            return;
+        }
+
+        Internal r = (Internal) root;
+        r.tail.add(new Message<>(key, message));
+        r.pending++;
+        if (r.tail.size() == TAIL_CAPACITY)
+            sealTail(r);
+        if (r.pending > bufferCapacity) {
+            flushBuffer(r, height);
+            if (r.children.size() > fanout)
+                growRoot(splitInternal(r));
+        }
+    }
+
+    // Puts new levels on top of the root until it no longer has too many children
+    private void growRoot(List<Sibling> siblings) {
+        while (!siblings.isEmpty()) {
+            Internal r = new Internal();
+            r.children.add(root);
+            for (Sibling s : siblings) {
+                r.pivots.add(s.pivot);
+                r.children.add(s.node);
+            }
+            root = r;
+            height++;
+            siblings = r.children.size() > fanout ? splitInternal(r) : Collections.emptyList();
+        }
+    }
+
+    // Applies a batch of messages, all newer than any below, to the subtree
+    private List<Sibling> apply(Node node, int ht, List<Message<Key>> batch) {
+        if (ht == 0)
+            return mergeIntoLeaf((Leaf) node, batch);
+
+        Internal x = (Internal) node;
+        // The batch is sorted, free of duplicate keys and newer than anything buffered here
+        sealTail(x);
+        addRun(x, batch);
+        if (x.pending > bufferCapacity)
+            flushBuffer(x, ht);
+        return x.children.size() > fanout ? splitInternal(x) : Collections.emptyList();
+    }
+
+    // Flushes the child with the most pending messages until the buffer fits
+    private void flushBuffer(Internal x, int ht) {
+        while (x.pending > bufferCapacity) {
+            compact(x);
+            int best = 0;
+            int bestCount = -1;
+            int start = 0;
+            for (int j = 0; j < x.children.size(); j++) {
+                int end = sliceEnd(x, j, start);
+                if (end - start > bestCount) {
+                    best = j;
+                    bestCount = end - start;
+                }
+                start = end;
+            }
+            pushDown(x, best, ht);
+        }
+    }
+
+    // Moves child j's share of the buffer into it and links any resulting splits
+    private int pushDown(Internal x, int j, int ht) {
+        compact(x);
+        int start = j == 0 ? 0 : lowerBound(x.buffer, 0, x.buffer.size(), x.pivots.get(j - 1));
+        int end = sliceEnd(x, j, start);
+        if (start == end)
+            return 0;
+        List<Message<Key>> slice = x.buffer.subList(start, end);
+        List<Message<Key>> batch = new ArrayList<>(slice);
+        slice.clear();
+        x.pending -= batch.size();
+        return link(x, j, apply(x.children.get(j), ht - 1, batch));
+    }
+
+    private List<Sibling> flushAll(Node node, int ht) {
+        if (ht == 0)
+            return Collections.emptyList();
+
+        Internal x = (Internal) node;
+        for (int j = 0; j < x.children.size(); j++) {
+            pushDown(x, j, ht);
+            // Siblings split off by a full flush have empty buffers, so skip them
+            j += link(x, j, flushAll(x.children.get(j), ht - 1));
+        }
+        return x.children.size() > fanout ? splitInternal(x) : Collections.emptyList();
+    }
+
+    private int link(Internal x, int j, List<Sibling> siblings) {
+        for (int s = 0; s < siblings.size(); s++) {
+            x.pivots.add(j + s, siblings.get(s).pivot);
+            x.children.add(j + s + 1, siblings.get(s).node);
+        }
+        return siblings.size();
+    }
+
+    // Child j holds keys in [pivots[j - 1], pivots[j]); returns where its messages end
+    private int sliceEnd(Internal x, int j, int start) {
+        if (j == x.pivots.size())
+            return x.buffer.size();
+        return lowerBound(x.buffer, start, x.buffer.size(), x.pivots.get(j));
+    }
+
+    // Newest message for the key in the node's buffer, or null; reads only
+    private Message<Key> find(Internal x, Key key) {
+        for (int i = x.tail.size() - 1; i >= 0; i--) {
+            if (x.tail.get(i).key.compareTo(key) == 0)
+                return x.tail.get(i);
+        }
+        for (int r = 0; r <= x.runs.size(); r++) {
+            List<Message<Key>> run = x.newest(r);
+            int i = lowerBound(run, 0, run.size(), key);
+            if (i < run.size() && run.get(i).key.compareTo(key) == 0)
+                return run.get(i);
+        }
+        return null;
+    }
+
+    // Stable sort of the tail, keeping only the newest (last) message for each key, pushed as a run
+    private void sealTail(Internal x) {
+        if (x.tail.isEmpty())
+            return;
+        List<Message<Key>> run = new ArrayList<>(x.tail);
+        x.pending -= run.size();
+        x.tail.clear();
+        run.sort((a, b) -> a.key.compareTo(b.key));
+        int k = 0;
+        for (int i = 0; i < run.size(); i++) {
+            if (i + 1 < run.size() && run.get(i).key.compareTo(run.get(i + 1).key) == 0)
+                continue;
+            run.set(k++, run.get(i));
+        }
+        run.subList(k, run.size()).clear();
+        addRun(x, run);
+    }
+
+    // Pushes a sorted run newer than every other, merging while it is at least half the size of the last
+    private void addRun(Internal x, List<Message<Key>> run) {
+        x.pending += run.size();
+        while (!x.runs.isEmpty() && 2 * run.size() >= x.runs.get(x.runs.size() - 1).size())
+            run = mergeRuns(x, x.runs.remove(x.runs.size() - 1), run);
+        if (2 * run.size() >= x.buffer.size())
+            x.buffer = mergeRuns(x, x.buffer, run);
+        else
+            x.runs.add(run);
+    }
+
+    // Merges everything buffered at the node into one sorted run
+    private void compact(Internal x) {
+        sealTail(x);
+        while (!x.runs.isEmpty())
+            x.buffer = mergeRuns(x, x.buffer, x.runs.remove(0));
+    }
+
+    // Merges two sorted runs; for a key in both, the newer message replaces the older
+    private List<Message<Key>> mergeRuns(Internal x, List<Message<Key>> older, List<Message<Key>> newer) {
+        List<Message<Key>> merged = new ArrayList<>(older.size() + newer.size());
+        int i = 0;
+        int j = 0;
+        while (i < older.size() || j < newer.size()) {
+            int cmp = i == older.size() ? 1 : j == newer.size() ? -1 : older.get(i).key.compareTo(newer.get(j).key);
+            if (cmp < 0) {
+                merged.add(older.get(i++));
+                continue;
+            }
+            if (cmp == 0) {
+                i++;
+                x.pending--;
+            }
+            merged.add(newer.get(j++));
+        }
+        return merged;
+    }
+
+    private int lowerBound(List<Message<Key>> buffer, int lo, int hi, Key key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buffer.get(mid).key.compareTo(key) < 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private int childIndex(Internal x, Key key) {
+        int i = Collections.binarySearch(x.pivots, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private List<Sibling> mergeIntoLeaf(Leaf leaf, List<Message<Key>> batch) {
+        Object[] keys = new Object[leaf.m + batch.size()];
+        Object[] vals = new Object[keys.length];
+        int i = 0;
+        int k = 0;
+        int b = 0;
+
+        while (i < leaf.m || b < batch.size()) {
+            Message<Key> message = b < batch.size() ? batch.get(b) : null;
+            int cmp = i == leaf.m ? 1 : message == null ? -1 : leaf.key(i).compareTo(message.key);
+            if (cmp < 0) {
+                keys[k] = leaf.keys[i];
+                vals[k++] = leaf.vals[i++];
+                continue;
+            }
+            if (cmp == 0) {
+                i++;
+                n--;
+            }
+            if (message.value != TOMBSTONE) {
+                keys[k] = message.key;
+                vals[k++] = message.value;
+                n++;
+            }
+            b++;
+        }
+
+        // Spread the merged entries evenly over as many leaves as they need
+        int count = Math.max(1, (k + leafCapacity - 1) / leafCapacity);
+        List<Sibling> siblings = new ArrayList<>(count - 1);
+        int pos = 0;
+        for (int c = 0; c < count; c++) {
+            int size = k / count + (c < k % count ? 1 : 0);
+            Leaf target = c == 0 ? leaf : new Leaf();
+            target.keys = new Object[size];
+            target.vals = new Object[size];
+            System.arraycopy(keys, pos, target.keys, 0, size);
+            System.arraycopy(vals, pos, target.vals, 0, size);
+            target.m = size;
+            if (c > 0)
+                siblings.add(new Sibling(target.key(0), target));
+            pos += size;
+        }
+        return siblings;
+    }
+
+    // Splits an internal node's children evenly, handing each part its share of the buffer
+    private List<Sibling> splitInternal(Internal x) {
+        compact(x);
+        int total = x.children.size();
+        int count = (total + fanout - 1) / fanout;
+        int[] starts = new int[count];
+        for (int c = 1; c < count; c++) {
+            starts[c] = starts[c - 1] + total / count + (c - 1 < total % count ? 1 : 0);
+        }
+
+        List<Sibling> siblings = new ArrayList<>(count - 1);
+        for (int c = count - 1; c > 0; c--) {
+            int start = starts[c];
+            Key pivot = x.pivots.get(start - 1);
+            Internal t = new Internal();
+            t.children.addAll(x.children.subList(start, x.children.size()));
+            t.pivots.addAll(x.pivots.subList(start, x.pivots.size()));
+            x.children.subList(start, x.children.size()).clear();
+            x.pivots.subList(start - 1, x.pivots.size()).clear();
+
+            List<Message<Key>> moved = x.buffer.subList(lowerBound(x.buffer, 0, x.buffer.size(), pivot),
+                    x.buffer.size());
+            t.buffer.addAll(moved);
+            t.pending = moved.size();
+            x.pending -= moved.size();
+            moved.clear();
+            siblings.add(0, new Sibling(pivot, t));
+        }
+        return siblings;
+    }
+
+    private int indexOf(Leaf leaf, Key key) {
+        int lo = 0;
+        int hi = leaf.m - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = leaf.key(mid).compareTo(key);
+            if (cmp < 0)
+                lo = mid + 1;
+            else if (cmp > 0)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Value cast(Object value) {
+        return (Value) value;
+    }
+}
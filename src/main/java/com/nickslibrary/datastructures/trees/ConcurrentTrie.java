@@ -0,0 +1,383 @@
+package com.nickslibrary.datastructures.trees;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ObjIntConsumer;
+
+import com.nickslibrary.utils.tree.TrieNode;
+
+/**
+ * A Trie that can be shared between threads, where reads never block.
+ *
+ * Nodes are immutable. An update copies the nodes on the path from the root
+ * to the word it changes and publishes the new root with a single CAS,
+ * retrying on the new root if another update got there first (copy-on-write
+ * path copying). A read loads the root once and walks nodes that never change
+ * afterwards, so it takes no locks, never retries, and sees either all of a
+ * concurrent update or none of it.
+ *
+ * Because every root is a complete, frozen version of the Trie,
+ * {@link #snapshot()} is O(1) and iteration always reflects a single point in
+ * time. Updates cost O(word length × alphabet) in copying, which suits
+ * dictionaries that are read far more often than they are written.
+ */
+public class ConcurrentTrie {
+    private static final int NOT_A_WORD = -1;
+
+    private final AtomicReference<Version> current;
+
+    /**
+     * Constructs an empty ConcurrentTrie.
+     */
+    public ConcurrentTrie() {
+        this.current = new AtomicReference<>(Version.EMPTY);
+    }
+
+    private ConcurrentTrie(Version version) {
+        this.current = new AtomicReference<>(version);
+    }
+
+    /**
+     * Builds a ConcurrentTrie holding the words below a Standard Trie node.
+     *
+     * @param root the root of the Standard Trie
+     */
+    ConcurrentTrie(TrieNode root) {
+        int[] size = new int[1];
+        this.current = new AtomicReference<>(new Version(copyOf(root, size), size[0]));
+    }
+
+    private static Node copyOf(TrieNode node, int[] size) {
+        char[] keys = new char[node.getChildren().size()];
+        int n = 0;
+        for (char ch : node.getChildren().keySet()) {
+            keys[n++] = ch;
+        }
+        Arrays.sort(keys);
+
+        Node[] children = new Node[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            children[i] = copyOf(node.getChild(keys[i]), size);
+        }
+        if (node.isEndOfWord()) {
+            size[0]++;
+        }
+        return new Node(keys, children, node.isEndOfWord() ? node.getFrequency() : NOT_A_WORD);
+    }
+
+    /**
+     * Inserts a word into the Trie, or increments its frequency if it is
+     * already present.
+     *
+     * @param word the word to insert
+     */
+    public void insert(String word) {
+        if (word == null || word.isEmpty()) {
+            return; // Ignore null or empty strings
+        }
+        update(word, frequency -> frequency == NOT_A_WORD ? 1 : frequency + 1);
+    }
+
+    /**
+     * Checks if a word exists in the Trie.
+     *
+     * @param word the word to search for
+     * @return true if the word exists, false otherwise
+     */
+    public boolean search(String word) {
+        if (word == null || word.isEmpty()) {
+            return false;
+        }
+        Node node = find(current.get().root, word);
+        return node != null && node.frequency != NOT_A_WORD;
+    }
+
+    /**
+     * Checks if there is any word in the Trie that starts with the given prefix.
+     *
+     * @param prefix the prefix to check
+     * @return true if any word starts with the prefix, false otherwise
+     */
+    public boolean startsWith(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return false;
+        }
+        return find(current.get().root, prefix) != null;
+    }
+
+    /**
+     * Gets the frequency of a word in the Trie.
+     *
+     * @param word the word whose frequency is to be retrieved
+     * @return the frequency of the word, or 0 if it is not found
+     */
+    public int getFrequency(String word) {
+        if (word == null || word.isEmpty()) {
+            return 0;
+        }
+        Node node = find(current.get().root, word);
+        return node == null || node.frequency == NOT_A_WORD ? 0 : node.frequency;
+    }
+
+    /**
+     * Deletes a word from the Trie.
+     *
+     * @param word the word to delete
+     * @return true if the word was deleted, false if it was not found
+     */
+    public boolean delete(String word) {
+        if (word == null || word.isEmpty()) {
+            return false;
+        }
+        return update(word, frequency -> NOT_A_WORD) != NOT_A_WORD;
+    }
+
+    /**
+     * Sets the frequency of a word in the Trie.
+     *
+     * @param word      the word whose frequency is to be set
+     * @param frequency the new frequency value (must be >= 0)
+     * @return true if the frequency was updated, false if the word does not exist
+     */
+    public boolean setFrequency(String word, int frequency) {
+        if (word == null || word.isEmpty() || frequency < 0) {
+            return false;
+        }
+        return update(word, old -> old == NOT_A_WORD ? NOT_A_WORD : frequency) != NOT_A_WORD;
+    }
+
+    /**
+     * Increments the frequency of a word in the Trie.
+     *
+     * @param word the word whose frequency is to be incremented
+     * @return true if the frequency was incremented, false if the word does not
+     *         exist
+     */
+    public boolean incrementFrequency(String word) {
+        if (word == null || word.isEmpty()) {
+            return false;
+        }
+        return update(word, old -> old == NOT_A_WORD ? NOT_A_WORD : old + 1) != NOT_A_WORD;
+    }
+
+    /**
+     * Returns the number of words stored in the Trie.
+     *
+     * @return the number of distinct words
+     */
+    public int size() {
+        return current.get().size;
+    }
+
+    /**
+     * Checks if the Trie is empty.
+     *
+     * @return true if the Trie is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes every word from the Trie.
+     */
+    public void clear() {
+        current.set(Version.EMPTY);
+    }
+
+    /**
+     * Returns an independent copy of the Trie as it is right now. Later updates
+     * to either Trie are not seen by the other.
+     *
+     * @return the snapshot, created in O(1)
+     */
+    public ConcurrentTrie snapshot() {
+        return new ConcurrentTrie(current.get());
+    }
+
+    /**
+     * Retrieves all words that start with the given prefix, in character order,
+     * as of a single point in time.
+     *
+     * @param prefix the prefix to search for
+     * @return a list of words that start with the given prefix
+     */
+    public List<String> getWordsWithPrefix(String prefix) {
+        List<String> words = new ArrayList<>();
+        Node node = find(current.get().root, prefix);
+        if (node != null) {
+            collect(node, new StringBuilder(prefix), (word, frequency) -> words.add(word));
+        }
+        return words;
+    }
+
+    /**
+     * Retrieves all words in the Trie, in character order, as of a single point
+     * in time.
+     *
+     * @return a list of all words
+     */
+    public List<String> getAllWords() {
+        return getWordsWithPrefix("");
+    }
+
+    /**
+     * Passes every word and its frequency to the consumer, in character order.
+     * The words are those of a single point in time, however the Trie changes
+     * while this runs.
+     *
+     * @param consumer receives each word and its frequency
+     */
+    public void forEachWord(ObjIntConsumer<String> consumer) {
+        collect(current.get().root, new StringBuilder(), consumer);
+    }
+
+    private static void collect(Node node, StringBuilder path, ObjIntConsumer<String> consumer) {
+        if (node.frequency != NOT_A_WORD) {
+            consumer.accept(path.toString(), node.frequency);
+        }
+        for (int i = 0; i < node.keys.length; i++) {
+            path.append(node.keys[i]);
+            collect(node.children[i], path, consumer);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    private static Node find(Node node, String word) {
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Applies a change to the frequency of a word and publishes the result,
+     * retrying until no other update intervenes.
+     *
+     * @param word   the word to change
+     * @param change maps the current frequency (or NOT_A_WORD) to the new one
+     * @return the frequency before the change, or NOT_A_WORD
+     */
+    private int update(String word, IntUnaryOperator change) {
+        while (true) {
+            Version version = current.get();
+            Node node = find(version.root, word);
+            int oldFrequency = node == null ? NOT_A_WORD : node.frequency;
+            int newFrequency = change.applyAsInt(oldFrequency);
+            if (newFrequency == oldFrequency) {
+                return oldFrequency; // Nothing to publish
+            }
+
+            Node root = copyPath(version.root, word, 0, newFrequency);
+            int size = version.size;
+            if (oldFrequency == NOT_A_WORD) {
+                size++;
+            } else if (newFrequency == NOT_A_WORD) {
+                size--;
+            }
+            if (current.compareAndSet(version, new Version(root, size))) {
+                return oldFrequency;
+            }
+        }
+    }
+
+    /**
+     * Copies the nodes on the path to a word, giving the word a new frequency.
+     * Nodes left with no word and no children are dropped by their parent.
+     *
+     * @return the copy of the node
+     */
+    private static Node copyPath(Node node, String word, int index, int frequency) {
+        if (index == word.length()) {
+            return node.withFrequency(frequency);
+        }
+        char ch = word.charAt(index);
+        Node child = node.child(ch);
+        Node copy = copyPath(child == null ? Node.EMPTY : child, word, index + 1, frequency);
+        return node.withChild(ch, copy);
+    }
+
+    /**
+     * A root together with the number of words below it, published as one.
+     */
+    private static final class Version {
+        static final Version EMPTY = new Version(Node.EMPTY, 0);
+
+        final Node root;
+        final int size;
+
+        Version(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+    }
+
+    /**
+     * An immutable Trie node with its children kept in sorted arrays.
+     */
+    private static final class Node {
+        static final Node EMPTY = new Node(new char[0], new Node[0], NOT_A_WORD);
+
+        final char[] keys;
+        final Node[] children;
+        final int frequency; // NOT_A_WORD unless a word ends here
+
+        Node(char[] keys, Node[] children, int frequency) {
+            this.keys = keys;
+            this.children = children;
+            this.frequency = frequency;
+        }
+
+        Node child(char ch) {
+            int index = Arrays.binarySearch(keys, ch);
+            return index >= 0 ? children[index] : null;
+        }
+
+        boolean isEmpty() {
+            return frequency == NOT_A_WORD && keys.length == 0;
+        }
+
+        Node withFrequency(int newFrequency) {
+            return new Node(keys, children, newFrequency);
+        }
+
+        /**
+         * @return a copy with the child for {@code ch} replaced, or removed if
+         *         the new child is empty
+         */
+        Node withChild(char ch, Node child) {
+            int index = Arrays.binarySearch(keys, ch);
+            if (child.isEmpty()) {
+                if (index < 0) {
+                    return this;
+                }
+                char[] newKeys = new char[keys.length - 1];
+                Node[] newChildren = new Node[keys.length - 1];
+                System.arraycopy(keys, 0, newKeys, 0, index);
+                System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, keys.length - index - 1);
+                return new Node(newKeys, newChildren, frequency);
+            }
+            if (index >= 0) {
+                Node[] newChildren = children.clone();
+                newChildren[index] = child;
+                return new Node(keys, newChildren, frequency);
+            }
+
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = ch;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, keys.length - insertAt);
+            return new Node(newKeys, newChildren, frequency);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.nickslibrary.datastructures.trees;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import com.nickslibrary.utils.tree.TrieNode;
+
+/**
+ * An immutable trie packed into parallel int arrays (a double-array trie).
+ *
+ * Every state is an index into the arrays. The child of state s on character c
+ * is the state t = base[s] + code(c), and the transition exists only if
+ * check[t] == s, so following a character is two array reads instead of a hash
+ * lookup. Characters are renumbered to dense codes 1..n over the alphabet that
+ * actually occurs, which keeps the arrays small.
+ *
+ * Each state also records the code of its first child and of its next sibling,
+ * so listing words visits only the edges that exist instead of trying every
+ * code in the alphabet at every state.
+ *
+ * A state costs five ints, against a node object, a HashMap and its entries
+ * for a {@link TrieNode}, so the compiled trie is typically several times
+ * smaller than the {@link StandardTrie} it was compiled from. Instances are
+ * created with {@link StandardTrie#compile()}.
+ */
+public class DoubleArrayTrie {
+    private static final int FREE = -1;
+    private static final int NOT_A_WORD = -1;
+    private static final int ROOT = 0;
+    private static final int MAX_REJECTIONS = 16;
+
+    // Alphabet in ascending order; character alphabet[i] has code i + 1
+    private final char[] alphabet;
+    // Code for each character up to the largest one in the alphabet, 0 if absent
+    private final int[] codes;
+
+    private int[] base;
+    private int[] check;
+    // Frequency of the word ending in each state, or NOT_A_WORD
+    private int[] frequencies;
+    // Code of each state's smallest child, and of the next larger child of its parent; 0 for none
+    private int[] firstChild;
+    private int[] nextSibling;
+    private final int wordCount;
+
+    // Free slots still worth trying as a first child, as a linked list; only used while building
+    private int[] nextCandidate;
+    private int[] prevCandidate;
+    private byte[] rejections;
+    private int head = -1;
+    private int tail = -1;
+
+    /**
+     * Compiles the trie rooted at the given node.
+     *
+     * @param root the root of a standard trie
+     */
+    DoubleArrayTrie(TrieNode root) {
+        BitSet chars = new BitSet();
+        int words = collectAlphabet(root, chars);
+        wordCount = words;
+
+        alphabet = new char[chars.cardinality()];
+        int i = 0;
+        for (int ch = chars.nextSetBit(0); ch >= 0; ch = chars.nextSetBit(ch + 1)) {
+            alphabet[i++] = (char) ch;
+        }
+        codes = new int[alphabet.length == 0 ? 0 : alphabet[alphabet.length - 1] + 1];
+        for (i = 0; i < alphabet.length; i++) {
+            codes[alphabet[i]] = i + 1;
+        }
+
+        base = new int[0];
+        check = new int[0];
+        frequencies = new int[0];
+        firstChild = new int[0];
+        nextSibling = new int[0];
+        nextCandidate = new int[0];
+        prevCandidate = new int[0];
+        rejections = new byte[0];
+        ensureCapacity(Math.max(alphabet.length + 1, 2 * words + 1));
+        occupy(ROOT, ROOT);
+
+        int used = build(root, ROOT);
+        base = Arrays.copyOf(base, used);
+        check = Arrays.copyOf(check, used);
+        frequencies = Arrays.copyOf(frequencies, used);
+        firstChild = Arrays.copyOf(firstChild, used);
+        nextSibling = Arrays.copyOf(nextSibling, used);
+        nextCandidate = prevCandidate = null;
+        rejections = null;
+    }
+
+    // Counts the words below node and marks every edge character in chars
+    private static int collectAlphabet(TrieNode node, BitSet chars) {
+        int words = node.isEndOfWord() ? 1 : 0;
+        for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+            chars.set(entry.getKey());
+            words += collectAlphabet(entry.getValue(), chars);
+        }
+        return words;
+    }
+
+    // Places the children of node depth-first, returning the number of slots in use
+    private int build(TrieNode node, int state) {
+        if (node.isEndOfWord()) {
+            frequencies[state] = node.getFrequency();
+        }
+
+        Map<Character, TrieNode> children = node.getChildren();
+        int used = state + 1;
+        if (children.isEmpty()) {
+            return used;
+        }
+        int[] childCodes = new int[children.size()];
+        TrieNode[] childNodes = new TrieNode[children.size()];
+        int k = 0;
+        for (Map.Entry<Character, TrieNode> entry : children.entrySet()) {
+            // Insertion sort by code; nodes rarely have more than a few children
+            int code = codes[entry.getKey()];
+            int j = k++;
+            while (j > 0 && childCodes[j - 1] > code) {
+                childCodes[j] = childCodes[j - 1];
+                childNodes[j] = childNodes[j - 1];
+                j--;
+            }
+            childCodes[j] = code;
+            childNodes[j] = entry.getValue();
+        }
+
+        // Claim all the child slots before descending so that none is handed out twice
+        int b = findBase(childCodes);
+        base[state] = b;
+        firstChild[state] = childCodes[0];
+        for (int j = 0; j < childCodes.length; j++) {
+            occupy(b + childCodes[j], state);
+            nextSibling[b + childCodes[j]] = j + 1 < childCodes.length ? childCodes[j + 1] : 0;
+        }
+        for (int j = 0; j < childCodes.length; j++) {
+            used = Math.max(used, build(childNodes[j], b + childCodes[j]));
+        }
+        return used;
+    }
+
+    // Finds a base at which every child code lands on a free slot
+    private int findBase(int[] childCodes) {
+        int first = childCodes[0];
+        int last = childCodes[childCodes.length - 1];
+        int pos = head;
+        while (true) {
+            if (pos < 0) {
+                pos = check.length;
+                ensureCapacity(pos + 1);
+            }
+            if (pos >= first) {
+                int b = pos - first;
+                ensureCapacity(b + last + 1);
+                boolean fits = true;
+                for (int i = 1; i < childCodes.length; i++) {
+                    if (check[b + childCodes[i]] != FREE) {
+                        fits = false;
+                        break;
+                    }
+                }
+                if (fits) {
+                    return b;
+                }
+            }
+            int next = nextCandidate[pos];
+            // A slot that keeps failing is in a crowded region; stop trying it as a
+            // first child, though a later child may still land on it
+            if (++rejections[pos] == MAX_REJECTIONS) {
+                unlink(pos);
+            }
+            pos = next;
+        }
+    }
+
+    private void occupy(int slot, int parent) {
+        if (rejections[slot] < MAX_REJECTIONS) {
+            unlink(slot);
+        }
+        check[slot] = parent;
+    }
+
+    private void unlink(int slot) {
+        int prev = prevCandidate[slot];
+        int next = nextCandidate[slot];
+        if (prev < 0) {
+            head = next;
+        } else {
+            nextCandidate[prev] = next;
+        }
+        if (next < 0) {
+            tail = prev;
+        } else {
+            prevCandidate[next] = prev;
+        }
+    }
+
+    // Grows the arrays, appending the new slots to the candidate list
+    private void ensureCapacity(int capacity) {
+        if (capacity <= check.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, check.length + (check.length >> 1));
+        int oldCapacity = check.length;
+        base = Arrays.copyOf(base, newCapacity);
+        check = Arrays.copyOf(check, newCapacity);
+        frequencies = Arrays.copyOf(frequencies, newCapacity);
+        firstChild = Arrays.copyOf(firstChild, newCapacity);
+        nextSibling = Arrays.copyOf(nextSibling, newCapacity);
+        nextCandidate = Arrays.copyOf(nextCandidate, newCapacity);
+        prevCandidate = Arrays.copyOf(prevCandidate, newCapacity);
+        rejections = Arrays.copyOf(rejections, newCapacity);
+        Arrays.fill(check, oldCapacity, newCapacity, FREE);
+        Arrays.fill(frequencies, oldCapacity, newCapacity, NOT_A_WORD);
+        for (int slot = oldCapacity; slot < newCapacity; slot++) {
+            prevCandidate[slot] = tail;
+            nextCandidate[slot] = -1;
+            if (tail < 0) {
+                head = slot;
+            } else {
+                nextCandidate[tail] = slot;
+            }
+            tail = slot;
+        }
+    }
+
+    // Follows one character from state, or returns -1 if there is no such edge
+    private int child(int state, char ch) {
+        int code = ch < codes.length ? codes[ch] : 0;
+        if (code == 0) {
+            return -1;
+        }
+        int t = base[state] + code;
+        return t < check.length && check[t] == state ? t : -1;
+    }
+
+    // Follows every character of s from the root, or returns -1 if the path breaks
+    private int walk(String s) {
+        int state = ROOT;
+        for (int i = 0; i < s.length() && state >= 0; i++) {
+            state = child(state, s.charAt(i));
+        }
+        return state;
+    }
+
+    /**
+     * Checks if a word exists in the trie.
+     *
+     * @param word the word to search for
+     * @return true if the word exists, false otherwise
+     */
+    public boolean search(String word) {
+        if (word == null || word.isEmpty()) {
+            return false;
+        }
+        int state = walk(word);
+        return state >= 0 && frequencies[state] != NOT_A_WORD;
+    }
+
+    /**
+     * Checks if there is any word in the trie that starts with the given prefix.
+     *
+     * @param prefix the prefix to check
+     * @return true if any word starts with the prefix, false otherwise
+     */
+    public boolean startsWith(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return false;
+        }
+        return walk(prefix) >= 0;
+    }
+
+    /**
+     * Gets the frequency of a word in the trie.
+     *
+     * @param word the word whose frequency is to be retrieved
+     * @return the frequency of the word, or 0 if it is not found
+     */
+    public int getFrequency(String word) {
+        if (word == null || word.isEmpty()) {
+            return 0;
+        }
+        int state = walk(word);
+        return state >= 0 && frequencies[state] != NOT_A_WORD ? frequencies[state] : 0;
+    }
+
+    /**
+     * Retrieves all words in the trie that start with the given prefix, in
+     * ascending character order.
+     *
+     * @param prefix the prefix to search for
+     * @return a list of words that start with the given prefix
+     */
+    public List<String> getWordsWithPrefix(String prefix) {
+        List<String> results = new ArrayList<>();
+        int state = walk(prefix);
+        if (state >= 0) {
+            collectWords(state, new StringBuilder(prefix), results);
+        }
+        return results;
+    }
+
+    private void collectWords(int state, StringBuilder word, List<String> results) {
+        if (frequencies[state] != NOT_A_WORD) {
+            results.add(word.toString());
+        }
+        // Children are chained in ascending code order, so a leaf costs nothing here
+        int b = base[state];
+        for (int code = firstChild[state]; code != 0; code = nextSibling[b + code]) {
+            word.append(alphabet[code - 1]);
+            collectWords(b + code, word, results);
+            word.setLength(word.length() - 1);
+        }
+    }
+
+    /**
+     * Returns the number of words stored in the trie.
+     *
+     * @return the word count
+     */
+    public int size() {
+        return wordCount;
+    }
+
+    public boolean isEmpty() {
+        return wordCount == 0;
+    }
+
+    /**
+     * Returns the number of array slots, used or not, backing the trie. Each
+     * slot takes five ints.
+     *
+     * @return the length of the state arrays
+     */
+    public int capacity() {
+        return check.length;
+    }
+}
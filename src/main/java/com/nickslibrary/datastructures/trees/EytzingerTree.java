@@ -0,0 +1,181 @@
+package com.nickslibrary.datastructures.trees;
+
+import java.util.List;
+
+/**
+ * An immutable sorted set stored in Eytzinger (breadth-first) order in a
+ * single array: the root is at index 1 and the children of index k are at 2k
+ * and 2k + 1.
+ *
+ * A search walks the implicit tree without following any pointers, and the
+ * first few levels share a handful of cache lines that stay hot across
+ * queries. The loop is branchless: each step computes the next index from the
+ * comparison result instead of branching on it, so there are no mispredicted
+ * branches, and the descent always runs to the bottom before the answer is
+ * recovered from the bits of the final index.
+ *
+ * It is meant to be built once from a sorted traversal such as
+ * {@link AVLTree#inOrderTraversal()}, {@link RedBlackTree#inOrderTraversal()} or
+ * {@link BinarySearchTree#inOrderTraversal()} and then queried many times.
+ * {@link OfLong} stores primitive keys, so comparisons do not dereference
+ * boxed values either.
+ *
+ * @param <T> The type of elements, which must be comparable.
+ */
+public class EytzingerTree<T extends Comparable<T>> {
+    private final Object[] layout;
+    private final int n;
+
+    /**
+     * Builds the tree from elements in strictly ascending order.
+     *
+     * @param sorted The elements, for example a tree's in-order traversal.
+     */
+    public EytzingerTree(List<T> sorted) {
+        n = sorted.size();
+        for (int i = 1; i < n; i++) {
+            if (sorted.get(i - 1).compareTo(sorted.get(i)) >= 0)
+                throw new IllegalArgumentException("elements must be in strictly ascending order");
+        }
+        layout = new Object[n + 1];
+        fill(sorted.toArray(), 0, 1);
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Checks if the set contains the element.
+     *
+     * @param value The element to look for.
+     * @return True if the element is present, false otherwise.
+     */
+    public boolean contains(T value) {
+        int k = lowerBound(value);
+        return k != 0 && element(k).compareTo(value) == 0;
+    }
+
+    /**
+     * Returns the smallest element greater than or equal to the given value.
+     *
+     * @param value The value to compare against.
+     * @return The ceiling element, or null if every element is smaller.
+     */
+    public T ceiling(T value) {
+        int k = lowerBound(value);
+        return k == 0 ? null : element(k);
+    }
+
+    // Index of the first element >= value, or 0 if there is none
+    private int lowerBound(T value) {
+        int k = 1;
+        while (k <= n) {
+            k = 2 * k + (element(k).compareTo(value) < 0 ? 1 : 0);
+        }
+        // Undo the trailing right turns and the final left turn
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    // Writes sorted[i..] into the subtree rooted at k, returning the next unused index
+    private int fill(Object[] sorted, int i, int k) {
+        if (k <= n) {
+            i = fill(sorted, i, 2 * k);
+            layout[k] = sorted[i++];
+            i = fill(sorted, i, 2 * k + 1);
+        }
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int k) {
+        return (T) layout[k];
+    }
+
+    /**
+     * An Eytzinger-ordered set of primitive long keys.
+     */
+    public static final class OfLong {
+        private final long[] layout;
+        private final int n;
+
+        /**
+         * Builds the set from keys in strictly ascending order.
+         *
+         * @param sorted The keys.
+         */
+        public OfLong(long[] sorted) {
+            n = sorted.length;
+            for (int i = 1; i < n; i++) {
+                if (sorted[i - 1] >= sorted[i])
+                    throw new IllegalArgumentException("keys must be in strictly ascending order");
+            }
+            layout = new long[n + 1];
+            fill(sorted, 0, 1);
+        }
+
+        /**
+         * Builds the set from an ascending list of integral numbers, such as the
+         * in-order traversal of an {@code AVLTree<Integer>}.
+         *
+         * @param sorted The keys.
+         * @return The set.
+         */
+        public static OfLong from(List<? extends Number> sorted) {
+            long[] keys = new long[sorted.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = sorted.get(i).longValue();
+            }
+            return new OfLong(keys);
+        }
+
+        public int size() {
+            return n;
+        }
+
+        /**
+         * Checks if the set contains the key.
+         *
+         * @param key The key to look for.
+         * @return True if the key is present, false otherwise.
+         */
+        public boolean contains(long key) {
+            int k = lowerBound(key);
+            return k != 0 && layout[k] == key;
+        }
+
+        /**
+         * Returns the smallest key greater than or equal to the given key.
+         *
+         * @param key          The key to compare against.
+         * @param defaultValue The value to return if every key is smaller.
+         * @return The ceiling key, or defaultValue if there is none.
+         */
+        public long ceiling(long key, long defaultValue) {
+            int k = lowerBound(key);
+            return k == 0 ? defaultValue : layout[k];
+        }
+
+        private int lowerBound(long key) {
+            int k = 1;
+            while (k <= n) {
+                k = 2 * k + (layout[k] < key ? 1 : 0);
+            }
+            return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+        }
+
+        private int fill(long[] sorted, int i, int k) {
+            if (k <= n) {
+                i = fill(sorted, i, 2 * k);
+                layout[k] = sorted[i++];
+                i = fill(sorted, i, 2 * k + 1);
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.nickslibrary.datastructures.trees;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A sequence stored as a treap with implicit keys: a node's position is the
+ * size of everything to its left, so no keys are stored at all.
+ *
+ * Inserting, removing or reading at any index, splitting the sequence in two
+ * and concatenating two sequences all take O(log n) expected time, unlike an
+ * array, which has to shift elements on every insert or remove.
+ *
+ * @param <T> The type of elements.
+ */
+public class ImplicitTreap<T> {
+    private static class Node<T> {
+        T value;
+        final int priority;
+        int size;
+        Node<T> left, right;
+
+        Node(T value) {
+            this.value = value;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
+        }
+    }
+
+    private Node<T> root;
+
+    public ImplicitTreap() {
+        root = null;
+    }
+
+    private ImplicitTreap(Node<T> root) {
+        this.root = root;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Appends an element to the end of the sequence.
+     *
+     * @param value The element to append.
+     */
+    public void add(T value) {
+        root = merge(root, new Node<>(value));
+    }
+
+    /**
+     * Inserts an element so that it ends up at the given index.
+     *
+     * @param index The position to insert at, from 0 to size().
+     * @param value The element to insert.
+     */
+    public void add(int index, T value) {
+        if (index < 0 || index > size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        Node<T>[] parts = split(root, index);
+        root = merge(merge(parts[0], new Node<>(value)), parts[1]);
+    }
+
+    /**
+     * Returns the element at the given index.
+     *
+     * @param index The position to read.
+     * @return The element.
+     */
+    public T get(int index) {
+        return nodeAt(index).value;
+    }
+
+    /**
+     * Replaces the element at the given index.
+     *
+     * @param index The position to write.
+     * @param value The new element.
+     * @return The element previously at the index.
+     */
+    public T set(int index, T value) {
+        Node<T> node = nodeAt(index);
+        T old = node.value;
+        node.value = value;
+        return old;
+    }
+
+    /**
+     * Removes the element at the given index, shifting later elements left.
+     *
+     * @param index The position to remove.
+     * @return The removed element.
+     */
+    public T remove(int index) {
+        checkIndex(index);
+        Node<T>[] parts = split(root, index);
+        Node<T>[] rest = split(parts[1], 1);
+        root = merge(parts[0], rest[1]);
+        return rest[0].value;
+    }
+
+    /**
+     * Removes the elements from the given index on and returns them as a new
+     * sequence.
+     *
+     * @param index The number of elements to keep in this sequence.
+     * @return The removed tail of the sequence.
+     */
+    public ImplicitTreap<T> split(int index) {
+        if (index < 0 || index > size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        Node<T>[] parts = split(root, index);
+        root = parts[0];
+        return new ImplicitTreap<>(parts[1]);
+    }
+
+    /**
+     * Appends the other sequence to this one.
+     *
+     * @param other The sequence to append; it is left empty.
+     * @throws IllegalArgumentException if other is this sequence.
+     */
+    public void concat(ImplicitTreap<T> other) {
+        if (other == this)
+            throw new IllegalArgumentException("Cannot concatenate a sequence with itself.");
+        root = merge(root, other.root);
+        other.root = null;
+    }
+
+    /**
+     * Returns the elements in sequence order.
+     *
+     * @return A list of the elements.
+     */
+    public List<T> toList() {
+        List<T> result = new ArrayList<>(size());
+        collect(root, result);
+        return result;
+    }
+
+    private void collect(Node<T> node, List<T> result) {
+        if (node != null) {
+            collect(node.left, result);
+            result.add(node.value);
+            collect(node.right, result);
+        }
+    }
+
+    private Node<T> nodeAt(int index) {
+        checkIndex(index);
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <T> Node<T> update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    // Splits into the first count elements and the rest
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] split(Node<T> node, int count) {
+        Node<T>[] parts = (Node<T>[]) new Node[2];
+        if (node == null) {
+            return parts;
+        }
+        int leftSize = size(node.left);
+        if (count <= leftSize) {
+            Node<T>[] left = split(node.left, count);
+            node.left = left[1];
+            parts[0] = left[0];
+            parts[1] = update(node);
+        } else {
+            Node<T>[] right = split(node.right, count - leftSize - 1);
+            node.right = right[0];
+            parts[0] = update(node);
+            parts[1] = right[1];
+        }
+        return parts;
+    }
+
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+}
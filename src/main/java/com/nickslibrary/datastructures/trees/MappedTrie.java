@@ -0,0 +1,531 @@
+package com.nickslibrary.datastructures.trees;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+import com.nickslibrary.utils.tree.RadixTrieNode;
+import com.nickslibrary.utils.tree.TrieNode;
+
+/**
+ * A read-only trie that answers lookups directly from its binary file format,
+ * memory-mapped so that opening it reads nothing up front.
+ *
+ * Files are written by {@link StandardTrie#writeTo(Path)} and
+ * {@link RadixTrie#writeTo(Path)}. The file is a header followed by one record
+ * per node. Records are streamed out in post-order, children before their
+ * parent, so writing needs no second pass and no copy of the trie; the header
+ * points at the root, which comes last. Chains of single-child nodes are
+ * collapsed into a prefix. Each record is laid out as:
+ *
+ * <pre>
+ * int    frequency, or -1 if no word ends here
+ * int    prefix length
+ * int    child count
+ * unit[] prefix
+ * unit[] first unit of each child's edge, ascending
+ * (padding to a multiple of 4 bytes)
+ * int[]  offset of each child's record
+ * </pre>
+ *
+ * A unit is a UTF-16 char for a {@link StandardTrie} and a UTF-8 byte for a
+ * {@link RadixTrie}, matching the alphabet each trie is built over. Offsets
+ * are ints, so a file holds at most 2 GB. Lookups use absolute reads only, so
+ * a MappedTrie can be shared between threads.
+ */
+public class MappedTrie {
+    private static final int MAGIC = 0x54524945; // "TRIE"
+    private static final int VERSION = 1;
+
+    // Header layout
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_UNIT = 8;
+    private static final int HEADER_WORDS = 12;
+    private static final int HEADER_ROOT = 16;
+    private static final int HEADER_SIZE = 20;
+
+    // Record layout
+    private static final int FREQUENCY = 0;
+    private static final int PREFIX_LENGTH = 4;
+    private static final int CHILD_COUNT = 8;
+    private static final int UNITS = 12;
+    private static final int NOT_A_WORD = -1;
+
+    // Results of walking a key that does not end exactly at a record
+    private static final int MISSING = -1;
+    private static final int INSIDE_PREFIX = -2;
+
+    static final int UTF16 = 2;
+    static final int UTF8 = 1;
+
+    private final ByteBuffer buffer;
+    private final int unit;
+    private final int wordCount;
+    private final int root;
+
+    private MappedTrie(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(HEADER_MAGIC) != MAGIC) {
+            throw new IOException("not a trie file");
+        }
+        if (buffer.getInt(HEADER_VERSION) != VERSION) {
+            throw new IOException("unsupported trie file version " + buffer.getInt(HEADER_VERSION));
+        }
+        int unit = buffer.getInt(HEADER_UNIT);
+        if (unit != UTF8 && unit != UTF16) {
+            throw new IOException("unsupported trie file unit size " + unit);
+        }
+        this.buffer = buffer;
+        this.unit = unit;
+        this.wordCount = buffer.getInt(HEADER_WORDS);
+        this.root = buffer.getInt(HEADER_ROOT);
+    }
+
+    /**
+     * Maps a trie file into memory. The file is not read until it is queried.
+     *
+     * @param path the file written by a trie's writeTo method
+     * @return the mapped trie
+     * @throws IOException if the file cannot be opened or is not a trie file
+     */
+    public static MappedTrie open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new MappedTrie(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Checks if a word exists in the trie.
+     *
+     * @param word the word to search for
+     * @return true if the word exists, false otherwise
+     */
+    public boolean search(String word) {
+        if (word == null || word.isEmpty()) {
+            return false;
+        }
+        int node = walk(new Key(word));
+        return node >= 0 && buffer.getInt(node + FREQUENCY) != NOT_A_WORD;
+    }
+
+    /**
+     * Gets the frequency of a word in the trie.
+     *
+     * @param word the word whose frequency is to be retrieved
+     * @return the frequency of the word, or 0 if it is not found
+     */
+    public int getFrequency(String word) {
+        if (word == null || word.isEmpty()) {
+            return 0;
+        }
+        int node = walk(new Key(word));
+        if (node < 0) {
+            return 0;
+        }
+        int frequency = buffer.getInt(node + FREQUENCY);
+        return frequency == NOT_A_WORD ? 0 : frequency;
+    }
+
+    /**
+     * Checks if there is any word in the trie that starts with the given prefix.
+     *
+     * @param prefix the prefix to check
+     * @return true if any word starts with the prefix, false otherwise
+     */
+    public boolean startsWith(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return false;
+        }
+        return walk(new Key(prefix)) != MISSING;
+    }
+
+    /**
+     * Retrieves all words in the trie that start with the given prefix, in
+     * ascending unit order.
+     *
+     * @param prefix the prefix to search for
+     * @return a list of words that start with the given prefix, empty if the
+     *         prefix is null
+     */
+    public List<String> getWordsWithPrefix(String prefix) {
+        List<String> results = new ArrayList<>();
+        if (prefix == null) {
+            return results;
+        }
+        Key key = new Key(prefix);
+        int node = root;
+        int i = 0;
+        while (true) {
+            int prefixLength = buffer.getInt(node + PREFIX_LENGTH);
+            int shared = Math.min(prefixLength, key.length() - i);
+            for (int j = 0; j < shared; j++) {
+                if (unitAt(node + UNITS, j) != key.unitAt(i + j)) {
+                    return results;
+                }
+            }
+            i += shared;
+            if (i == key.length()) {
+                WordBuffer path = new WordBuffer(key, i);
+                collectWords(node, shared, path, (word, frequency) -> results.add(word));
+                return results;
+            }
+            node = child(node, prefixLength, key.unitAt(i++));
+            if (node < 0) {
+                return results;
+            }
+        }
+    }
+
+    /**
+     * Calls the action for every word and its frequency, in ascending unit
+     * order.
+     *
+     * @param action the action to perform on each word
+     */
+    public void forEachWord(ObjIntConsumer<String> action) {
+        collectWords(root, 0, new WordBuffer(new Key(""), 0), action);
+    }
+
+    /**
+     * Returns the number of words stored in the trie.
+     *
+     * @return the word count
+     */
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * Follows the key from the root.
+     *
+     * @param key the key to follow
+     * @return the offset of the record whose prefix the key ends with,
+     *         INSIDE_PREFIX if it ends partway along a prefix, or MISSING if the
+     *         path breaks
+     */
+    private int walk(Key key) {
+        int node = root;
+        int i = 0;
+        while (true) {
+            int prefixLength = buffer.getInt(node + PREFIX_LENGTH);
+            for (int j = 0; j < prefixLength; j++) {
+                if (i == key.length()) {
+                    return INSIDE_PREFIX;
+                }
+                if (unitAt(node + UNITS, j) != key.unitAt(i++)) {
+                    return MISSING;
+                }
+            }
+            if (i == key.length()) {
+                return node;
+            }
+            node = child(node, prefixLength, key.unitAt(i++));
+            if (node < 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    // Binary searches the child labels, returning the child's offset or MISSING
+    private int child(int node, int prefixLength, int label) {
+        int count = buffer.getInt(node + CHILD_COUNT);
+        int labels = node + UNITS + prefixLength * unit;
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midLabel = unitAt(labels, mid);
+            if (midLabel < label) {
+                lo = mid + 1;
+            } else if (midLabel > label) {
+                hi = mid - 1;
+            } else {
+                return buffer.getInt(offsets(node, prefixLength, count) + 4 * mid);
+            }
+        }
+        return MISSING;
+    }
+
+    private int offsets(int node, int prefixLength, int count) {
+        return align(node + UNITS + (prefixLength + count) * unit);
+    }
+
+    private int unitAt(int position, int index) {
+        return unit == UTF16 ? buffer.getChar(position + 2 * index) : Byte.toUnsignedInt(buffer.get(position + index));
+    }
+
+    // Emits every word at or below node, whose first skip prefix units are already on the path
+    private void collectWords(int node, int skip, WordBuffer path, ObjIntConsumer<String> action) {
+        int prefixLength = buffer.getInt(node + PREFIX_LENGTH);
+        int count = buffer.getInt(node + CHILD_COUNT);
+        int length = path.length;
+        for (int j = skip; j < prefixLength; j++) {
+            path.append(unitAt(node + UNITS, j));
+        }
+        int frequency = buffer.getInt(node + FREQUENCY);
+        if (frequency != NOT_A_WORD && path.length > 0) {
+            action.accept(path.toWord(unit), frequency);
+        }
+        int labels = node + UNITS + prefixLength * unit;
+        int offsets = offsets(node, prefixLength, count);
+        for (int c = 0; c < count; c++) {
+            path.append(unitAt(labels, c));
+            collectWords(buffer.getInt(offsets + 4 * c), 0, path, action);
+            path.length--;
+        }
+        path.length = length;
+    }
+
+    private static int align(int position) {
+        return (position + 3) & ~3;
+    }
+
+    // The units of a query string in the file's alphabet
+    private final class Key {
+        private final String chars;
+        private final byte[] bytes;
+
+        Key(String s) {
+            this.chars = s;
+            this.bytes = unit == UTF8 ? s.getBytes(StandardCharsets.UTF_8) : null;
+        }
+
+        int length() {
+            return bytes == null ? chars.length() : bytes.length;
+        }
+
+        int unitAt(int i) {
+            return bytes == null ? chars.charAt(i) : Byte.toUnsignedInt(bytes[i]);
+        }
+    }
+
+    // The units on the path to the current record
+    private static final class WordBuffer {
+        char[] units;
+        int length;
+
+        WordBuffer(Key key, int length) {
+            this.units = new char[Math.max(16, 2 * length)];
+            for (int i = 0; i < length; i++) {
+                units[i] = (char) key.unitAt(i);
+            }
+            this.length = length;
+        }
+
+        void append(int u) {
+            if (length == units.length) {
+                units = Arrays.copyOf(units, 2 * length);
+            }
+            units[length++] = (char) u;
+        }
+
+        String toWord(int unit) {
+            if (unit == UTF16) {
+                return new String(units, 0, length);
+            }
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) units[i];
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    // Writing
+
+    /**
+     * Writes the trie rooted at a standard trie node.
+     *
+     * @param path  the file to write
+     * @param root  the root of the trie
+     * @param words the number of words in the trie
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path path, TrieNode root, int words) throws IOException {
+        try (Writer writer = new Writer(path, UTF16)) {
+            writer.finish(writer.write(root), words);
+        }
+    }
+
+    /**
+     * Writes the trie rooted at a radix trie node.
+     *
+     * @param path  the file to write
+     * @param root  the root of the trie, or null if it is empty
+     * @param words the number of words in the trie
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path path, RadixTrieNode root, int words) throws IOException {
+        try (Writer writer = new Writer(path, UTF8)) {
+            int rootOffset = root == null
+                    ? writer.record(NOT_A_WORD, new char[0], new char[0], new int[0])
+                    : writer.write(root, 0);
+            writer.finish(rootOffset, words);
+        }
+    }
+
+    /**
+     * Streams records to a file in post-order, so the offsets of a node's
+     * children are known by the time the node itself is written.
+     */
+    private static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final int unit;
+        private ByteBuffer out = ByteBuffer.allocate(1 << 16);
+        private long position = HEADER_SIZE;
+
+        Writer(Path path, int unit) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.unit = unit;
+            channel.position(HEADER_SIZE);
+        }
+
+        int write(TrieNode node) throws IOException {
+            // Collapse the chain of nodes that neither end a word nor branch
+            int chain = 0;
+            for (TrieNode n = node; !n.isEndOfWord() && n.getChildren().size() == 1; chain++) {
+                n = n.getChildren().values().iterator().next();
+            }
+            char[] prefix = new char[chain];
+            for (int i = 0; i < chain; i++) {
+                Map.Entry<Character, TrieNode> only = node.getChildren().entrySet().iterator().next();
+                prefix[i] = only.getKey();
+                node = only.getValue();
+            }
+
+            Map<Character, TrieNode> children = node.getChildren();
+            char[] labels = new char[children.size()];
+            TrieNode[] nodes = new TrieNode[children.size()];
+            int count = 0;
+            for (Map.Entry<Character, TrieNode> entry : children.entrySet()) {
+                int j = count++;
+                while (j > 0 && labels[j - 1] > entry.getKey()) {
+                    labels[j] = labels[j - 1];
+                    nodes[j] = nodes[j - 1];
+                    j--;
+                }
+                labels[j] = entry.getKey();
+                nodes[j] = entry.getValue();
+            }
+
+            int[] offsets = new int[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = write(nodes[i]);
+            }
+            return record(node.isEndOfWord() ? node.getFrequency() : NOT_A_WORD, prefix, labels, offsets);
+        }
+
+        int write(RadixTrieNode node, int depth) throws IOException {
+            if (node.isLeaf()) {
+                byte[] key = ((RadixTrieNode.Leaf) node).getKey();
+                return record(node.getFrequency(), toUnits(key, depth), new char[0], new int[0]);
+            }
+
+            RadixTrieNode.Inner inner = (RadixTrieNode.Inner) node;
+            char[] labels = new char[inner.childCount()];
+            RadixTrieNode[] nodes = new RadixTrieNode[inner.childCount()];
+            int[] i = { 0 };
+            inner.forEachChild((edge, child) -> {
+                labels[i[0]] = (char) edge;
+                nodes[i[0]++] = child;
+            });
+
+            int childDepth = depth + inner.getPrefix().length + 1;
+            int[] offsets = new int[nodes.length];
+            for (int c = 0; c < nodes.length; c++) {
+                offsets[c] = write(nodes[c], childDepth);
+            }
+            int frequency = inner.isEndOfWord() ? inner.getFrequency() : NOT_A_WORD;
+            return record(frequency, toUnits(inner.getPrefix(), 0), labels, offsets);
+        }
+
+        // Appends one record, returning its offset in the file
+        int record(int frequency, char[] prefix, char[] labels, int[] offsets) throws IOException {
+            int size = align(UNITS + (prefix.length + labels.length) * unit) + 4 * offsets.length;
+            if (position + size > Integer.MAX_VALUE) {
+                throw new IOException("trie is too large for the file format");
+            }
+            if (out.remaining() < size) {
+                drain();
+                if (out.capacity() < size) {
+                    out = ByteBuffer.allocate(size);
+                }
+            }
+
+            int start = out.position();
+            out.putInt(frequency);
+            out.putInt(prefix.length);
+            out.putInt(labels.length);
+            for (char u : prefix) {
+                putUnit(u);
+            }
+            for (char u : labels) {
+                putUnit(u);
+            }
+            while ((out.position() - start) % 4 != 0) {
+                out.put((byte) 0);
+            }
+            for (int offset : offsets) {
+                out.putInt(offset);
+            }
+
+            int offset = (int) position;
+            position += size;
+            return offset;
+        }
+
+        private void putUnit(char u) {
+            if (unit == UTF16) {
+                out.putChar(u);
+            } else {
+                out.put((byte) u);
+            }
+        }
+
+        private static char[] toUnits(byte[] bytes, int from) {
+            char[] units = new char[bytes.length - from];
+            for (int i = from; i < bytes.length; i++) {
+                units[i - from] = (char) Byte.toUnsignedInt(bytes[i]);
+            }
+            return units;
+        }
+
+        private void drain() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+
+        // Writes the header once the root, the last record, is in place
+        void finish(int rootOffset, int words) throws IOException {
+            drain();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(HEADER_MAGIC, MAGIC);
+            header.putInt(HEADER_VERSION, VERSION);
+            header.putInt(HEADER_UNIT, unit);
+            header.putInt(HEADER_WORDS, words);
+            header.putInt(HEADER_ROOT, rootOffset);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package com.nickslibrary.datastructures.trees;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.nickslibrary.utils.storage.BufferPool;
+
+/**
+ * A B+ tree of long keys and long values stored in fixed-size pages of a file.
+ *
+ * Pages are read and written through a {@link BufferPool}, so only the pages
+ * currently cached occupy memory and the index may be much larger than the
+ * heap. Nodes are never deserialized into objects: searches run a binary
+ * search directly over the keys in the page buffer. Page 0 is a header holding
+ * the root, height, size and page count, so a file can be reopened without a
+ * rebuild.
+ *
+ * Each page is laid out as a type byte, an entry count, a next-leaf pointer and
+ * then two fixed-capacity arrays: keys followed by values (leaves) or keys
+ * followed by child page ids (internal nodes).
+ *
+ * Removal leaves pages underfull instead of merging them, which keeps writes
+ * local to a single leaf. This class is not thread-safe.
+ */
+public class PagedBTree implements Closeable {
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+    public static final int DEFAULT_POOL_PAGES = 1024;
+
+    private static final long MAGIC = 0x4e4c425452454531L;
+    private static final long NO_PAGE = -1;
+
+    // Header page layout
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_PAGE_SIZE = 8;
+    private static final int HEADER_ROOT = 12;
+    private static final int HEADER_HEIGHT = 20;
+    private static final int HEADER_SIZE = 24;
+    private static final int HEADER_PAGE_COUNT = 32;
+
+    // Node page layout
+    private static final int TYPE = 0;
+    private static final int COUNT = 4;
+    private static final int NEXT = 8;
+    private static final int DATA = 16;
+    private static final byte LEAF = 0;
+    private static final byte INTERNAL = 1;
+
+    private final FileChannel channel;
+    private final BufferPool pool;
+    private final int leafCapacity;
+    private final int internalCapacity;
+    private long root;
+    private int height;
+    private long n;
+    private long pageCount;
+
+    private static final class Split {
+        private final long key;
+        private final long page;
+
+        private Split(long key, long page) {
+            this.key = key;
+            this.page = page;
+        }
+    }
+
+    private PagedBTree(FileChannel channel, int pageSize, int poolPages) throws IOException {
+        if (pageSize < 128)
+            throw new IllegalArgumentException("pageSize must be at least 128 bytes");
+        if (poolPages < 3)
+            throw new IllegalArgumentException("the buffer pool needs at least 3 pages");
+        this.channel = channel;
+        this.pool = new BufferPool(channel, pageSize, poolPages);
+        this.leafCapacity = (pageSize - DATA) / 16;
+        this.internalCapacity = (pageSize - DATA - 8) / 16;
+
+        if (channel.size() == 0) {
+            root = 1;
+            pageCount = 2;
+            ByteBuffer page = pool.pin(root);
+            page.put(TYPE, LEAF).putInt(COUNT, 0).putLong(NEXT, NO_PAGE);
+            pool.unpin(root, true);
+            writeHeader();
+        } else {
+            ByteBuffer header = pool.pin(0);
+            try {
+                if (header.getLong(HEADER_MAGIC) != MAGIC)
+                    throw new IOException("not a PagedBTree file");
+                if (header.getInt(HEADER_PAGE_SIZE) != pageSize)
+                    throw new IllegalArgumentException("file was created with page size " + header.getInt(HEADER_PAGE_SIZE));
+                root = header.getLong(HEADER_ROOT);
+                height = header.getInt(HEADER_HEIGHT);
+                n = header.getLong(HEADER_SIZE);
+                pageCount = header.getLong(HEADER_PAGE_COUNT);
+            } finally {
+                pool.unpin(0, false);
+            }
+        }
+    }
+
+    /**
+     * Opens the index stored in the file, creating it if the file is missing or
+     * empty, with the default page size and buffer pool size.
+     *
+     * @param path the index file
+     * @return the opened index
+     * @throws IOException if the file cannot be opened or is not an index
+     */
+    public static PagedBTree open(Path path) throws IOException {
+        return open(path, DEFAULT_PAGE_SIZE, DEFAULT_POOL_PAGES);
+    }
+
+    /**
+     * Opens the index stored in the file, creating it if the file is missing or
+     * empty.
+     *
+     * @param path      the index file
+     * @param pageSize  the size of a page in bytes; must match the size the file
+     *                  was created with
+     * @param poolPages the number of pages cached in memory
+     * @return the opened index
+     * @throws IOException if the file cannot be opened or is not an index
+     */
+    public static PagedBTree open(Path path, int pageSize, int poolPages) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            return new PagedBTree(channel, pageSize, poolPages);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public long size() {
+        return n;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * @param key the key to look up
+     * @return the value, or null if the key is not present
+     */
+    public Long get(long key) {
+        try {
+            long leaf = findLeaf(key);
+            ByteBuffer page = pool.pin(leaf);
+            try {
+                int i = search(page, page.getInt(COUNT), key);
+                return i >= 0 ? page.getLong(leafValue(i)) : null;
+            } finally {
+                pool.unpin(leaf, false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean contains(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Inserts the key-value pair, replacing the value if the key is present.
+     *
+     * @param key the key to insert
+     * @param val the value to associate with the key
+     */
+    public void put(long key, long val) {
+        try {
+            Split split = insert(root, height, key, val);
+            if (split == null)
+                return;
+
+            long newRoot = allocatePage();
+            ByteBuffer page = pool.pin(newRoot);
+            page.put(TYPE, INTERNAL).putInt(COUNT, 1).putLong(NEXT, NO_PAGE);
+            page.putLong(DATA, split.key);
+            page.putLong(internalChild(0), root);
+            page.putLong(internalChild(1), split.page);
+            pool.unpin(newRoot, true);
+            root = newRoot;
+            height++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Removes the key and its value.
+     *
+     * @param key the key to remove
+     * @return true if the key was present
+     */
+    public boolean remove(long key) {
+        try {
+            long leaf = findLeaf(key);
+            ByteBuffer page = pool.pin(leaf);
+            boolean modified = false;
+            try {
+                int count = page.getInt(COUNT);
+                int i = search(page, count, key);
+                if (i < 0)
+                    return false;
+                for (int j = i; j < count - 1; j++) {
+                    page.putLong(DATA + j * 8, page.getLong(DATA + (j + 1) * 8));
+                    page.putLong(leafValue(j), page.getLong(leafValue(j + 1)));
+                }
+                page.putInt(COUNT, count - 1);
+                modified = true;
+                n--;
+                return true;
+            } finally {
+                pool.unpin(leaf, modified);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries whose keys lie in [lo, hi), in
+     * ascending order. The tree must not be modified while iterating.
+     *
+     * @param lo the lowest key to include
+     * @param hi the key to stop before
+     * @return an iterator over the entries in the range
+     */
+    public Iterator<Map.Entry<Long, Long>> range(long lo, long hi) {
+        try {
+            return new RangeIterator(findLeaf(lo), lo, hi);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the header and every dirty page to the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void flush() throws IOException {
+        writeHeader();
+        pool.flush();
+    }
+
+    /**
+     * Flushes the index and closes the file.
+     *
+     * @throws IOException if the file cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = pool.pin(0);
+        header.putLong(HEADER_MAGIC, MAGIC);
+        header.putInt(HEADER_PAGE_SIZE, pool.getPageSize());
+        header.putLong(HEADER_ROOT, root);
+        header.putInt(HEADER_HEIGHT, height);
+        header.putLong(HEADER_SIZE, n);
+        header.putLong(HEADER_PAGE_COUNT, pageCount);
+        pool.unpin(0, true);
+    }
+
+    private long allocatePage() {
+        return pageCount++;
+    }
+
+    private int leafValue(int i) {
+        return DATA + (leafCapacity + i) * 8;
+    }
+
+    private int internalChild(int i) {
+        return DATA + (internalCapacity + i) * 8;
+    }
+
+    // Binary search over the keys of a page, in the style of Arrays.binarySearch
+    private static int search(ByteBuffer page, int count, long key) {
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long k = page.getLong(DATA + mid * 8);
+            if (k < key)
+                lo = mid + 1;
+            else if (k > key)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    // Child j holds keys in [keys[j - 1], keys[j])
+    private long childFor(long pageId, long key) throws IOException {
+        ByteBuffer page = pool.pin(pageId);
+        try {
+            int i = search(page, page.getInt(COUNT), key);
+            return page.getLong(internalChild(i >= 0 ? i + 1 : -i - 1));
+        } finally {
+            pool.unpin(pageId, false);
+        }
+    }
+
+    private long findLeaf(long key) throws IOException {
+        long pageId = root;
+        for (int ht = height; ht > 0; ht--) {
+            pageId = childFor(pageId, key);
+        }
+        return pageId;
+    }
+
+    private Split insert(long pageId, int ht, long key, long val) throws IOException {
+        if (ht == 0)
+            return insertIntoLeaf(pageId, key, val);
+
+        Split split = insert(childFor(pageId, key), ht - 1, key, val);
+        if (split == null)
+            return null;
+
+        ByteBuffer page = pool.pin(pageId);
+        try {
+            int count = page.getInt(COUNT);
+            int j = -search(page, count, split.key) - 1;
+            if (count < internalCapacity) {
+                for (int i = count; i > j; i--) {
+                    page.putLong(DATA + i * 8, page.getLong(DATA + (i - 1) * 8));
+                    page.putLong(internalChild(i + 1), page.getLong(internalChild(i)));
+                }
+                page.putLong(DATA + j * 8, split.key);
+                page.putLong(internalChild(j + 1), split.page);
+                page.putInt(COUNT, count + 1);
+                return null;
+            }
+
+            // Full: lay the node out with the new entry, then promote the middle key
+            long[] keys = new long[count + 1];
+            long[] children = new long[count + 2];
+            for (int i = 0, src = 0; i <= count; i++) {
+                keys[i] = i == j ? split.key : page.getLong(DATA + (src++) * 8);
+            }
+            for (int i = 0, src = 0; i <= count + 1; i++) {
+                children[i] = i == j + 1 ? split.page : page.getLong(internalChild(src++));
+            }
+
+            int half = (count + 1) / 2;
+            long rightId = allocatePage();
+            ByteBuffer right = pool.pin(rightId);
+            int rightCount = count - half;
+            right.put(TYPE, INTERNAL).putInt(COUNT, rightCount).putLong(NEXT, NO_PAGE);
+            for (int i = 0; i < rightCount; i++) {
+                right.putLong(DATA + i * 8, keys[half + 1 + i]);
+            }
+            for (int i = 0; i <= rightCount; i++) {
+                right.putLong(internalChild(i), children[half + 1 + i]);
+            }
+            pool.unpin(rightId, true);
+
+            for (int i = 0; i < half; i++) {
+                page.putLong(DATA + i * 8, keys[i]);
+            }
+            for (int i = 0; i <= half; i++) {
+                page.putLong(internalChild(i), children[i]);
+            }
+            page.putInt(COUNT, half);
+            return new Split(keys[half], rightId);
+        } finally {
+            pool.unpin(pageId, true);
+        }
+    }
+
+    private Split insertIntoLeaf(long pageId, long key, long val) throws IOException {
+        ByteBuffer page = pool.pin(pageId);
+        try {
+            int count = page.getInt(COUNT);
+            int j = search(page, count, key);
+            if (j >= 0) {
+                page.putLong(leafValue(j), val);
+                return null;
+            }
+            j = -j - 1;
+            n++;
+
+            if (count < leafCapacity) {
+                for (int i = count; i > j; i--) {
+                    page.putLong(DATA + i * 8, page.getLong(DATA + (i - 1) * 8));
+                    page.putLong(leafValue(i), page.getLong(leafValue(i - 1)));
+                }
+                page.putLong(DATA + j * 8, key);
+                page.putLong(leafValue(j), val);
+                page.putInt(COUNT, count + 1);
+                return null;
+            }
+
+            // Full: lay the leaf out with the new entry, then move the upper half
+            long[] keys = new long[count + 1];
+            long[] vals = new long[count + 1];
+            for (int i = 0, src = 0; i <= count; i++) {
+                if (i == j) {
+                    keys[i] = key;
+                    vals[i] = val;
+                } else {
+                    keys[i] = page.getLong(DATA + src * 8);
+                    vals[i] = page.getLong(leafValue(src));
+                    src++;
+                }
+            }
+
+            int half = (count + 1) / 2;
+            long rightId = allocatePage();
+            ByteBuffer right = pool.pin(rightId);
+            int rightCount = count + 1 - half;
+            right.put(TYPE, LEAF).putInt(COUNT, rightCount).putLong(NEXT, page.getLong(NEXT));
+            for (int i = 0; i < rightCount; i++) {
+                right.putLong(DATA + i * 8, keys[half + i]);
+                right.putLong(leafValue(i), vals[half + i]);
+            }
+            pool.unpin(rightId, true);
+
+            for (int i = 0; i < half; i++) {
+                page.putLong(DATA + i * 8, keys[i]);
+                page.putLong(leafValue(i), vals[i]);
+            }
+            page.putInt(COUNT, half).putLong(NEXT, rightId);
+            return new Split(keys[half], rightId);
+        } finally {
+            pool.unpin(pageId, true);
+        }
+    }
+
+    /**
+     * Copies one leaf at a time out of the buffer pool, so no page stays pinned
+     * between calls.
+     */
+    private class RangeIterator implements Iterator<Map.Entry<Long, Long>> {
+        private final long hi;
+        private long nextLeaf;
+        private long[] keys = new long[0];
+        private long[] vals = new long[0];
+        private int count;
+        private int i;
+
+        private RangeIterator(long leaf, long lo, long hi) throws IOException {
+            this.hi = hi;
+            this.nextLeaf = leaf;
+            load(lo);
+        }
+
+        // Loads leaves until one has an entry at or after lo, skipping empty ones
+        private void load(long lo) throws IOException {
+            count = 0;
+            i = 0;
+            while (count == 0 && nextLeaf != NO_PAGE) {
+                long pageId = nextLeaf;
+                ByteBuffer page = pool.pin(pageId);
+                try {
+                    int total = page.getInt(COUNT);
+                    int start = search(page, total, lo);
+                    start = start >= 0 ? start : -start - 1;
+                    count = total - start;
+                    if (keys.length < count) {
+                        keys = new long[leafCapacity];
+                        vals = new long[leafCapacity];
+                    }
+                    for (int k = 0; k < count; k++) {
+                        keys[k] = page.getLong(DATA + (start + k) * 8);
+                        vals[k] = page.getLong(leafValue(start + k));
+                    }
+                    nextLeaf = page.getLong(NEXT);
+                } finally {
+                    pool.unpin(pageId, false);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (i == count && nextLeaf != NO_PAGE) {
+                try {
+                    load(Long.MIN_VALUE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return i < count && keys[i] < hi;
+        }
+
+        @Override
+        public Map.Entry<Long, Long> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Map.Entry<Long, Long> entry = new AbstractMap.SimpleImmutableEntry<>(keys[i], vals[i]);
+            i++;
+            return entry;
+        }
+    }
+}
@@ -1,27 +1,43 @@
 package com.nickslibrary.datastructures.trees;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Stack;
 
 import com.nickslibrary.utils.tree.RadixTrieNode;
+import com.nickslibrary.utils.tree.RadixTrieNode.Inner;
+import com.nickslibrary.utils.tree.RadixTrieNode.Leaf;
+import com.nickslibrary.utils.tree.RadixTrieNode.Node4;
 
 /**
  * A Radix Trie (Compressed Trie) implementation.
  * This data structure optimizes standard Tries by merging common prefixes.
  * Merging and splitting logic will reside in RadixTrie, not RadixTrieNode.
+ *
+ * Words are stored as their UTF-8 bytes in an Adaptive Radix Tree: inner
+ * nodes grow from 4 to 16, 48 and 256 children as needed, and a word that
+ * shares no further bytes with any other stays in a single leaf until a second
+ * word forces the path apart. Lookups compare whole byte ranges and follow one
+ * array slot per level without creating substrings, and words are listed in
+ * code point order.
  */
 public class RadixTrie {
 
-    // Root node of the Radix Trie
+    // Root node of the Radix Trie, or null if it is empty
     private RadixTrieNode root;
+    private int size;
+
+    // Set by insert and remove when the set of words changed
+    private boolean changed;
 
     /**
      * Constructs an empty Radix Trie.
      */
     public RadixTrie() {
-        root = new RadixTrieNode();
+        root = null;
     }
 
     /**
@@ -35,99 +51,103 @@ public class RadixTrie {
             return false; // Cannot add null or empty words
         }
 
-        RadixTrieNode current = root;
-        int index = 0;
+        changed = false;
+        root = insert(root, word.getBytes(StandardCharsets.UTF_8), 0);
+        if (changed) {
+            size++;
+        }
+        return changed;
+    }
 
-        while (index < word.length()) {
-            char ch = word.charAt(index);
+    /**
+     * Inserts a key below the given node, whose path so far matches the first
+     * depth bytes of the key.
+     *
+     * @param node  The node to insert under, or null for an empty slot.
+     * @param key   The key to insert.
+     * @param depth The number of key bytes already matched.
+     * @return The node to store in place of the given one.
+     */
+    private RadixTrieNode insert(RadixTrieNode node, byte[] key, int depth) {
+        if (node == null) {
+            changed = true;
+            return new Leaf(key);
+        }
 
-            if (!current.hasChild(ch)) {
-                // No matching child, create a new node using addChild
-                current.addChild(ch, word.substring(index));
-                current = current.getChild(ch);
-                break; // New word is fully inserted
+        if (node.isLeaf()) {
+            Leaf leaf = (Leaf) node;
+            byte[] other = leaf.getKey();
+            if (Arrays.equals(other, key)) {
+                leaf.incrementFrequency(); // Word already exists
+                return leaf;
             }
 
-            RadixTrieNode child = current.getChild(ch);
-            String childPrefix = child.getPrefix();
-            int commonLength = getCommonPrefixLength(word.substring(index), childPrefix);
+            // Lazy expansion: the leaf only becomes a branch once a second key reaches it
+            int end = Math.min(other.length, key.length);
+            int common = Arrays.mismatch(other, depth, end, key, depth, end);
+            common = common < 0 ? end : depth + common;
+            Inner branch = new Node4(Arrays.copyOfRange(key, depth, common));
+            branch = place(branch, leaf, common);
+            changed = true;
+            return place(branch, new Leaf(key), common);
+        }
+
+        Inner inner = (Inner) node;
+        byte[] prefix = inner.getPrefix();
+        int matched = mismatch(prefix, key, depth, Math.min(prefix.length, key.length - depth));
+
+        if (matched < prefix.length) {
+            // Split required: a new node takes over the matched part of the prefix
+            Inner split = new Node4(Arrays.copyOf(prefix, matched));
+            byte edge = prefix[matched];
+            inner.setPrefix(Arrays.copyOfRange(prefix, matched + 1, prefix.length));
+            split.addChild(edge, inner);
+            changed = true;
+            return place(split, new Leaf(key), depth + matched);
+        }
 
-            if (commonLength == childPrefix.length()) {
-                // Full match with existing node, move deeper
-                current = child;
-                index += commonLength;
+        depth += prefix.length;
+        if (depth == key.length) {
+            if (inner.isEndOfWord()) {
+                inner.incrementFrequency();
             } else {
-                // Split required
-                String remainingChildPrefix = childPrefix.substring(commonLength);
-                String newWordSuffix = word.substring(index + commonLength);
-
-                // Remove old child
-                current.removeChild(ch);
-
-                // Add new intermediate node for the common prefix
-                current.addChild(ch, childPrefix.substring(0, commonLength));
-                RadixTrieNode splitNode = current.getChild(ch);
-
-                // Move the existing child under the splitNode
-                splitNode.addChild(remainingChildPrefix.charAt(0), remainingChildPrefix);
-                RadixTrieNode newChild = splitNode.getChild(remainingChildPrefix.charAt(0));
-
-                // Transfer metadata to the new child
-                newChild.setEndOfWord(child.isEndOfWord());
-                newChild.setFrequency(child.getFrequency());
-
-                // Move old children to the new child
-                for (Map.Entry<Character, RadixTrieNode> entry : child.getChildren().entrySet()) {
-                    newChild.getChildren().put(entry.getKey(), entry.getValue());
-                    entry.getValue().setParent(newChild);
-                }
-
-                // If there's more of the word left, add it as a new child
-                if (!newWordSuffix.isEmpty()) {
-                    splitNode.addChild(newWordSuffix.charAt(0), newWordSuffix);
-                    current = splitNode.getChild(newWordSuffix.charAt(0));
-                } else {
-                    current = splitNode;
-                }
-
-                break;
+                inner.setEndOfWord(true);
+                inner.setFrequency(1);
+                changed = true;
             }
+            return inner;
         }
 
-        // Ensure the last node is marked as an end-of-word node
-        if (current.isEndOfWord()) {
-            current.incrementFrequency();
-            return false; // Word already exists
+        byte edge = key[depth];
+        RadixTrieNode child = inner.findChild(edge);
+        if (child == null) {
+            changed = true;
+            return inner.addChild(edge, new Leaf(key));
         }
-
-        current.setEndOfWord(true);
-        current.setFrequency(1);
-        return true;
+        RadixTrieNode updated = insert(child, key, depth + 1);
+        if (updated != child) {
+            inner.replaceChild(edge, updated);
+        }
+        return inner;
     }
 
-    /**
-     * Computes the length of the common prefix shared by two strings.
-     *
-     * @param s1 The first string.
-     * @param s2 The second string.
-     * @return The length of the common prefix between s1 and s2.
-     */
-    private int getCommonPrefixLength(String s1, String s2) {
-        int minLength = Math.min(s1.length(), s2.length());
-        int i = 0;
-        while (i < minLength && s1.charAt(i) == s2.charAt(i)) {
-            i++;
+    // Hangs a leaf below a branch whose path covers its first depth bytes
+    private Inner place(Inner branch, Leaf leaf, int depth) {
+        byte[] key = leaf.getKey();
+        if (key.length == depth) {
+            branch.setEndOfWord(true);
+            branch.setFrequency(leaf.getFrequency());
+            return branch;
         }
-        return i;
+        return branch.addChild(key[depth], leaf);
+    }
+
+    // Counts the leading bytes of a that equal the bytes of key from offset, up to length
+    private static int mismatch(byte[] a, byte[] key, int offset, int length) {
+        int i = Arrays.mismatch(a, 0, length, key, offset, offset + length);
+        return i < 0 ? length : i;
     }
 
-    /**
-     * Deletes a word from the Radix Trie.
-     *
-     * @param word The word to delete.
-     * @return true if the word was successfully deleted, false if the word was not
-     *         found.
-     */
     /**
      * Deletes a word from the Radix Trie.
      *
@@ -140,75 +160,137 @@ public class RadixTrie {
             return false; // Invalid input
         }
 
-        RadixTrieNode current = root;
-        Stack<RadixTrieNode> nodeStack = new Stack<>();
-        Stack<Character> charStack = new Stack<>();
-        int index = 0;
-
-        // Step 1: Traverse the trie to find the node representing the word
-        while (index < word.length()) {
-            boolean found = false;
-
-            for (Map.Entry<Character, RadixTrieNode> entry : current.getChildren().entrySet()) {
-                RadixTrieNode child = entry.getValue();
-                String prefix = child.getPrefix();
-                int commonLength = getCommonPrefixLength(word.substring(index), prefix);
-
-                if (commonLength == prefix.length()) { // Full prefix match
-                    nodeStack.push(current);
-                    charStack.push(entry.getKey());
-                    current = child;
-                    index += commonLength;
-                    found = true;
-                    break;
-                }
+        changed = false;
+        root = remove(root, word.getBytes(StandardCharsets.UTF_8), 0);
+        if (changed) {
+            size--;
+        }
+        return changed;
+    }
+
+    private RadixTrieNode remove(RadixTrieNode node, byte[] key, int depth) {
+        if (node == null) {
+            return null;
+        }
+
+        if (node.isLeaf()) {
+            if (Arrays.equals(((Leaf) node).getKey(), key)) {
+                changed = true;
+                return null;
             }
+            return node;
+        }
+
+        Inner inner = (Inner) node;
+        byte[] prefix = inner.getPrefix();
+        if (key.length - depth < prefix.length
+                || !Arrays.equals(prefix, 0, prefix.length, key, depth, depth + prefix.length)) {
+            return inner; // Mismatch found, word does not exist
+        }
+        depth += prefix.length;
 
-            if (!found) {
-                return false; // Mismatch found, word does not exist
+        if (depth == key.length) {
+            if (!inner.isEndOfWord()) {
+                return inner;
             }
+            inner.setEndOfWord(false);
+            inner.setFrequency(0);
+            changed = true;
+            return collapse(inner, key, depth);
         }
 
-        if (!current.isEndOfWord()) {
-            return false;
+        byte edge = key[depth];
+        RadixTrieNode child = inner.findChild(edge);
+        if (child == null) {
+            return inner;
+        }
+        RadixTrieNode updated = remove(child, key, depth + 1);
+        if (updated == child) {
+            return inner;
+        }
+        if (updated != null) {
+            inner.replaceChild(edge, updated);
+            return inner;
+        }
+        return collapse(inner.removeChild(edge), key, depth);
+    }
+
+    /**
+     * Shrinks a node that lost a word or a child back to the simplest form that
+     * holds what is left below it.
+     *
+     * @param inner The node.
+     * @param key   A key whose first depth bytes are the path to the node.
+     * @param depth The length of the path to the node, including its prefix.
+     * @return The node to store in place of the given one.
+     */
+    private RadixTrieNode collapse(Inner inner, byte[] key, int depth) {
+        if (inner.isEndOfWord()) {
+            if (inner.childCount() > 0) {
+                return inner;
+            }
+            // Only the node's own word is left, which fits in a leaf
+            Leaf leaf = new Leaf(Arrays.copyOf(key, depth));
+            leaf.setFrequency(inner.getFrequency());
+            return leaf;
         }
 
-        // Step 2: Unmark the node as an end-of-word
-        current.setEndOfWord(false);
-        current.setFrequency(0);
+        if (inner.childCount() == 0) {
+            return null;
+        }
+        if (inner.childCount() > 1) {
+            return inner;
+        }
 
-        // Step 3: Cleanup orphan nodes (only if it has no children)
-        while (!nodeStack.isEmpty() && current.getChildren().isEmpty() && !current.isEndOfWord()) {
-            RadixTrieNode parent = nodeStack.pop();
-            char parentChar = charStack.pop();
-            parent.removeChild(parentChar);
-            current = parent;
+        // A single child absorbs this node's prefix and the edge byte between them
+        RadixTrieNode[] onlyChild = new RadixTrieNode[1];
+        int[] onlyEdge = new int[1];
+        inner.forEachChild((edge, child) -> {
+            onlyEdge[0] = edge;
+            onlyChild[0] = child;
+        });
+        if (onlyChild[0].isLeaf()) {
+            return onlyChild[0];
         }
+        Inner child = (Inner) onlyChild[0];
+        byte[] prefix = inner.getPrefix();
+        byte[] childPrefix = child.getPrefix();
+        byte[] merged = Arrays.copyOf(prefix, prefix.length + 1 + childPrefix.length);
+        merged[prefix.length] = (byte) onlyEdge[0];
+        System.arraycopy(childPrefix, 0, merged, prefix.length + 1, childPrefix.length);
+        child.setPrefix(merged);
+        return child;
+    }
 
-        // Step 4: Merge nodes if the parent has a single child and is not an
-        // end-of-word
-        if (!current.isEndOfWord() && current.getChildren().size() == 1) {
-            RadixTrieNode onlyChild = current.getChildren().values().iterator().next();
+    /**
+     * Finds the node where the given word ends.
+     *
+     * @param key the UTF-8 bytes of the word
+     * @return the leaf or inner node holding the word, or null if it is absent
+     */
+    private RadixTrieNode find(byte[] key) {
+        RadixTrieNode node = root;
+        int depth = 0;
 
-            // Merge condition: Current node should not be the root
-            if (nodeStack.isEmpty() && current == root) {
-            } else {
-                current.setPrefix(current.getPrefix() + onlyChild.getPrefix());
-
-                // Move onlyChild's children to current
-                current.getChildren().clear();
-                for (Map.Entry<Character, RadixTrieNode> entry : onlyChild.getChildren().entrySet()) {
-                    current.getChildren().put(entry.getKey(), entry.getValue());
-                    entry.getValue().setParent(current);
-                }
-
-                // Copy metadata
-                current.setEndOfWord(onlyChild.isEndOfWord());
-                current.setFrequency(onlyChild.getFrequency());
+        while (node != null) {
+            if (node.isLeaf()) {
+                return Arrays.equals(((Leaf) node).getKey(), key) ? node : null;
+            }
+
+            Inner inner = (Inner) node;
+            byte[] prefix = inner.getPrefix();
+            if (key.length - depth < prefix.length
+                    || !Arrays.equals(prefix, 0, prefix.length, key, depth, depth + prefix.length)) {
+                return null;
             }
+            depth += prefix.length;
+            if (depth == key.length) {
+                return inner.isEndOfWord() ? inner : null;
+            }
+            node = inner.findChild(key[depth++]);
         }
 
-        return true;
+        return null;
     }
 
     /**
@@ -221,32 +303,21 @@ public class RadixTrie {
         if (word == null || word.isEmpty()) {
             return false; // Invalid input
         }
+        return find(word.getBytes(StandardCharsets.UTF_8)) != null;
+    }
 
-        RadixTrieNode current = root;
-        int index = 0;
-
-        // Traverse the trie following the prefixes
-        while (index < word.length()) {
-            boolean found = false;
-
-            for (RadixTrieNode child : current.getChildren().values()) {
-                String prefix = child.getPrefix();
-                int commonLength = getCommonPrefixLength(word.substring(index), prefix);
-
-                if (commonLength == prefix.length()) { // Full prefix match
-                    current = child;
-                    index += commonLength;
-                    found = true;
-                    break;
-                }
-            }
-
-            if (!found) {
-                return false; // Word is not in the trie
-            }
+    /**
+     * Gets the number of times a word has been added.
+     *
+     * @param word the word whose frequency is to be retrieved
+     * @return the frequency of the word, or 0 if it is not found
+     */
+    public int getFrequency(String word) {
+        if (word == null || word.isEmpty()) {
+            return 0;
         }
-
-        return current.isEndOfWord();
+        RadixTrieNode node = find(word.getBytes(StandardCharsets.UTF_8));
+        return node == null ? 0 : node.getFrequency();
     }
 
     /**
@@ -260,34 +331,31 @@ public class RadixTrie {
             return false;
         }
 
-        RadixTrieNode current = root;
-        int index = 0;
-
-        while (index < prefix.length()) {
-            boolean found = false;
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        RadixTrieNode node = root;
+        int depth = 0;
 
-            for (Map.Entry<Character, RadixTrieNode> entry : current.getChildren().entrySet()) {
-                RadixTrieNode child = entry.getValue();
-                String nodePrefix = child.getPrefix();
-                int commonLength = getCommonPrefixLength(prefix.substring(index), nodePrefix);
-
-                if (commonLength > 0) { // There's a match
-                    if (commonLength >= prefix.length() - index) {
-                        return true; // Found a node that matches the prefix
-                    }
-                    current = child;
-                    index += commonLength;
-                    found = true;
-                    break;
-                }
+        while (node != null) {
+            if (node.isLeaf()) {
+                byte[] word = ((Leaf) node).getKey();
+                return word.length >= key.length
+                        && Arrays.equals(word, depth, key.length, key, depth, key.length);
             }
 
-            if (!found) {
+            Inner inner = (Inner) node;
+            byte[] nodePrefix = inner.getPrefix();
+            int length = Math.min(nodePrefix.length, key.length - depth);
+            if (!Arrays.equals(nodePrefix, 0, length, key, depth, depth + length)) {
                 return false; // Prefix not found
             }
+            depth += length;
+            if (depth == key.length) {
+                return true; // Every inner node has at least one word below it
+            }
+            node = inner.findChild(key[depth++]);
         }
 
-        return true;
+        return false;
     }
 
     /**
@@ -296,67 +364,123 @@ public class RadixTrie {
      * @return the word count
      */
     public int wordCount() {
-        return countWords(root);
-    }
-
-    /**
-     * Recursively counts the number of words in the trie.
-     */
-    private int countWords(RadixTrieNode node) {
-        int count = node.isEndOfWord() ? 1 : 0;
-        for (RadixTrieNode child : node.getChildren().values()) {
-            count += countWords(child);
-        }
-        return count;
+        return size;
     }
 
     /**
-     * Returns all words stored in the Radix Trie.
+     * Returns all words stored in the Radix Trie, in code point order.
      *
      * @return a list of all words
      */
     public List<String> getAllWords() {
-        List<String> words = new ArrayList<>();
-        collectWords(root, "", words);
+        List<String> words = new ArrayList<>(size);
+        collectWords(root, new KeyBuffer(), words);
         return words;
     }
 
     /**
      * Recursively collects all words from the given node.
      *
-     * @param node   the current node
-     * @param prefix the accumulated prefix
-     * @param words  the list to store words
+     * @param node  the current node
+     * @param path  the bytes on the path to the node
+     * @param words the list to store words
      */
-    private void collectWords(RadixTrieNode node, String prefix, List<String> words) {
-        if (node.isEndOfWord()) {
-            words.add(prefix);
+    private void collectWords(RadixTrieNode node, KeyBuffer path, List<String> words) {
+        if (node == null) {
+            return;
+        }
+        if (node.isLeaf()) {
+            words.add(new String(((Leaf) node).getKey(), StandardCharsets.UTF_8));
+            return;
         }
 
-        for (RadixTrieNode child : node.getChildren().values()) {
-            collectWords(child, prefix + child.getPrefix(), words);
+        Inner inner = (Inner) node;
+        int length = path.length;
+        path.append(inner.getPrefix());
+        if (inner.isEndOfWord()) {
+            words.add(path.toWord());
         }
+        inner.forEachChild((edge, child) -> {
+            int before = path.length;
+            path.append((byte) edge);
+            collectWords(child, path, words);
+            path.length = before;
+        });
+        path.length = length;
+    }
+
+    // A growable byte buffer for the path to the current node
+    private static final class KeyBuffer {
+        byte[] bytes = new byte[64];
+        int length;
+
+        void append(byte b) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, 2 * length);
+            }
+            bytes[length++] = b;
+        }
+
+        void append(byte[] b) {
+            if (length + b.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, length + b.length));
+            }
+            System.arraycopy(b, 0, bytes, length, b.length);
+            length += b.length;
+        }
+
+        String toWord() {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Writes the Radix Trie to a file in the compact binary format read by
+     * {@link MappedTrie}, which can answer lookups from the file directly.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path path) throws IOException {
+        MappedTrie.write(path, root, size);
+    }
+
+    /**
+     * Reads a Radix Trie written by {@link #writeTo(Path)}, restoring every word
+     * with its frequency.
+     *
+     * @param path the file to read
+     * @return a new Radix Trie holding the words in the file
+     * @throws IOException if the file cannot be read or is not a trie file
+     */
+    public static RadixTrie readFrom(Path path) throws IOException {
+        RadixTrie trie = new RadixTrie();
+        MappedTrie.open(path).forEachWord((word, frequency) -> {
+            byte[] key = word.getBytes(StandardCharsets.UTF_8);
+            trie.root = trie.insert(trie.root, key, 0);
+            trie.size++;
+            trie.find(key).setFrequency(frequency);
+        });
+        return trie;
     }
 
     /**
      * Prints the structure of the Radix Trie in a readable ASCII format.
      */
     public void printTrie() {
-        printTrieHelper(root, "", true);
+        printTrieHelper(root, -1, 0, "", true);
     }
 
     /**
      * Recursive helper method to print the Radix Trie.
      *
      * @param node   The current node being printed.
+     * @param edge   The key byte leading to the node, or -1 for the root.
+     * @param depth  The number of key bytes on the path to the node.
      * @param indent The indentation for the current level.
      * @param isLast Whether this node is the last child of its parent.
      */
-    private void printTrieHelper(RadixTrieNode node, String indent, boolean isLast) {
-        if (node == null) {
-            return;
-        }
-
+    private void printTrieHelper(RadixTrieNode node, int edge, int depth, String indent, boolean isLast) {
         System.out.print(indent);
         if (isLast) {
             System.out.print("└── ");
@@ -366,13 +490,27 @@ public class RadixTrie {
             indent += "│   ";
         }
 
-        System.out.println("'" + node.getPrefix() + "'" + (node.isEndOfWord() ? " (End)" : ""));
-
-        int childCount = node.getChildren().size();
-        int i = 0;
-        for (RadixTrieNode child : node.getChildren().values()) {
-            printTrieHelper(child, indent, i == childCount - 1);
-            i++;
+        KeyBuffer label = new KeyBuffer();
+        if (edge >= 0) {
+            label.append((byte) edge);
+        }
+        if (node == null) {
+            System.out.println("''");
+        } else if (node.isLeaf()) {
+            byte[] key = ((Leaf) node).getKey();
+            label.append(Arrays.copyOfRange(key, depth, key.length));
+            System.out.println("'" + label.toWord() + "' (End)");
+        } else {
+            Inner inner = (Inner) node;
+            label.append(inner.getPrefix());
+            System.out.println("'" + label.toWord() + "' [" + inner.getClass().getSimpleName() + "]"
+                    + (inner.isEndOfWord() ? " (End)" : ""));
+
+            String childIndent = indent;
+            int childDepth = depth + inner.getPrefix().length + 1;
+            int[] remaining = { inner.childCount() };
+            inner.forEachChild((childEdge, child) -> printTrieHelper(child, childEdge, childDepth, childIndent,
+                    --remaining[0] == 0));
         }
     }
 
@@ -1,16 +1,24 @@
 package com.nickslibrary.datastructures.trees;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
 import com.google.gson.Gson;
+import com.nickslibrary.utils.tree.CharAutomaton;
+import com.nickslibrary.utils.tree.TrieCompletions;
 import com.nickslibrary.utils.tree.TrieNode;
 
 /**
@@ -18,13 +26,37 @@ import com.nickslibrary.utils.tree.TrieNode;
  * efficiently.
  */
 public class StandardTrie {
+    private static final int DEFAULT_COMPLETION_CACHE_SIZE = 10;
+    private static final int PARALLEL_DEPTH = 2; // Set operations fork a task per node above this depth
+
     private final TrieNode root;
+    private final int completionCacheSize;
 
     /**
      * Constructs an empty Trie.
      */
     public StandardTrie() {
+        this(DEFAULT_COMPLETION_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs an empty Trie that caches up to the given number of
+     * completions for each prefix passed to {@link #suggest}.
+     *
+     * @param completionCacheSize the number of completions cached per prefix
+     *                            (must be at least 1)
+     */
+    public StandardTrie(int completionCacheSize) {
+        if (completionCacheSize < 1) {
+            throw new IllegalArgumentException("Completion cache size must be at least 1.");
+        }
         this.root = new TrieNode();
+        this.completionCacheSize = completionCacheSize;
+    }
+
+    private StandardTrie(TrieNode root, int completionCacheSize) {
+        this.root = root;
+        this.completionCacheSize = completionCacheSize;
     }
 
     /**
@@ -45,12 +77,14 @@ public class StandardTrie {
             current = current.getChild(ch);
         }
 
+        int oldFrequency = current.isEndOfWord() ? current.getFrequency() : -1;
         if (!current.isEndOfWord()) {
             current.setEndOfWord(true);
             current.setFrequency(1);
         } else {
             current.incrementFrequency();
         }
+        updateCompletions(current, word, oldFrequency, current.getFrequency());
     }
 
     /**
@@ -115,6 +149,7 @@ public class StandardTrie {
             if (!current.isEndOfWord()) {
                 return false; // Word not found
             }
+            updateCompletions(current, word, current.getFrequency(), -1);
             current.setEndOfWord(false);
             current.setFrequency(0); // Reset frequency since word is removed
             return true; // Indicate that deletion happened
@@ -164,6 +199,7 @@ public class StandardTrie {
         root.getChildren().clear(); // Remove all children
         root.setEndOfWord(false); // Reset end-of-word flag
         root.setFrequency(0); // Reset frequency
+        root.setCompletions(null); // Drop cached suggestions
     }
 
     /**
@@ -222,7 +258,9 @@ public class StandardTrie {
             return false; // Word does not exist as a complete word
         }
 
+        int oldFrequency = current.getFrequency();
         current.setFrequency(frequency);
+        updateCompletions(current, word, oldFrequency, frequency);
         return true;
     }
 
@@ -251,6 +289,7 @@ public class StandardTrie {
         }
 
         current.incrementFrequency();
+        updateCompletions(current, word, current.getFrequency() - 1, current.getFrequency());
         return true;
     }
 
@@ -411,15 +450,25 @@ public class StandardTrie {
     }
 
     /**
-     * Suggests a list of words based on the given prefix.
-     * This is useful for autocomplete functionality.
+     * Suggests the most frequent words starting with the given prefix, ties
+     * broken alphabetically. This is useful for autocomplete functionality.
+     *
+     * The best completions of each prefix are cached on its node the first time
+     * it is queried and kept up to date by later insertions, deletions and
+     * frequency changes, so repeated queries cost O(prefix length + limit). A
+     * limit above the trie's completion cache size always walks the subtree.
      *
      * @param prefix the prefix to search for suggestions
      * @param limit  the maximum number of suggestions to return
-     * @return a list of suggested words, up to the specified limit
+     * @return a list of suggested words, most frequent first, up to the
+     *         specified limit
      */
     public List<String> suggest(String prefix, int limit) {
         List<String> suggestions = new ArrayList<>();
+        if (limit <= 0) {
+            return suggestions;
+        }
+
         TrieNode current = root;
 
         // Traverse the Trie to find the node corresponding to the last character of the
@@ -431,32 +480,89 @@ public class StandardTrie {
             current = current.getChild(ch);
         }
 
-        // Collect suggestions from the prefix node
-        collectSuggestions(current, prefix, suggestions, limit);
+        TrieCompletions best;
+        if (limit <= completionCacheSize) {
+            best = current.getCompletions();
+            if (best == null) {
+                best = new TrieCompletions(completionCacheSize);
+                collectCompletions(current, new StringBuilder(prefix), best);
+                current.setCompletions(best);
+            }
+        } else {
+            best = new TrieCompletions(limit);
+            collectCompletions(current, new StringBuilder(prefix), best);
+        }
+
+        for (int i = 0; i < best.size() && i < limit; i++) {
+            suggestions.add(best.getWord(i));
+        }
         return suggestions;
     }
 
     /**
-     * Recursively collects word suggestions from the given node.
+     * Recursively collects the best completions below the given node, reusing
+     * the cached completions of any descendant that holds enough of them.
      *
-     * @param node        the current Trie node
-     * @param prefix      the prefix built so far
-     * @param suggestions the list to store suggestions
-     * @param limit       the maximum number of suggestions to collect
+     * @param node the current Trie node
+     * @param path the characters from the root to the node
+     * @param best the list collecting the best completions
      */
-    private void collectSuggestions(TrieNode node, String prefix, List<String> suggestions, int limit) {
-        if (suggestions.size() >= limit) {
-            return; // Stop if we have enough suggestions
+    private void collectCompletions(TrieNode node, StringBuilder path, TrieCompletions best) {
+        TrieCompletions cached = node.getCompletions();
+        if (cached != null && (!cached.isFull() || cached.capacity() >= best.capacity())) {
+            for (int i = 0; i < cached.size(); i++) {
+                if (!best.offer(cached.getWord(i), cached.getFrequency(i))) {
+                    break; // The rest of the cached words rank lower still
+                }
+            }
+            return;
         }
 
-        if (node.isEndOfWord()) {
-            suggestions.add(prefix);
+        if (node.isEndOfWord() && best.admits(path, node.getFrequency())) {
+            best.offer(path.toString(), node.getFrequency());
         }
 
-        for (char ch : node.getChildren().keySet()) {
-            collectSuggestions(node.getChild(ch), prefix + ch, suggestions, limit);
-            if (suggestions.size() >= limit) {
-                break; // Stop early if limit is reached
+        for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+            path.append(entry.getKey());
+            collectCompletions(entry.getValue(), path, best);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    /**
+     * Brings the cached completions on the path from a word's node to the root
+     * in line with a change to that word.
+     *
+     * @param node         the node where the word ends
+     * @param word         the word that changed
+     * @param oldFrequency the previous frequency, or -1 if the word was just added
+     * @param newFrequency the new frequency, or -1 if the word is being removed
+     */
+    private void updateCompletions(TrieNode node, String word, int oldFrequency, int newFrequency) {
+        boolean demoted = newFrequency < oldFrequency;
+        for (TrieNode current = node; current != null; current = current.getParent()) {
+            TrieCompletions completions = current.getCompletions();
+            if (completions == null) {
+                continue;
+            }
+
+            int index = completions.indexOf(word);
+            if (demoted) {
+                if (index < 0) {
+                    continue; // Not among the best before, so not among them now
+                }
+                if (completions.isFull() && (newFrequency < 0 || !completions.admits(word, newFrequency))) {
+                    // The word that should take its place is unknown until recomputed
+                    current.setCompletions(null);
+                    continue;
+                }
+            }
+
+            if (index >= 0) {
+                completions.remove(index);
+            }
+            if (newFrequency >= 0) {
+                completions.offer(word, newFrequency);
             }
         }
     }
@@ -726,11 +832,43 @@ public class StandardTrie {
         return data;
     }
 
+    /**
+     * Writes the Trie to a file in the compact binary format read by
+     * {@link MappedTrie}, which can answer lookups from the file directly.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path path) throws IOException {
+        MappedTrie.write(path, root, size());
+    }
+
+    /**
+     * Reads a Trie written by {@link #writeTo(Path)}, restoring every word with
+     * its frequency.
+     *
+     * @param path the file to read
+     * @return a new Trie holding the words in the file
+     * @throws IOException if the file cannot be read or is not a trie file
+     */
+    public static StandardTrie readFrom(Path path) throws IOException {
+        StandardTrie trie = new StandardTrie();
+        MappedTrie.open(path).forEachWord((word, frequency) -> {
+            trie.insert(word);
+            trie.setFrequency(word, frequency);
+        });
+        return trie;
+    }
+
     /**
      * Performs a fuzzy search in the Trie, returning words within a given edit
      * distance from the input word.
      * This allows for slight misspellings or variations to be matched.
      *
+     * The search computes one row of the Levenshtein table per trie level, so
+     * words sharing a prefix share the work for it, and it abandons a branch as
+     * soon as every entry in its row exceeds the allowed distance.
+     *
      * @param word     the target word to search for.
      * @param maxEdits the maximum allowed Levenshtein distance.
      * @return a list of words from the Trie that are within the given edit
@@ -738,72 +876,137 @@ public class StandardTrie {
      */
     public List<String> fuzzySearch(String word, int maxEdits) {
         List<String> results = new ArrayList<>();
-        fuzzySearchHelper(root, "", word, maxEdits, results);
+        if (word == null || maxEdits < 0) {
+            return results;
+        }
+        fuzzySearchHelper(root, 0, new StringBuilder(), word, maxEdits, initialRows(word),
+                (match, distance, frequency) -> results.add(match));
         return results;
     }
 
     /**
-     * Recursively explores the Trie and collects words within the allowed edit
-     * distance.
+     * Performs a fuzzy search in the Trie and returns the most frequent matches,
+     * as a spell checker would rank its corrections.
      *
-     * @param node           the current TrieNode.
-     * @param currentWord    the word formed so far.
-     * @param targetWord     the original word being searched.
-     * @param remainingEdits the remaining number of allowed edits.
-     * @param results        the list to store matching words.
+     * @param word     the target word to search for.
+     * @param maxEdits the maximum allowed Levenshtein distance.
+     * @param limit    the maximum number of words to return.
+     * @return up to limit words within the given edit distance, most frequent
+     *         first and, among equally frequent words, closest first.
      */
-    private void fuzzySearchHelper(TrieNode node, String currentWord, String targetWord, int remainingEdits,
-            List<String> results) {
-        if (node.isEndOfWord() && levenshteinDistance(currentWord, targetWord) <= remainingEdits) {
-            results.add(currentWord);
+    public List<String> fuzzySearch(String word, int maxEdits, int limit) {
+        List<String> results = new ArrayList<>();
+        if (word == null || maxEdits < 0 || limit <= 0) {
+            return results;
+        }
+
+        // Min-heap holding the best matches so far, the weakest on top
+        Comparator<FuzzyMatch> rank = Comparator.<FuzzyMatch>comparingInt(m -> m.frequency)
+                .thenComparing(Comparator.<FuzzyMatch>comparingInt(m -> m.distance).reversed());
+        PriorityQueue<FuzzyMatch> best = new PriorityQueue<>(rank);
+        fuzzySearchHelper(root, 0, new StringBuilder(), word, maxEdits, initialRows(word),
+                (match, distance, frequency) -> {
+                    if (best.size() < limit) {
+                        best.add(new FuzzyMatch(match, distance, frequency));
+                    } else if (frequency > best.peek().frequency
+                            || (frequency == best.peek().frequency && distance < best.peek().distance)) {
+                        best.poll();
+                        best.add(new FuzzyMatch(match, distance, frequency));
+                    }
+                });
+
+        while (!best.isEmpty()) {
+            results.add(best.poll().word);
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    private static final class FuzzyMatch {
+        final String word;
+        final int distance;
+        final int frequency;
+
+        FuzzyMatch(String word, int distance, int frequency) {
+            this.word = word;
+            this.distance = distance;
+            this.frequency = frequency;
         }
+    }
 
-        for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
-            char nextChar = entry.getKey();
-            TrieNode nextNode = entry.getValue();
-
-            // Explore paths: match, insert, delete, and substitute
-            fuzzySearchHelper(nextNode, currentWord + nextChar, targetWord, remainingEdits, results);
-            if (remainingEdits > 0) {
-                fuzzySearchHelper(node, currentWord, targetWord.substring(1), remainingEdits - 1, results); // Deletion
-                fuzzySearchHelper(nextNode, currentWord + targetWord.charAt(0), targetWord.substring(1),
-                        remainingEdits - 1, results); // Substitution
-                if (!targetWord.isEmpty()) {
-                    fuzzySearchHelper(nextNode, currentWord + targetWord.charAt(0) + nextChar, targetWord.substring(1),
-                            remainingEdits - 1, results); // Insertion
-                }
-            }
+    @FunctionalInterface
+    private interface FuzzyMatchSink {
+        void accept(String word, int distance, int frequency);
+    }
+
+    // Rows of the Levenshtein table by depth, starting with the row for the empty prefix
+    private static List<int[]> initialRows(String target) {
+        int[] first = new int[target.length() + 1];
+        for (int j = 0; j < first.length; j++) {
+            first[j] = j;
         }
+        List<int[]> rows = new ArrayList<>();
+        rows.add(first);
+        return rows;
     }
 
     /**
-     * Computes the Levenshtein Distance between two words.
+     * Recursively explores the Trie and reports words within the allowed edit
+     * distance.
      *
-     * @param s1 the first word.
-     * @param s2 the second word.
-     * @return the number of edits required to convert s1 to s2.
+     * @param node     the current TrieNode.
+     * @param depth    the depth of the node, which is the length of the path.
+     * @param path     the word formed so far.
+     * @param target   the original word being searched.
+     * @param maxEdits the maximum allowed Levenshtein distance.
+     * @param rows     the Levenshtein rows by depth; rows[depth] is filled in.
+     * @param sink     receives each matching word.
      */
-    private int levenshteinDistance(String s1, String s2) {
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-
-        for (int i = 0; i <= s1.length(); i++) {
-            for (int j = 0; j <= s2.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    int cost = (s1.charAt(i - 1) == s2.charAt(j - 1)) ? 0 : 1;
-                    dp[i][j] = Math.min(
-                            dp[i - 1][j] + 1, // Deletion
-                            Math.min(
-                                    dp[i][j - 1] + 1, // Insertion
-                                    dp[i - 1][j - 1] + cost // Substitution
-                            ));
-                }
+    private void fuzzySearchHelper(TrieNode node, int depth, StringBuilder path, String target, int maxEdits,
+            List<int[]> rows, FuzzyMatchSink sink) {
+        int[] previous = rows.get(depth);
+        int n = target.length();
+        if (node.isEndOfWord() && Math.abs(n - depth) <= maxEdits && previous[n] <= maxEdits) {
+            sink.accept(path.toString(), previous[n], node.getFrequency());
+        }
+
+        if (rows.size() == depth + 1) {
+            rows.add(new int[n + 1]);
+        }
+        int[] row = rows.get(depth + 1);
+
+        // Only columns within maxEdits of the diagonal can stay within the distance,
+        // so the row is computed over that band with sentinels on either side
+        int i = depth + 1;
+        int lo = Math.max(1, i - maxEdits);
+        int hi = Math.min(n, i + maxEdits);
+        int outside = maxEdits + 1;
+
+        for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+            char ch = entry.getKey();
+            row[0] = Math.min(previous[0] + 1, outside);
+            if (lo > 1) {
+                row[lo - 1] = outside;
+            }
+            int rowMin = row[0];
+            for (int j = lo; j <= hi; j++) {
+                int cost = target.charAt(j - 1) == ch ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, // Insertion
+                        previous[j] + 1), // Deletion
+                        previous[j - 1] + cost); // Substitution
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            if (hi < n) {
+                row[hi + 1] = outside;
+            }
+
+            // No extension of this prefix can get back within the distance
+            if (rowMin <= maxEdits) {
+                path.append(ch);
+                fuzzySearchHelper(entry.getValue(), depth + 1, path, target, maxEdits, rows, sink);
+                path.setLength(depth);
             }
         }
-        return dp[s1.length()][s2.length()];
     }
 
     /**
@@ -812,88 +1015,100 @@ public class StandardTrie {
      * Supports:
      * - '?' : Matches exactly one character.
      * - '*' : Matches zero or more characters.
+     * Each matching word is returned once.
      *
      * @param pattern the search pattern containing wildcards.
      * @return a list of words that match the pattern.
      */
     public List<String> wildcardSearch(String pattern) {
         List<String> results = new ArrayList<>();
-        wildcardSearchHelper(root, "", pattern, 0, results);
+        CharAutomaton automaton = CharAutomaton.fromWildcard(pattern);
+        automatonSearchHelper(root, automaton.start(), new StringBuilder(), automaton, results);
         return results;
     }
 
     /**
-     * Recursively explores the Trie to match the wildcard pattern.
+     * Searches the Trie for words that match a given regular expression.
+     *
+     * The expression is compiled into an automaton that is walked alongside the
+     * Trie, so subtrees that cannot match are skipped and a literal prefix only
+     * visits the nodes below it. Expressions using constructs the automaton does
+     * not support (see {@link CharAutomaton#fromRegex}) are matched word by word
+     * with {@link Pattern} instead.
      *
-     * @param node        the current TrieNode.
-     * @param currentWord the word formed so far.
-     * @param pattern     the wildcard pattern.
-     * @param index       the current position in the pattern.
-     * @param results     the list to store matching words.
+     * @param regex the regular expression pattern to match words against.
+     * @return a list of words that match the regex pattern.
      */
-    private void wildcardSearchHelper(TrieNode node, String currentWord, String pattern, int index,
-            List<String> results) {
-        if (index == pattern.length()) {
-            if (node.isEndOfWord()) {
-                results.add(currentWord);
-            }
-            return;
-        }
-
-        char ch = pattern.charAt(index);
-
-        if (ch == '?') {
-            // '?' matches any single character
-            for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
-                wildcardSearchHelper(entry.getValue(), currentWord + entry.getKey(), pattern, index + 1, results);
-            }
-        } else if (ch == '*') {
-            // '*' matches zero or more characters
-            wildcardSearchHelper(node, currentWord, pattern, index + 1, results); // '*' as empty
-
-            for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
-                wildcardSearchHelper(entry.getValue(), currentWord + entry.getKey(), pattern, index, results);
-                wildcardSearchHelper(entry.getValue(), currentWord + entry.getKey(), pattern, index + 1, results);
-            }
+    public List<String> regexSearch(String regex) {
+        List<String> results = new ArrayList<>();
+        Pattern pattern = Pattern.compile(regex); // Validates the expression
+        CharAutomaton automaton = CharAutomaton.fromRegex(regex);
+        if (automaton != null) {
+            automatonSearchHelper(root, automaton.start(), new StringBuilder(), automaton, results);
         } else {
-            // Regular character match
-            if (node.hasChild(ch)) {
-                wildcardSearchHelper(node.getChild(ch), currentWord + ch, pattern, index + 1, results);
-            }
+            collectMatchingWords(root, new StringBuilder(), pattern.matcher(""), results);
         }
+        return results;
     }
 
     /**
-     * Searches the Trie for words that match a given regular expression.
+     * Recursively walks the Trie and the automaton together, collecting the
+     * words the automaton accepts.
      *
-     * @param regex the regular expression pattern to match words against.
-     * @return a list of words that match the regex pattern.
+     * @param node      the current TrieNode.
+     * @param state     the automaton state after reading the path.
+     * @param path      the characters from the root to the node.
+     * @param automaton the compiled pattern.
+     * @param results   the list to store matching words.
      */
-    public List<String> regexSearch(String regex) {
-        List<String> results = new ArrayList<>();
-        Pattern pattern = Pattern.compile(regex); // Compile regex pattern
-        collectMatchingWords(root, "", pattern, results);
-        return results;
+    private void automatonSearchHelper(TrieNode node, int state, StringBuilder path, CharAutomaton automaton,
+            List<String> results) {
+        if (state == CharAutomaton.DEAD) {
+            return; // No word below this node can match
+        }
+        if (node.isEndOfWord() && automaton.isAccepting(state)) {
+            results.add(path.toString());
+        }
+
+        char[] nextChars = automaton.nextChars(state);
+        if (nextChars != null && nextChars.length < node.getChildren().size()) {
+            // Few characters can follow, so look them up rather than trying every child
+            for (char ch : nextChars) {
+                TrieNode child = node.getChild(ch);
+                if (child != null) {
+                    path.append(ch);
+                    automatonSearchHelper(child, automaton.step(state, ch), path, automaton, results);
+                    path.setLength(path.length() - 1);
+                }
+            }
+            return;
+        }
+
+        for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+            char ch = entry.getKey();
+            path.append(ch);
+            automatonSearchHelper(entry.getValue(), automaton.step(state, ch), path, automaton, results);
+            path.setLength(path.length() - 1);
+        }
     }
 
     /**
      * Recursively explores the Trie and collects words that match the regex.
      *
-     * @param node        the current TrieNode.
-     * @param currentWord the word formed so far.
-     * @param pattern     the compiled regex pattern.
-     * @param results     the list to store matching words.
+     * @param node    the current TrieNode.
+     * @param path    the characters from the root to the node.
+     * @param matcher a matcher for the compiled regex pattern.
+     * @param results the list to store matching words.
      */
-    private void collectMatchingWords(TrieNode node, String currentWord, Pattern pattern, List<String> results) {
-        if (node.isEndOfWord()) {
-            Matcher matcher = pattern.matcher(currentWord);
-            if (matcher.matches()) {
-                results.add(currentWord);
-            }
+    private void collectMatchingWords(TrieNode node, StringBuilder path, Matcher matcher, List<String> results) {
+        if (node.isEndOfWord() && matcher.reset(path).matches()) {
+            results.add(path.toString());
         }
 
         for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
-            collectMatchingWords(entry.getValue(), currentWord + entry.getKey(), pattern, results);
+            path.append(entry.getKey());
+            collectMatchingWords(entry.getValue(), path, matcher, results);
+            path.setLength(path.length() - 1);
         }
     }
 
@@ -927,41 +1142,54 @@ public class StandardTrie {
      * frequencies.
      * If a word exists in both tries, their frequencies are summed.
      *
+     * The tries are merged node by node, copying the subtrees that only the
+     * other trie has, and the subtrees near the root are merged in parallel.
+     *
      * @param otherTrie the trie to merge with.
      */
     public void mergeWith(StandardTrie otherTrie) {
         if (otherTrie == null || otherTrie.isEmpty()) {
             return; // Nothing to merge
         }
-        mergeNodes(this.root, otherTrie.root, new StringBuilder());
+        ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> mergeNodes(root, otherTrie.root, 0)));
     }
 
     /**
-     * Recursively merges nodes from another trie into the current trie.
+     * Recursively merges a node from another trie into a node of this trie.
+     * Children of the target are added before any subtree is forked, so every
+     * task only changes nodes below its own target.
      *
-     * @param currentNode the node in this trie.
-     * @param otherNode   the corresponding node in the other trie.
-     * @param prefix      the current prefix being processed.
+     * @param target the node in this trie.
+     * @param source the corresponding node in the other trie.
+     * @param depth  the depth of the nodes.
      */
-    private void mergeNodes(TrieNode currentNode, TrieNode otherNode, StringBuilder prefix) {
-        if (otherNode.isEndOfWord()) {
-            String word = prefix.toString();
-            int newFrequency = otherNode.getFrequency();
-            if (search(word)) {
-                setFrequency(word, getFrequency(word) + newFrequency);
+    private static void mergeNodes(TrieNode target, TrieNode source, int depth) {
+        target.setCompletions(null); // The best words below may change
+        if (source.isEndOfWord()) {
+            if (target.isEndOfWord()) {
+                target.setFrequency(target.getFrequency() + source.getFrequency());
             } else {
-                insert(word);
-                setFrequency(word, newFrequency);
+                target.setEndOfWord(true);
+                target.setFrequency(source.getFrequency());
             }
         }
 
-        for (char ch : otherNode.getChildren().keySet()) {
-            if (!currentNode.hasChild(ch)) {
-                currentNode.addChild(ch);
+        List<ForkJoinTask<?>> tasks = depth < PARALLEL_DEPTH ? new ArrayList<>() : null;
+        for (Map.Entry<Character, TrieNode> entry : source.getChildren().entrySet()) {
+            char ch = entry.getKey();
+            if (!target.hasChild(ch)) {
+                target.addChild(ch); // Merging into an empty node copies the subtree
+            }
+            TrieNode targetChild = target.getChild(ch);
+            TrieNode sourceChild = entry.getValue();
+            if (tasks != null) {
+                tasks.add(ForkJoinTask.adapt(() -> mergeNodes(targetChild, sourceChild, depth + 1)));
+            } else {
+                mergeNodes(targetChild, sourceChild, depth + 1);
             }
-            prefix.append(ch);
-            mergeNodes(currentNode.getChild(ch), otherNode.getChild(ch), prefix);
-            prefix.deleteCharAt(prefix.length() - 1);
+        }
+        if (tasks != null) {
+            ForkJoinTask.invokeAll(tasks);
         }
     }
 
@@ -975,37 +1203,49 @@ public class StandardTrie {
      */
     public StandardTrie intersectWith(StandardTrie otherTrie) {
         if (otherTrie == null || otherTrie.isEmpty() || this.isEmpty()) {
-            return new StandardTrie(); // Intersection with empty trie is empty
+            return new StandardTrie(completionCacheSize); // Intersection with empty trie is empty
         }
-        StandardTrie result = new StandardTrie();
-        findIntersection(this.root, otherTrie.root, new StringBuilder(), result);
-        return result;
+        TrieNode result = ForkJoinPool.commonPool()
+                .invoke(ForkJoinTask.adapt(() -> findIntersection(root, otherTrie.root, 0)));
+        return new StandardTrie(result == null ? new TrieNode() : result, completionCacheSize);
     }
 
     /**
-     * Recursively finds words that exist in both tries and adds them to the result
-     * trie.
+     * Recursively builds the nodes for the words that exist below both nodes.
      *
-     * @param node1  the node in the first trie.
-     * @param node2  the node in the second trie.
-     * @param prefix the current prefix being processed.
-     * @param result the trie where the intersection will be stored.
+     * @param node1 the node in the first trie.
+     * @param node2 the node in the second trie.
+     * @param depth the depth of the nodes.
+     * @return the new node, or null if no word exists below both nodes.
      */
-    private void findIntersection(TrieNode node1, TrieNode node2, StringBuilder prefix, StandardTrie result) {
+    private static TrieNode findIntersection(TrieNode node1, TrieNode node2, int depth) {
+        TrieNode result = null; // Only allocated once something is found below
         if (node1.isEndOfWord() && node2.isEndOfWord()) {
-            String word = prefix.toString();
-            int minFrequency = Math.min(node1.getFrequency(), node2.getFrequency());
-            result.insert(word);
-            result.setFrequency(word, minFrequency);
-        }
-
-        for (char ch : node1.getChildren().keySet()) {
-            if (node2.hasChild(ch)) {
-                prefix.append(ch);
-                findIntersection(node1.getChild(ch), node2.getChild(ch), prefix, result);
-                prefix.deleteCharAt(prefix.length() - 1);
+            result = new TrieNode();
+            result.setEndOfWord(true);
+            result.setFrequency(Math.min(node1.getFrequency(), node2.getFrequency()));
+        }
+
+        // Only characters both nodes have can lead to common words
+        TrieNode smaller = node1.getChildren().size() <= node2.getChildren().size() ? node1 : node2;
+        TrieNode larger = smaller == node1 ? node2 : node1;
+        boolean parallel = depth < PARALLEL_DEPTH;
+        List<Character> keys = parallel ? new ArrayList<>() : null;
+        List<ForkJoinTask<TrieNode>> tasks = parallel ? new ArrayList<>() : null;
+        for (Map.Entry<Character, TrieNode> entry : smaller.getChildren().entrySet()) {
+            TrieNode child = entry.getValue();
+            TrieNode other = larger.getChild(entry.getKey());
+            if (other == null) {
+                continue;
+            }
+            if (parallel) {
+                keys.add(entry.getKey());
+                tasks.add(ForkJoinTask.adapt(() -> findIntersection(child, other, depth + 1)));
+            } else {
+                result = attachChild(result, entry.getKey(), findIntersection(child, other, depth + 1));
             }
         }
+        return parallel ? attachForked(result, keys, tasks) : result;
     }
 
     /**
@@ -1021,37 +1261,85 @@ public class StandardTrie {
             return this.clone(); // If the other trie is empty, return a copy of this trie
         }
         if (this.isEmpty()) {
-            return new StandardTrie(); // If this trie is empty, the difference is also empty
+            return new StandardTrie(completionCacheSize); // If this trie is empty, the difference is also empty
         }
 
-        StandardTrie result = new StandardTrie();
-        findDifference(this.root, otherTrie.root, new StringBuilder(), result);
-        return result;
+        TrieNode result = ForkJoinPool.commonPool()
+                .invoke(ForkJoinTask.adapt(() -> findDifference(root, otherTrie.root, 0)));
+        return new StandardTrie(result == null ? new TrieNode() : result, completionCacheSize);
     }
 
     /**
-     * Recursively finds words that exist in this trie but not in the other and adds
-     * them to the result trie.
+     * Recursively builds the nodes for the words that exist below the first node
+     * but not below the second. Where the other trie has no node, the subtree is
+     * copied as it is.
      *
-     * @param node1  the node in this trie.
-     * @param node2  the node in the other trie.
-     * @param prefix the current prefix being processed.
-     * @param result the trie where the difference will be stored.
+     * @param node1 the node in this trie.
+     * @param node2 the node in the other trie, or null.
+     * @param depth the depth of the nodes.
+     * @return the new node, or null if no word is left below it.
      */
-    private void findDifference(TrieNode node1, TrieNode node2, StringBuilder prefix, StandardTrie result) {
+    private static TrieNode findDifference(TrieNode node1, TrieNode node2, int depth) {
+        TrieNode result = null; // Only allocated once something is found below
         if (node1.isEndOfWord() && (node2 == null || !node2.isEndOfWord())) {
-            String word = prefix.toString();
-            result.insert(word);
-            result.setFrequency(word, node1.getFrequency());
+            result = new TrieNode();
+            result.setEndOfWord(true);
+            result.setFrequency(node1.getFrequency());
+        }
+
+        boolean parallel = depth < PARALLEL_DEPTH;
+        List<Character> keys = parallel ? new ArrayList<>() : null;
+        List<ForkJoinTask<TrieNode>> tasks = parallel ? new ArrayList<>() : null;
+        for (Map.Entry<Character, TrieNode> entry : node1.getChildren().entrySet()) {
+            TrieNode child1 = entry.getValue();
+            TrieNode child2 = (node2 != null) ? node2.getChild(entry.getKey()) : null;
+            if (parallel) {
+                keys.add(entry.getKey());
+                tasks.add(ForkJoinTask.adapt(() -> findDifference(child1, child2, depth + 1)));
+            } else {
+                result = attachChild(result, entry.getKey(), findDifference(child1, child2, depth + 1));
+            }
         }
+        return parallel ? attachForked(result, keys, tasks) : result;
+    }
 
-        for (char ch : node1.getChildren().keySet()) {
-            TrieNode child1 = node1.getChild(ch);
-            TrieNode child2 = (node2 != null) ? node2.getChild(ch) : null;
-            prefix.append(ch);
-            findDifference(child1, child2, prefix, result);
-            prefix.deleteCharAt(prefix.length() - 1);
+    /**
+     * Runs the tasks building a node's children in parallel and links the
+     * results under the node.
+     *
+     * @param parent the node to link the children under, or null if it has not
+     *               been created yet.
+     * @param keys   the character of each child.
+     * @param tasks  the task building each child.
+     * @return the parent, or null if it is still not needed.
+     */
+    private static TrieNode attachForked(TrieNode parent, List<Character> keys, List<ForkJoinTask<TrieNode>> tasks) {
+        ForkJoinTask.invokeAll(tasks);
+        for (int i = 0; i < tasks.size(); i++) {
+            parent = attachChild(parent, keys.get(i), tasks.get(i).join());
         }
+        return parent;
+    }
+
+    /**
+     * Links a newly built node under its parent, creating the parent the first
+     * time it gets a child.
+     *
+     * @param parent the parent node, or null if it has not been created yet.
+     * @param ch     the character of the child.
+     * @param child  the child, or null if no word is left below it.
+     * @return the parent, or null if it is still not needed.
+     */
+    private static TrieNode attachChild(TrieNode parent, char ch, TrieNode child) {
+        if (child == null) {
+            return parent;
+        }
+        if (parent == null) {
+            parent = new TrieNode();
+        }
+        child.setParent(parent);
+        parent.getChildren().put(ch, child);
+        return parent;
     }
 
     /**
@@ -1060,31 +1348,30 @@ public class StandardTrie {
      * @return a new StandardTrie that is an exact copy of this trie.
      */
     public StandardTrie clone() {
-        StandardTrie clonedTrie = new StandardTrie();
-        cloneHelper(this.root, clonedTrie, new StringBuilder());
-        return clonedTrie;
+        TrieNode copy = ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> findDifference(root, null, 0)));
+        return new StandardTrie(copy == null ? new TrieNode() : copy, completionCacheSize);
     }
 
     /**
-     * Recursively copies all words and their frequencies from the original trie to
-     * the cloned trie.
+     * Compiles the Trie into an immutable double-array trie that answers the
+     * same lookups from flat int arrays, using a fraction of the memory.
+     * Later changes to this Trie are not reflected in the compiled one.
      *
-     * @param node       the current node in the original trie.
-     * @param clonedTrie the trie being constructed as a copy.
-     * @param prefix     the current prefix being processed.
+     * @return a compiled snapshot of this Trie
      */
-    private void cloneHelper(TrieNode node, StandardTrie clonedTrie, StringBuilder prefix) {
-        if (node.isEndOfWord()) {
-            String word = prefix.toString();
-            clonedTrie.insert(word);
-            clonedTrie.setFrequency(word, node.getFrequency());
-        }
+    public DoubleArrayTrie compile() {
+        return new DoubleArrayTrie(root);
+    }
 
-        for (char ch : node.getChildren().keySet()) {
-            prefix.append(ch);
-            cloneHelper(node.getChild(ch), clonedTrie, prefix);
-            prefix.deleteCharAt(prefix.length() - 1);
-        }
+    /**
+     * Copies the Trie into a {@link ConcurrentTrie} that can be shared between
+     * threads without locking. Later changes to either Trie are not reflected
+     * in the other.
+     *
+     * @return a concurrent copy of this Trie
+     */
+    public ConcurrentTrie toConcurrent() {
+        return new ConcurrentTrie(root);
     }
 
     /**
@@ -1,152 +1,367 @@
 package com.nickslibrary.datastructures.trees;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 
-public class Treap {
-    public static class Node {
-        public int key;
+/**
+ * A treap: a binary search tree on keys that is also a max-heap on random
+ * priorities, which keeps it balanced in expectation.
+ *
+ * Everything is built on split and merge. Besides insert, delete and search,
+ * whole key ranges can be split off and joined back, and two treaps can be
+ * combined with union, intersection and difference in
+ * O(m log(n / m + 1)) expected work. The two halves of each set operation are
+ * independent, so large inputs are processed in parallel on the common
+ * ForkJoinPool.
+ *
+ * @param <T> The type of keys, which must be comparable.
+ */
+public class Treap<T extends Comparable<T>> {
+    // Below this many nodes a set operation is cheaper to finish on the current thread
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    public static class Node<T> {
+        public final T key;
         int priority;
-        Node left, right;
+        int size;
+        Node<T> left, right;
 
-        Node(int key) {
+        Node(T key) {
             this.key = key;
-            this.priority = new Random().nextInt();
-            this.left = this.right = null;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
         }
     }
 
-    private Node root;
+    private Node<T> root;
 
     public Treap() {
         root = null;
     }
 
-    // Right rotation
-    private Node rotateRight(Node y) {
-        Node x = y.left;
-        Node T2 = x.right;
-
-        // Perform rotation
-        x.right = y;
-        y.left = T2;
-
-        // Return new root
-        return x;
-    }
-
-    // Left rotation
-    private Node rotateLeft(Node x) {
-        Node y = x.right;
-        Node T2 = y.left;
-
-        // Perform rotation
-        y.left = x;
-        x.right = T2;
-
-        // Return new root
-        return y;
+    private Treap(Node<T> root) {
+        this.root = root;
     }
 
-    // Insert a new key
-    public void insert(int key) {
-        root = insert(root, key);
+    // Insert a new key; does nothing if the key is already present
+    public void insert(T key) {
+        if (search(key)) {
+            return;
+        }
+        root = insert(root, new Node<>(key));
     }
 
-    private Node insert(Node root, int key) {
-        // If root is null, create a new node
-        if (root == null) {
-            return new Node(key);
+    private Node<T> insert(Node<T> root, Node<T> node) {
+        // The new node becomes the root of the first subtree it outranks
+        if (root == null || node.priority > root.priority) {
+            Node<T>[] parts = split(root, node.key);
+            node.left = parts[0];
+            node.right = parts[1];
+            return update(node);
         }
 
-        // If key is smaller than root's key, insert in left subtree
-        if (key < root.key) {
-            root.left = insert(root.left, key);
-
-            // Fix the heap property if it is violated
-            if (root.left.priority > root.priority) {
-                root = rotateRight(root);
-            }
-        } else { // If key is greater than root's key, insert in right subtree
-            root.right = insert(root.right, key);
-
-            // Fix the heap property if it is violated
-            if (root.right.priority > root.priority) {
-                root = rotateLeft(root);
-            }
+        if (node.key.compareTo(root.key) < 0) {
+            root.left = insert(root.left, node);
+        } else {
+            root.right = insert(root.right, node);
         }
-
-        return root;
+        return update(root);
     }
 
     // Delete a key
-    public void delete(int key) {
+    public void delete(T key) {
         root = delete(root, key);
     }
 
-    private Node delete(Node root, int key) {
-        // If root is null, return null
+    private Node<T> delete(Node<T> root, T key) {
         if (root == null) {
             return null;
         }
 
-        // If key is smaller than root's key, delete from left subtree
-        if (key < root.key) {
+        int cmp = key.compareTo(root.key);
+        if (cmp < 0) {
             root.left = delete(root.left, key);
-        } else if (key > root.key) { // If key is greater than root's key, delete from right subtree
+        } else if (cmp > 0) {
             root.right = delete(root.right, key);
-        } else { // If key is equal to root's key, delete this node
-            // If left child is null, return right child
-            if (root.left == null) {
-                return root.right;
-            } else if (root.right == null) { // If right child is null, return left child
-                return root.left;
-            }
+        } else {
+            // Replace the node with the merge of its subtrees
+            return merge(root.left, root.right);
+        }
+        return update(root);
+    }
 
-            // If both children are present
-            if (root.left.priority < root.right.priority) {
-                root = rotateLeft(root);
-                root.left = delete(root.left, key);
-            } else {
-                root = rotateRight(root);
-                root.right = delete(root.right, key);
+    // Search for a key
+    public boolean search(T key) {
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                return true;
             }
+            node = cmp < 0 ? node.left : node.right;
         }
+        return false;
+    }
 
-        return root;
+    public int size() {
+        return size(root);
     }
 
-    // Search for a key
-    public boolean search(int key) {
-        return search(root, key);
+    public boolean isEmpty() {
+        return root == null;
     }
 
-    private boolean search(Node root, int key) {
-        if (root == null) {
-            return false;
+    /**
+     * Removes every key greater than or equal to the given key from this treap
+     * and returns them as a new treap.
+     *
+     * @param key The key to split at.
+     * @return A treap with the keys that are at least the given key.
+     */
+    public Treap<T> split(T key) {
+        Node<T>[] parts = split(root, key);
+        root = parts[0];
+        return new Treap<>(parts[1]);
+    }
+
+    /**
+     * Moves every key of the other treap into this one. All keys of this treap
+     * must be smaller than all keys of the other, as after {@link #split}.
+     *
+     * @param other The treap to append; it is left empty.
+     */
+    public void merge(Treap<T> other) {
+        if (root != null && other.root != null && max(root).compareTo(min(other.root)) >= 0) {
+            throw new IllegalArgumentException("all keys of this treap must be smaller than the other's");
         }
+        root = merge(root, other.root);
+        other.root = null;
+    }
 
-        if (root.key == key) {
-            return true;
+    /**
+     * Replaces this treap with the union of it and the other treap.
+     *
+     * @param other The other set; its nodes are reused, so it is left empty.
+     *              A treap united with itself is unchanged.
+     */
+    public void unionWith(Treap<T> other) {
+        if (other == this) {
+            return;
         }
+        root = ForkJoinPool.commonPool().invoke(new SetOperation<>(SetOperation.UNION, root, other.root));
+        other.root = null;
+    }
 
-        if (key < root.key) {
-            return search(root.left, key);
-        } else {
-            return search(root.right, key);
+    /**
+     * Replaces this treap with the intersection of it and the other treap.
+     *
+     * @param other The other set; its nodes are reused, so it is left empty.
+     *              A treap intersected with itself is unchanged.
+     */
+    public void intersectWith(Treap<T> other) {
+        if (other == this) {
+            return;
         }
+        root = ForkJoinPool.commonPool().invoke(new SetOperation<>(SetOperation.INTERSECTION, root, other.root));
+        other.root = null;
+    }
+
+    /**
+     * Removes every key of the other treap from this one.
+     *
+     * @param other The other set; its nodes are reused, so it is left empty.
+     *              Removing a treap from itself leaves it empty.
+     */
+    public void differenceWith(Treap<T> other) {
+        if (other == this) {
+            root = null;
+            return;
+        }
+        root = ForkJoinPool.commonPool().invoke(new SetOperation<>(SetOperation.DIFFERENCE, root, other.root));
+        other.root = null;
     }
 
     // In-order traversal
-    public void inorder(Consumer<Node> consumer) {
+    public void inorder(Consumer<Node<T>> consumer) {
         inorder(root, consumer);
     }
 
-    private void inorder(Node node, Consumer<Node> consumer) {
+    private void inorder(Node<T> node, Consumer<Node<T>> consumer) {
         if (node != null) {
             inorder(node.left, consumer);
             consumer.accept(node);
             inorder(node.right, consumer);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the keys in ascending order.
+     *
+     * @return A list of the keys in in-order sequence.
+     */
+    public List<T> inOrderTraversal() {
+        List<T> result = new ArrayList<>(size());
+        inorder(node -> result.add(node.key));
+        return result;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <T> Node<T> update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static <T> T min(Node<T> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.key;
+    }
+
+    private static <T> T max(Node<T> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.key;
+    }
+
+    // Splits into keys < key and keys >= key
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> Node<T>[] split(Node<T> node, T key) {
+        Node<T>[] parts = (Node<T>[]) new Node[2];
+        if (node == null) {
+            return parts;
+        }
+        if (node.key.compareTo(key) < 0) {
+            Node<T>[] right = split(node.right, key);
+            node.right = right[0];
+            parts[0] = update(node);
+            parts[1] = right[1];
+        } else {
+            Node<T>[] left = split(node.left, key);
+            node.left = left[1];
+            parts[0] = left[0];
+            parts[1] = update(node);
+        }
+        return parts;
+    }
+
+    // Splits into keys < key, the node equal to key (or null) and keys > key
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> Node<T>[] splitThree(Node<T> node, T key) {
+        Node<T>[] parts = (Node<T>[]) new Node[3];
+        if (node == null) {
+            return parts;
+        }
+        int cmp = node.key.compareTo(key);
+        if (cmp < 0) {
+            Node<T>[] right = splitThree(node.right, key);
+            node.right = right[0];
+            parts[0] = update(node);
+            parts[1] = right[1];
+            parts[2] = right[2];
+        } else if (cmp > 0) {
+            Node<T>[] left = splitThree(node.left, key);
+            node.left = left[2];
+            parts[0] = left[0];
+            parts[1] = left[1];
+            parts[2] = update(node);
+        } else {
+            parts[0] = node.left;
+            parts[1] = node;
+            parts[2] = node.right;
+            node.left = node.right = null;
+            update(node);
+        }
+        return parts;
+    }
+
+    // Joins two treaps where every key of left is smaller than every key of right
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    /**
+     * Combines two treaps by splitting one around the root of the other and
+     * recursing on the two sides, forking the left side when the inputs are
+     * large enough to be worth it.
+     */
+    private static final class SetOperation<T extends Comparable<T>> extends RecursiveTask<Node<T>> {
+        private static final long serialVersionUID = 1L;
+        private static final int UNION = 0;
+        private static final int INTERSECTION = 1;
+        private static final int DIFFERENCE = 2;
+
+        private final int op;
+        private final transient Node<T> a; // Tasks are never serialized
+        private final transient Node<T> b;
+
+        private SetOperation(int op, Node<T> a, Node<T> b) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected Node<T> compute() {
+            Node<T> a = this.a;
+            Node<T> b = this.b;
+            if (a == null || b == null) {
+                if (op == UNION) {
+                    return a == null ? b : a;
+                }
+                return op == INTERSECTION ? null : a;
+            }
+
+            // Union and intersection are symmetric, so keep the higher priority on top
+            if (op != DIFFERENCE && a.priority < b.priority) {
+                Node<T> t = a;
+                a = b;
+                b = t;
+            }
+
+            int total = size(a) + size(b);
+            Node<T>[] parts = splitThree(b, a.key);
+            boolean found = parts[1] != null;
+            SetOperation<T> leftTask = new SetOperation<>(op, a.left, parts[0]);
+            SetOperation<T> rightTask = new SetOperation<>(op, a.right, parts[2]);
+
+            Node<T> left;
+            Node<T> right;
+            if (total > PARALLEL_THRESHOLD) {
+                leftTask.fork();
+                right = rightTask.compute();
+                left = leftTask.join();
+            } else {
+                left = leftTask.compute();
+                right = rightTask.compute();
+            }
+
+            boolean keepRoot = op == UNION || (op == INTERSECTION) == found;
+            if (!keepRoot) {
+                return merge(left, right);
+            }
+            a.left = left;
+            a.right = right;
+            return update(a);
+        }
+    }
+}
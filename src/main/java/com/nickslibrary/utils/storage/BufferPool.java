@@ -0,0 +1,169 @@
+package com.nickslibrary.utils.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A fixed number of in-memory frames caching fixed-size pages of a file.
+ *
+ * Callers pin a page while they read or write it and unpin it afterwards,
+ * saying whether they modified it. Only unpinned pages can be evicted, and the
+ * victim is chosen with the CLOCK (second chance) policy: every hit sets a
+ * reference bit, and the clock hand clears bits until it finds a frame whose
+ * bit is already clear. Dirty pages are written back when evicted or flushed.
+ *
+ * This class is not thread-safe.
+ */
+public class BufferPool {
+    private final FileChannel channel;
+    private final int pageSize;
+    private final ByteBuffer[] frames;
+    private final long[] pageIds;
+    private final int[] pinCounts;
+    private final boolean[] dirty;
+    private final boolean[] referenced;
+    private final Map<Long, Integer> pageTable;
+    private int clockHand;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs a buffer pool over the given file.
+     *
+     * @param channel  the file to cache, opened for reading and writing
+     * @param pageSize the size of a page in bytes
+     * @param capacity the number of pages kept in memory
+     */
+    public BufferPool(FileChannel channel, int pageSize, int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least 1");
+        this.channel = channel;
+        this.pageSize = pageSize;
+        this.frames = new ByteBuffer[capacity];
+        this.pageIds = new long[capacity];
+        this.pinCounts = new int[capacity];
+        this.dirty = new boolean[capacity];
+        this.referenced = new boolean[capacity];
+        this.pageTable = new HashMap<>();
+        for (int i = 0; i < capacity; i++) {
+            frames[i] = ByteBuffer.allocateDirect(pageSize);
+            pageIds[i] = -1;
+        }
+    }
+
+    /**
+     * Pins a page in memory, reading it from the file if it is not cached.
+     * Pages past the end of the file read as zeros.
+     *
+     * @param pageId the page to pin
+     * @return the buffer holding the page; valid until the page is unpinned
+     * @throws IOException if the page cannot be read or a victim written back
+     */
+    public ByteBuffer pin(long pageId) throws IOException {
+        Integer cached = pageTable.get(pageId);
+        if (cached != null) {
+            hits++;
+            int frame = cached;
+            pinCounts[frame]++;
+            referenced[frame] = true;
+            return frames[frame];
+        }
+
+        misses++;
+        int frame = evict();
+        ByteBuffer buffer = frames[frame];
+        buffer.clear();
+        long position = pageId * pageSize;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0)
+                break;
+        }
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.clear();
+
+        pageIds[frame] = pageId;
+        pinCounts[frame] = 1;
+        dirty[frame] = false;
+        referenced[frame] = true;
+        pageTable.put(pageId, frame);
+        return buffer;
+    }
+
+    /**
+     * Releases one pin on a page.
+     *
+     * @param pageId   the page to unpin
+     * @param modified true if the caller wrote to the page
+     */
+    public void unpin(long pageId, boolean modified) {
+        Integer frame = pageTable.get(pageId);
+        if (frame == null || pinCounts[frame] == 0)
+            throw new IllegalStateException("page " + pageId + " is not pinned");
+        pinCounts[frame]--;
+        dirty[frame] |= modified;
+    }
+
+    /**
+     * Writes every dirty page back to the file and forces it to disk.
+     *
+     * @throws IOException if a page cannot be written
+     */
+    public void flush() throws IOException {
+        for (int i = 0; i < frames.length; i++) {
+            if (pageIds[i] >= 0 && dirty[i]) {
+                writeBack(i);
+            }
+        }
+        channel.force(false);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    // Sweeps the clock hand until it finds an unpinned frame without a second chance
+    private int evict() throws IOException {
+        for (int sweep = 0; sweep < 2 * frames.length + 1; sweep++) {
+            int frame = clockHand;
+            clockHand = (clockHand + 1) % frames.length;
+            if (pinCounts[frame] > 0)
+                continue;
+            if (referenced[frame]) {
+                referenced[frame] = false;
+                continue;
+            }
+            if (pageIds[frame] >= 0) {
+                if (dirty[frame])
+                    writeBack(frame);
+                pageTable.remove(pageIds[frame]);
+                pageIds[frame] = -1;
+            }
+            return frame;
+        }
+        throw new IllegalStateException("all buffer frames are pinned");
+    }
+
+    private void writeBack(int frame) throws IOException {
+        ByteBuffer buffer = frames[frame].duplicate();
+        buffer.clear();
+        long position = pageIds[frame] * pageSize;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+        dirty[frame] = false;
+    }
+}
@@ -0,0 +1,751 @@
+package com.nickslibrary.utils.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A finite automaton over chars, used to walk a trie one character at a time
+ * and stop as soon as no word below the current node can match.
+ *
+ * The pattern is compiled into a Thompson NFA. Its state sets are turned into
+ * DFA states lazily, the first time each (state, character) pair is stepped,
+ * so only the part of the DFA the trie actually reaches is ever built. NFA
+ * states that cannot reach the accepting state are dropped up front, and a
+ * step that leaves no live state returns {@link #DEAD}.
+ *
+ * Instances cache the DFA as they are used and are not thread-safe.
+ */
+public class CharAutomaton {
+    /** The state reached once no input can lead to a match. */
+    public static final int DEAD = -1;
+
+    private static final int UNKNOWN = -2;
+    private static final int MAX_NFA_STATES = 10_000; // Beyond this, large repetition counts are not worth compiling
+    private static final int MAX_NEXT_CHARS = 16;
+
+    private static final char MAX_CHAR = Character.MAX_VALUE;
+    private static final CharClass ALL = CharClass.range(0, MAX_CHAR);
+    private static final CharClass DIGIT = CharClass.range('0', '9');
+    private static final CharClass WORD = DIGIT.union(CharClass.range('a', 'z')).union(CharClass.range('A', 'Z'))
+            .union(CharClass.of('_'));
+    private static final CharClass SPACE = CharClass.of(' ').union(CharClass.range('\t', '\r'));
+    private static final CharClass DOT = CharClass.of('\n').union(CharClass.of('\r')).union(CharClass.of('\u0085'))
+            .union(CharClass.range(0x2028, 0x2029)).complement(); // Any char but a line terminator
+    private static final CharClass HIGH_SURROGATES = CharClass.range(Character.MIN_HIGH_SURROGATE,
+            Character.MAX_HIGH_SURROGATE);
+    private static final CharClass LOW_SURROGATES = CharClass.range(Character.MIN_LOW_SURROGATE,
+            Character.MAX_LOW_SURROGATE);
+    private static final CharClass SURROGATES = HIGH_SURROGATES.union(LOW_SURROGATES);
+
+    // The NFA: a state with a matcher consumes one char and moves to its only
+    // target, a state without one moves to all of its targets on no input
+    private final CharClass[] matchers;
+    private final int[][] targets;
+    private final int accept;
+    private final BitSet live;
+
+    // The DFA, built as it is explored
+    private final List<BitSet> sets = new ArrayList<>();
+    private final Map<BitSet, Integer> ids = new HashMap<>();
+    private final List<int[]> asciiTransitions = new ArrayList<>();
+    private final List<Map<Character, Integer>> otherTransitions = new ArrayList<>();
+    private final List<char[]> nextChars = new ArrayList<>();
+    private final int start;
+
+    private CharAutomaton(Node pattern) {
+        Builder builder = new Builder();
+        int acceptState = builder.add(null, new int[0]);
+        int startState = pattern.compile(builder, acceptState);
+
+        this.matchers = builder.matchers.toArray(new CharClass[0]);
+        this.targets = builder.targets.toArray(new int[0][]);
+        this.accept = acceptState;
+        this.live = liveStates();
+
+        BitSet initial = new BitSet();
+        addClosure(startState, initial);
+        this.start = intern(initial);
+    }
+
+    /**
+     * Compiles a regular expression that must match a whole word, as with
+     * {@link java.util.regex.Matcher#matches()}.
+     *
+     * Supported are literals and escaped characters, {@code .}, character
+     * classes with ranges and negation, {@code \d \w \s} and their negations,
+     * groups (capturing or {@code (?:...)}), alternation, the greedy and lazy
+     * quantifiers {@code * + ? {n} {n,} {n,m}}, and {@code ^} and {@code $} at
+     * the ends of the pattern. Anything else (flags, lookaround,
+     * backreferences, possessive quantifiers, class intersections...) is not.
+     *
+     * @param regex a valid Java regular expression
+     * @return the automaton, or null if the expression uses a construct outside
+     *         the supported subset
+     */
+    public static CharAutomaton fromRegex(String regex) {
+        try {
+            return new CharAutomaton(new Parser(regex).parse());
+        } catch (UnsupportedPatternException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Compiles a wildcard pattern that must match a whole word, where
+     * {@code ?} matches any single character and {@code *} matches any run of
+     * characters, including an empty one. All other characters match
+     * themselves.
+     *
+     * @param pattern the wildcard pattern
+     * @return the automaton
+     */
+    public static CharAutomaton fromWildcard(String pattern) {
+        List<Node> parts = new ArrayList<>();
+        for (int i = 0; i < pattern.length(); i++) {
+            char ch = pattern.charAt(i);
+            if (ch == '?') {
+                parts.add(new Atom(ALL));
+            } else if (ch == '*') {
+                parts.add(new Repeat(new Atom(ALL), 0, Repeat.UNBOUNDED));
+            } else {
+                parts.add(new Atom(CharClass.of(ch)));
+            }
+        }
+        return new CharAutomaton(new Concat(parts));
+    }
+
+    /**
+     * @return the state before any input has been read, or {@link #DEAD} if
+     *         the pattern matches nothing
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Checks whether the input read so far is a match.
+     *
+     * @param state a state returned by {@link #start()} or {@link #step}
+     * @return true if the state accepts, false otherwise
+     */
+    public boolean isAccepting(int state) {
+        return state != DEAD && sets.get(state).get(accept);
+    }
+
+    /**
+     * Moves to the state reached by reading one more character.
+     *
+     * @param state a state returned by {@link #start()} or {@link #step}
+     * @param ch    the character read
+     * @return the next state, or {@link #DEAD} if no match can follow
+     */
+    public int step(int state, char ch) {
+        if (state == DEAD) {
+            return DEAD;
+        }
+        if (ch < 128) {
+            int[] transitions = asciiTransitions.get(state);
+            if (transitions[ch] == UNKNOWN) {
+                transitions[ch] = computeStep(state, ch);
+            }
+            return transitions[ch];
+        }
+        Map<Character, Integer> transitions = otherTransitions.get(state);
+        Integer next = transitions.get(ch);
+        if (next == null) {
+            next = computeStep(state, ch);
+            transitions.put(ch, next);
+        }
+        return next;
+    }
+
+    /**
+     * Lists the characters that do not lead to {@link #DEAD}, when there are
+     * only a few of them. A trie walk can then look those children up
+     * directly instead of trying every child of a node.
+     *
+     * @param state a state returned by {@link #start()} or {@link #step}
+     * @return the characters in ascending order, or null if there are too many
+     */
+    public char[] nextChars(int state) {
+        return state == DEAD ? new char[0] : nextChars.get(state);
+    }
+
+    private int computeStep(int state, char ch) {
+        BitSet current = sets.get(state);
+        BitSet next = new BitSet();
+        for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1)) {
+            if (matchers[s] != null && matchers[s].matches(ch)) {
+                addClosure(targets[s][0], next);
+            }
+        }
+        return next.isEmpty() ? DEAD : intern(next);
+    }
+
+    private int intern(BitSet set) {
+        if (set.isEmpty()) {
+            return DEAD;
+        }
+        Integer id = ids.get(set);
+        if (id != null) {
+            return id;
+        }
+
+        id = sets.size();
+        sets.add(set);
+        ids.put(set, id);
+        int[] ascii = new int[128];
+        Arrays.fill(ascii, UNKNOWN);
+        asciiTransitions.add(ascii);
+        otherTransitions.add(new HashMap<>());
+
+        CharClass union = CharClass.NONE;
+        for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+            if (matchers[s] != null) {
+                union = union.union(matchers[s]);
+            }
+        }
+        nextChars.add(union.size() <= MAX_NEXT_CHARS ? union.toChars() : null);
+        return id;
+    }
+
+    private void addClosure(int state, BitSet set) {
+        if (!live.get(state) || set.get(state)) {
+            return;
+        }
+        int[] stack = new int[targets.length];
+        int top = 0;
+        stack[top++] = state;
+        set.set(state);
+        while (top > 0) {
+            int s = stack[--top];
+            if (matchers[s] != null) {
+                continue; // Consumes input, so nothing more is reachable for free
+            }
+            for (int target : targets[s]) {
+                if (live.get(target) && !set.get(target)) {
+                    set.set(target);
+                    stack[top++] = target;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the NFA states from which the accepting state can be reached.
+     */
+    private BitSet liveStates() {
+        List<List<Integer>> sources = new ArrayList<>();
+        for (int s = 0; s < targets.length; s++) {
+            sources.add(new ArrayList<>());
+        }
+        for (int s = 0; s < targets.length; s++) {
+            if (matchers[s] != null && matchers[s].size() == 0) {
+                continue; // Matches no character
+            }
+            for (int target : targets[s]) {
+                sources.get(target).add(s);
+            }
+        }
+
+        BitSet result = new BitSet();
+        int[] stack = new int[targets.length];
+        int top = 0;
+        stack[top++] = accept;
+        result.set(accept);
+        while (top > 0) {
+            for (int source : sources.get(stack[--top])) {
+                if (!result.get(source)) {
+                    result.set(source);
+                    stack[top++] = source;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects NFA states as they are created.
+     */
+    private static final class Builder {
+        private final List<CharClass> matchers = new ArrayList<>();
+        private final List<int[]> targets = new ArrayList<>();
+
+        int add(CharClass matcher, int[] stateTargets) {
+            if (matchers.size() == MAX_NFA_STATES) {
+                throw new UnsupportedPatternException();
+            }
+            matchers.add(matcher);
+            targets.add(stateTargets);
+            return matchers.size() - 1;
+        }
+    }
+
+    /**
+     * A piece of the parsed pattern. Pieces are compiled back to front: each
+     * one is given the state to continue with and returns its entry state, so
+     * a repeated piece can simply be compiled once per repetition.
+     */
+    private abstract static class Node {
+        abstract int compile(Builder builder, int next);
+    }
+
+    private static final class Atom extends Node {
+        private final CharClass chars;
+
+        Atom(CharClass chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        int compile(Builder builder, int next) {
+            return builder.add(chars, new int[] { next });
+        }
+    }
+
+    private static final class Concat extends Node {
+        private final List<Node> parts;
+
+        Concat(List<Node> parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        int compile(Builder builder, int next) {
+            for (int i = parts.size() - 1; i >= 0; i--) {
+                next = parts.get(i).compile(builder, next);
+            }
+            return next;
+        }
+    }
+
+    private static final class Alternation extends Node {
+        private final List<Node> branches;
+
+        Alternation(List<Node> branches) {
+            this.branches = branches;
+        }
+
+        @Override
+        int compile(Builder builder, int next) {
+            int[] entries = new int[branches.size()];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = branches.get(i).compile(builder, next);
+            }
+            return builder.add(null, entries);
+        }
+    }
+
+    private static final class Repeat extends Node {
+        static final int UNBOUNDED = -1;
+
+        private final Node body;
+        private final int min;
+        private final int max;
+
+        Repeat(Node body, int min, int max) {
+            this.body = body;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        int compile(Builder builder, int next) {
+            int entry = next;
+            if (max == UNBOUNDED) {
+                int loop = builder.add(null, null);
+                builder.targets.set(loop, new int[] { body.compile(builder, loop), next });
+                entry = loop;
+            } else {
+                for (int i = min; i < max; i++) {
+                    entry = builder.add(null, new int[] { body.compile(builder, entry), next });
+                }
+            }
+            for (int i = 0; i < min; i++) {
+                entry = body.compile(builder, entry);
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Thrown while compiling a pattern the automaton does not support.
+     */
+    private static final class UnsupportedPatternException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedPatternException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * A recursive-descent parser for the supported subset of Java regular
+     * expressions. The expression is assumed to have been validated by
+     * {@link java.util.regex.Pattern#compile(String)} already.
+     */
+    private static final class Parser {
+        private final String regex;
+        private int pos;
+
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        Node parse() {
+            if (peek() == '^') {
+                pos++;
+            }
+            Node node = alternation();
+            if (pos < regex.length()) {
+                throw new UnsupportedPatternException();
+            }
+            return node;
+        }
+
+        private Node alternation() {
+            List<Node> branches = new ArrayList<>();
+            branches.add(sequence());
+            while (peek() == '|') {
+                pos++;
+                branches.add(sequence());
+            }
+            return branches.size() == 1 ? branches.get(0) : new Alternation(branches);
+        }
+
+        private Node sequence() {
+            List<Node> parts = new ArrayList<>();
+            while (pos < regex.length() && peek() != '|' && peek() != ')') {
+                if (peek() == '$' && pos == regex.length() - 1) {
+                    pos++; // Anchors at the ends are implied by a whole-word match
+                    continue;
+                }
+                parts.add(quantified());
+            }
+            return parts.size() == 1 ? parts.get(0) : new Concat(parts);
+        }
+
+        private Node quantified() {
+            Node node = atom();
+            while (true) {
+                int min;
+                int max;
+                char ch = peek();
+                if (ch == '*') {
+                    min = 0;
+                    max = Repeat.UNBOUNDED;
+                    pos++;
+                } else if (ch == '+') {
+                    min = 1;
+                    max = Repeat.UNBOUNDED;
+                    pos++;
+                } else if (ch == '?') {
+                    min = 0;
+                    max = 1;
+                    pos++;
+                } else if (ch == '{') {
+                    pos++;
+                    min = number();
+                    max = min;
+                    if (peek() == ',') {
+                        pos++;
+                        max = peek() == '}' ? Repeat.UNBOUNDED : number();
+                    }
+                    expect('}');
+                } else {
+                    return node;
+                }
+
+                if (peek() == '?') {
+                    pos++; // A lazy quantifier matches the same words
+                } else if (peek() == '+') {
+                    throw new UnsupportedPatternException(); // Possessive
+                }
+                node = new Repeat(node, min, max);
+            }
+        }
+
+        private Node atom() {
+            char ch = regex.charAt(pos);
+            switch (ch) {
+                case '(':
+                    pos++;
+                    if (peek() == '?') {
+                        if (pos + 1 < regex.length() && regex.charAt(pos + 1) == ':') {
+                            pos += 2;
+                        } else {
+                            throw new UnsupportedPatternException(); // Flags, lookaround, named groups
+                        }
+                    }
+                    Node group = alternation();
+                    expect(')');
+                    return group;
+                case '[':
+                    return wide(characterClass());
+                case '.':
+                    pos++;
+                    return wide(DOT);
+                case '\\':
+                    pos++;
+                    return wide(escape());
+                case '^':
+                case '$':
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new UnsupportedPatternException(); // Anchors inside the pattern, dangling quantifiers
+                default:
+                    pos++;
+                    if (Character.isHighSurrogate(ch) && Character.isLowSurrogate(peek())) {
+                        // A supplementary character is quantified as a whole
+                        Node low = new Atom(CharClass.of(regex.charAt(pos++)));
+                        return new Concat(List.of(new Atom(CharClass.of(ch)), low));
+                    }
+                    return new Atom(CharClass.of(ch));
+            }
+        }
+
+        private CharClass characterClass() {
+            pos++;
+            boolean negated = peek() == '^';
+            if (negated) {
+                pos++;
+            }
+            if (peek() == ']') {
+                throw new UnsupportedPatternException();
+            }
+
+            CharClass result = CharClass.NONE;
+            while (peek() != ']') {
+                char ch = peek();
+                if (ch == '[' || (ch == '&' && pos + 1 < regex.length() && regex.charAt(pos + 1) == '&')
+                        || Character.isSurrogate(ch)) {
+                    throw new UnsupportedPatternException(); // Unions, intersections, supplementary ranges
+                }
+                pos++;
+                CharClass item = ch == '\\' ? escape() : CharClass.of(ch);
+                if (peek() == '-' && pos + 1 < regex.length() && regex.charAt(pos + 1) != ']') {
+                    pos++;
+                    char hiChar = regex.charAt(pos++);
+                    CharClass hi = hiChar == '\\' ? escape() : CharClass.of(hiChar);
+                    if (item.size() != 1 || hi.size() != 1 || Character.isSurrogate(hiChar)) {
+                        throw new UnsupportedPatternException();
+                    }
+                    item = CharClass.range(item.toChars()[0], hi.toChars()[0]);
+                }
+                result = result.union(item);
+            }
+            pos++;
+            return negated ? result.complement() : result;
+        }
+
+        private CharClass escape() {
+            if (pos >= regex.length()) {
+                throw new UnsupportedPatternException();
+            }
+            char ch = regex.charAt(pos++);
+            switch (ch) {
+                case 'd':
+                    return DIGIT;
+                case 'D':
+                    return DIGIT.complement();
+                case 'w':
+                    return WORD;
+                case 'W':
+                    return WORD.complement();
+                case 's':
+                    return SPACE;
+                case 'S':
+                    return SPACE.complement();
+                case 't':
+                    return CharClass.of('\t');
+                case 'n':
+                    return CharClass.of('\n');
+                case 'r':
+                    return CharClass.of('\r');
+                case 'f':
+                    return CharClass.of('\f');
+                case 'a':
+                    return CharClass.of('\u0007');
+                case 'e':
+                    return CharClass.of('\u001B');
+                case 'x':
+                    return CharClass.of((char) hex(2));
+                case 'u':
+                    return CharClass.of((char) hex(4));
+                default:
+                    if (Character.isLetterOrDigit(ch) || Character.isSurrogate(ch)) {
+                        throw new UnsupportedPatternException(); // Backreferences, \p, \b, \Q...
+                    }
+                    return CharClass.of(ch);
+            }
+        }
+
+        private int hex(int digits) {
+            if (pos + digits > regex.length()) {
+                throw new UnsupportedPatternException();
+            }
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                int digit = Character.digit(regex.charAt(pos++), 16);
+                if (digit < 0) {
+                    throw new UnsupportedPatternException(); // \x{...}
+                }
+                value = value * 16 + digit;
+            }
+            return value;
+        }
+
+        private int number() {
+            int begin = pos;
+            while (pos < regex.length() && Character.isDigit(regex.charAt(pos))) {
+                pos++;
+            }
+            if (begin == pos || pos - begin > 6) {
+                throw new UnsupportedPatternException();
+            }
+            return Integer.parseInt(regex.substring(begin, pos));
+        }
+
+        private void expect(char ch) {
+            if (peek() != ch) {
+                throw new UnsupportedPatternException();
+            }
+            pos++;
+        }
+
+        private char peek() {
+            return pos < regex.length() ? regex.charAt(pos) : '\0';
+        }
+
+        /**
+         * Java matches a class that covers every surrogate against a whole
+         * supplementary character, not against its two halves separately.
+         */
+        private static Node wide(CharClass chars) {
+            if (!chars.containsAll(SURROGATES)) {
+                return new Atom(chars);
+            }
+            Node pair = new Concat(List.of(new Atom(HIGH_SURROGATES), new Atom(LOW_SURROGATES)));
+            return new Alternation(List.of(new Atom(chars.intersect(SURROGATES.complement())), pair));
+        }
+    }
+
+    /**
+     * An immutable set of chars, stored as sorted, disjoint, inclusive ranges.
+     */
+    private static final class CharClass {
+        static final CharClass NONE = new CharClass(new char[0]);
+
+        private final char[] ranges; // lo0, hi0, lo1, hi1, ...
+
+        private CharClass(char[] ranges) {
+            this.ranges = ranges;
+        }
+
+        static CharClass of(char ch) {
+            return new CharClass(new char[] { ch, ch });
+        }
+
+        static CharClass range(int lo, int hi) {
+            return new CharClass(new char[] { (char) lo, (char) hi });
+        }
+
+        boolean matches(char ch) {
+            int low = 0;
+            int high = ranges.length / 2 - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (ch < ranges[2 * mid]) {
+                    high = mid - 1;
+                } else if (ch > ranges[2 * mid + 1]) {
+                    low = mid + 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int size() {
+            int size = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                size += ranges[i + 1] - ranges[i] + 1;
+            }
+            return size;
+        }
+
+        char[] toChars() {
+            char[] chars = new char[size()];
+            int n = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                for (int ch = ranges[i]; ch <= ranges[i + 1]; ch++) {
+                    chars[n++] = (char) ch;
+                }
+            }
+            return chars;
+        }
+
+        CharClass union(CharClass other) {
+            int[] merged = new int[ranges.length + other.ranges.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < ranges.length || j < other.ranges.length) {
+                char[] source;
+                int index;
+                if (j >= other.ranges.length || (i < ranges.length && ranges[i] <= other.ranges[j])) {
+                    source = ranges;
+                    index = i;
+                    i += 2;
+                } else {
+                    source = other.ranges;
+                    index = j;
+                    j += 2;
+                }
+                if (n > 0 && source[index] <= merged[n - 1] + 1) {
+                    merged[n - 1] = Math.max(merged[n - 1], source[index + 1]);
+                } else {
+                    merged[n++] = source[index];
+                    merged[n++] = source[index + 1];
+                }
+            }
+            char[] result = new char[n];
+            for (int k = 0; k < n; k++) {
+                result[k] = (char) merged[k];
+            }
+            return new CharClass(result);
+        }
+
+        CharClass complement() {
+            char[] result = new char[ranges.length + 2];
+            int n = 0;
+            int next = 0; // First char not yet covered
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] > next) {
+                    result[n++] = (char) next;
+                    result[n++] = (char) (ranges[i] - 1);
+                }
+                next = ranges[i + 1] + 1;
+            }
+            if (next <= MAX_CHAR) {
+                result[n++] = (char) next;
+                result[n++] = MAX_CHAR;
+            }
+            return new CharClass(Arrays.copyOf(result, n));
+        }
+
+        CharClass intersect(CharClass other) {
+            return complement().union(other.complement()).complement();
+        }
+
+        boolean containsAll(CharClass other) {
+            return intersect(other).size() == other.size();
+        }
+    }
+}
@@ -1,133 +1,427 @@
 package com.nickslibrary.utils.tree;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
- * Represents a node in a Radix Trie, storing compressed prefixes.
+ * Represents a node in a Radix Trie over byte keys, in the style of an
+ * Adaptive Radix Tree.
+ *
+ * A {@link Leaf} holds one whole key, so a key that shares no further bytes
+ * with any other is stored without a chain of single-child nodes (lazy
+ * expansion). An {@link Inner} node holds the bytes its children have in
+ * common (path compression) and picks the smallest of four layouts that fits
+ * its number of children: {@link Node4}, {@link Node16}, {@link Node48} and
+ * {@link Node256}. Adding a child to a full node returns a larger copy and
+ * removing children from a sparse one returns a smaller copy, so callers must
+ * store the node that is returned.
  */
-public class RadixTrieNode {
-    private String prefix; // The shared prefix for this node
-    private final Map<Character, RadixTrieNode> children; // Child nodes
-    private boolean isEndOfWord; // Whether this node marks the end of a word
+public abstract class RadixTrieNode {
     private int frequency; // Number of times the word has been inserted
-    private RadixTrieNode parent; // Parent node for backtracking
 
-    /**
-     * Constructs an empty RadixTrieNode.
-     */
-    public RadixTrieNode() {
-        this.prefix = "";
-        this.children = new HashMap<>();
-        this.isEndOfWord = false;
-        this.frequency = 0;
-        this.parent = null;
+    public abstract boolean isLeaf();
+
+    public int getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(int frequency) {
+        this.frequency = frequency;
+    }
+
+    public void incrementFrequency() {
+        frequency++;
     }
 
     /**
-     * Constructs a RadixTrieNode with a given prefix.
-     *
-     * @param prefix The prefix stored in this node.
+     * Receives the children of a node in ascending key order.
      */
-    public RadixTrieNode(String prefix) {
-        this.prefix = prefix;
-        this.children = new HashMap<>();
-        this.isEndOfWord = false;
-        this.frequency = 0;
-        this.parent = null;
+    @FunctionalInterface
+    public interface ChildVisitor {
+        /**
+         * @param key   The key byte of the child, as an unsigned value.
+         * @param child The child node.
+         */
+        void visit(int key, RadixTrieNode child);
     }
 
     /**
-     * Checks if this node has a child that starts with a given character.
-     *
-     * @param ch The starting character to check.
-     * @return true if a child exists with this character, false otherwise.
+     * A node storing a single word in full.
      */
-    public boolean hasChild(char ch) {
-        return children.containsKey(ch);
+    public static final class Leaf extends RadixTrieNode {
+        private final byte[] key;
+
+        /**
+         * @param key The complete key of the word; the array is not copied.
+         */
+        public Leaf(byte[] key) {
+            this.key = key;
+            setFrequency(1);
+        }
+
+        public byte[] getKey() {
+            return key;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return true;
+        }
     }
 
     /**
-     * Retrieves the child node associated with the given character.
-     *
-     * @param ch The character key.
-     * @return The corresponding child RadixTrieNode, or null if not present.
+     * A node with a compressed prefix and up to 256 children, one per key byte.
      */
-    public RadixTrieNode getChild(char ch) {
-        return children.get(ch);
+    public abstract static class Inner extends RadixTrieNode {
+        private byte[] prefix; // The bytes shared by every key below this node
+        private boolean isEndOfWord; // Whether a word ends right after the prefix
+        protected int count; // Number of children
+
+        protected Inner(byte[] prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return false;
+        }
+
+        /**
+         * Retrieves the child for the given key byte.
+         *
+         * @param key The key byte.
+         * @return The child, or null if there is none.
+         */
+        public abstract RadixTrieNode findChild(byte key);
+
+        /**
+         * Adds a child for a key byte that has none yet.
+         *
+         * @param key   The key byte.
+         * @param child The child to add.
+         * @return This node, or a larger copy of it if it was full.
+         */
+        public abstract Inner addChild(byte key, RadixTrieNode child);
+
+        /**
+         * Replaces the existing child for the given key byte.
+         *
+         * @param key   The key byte.
+         * @param child The new child.
+         */
+        public abstract void replaceChild(byte key, RadixTrieNode child);
+
+        /**
+         * Removes the child for the given key byte.
+         *
+         * @param key The key byte.
+         * @return This node, or a smaller copy of it if it became sparse.
+         */
+        public abstract Inner removeChild(byte key);
+
+        /**
+         * Visits the children in ascending key order.
+         *
+         * @param visitor The visitor.
+         */
+        public abstract void forEachChild(ChildVisitor visitor);
+
+        public int childCount() {
+            return count;
+        }
+
+        public byte[] getPrefix() {
+            return prefix;
+        }
+
+        public void setPrefix(byte[] prefix) {
+            this.prefix = prefix;
+        }
+
+        public boolean isEndOfWord() {
+            return isEndOfWord;
+        }
+
+        public void setEndOfWord(boolean isEndOfWord) {
+            this.isEndOfWord = isEndOfWord;
+        }
+
+        // Carries the prefix, word flag and children over to a resized node
+        protected <N extends Inner> N copyInto(N target) {
+            target.setEndOfWord(isEndOfWord);
+            target.setFrequency(getFrequency());
+            forEachChild((key, child) -> target.insert((byte) key, child));
+            return target;
+        }
+
+        // Adds a child to a node known to have room for it
+        protected abstract void insert(byte key, RadixTrieNode child);
     }
 
     /**
-     * Adds a child node with a given prefix.
-     *
-     * @param ch     The character key.
-     * @param prefix The prefix string stored in the new node.
+     * Up to 4 children, with keys in a small sorted array.
      */
-    public void addChild(char ch, String prefix) {
-        if (!children.containsKey(ch)) {
-            RadixTrieNode child = new RadixTrieNode(prefix);
-            child.setParent(this);
-            children.put(ch, child);
+    public static final class Node4 extends Inner {
+        private final byte[] keys = new byte[4];
+        private final RadixTrieNode[] children = new RadixTrieNode[4];
+
+        public Node4(byte[] prefix) {
+            super(prefix);
+        }
+
+        @Override
+        public RadixTrieNode findChild(byte key) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Inner addChild(byte key, RadixTrieNode child) {
+            if (count == keys.length) {
+                Node16 grown = copyInto(new Node16(getPrefix()));
+                grown.insert(key, child);
+                return grown;
+            }
+            insert(key, child);
+            return this;
+        }
+
+        @Override
+        protected void insert(byte key, RadixTrieNode child) {
+            int i = count;
+            while (i > 0 && Byte.toUnsignedInt(keys[i - 1]) > Byte.toUnsignedInt(key)) {
+                keys[i] = keys[i - 1];
+                children[i] = children[i - 1];
+                i--;
+            }
+            keys[i] = key;
+            children[i] = child;
+            count++;
+        }
+
+        @Override
+        public void replaceChild(byte key, RadixTrieNode child) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == key) {
+                    children[i] = child;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public Inner removeChild(byte key) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == key) {
+                    System.arraycopy(keys, i + 1, keys, i, count - i - 1);
+                    System.arraycopy(children, i + 1, children, i, count - i - 1);
+                    children[--count] = null;
+                    break;
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public void forEachChild(ChildVisitor visitor) {
+            for (int i = 0; i < count; i++) {
+                visitor.visit(Byte.toUnsignedInt(keys[i]), children[i]);
+            }
         }
     }
 
     /**
-     * Removes the child node associated with the given character.
-     *
-     * @param ch The character key.
+     * Up to 16 children, with keys in a sorted array that is scanned in one
+     * pass.
      */
-    public void removeChild(char ch) {
-        children.remove(ch);
+    public static final class Node16 extends Inner {
+        private final byte[] keys = new byte[16];
+        private final RadixTrieNode[] children = new RadixTrieNode[16];
+
+        public Node16(byte[] prefix) {
+            super(prefix);
+        }
+
+        @Override
+        public RadixTrieNode findChild(byte key) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Inner addChild(byte key, RadixTrieNode child) {
+            if (count == keys.length) {
+                Node48 grown = copyInto(new Node48(getPrefix()));
+                grown.insert(key, child);
+                return grown;
+            }
+            insert(key, child);
+            return this;
+        }
+
+        @Override
+        protected void insert(byte key, RadixTrieNode child) {
+            int i = count;
+            while (i > 0 && Byte.toUnsignedInt(keys[i - 1]) > Byte.toUnsignedInt(key)) {
+                keys[i] = keys[i - 1];
+                children[i] = children[i - 1];
+                i--;
+            }
+            keys[i] = key;
+            children[i] = child;
+            count++;
+        }
+
+        @Override
+        public void replaceChild(byte key, RadixTrieNode child) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == key) {
+                    children[i] = child;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public Inner removeChild(byte key) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == key) {
+                    System.arraycopy(keys, i + 1, keys, i, count - i - 1);
+                    System.arraycopy(children, i + 1, children, i, count - i - 1);
+                    children[--count] = null;
+                    break;
+                }
+            }
+            return count <= 3 ? copyInto(new Node4(getPrefix())) : this;
+        }
+
+        @Override
+        public void forEachChild(ChildVisitor visitor) {
+            for (int i = 0; i < count; i++) {
+                visitor.visit(Byte.toUnsignedInt(keys[i]), children[i]);
+            }
+        }
     }
 
     /**
-     * Checks if this node is a leaf (has no children).
-     *
-     * @return true if the node has no children, false otherwise.
+     * Up to 48 children, found through a 256-entry index of child slots.
      */
-    public boolean isLeaf() {
-        return children.isEmpty();
-    }
+    public static final class Node48 extends Inner {
+        // Slot + 1 of the child for each key byte, or 0 if there is none
+        private final byte[] index = new byte[256];
+        private final RadixTrieNode[] children = new RadixTrieNode[48];
 
-    // Getters and Setters
+        public Node48(byte[] prefix) {
+            super(prefix);
+        }
 
-    public String getPrefix() {
-        return prefix;
-    }
+        @Override
+        public RadixTrieNode findChild(byte key) {
+            int slot = index[Byte.toUnsignedInt(key)];
+            return slot == 0 ? null : children[slot - 1];
+        }
 
-    public void setPrefix(String prefix) {
-        this.prefix = prefix;
-    }
+        @Override
+        public Inner addChild(byte key, RadixTrieNode child) {
+            if (count == children.length) {
+                Node256 grown = copyInto(new Node256(getPrefix()));
+                grown.insert(key, child);
+                return grown;
+            }
+            insert(key, child);
+            return this;
+        }
 
-    public Map<Character, RadixTrieNode> getChildren() {
-        return children;
-    }
+        @Override
+        protected void insert(byte key, RadixTrieNode child) {
+            int slot = 0;
+            while (children[slot] != null) {
+                slot++;
+            }
+            children[slot] = child;
+            index[Byte.toUnsignedInt(key)] = (byte) (slot + 1);
+            count++;
+        }
 
-    public boolean isEndOfWord() {
-        return isEndOfWord;
-    }
+        @Override
+        public void replaceChild(byte key, RadixTrieNode child) {
+            children[index[Byte.toUnsignedInt(key)] - 1] = child;
+        }
 
-    public void setEndOfWord(boolean isEndOfWord) {
-        this.isEndOfWord = isEndOfWord;
-    }
+        @Override
+        public Inner removeChild(byte key) {
+            int slot = index[Byte.toUnsignedInt(key)];
+            if (slot != 0) {
+                children[slot - 1] = null;
+                index[Byte.toUnsignedInt(key)] = 0;
+                count--;
+            }
+            return count <= 12 ? copyInto(new Node16(getPrefix())) : this;
+        }
 
-    public int getFrequency() {
-        return frequency;
+        @Override
+        public void forEachChild(ChildVisitor visitor) {
+            for (int key = 0; key < 256; key++) {
+                if (index[key] != 0) {
+                    visitor.visit(key, children[index[key] - 1]);
+                }
+            }
+        }
     }
 
-    public void setFrequency(int frequency) {
-        this.frequency = frequency;
-    }
+    /**
+     * Up to 256 children, indexed directly by key byte.
+     */
+    public static final class Node256 extends Inner {
+        private final RadixTrieNode[] children = new RadixTrieNode[256];
 
-    public void incrementFrequency() {
-        frequency++;
-    }
+        public Node256(byte[] prefix) {
+            super(prefix);
+        }
 
-    public RadixTrieNode getParent() {
-        return parent;
-    }
+        @Override
+        public RadixTrieNode findChild(byte key) {
+            return children[Byte.toUnsignedInt(key)];
+        }
 
-    public void setParent(RadixTrieNode parent) {
-        this.parent = parent;
+        @Override
+        public Inner addChild(byte key, RadixTrieNode child) {
+            insert(key, child);
+            return this;
+        }
+
+        @Override
+        protected void insert(byte key, RadixTrieNode child) {
+            children[Byte.toUnsignedInt(key)] = child;
+            count++;
+        }
+
+        @Override
+        public void replaceChild(byte key, RadixTrieNode child) {
+            children[Byte.toUnsignedInt(key)] = child;
+        }
+
+        @Override
+        public Inner removeChild(byte key) {
+            if (children[Byte.toUnsignedInt(key)] != null) {
+                children[Byte.toUnsignedInt(key)] = null;
+                count--;
+            }
+            return count <= 40 ? copyInto(new Node48(getPrefix())) : this;
+        }
+
+        @Override
+        public void forEachChild(ChildVisitor visitor) {
+            for (int key = 0; key < 256; key++) {
+                if (children[key] != null) {
+                    visitor.visit(key, children[key]);
+                }
+            }
+        }
     }
 }
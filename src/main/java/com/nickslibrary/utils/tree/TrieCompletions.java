@@ -0,0 +1,119 @@
+package com.nickslibrary.utils.tree;
+
+/**
+ * A bounded, ranked list of the best words below a {@link TrieNode}, used to
+ * answer autocomplete queries without walking the subtree.
+ *
+ * Words are ordered by frequency (highest first), with ties broken
+ * alphabetically. Once the list is full, offering a word that ranks below the
+ * last entry does nothing, and offering one that ranks above it pushes the
+ * last entry out.
+ */
+public class TrieCompletions {
+    private final String[] words;
+    private final int[] frequencies;
+    private int size;
+
+    /**
+     * Constructs an empty list.
+     *
+     * @param capacity the maximum number of words kept (must be at least 1)
+     */
+    public TrieCompletions(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1.");
+        }
+        this.words = new String[capacity];
+        this.frequencies = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return words.length;
+    }
+
+    public boolean isFull() {
+        return size == words.length;
+    }
+
+    public String getWord(int index) {
+        return words[index];
+    }
+
+    public int getFrequency(int index) {
+        return frequencies[index];
+    }
+
+    /**
+     * Finds the position of a word in the list.
+     *
+     * @param word the word to look for
+     * @return the index of the word, or -1 if it is not in the list
+     */
+    public int indexOf(String word) {
+        for (int i = 0; i < size; i++) {
+            if (words[i].equals(word)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether a word would make it into the list, without building the
+     * word as a String.
+     *
+     * @param word      the characters of the word
+     * @param frequency the frequency of the word
+     * @return true if {@link #offer} would keep the word, false otherwise
+     */
+    public boolean admits(CharSequence word, int frequency) {
+        return !isFull() || ranksBefore(word, frequency, size - 1);
+    }
+
+    /**
+     * Inserts a word at its rank, dropping the last entry if the list is full.
+     * The word must not already be in the list.
+     *
+     * @param word      the word to insert
+     * @param frequency the frequency of the word
+     * @return true if the word was kept, false if it ranks below a full list
+     */
+    public boolean offer(String word, int frequency) {
+        if (!admits(word, frequency)) {
+            return false;
+        }
+
+        int index = isFull() ? size - 1 : size++;
+        while (index > 0 && ranksBefore(word, frequency, index - 1)) {
+            words[index] = words[index - 1];
+            frequencies[index] = frequencies[index - 1];
+            index--;
+        }
+        words[index] = word;
+        frequencies[index] = frequency;
+        return true;
+    }
+
+    /**
+     * Removes the entry at the given position, shifting later entries up.
+     *
+     * @param index the position of the entry to remove
+     */
+    public void remove(int index) {
+        size--;
+        System.arraycopy(words, index + 1, words, index, size - index);
+        System.arraycopy(frequencies, index + 1, frequencies, index, size - index);
+        words[size] = null;
+    }
+
+    private boolean ranksBefore(CharSequence word, int frequency, int index) {
+        if (frequency != frequencies[index]) {
+            return frequency > frequencies[index];
+        }
+        return CharSequence.compare(word, words[index]) < 0;
+    }
+}
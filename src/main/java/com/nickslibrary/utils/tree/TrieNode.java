@@ -11,6 +11,7 @@ public class TrieNode {
     private TrieNode parent;
     private boolean isEndOfWord;
     private int frequency;
+    private TrieCompletions completions; // Cached best words below this node, or null
 
     /**
      * Constructs a new TrieNode.
@@ -103,4 +104,12 @@ public class TrieNode {
     public void setParent(TrieNode parent) {
         this.parent = parent;
     }
+
+    public TrieCompletions getCompletions() {
+        return completions;
+    }
+
+    public void setCompletions(TrieCompletions completions) {
+        this.completions = completions;
+    }
 }
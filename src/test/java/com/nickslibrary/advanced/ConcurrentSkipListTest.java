@@ -0,0 +1,159 @@
+package com.nickslibrary.advanced;
+
+import com.nickslibrary.datastructures.advanced.ConcurrentSkipList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentSkipListTest {
+
+    private ConcurrentSkipList<Integer, String> skipList;
+
+    @BeforeEach
+    void setUp() {
+        skipList = new ConcurrentSkipList<>();
+    }
+
+    @Test
+    void testPutAndGet() {
+        assertNull(skipList.put(2, "two"));
+        assertNull(skipList.put(1, "one"));
+        assertEquals("two", skipList.put(2, "TWO"));
+
+        assertEquals("one", skipList.get(1));
+        assertEquals("TWO", skipList.get(2));
+        assertNull(skipList.get(3));
+        assertTrue(skipList.containsKey(1));
+        assertFalse(skipList.containsKey(3));
+        assertEquals(2, skipList.size());
+    }
+
+    @Test
+    void testRemove() {
+        skipList.put(1, "one");
+        skipList.put(2, "two");
+
+        assertEquals("one", skipList.remove(1));
+        assertNull(skipList.remove(1));
+        assertFalse(skipList.containsKey(1));
+        assertEquals(Integer.valueOf(2), skipList.firstKey());
+        assertEquals(1, skipList.size());
+
+        skipList.remove(2);
+        assertTrue(skipList.isEmpty());
+        assertNull(skipList.firstKey());
+    }
+
+    @Test
+    void testRangeIteration() {
+        for (int i = 0; i < 100; i++) {
+            skipList.put(i, "v" + i);
+        }
+
+        List<Integer> keys = new ArrayList<>();
+        Iterator<Map.Entry<Integer, String>> it = skipList.range(10, 15);
+        while (it.hasNext()) {
+            keys.add(it.next().getKey());
+        }
+        assertEquals(List.of(10, 11, 12, 13, 14), keys);
+
+        int expected = 0;
+        for (Map.Entry<Integer, String> entry : skipList) {
+            assertEquals(expected, entry.getKey());
+            assertEquals("v" + expected, entry.getValue());
+            expected++;
+        }
+        assertEquals(100, expected);
+    }
+
+    @Test
+    void testConcurrentPutAndRemove() throws Exception {
+        int threads = 8;
+        int perThread = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Each thread inserts its own keys and removes the odd ones again
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    int key = i * threads + offset;
+                    skipList.put(key, "v" + key);
+                }
+                for (int i = 0; i < perThread; i++) {
+                    int key = i * threads + offset;
+                    if (key % 2 == 1) {
+                        assertEquals("v" + key, skipList.remove(key));
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(threads * perThread / 2, skipList.size());
+        int previous = -1;
+        for (Map.Entry<Integer, String> entry : skipList) {
+            assertEquals(0, entry.getKey() % 2);
+            assertTrue(entry.getKey() > previous);
+            previous = entry.getKey();
+        }
+    }
+
+    @Test
+    void testPutAndRemoveRaceOnOneKey() throws Exception {
+        // Enough rounds for the race window to come up even when threads share one core
+        int threads = 8;
+        int perThread = 100000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        // How many times each value came back out, from a put it replaced or a remove that took it
+        Map<String, Integer> returned = new ConcurrentHashMap<>();
+
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    String previous = skipList.put(0, thread + ":" + i);
+                    if (previous != null) {
+                        returned.merge(previous, 1, Integer::sum);
+                    }
+                    String removed = skipList.remove(0);
+                    if (removed != null) {
+                        returned.merge(removed, 1, Integer::sum);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        String remaining = skipList.get(0);
+        if (remaining != null) {
+            returned.merge(remaining, 1, Integer::sum);
+        }
+        // Every value written leaves exactly once: never lost, never handed to two callers
+        assertEquals(threads * perThread, returned.size());
+        for (int count : returned.values()) {
+            assertEquals(1, count);
+        }
+        assertEquals(remaining == null ? 0 : 1, skipList.size());
+        assertEquals(remaining != null, skipList.containsKey(0));
+        assertThrows(IllegalArgumentException.class, () -> skipList.put(1, null));
+    }
+}
@@ -0,0 +1,104 @@
+package com.nickslibrary.advanced;
+
+import com.nickslibrary.datastructures.advanced.SplayTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplayTreeTest {
+
+    private SplayTree<Integer, String> splayTree;
+
+    @BeforeEach
+    void setUp() {
+        splayTree = new SplayTree<>();
+    }
+
+    @Test
+    void testPutGetAndDelete() {
+        assertNull(splayTree.put(2, "two"));
+        assertNull(splayTree.put(1, "one"));
+        assertEquals("two", splayTree.put(2, "TWO"));
+
+        assertEquals("TWO", splayTree.get(2));
+        assertTrue(splayTree.search(1));
+        assertFalse(splayTree.search(3));
+
+        assertEquals("one", splayTree.delete(1));
+        assertNull(splayTree.delete(1));
+        assertEquals(List.of(2), splayTree.inOrderTraversal());
+    }
+
+    @Test
+    void testFloorAndCeiling() {
+        for (int i = 0; i < 100; i += 10) {
+            splayTree.put(i, "v" + i);
+        }
+        assertEquals(Integer.valueOf(40), splayTree.floor(45));
+        assertEquals(Integer.valueOf(50), splayTree.ceiling(45));
+        assertEquals(Integer.valueOf(50), splayTree.floor(50));
+        assertNull(splayTree.floor(-1));
+        assertNull(splayTree.ceiling(91));
+    }
+
+    @Test
+    void testSplitAndJoin() {
+        for (int i = 0; i < 20; i++) {
+            splayTree.put(i, "v" + i);
+        }
+        SplayTree<Integer, String> upper = splayTree.split(12);
+        assertEquals(12, splayTree.inOrderTraversal().size());
+        assertEquals(Integer.valueOf(12), upper.inOrderTraversal().get(0));
+
+        assertThrows(IllegalArgumentException.class, () -> upper.join(splayTree));
+        splayTree.join(upper);
+        assertTrue(upper.isEmpty());
+        assertEquals(20, splayTree.inOrderTraversal().size());
+    }
+
+    @Test
+    void testRandomAgainstTreeMap() {
+        Random random = new Random(1);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(1000);
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(expected.remove(key), splayTree.delete(key));
+                case 1 -> assertEquals(expected.floorKey(key), splayTree.floor(key));
+                case 2 -> assertEquals(expected.ceilingKey(key), splayTree.ceiling(key));
+                default -> assertEquals(expected.put(key, "v" + i), splayTree.put(key, "v" + i));
+            }
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), splayTree.inOrderTraversal());
+    }
+
+    @Test
+    void testSkewedAccessKeepsSplaysShallow() {
+        for (int i = 0; i < 10000; i++) {
+            splayTree.put(i, "v" + i);
+        }
+
+        Random random = new Random(2);
+        splayTree.resetStatistics();
+        for (int i = 0; i < 10000; i++) {
+            splayTree.get(random.nextInt(10000));
+        }
+        double uniformDepth = splayTree.getAverageSplayDepth();
+
+        // 90% of lookups hit one of 10 hot keys
+        splayTree.resetStatistics();
+        for (int i = 0; i < 10000; i++) {
+            splayTree.get(random.nextInt(10) < 9 ? random.nextInt(10) * 997 : random.nextInt(10000));
+        }
+        double skewedDepth = splayTree.getAverageSplayDepth();
+
+        assertEquals(10000, splayTree.getSplayCount());
+        assertTrue(skewedDepth < uniformDepth / 2, skewedDepth + " vs " + uniformDepth);
+    }
+}
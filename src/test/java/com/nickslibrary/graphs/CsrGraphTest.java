@@ -0,0 +1,104 @@
+package com.nickslibrary.graphs;
+
+import com.nickslibrary.datastructures.graphs.CsrGraph;
+import com.nickslibrary.datastructures.graphs.GraphAdjList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsrGraphTest {
+
+    @Test
+    public void testFreezeMatchesAdjList() {
+        Random random = new Random(42);
+        GraphAdjList graph = new GraphAdjList(200);
+        for (int i = 0; i < 1000; i++) {
+            graph.addEdge(random.nextInt(200), random.nextInt(200));
+        }
+        CsrGraph csr = graph.freeze();
+
+        assertEquals(200, csr.numVertices());
+        assertEquals(2000, csr.numEntries());
+        assertFalse(csr.isDirected());
+        assertFalse(csr.isWeighted());
+        for (int v = 0; v < 200; v++) {
+            List<Integer> expected = graph.getNeighbors(v);
+            expected.sort(null);
+            List<Integer> actual = new ArrayList<>();
+            csr.forEachNeighbor(v, actual::add);
+            assertEquals(expected, actual);
+            assertEquals(expected.size(), csr.degree(v));
+            for (int u = 0; u < 200; u++) {
+                assertEquals(graph.hasEdge(v, u), csr.hasEdge(v, u));
+            }
+        }
+
+        graph.addEdge(0, 1); // The frozen graph does not see later changes
+        assertEquals(2000, csr.numEntries());
+    }
+
+    @Test
+    public void testDirectedBuilder() {
+        CsrGraph graph = new CsrGraph.Builder(4, true)
+                .addEdge(0, 3)
+                .addEdge(0, 1)
+                .addEdge(2, 0)
+                .addEdge(0, 2)
+                .build();
+
+        assertTrue(graph.isDirected());
+        assertEquals(4, graph.numEntries());
+        assertTrue(graph.hasEdge(0, 1));
+        assertFalse(graph.hasEdge(1, 0));
+        assertTrue(graph.hasEdge(2, 0));
+        assertEquals(3, graph.degree(0));
+        assertEquals(0, graph.degree(3));
+
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        assertArrayEquals(new int[] { 1, 2, 3 }, Arrays.copyOfRange(targets, offsets[0], offsets[1]));
+        assertThrows(IllegalStateException.class, () -> graph.getWeight(0, 1));
+    }
+
+    @Test
+    public void testWeightedUndirectedBuilder() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(3, false);
+        builder.addEdge(0, 1); // Weight 1 once the graph turns out to be weighted
+        builder.addEdge(2, 0, 2.5f);
+        builder.addEdge(1, 2, -0.5f);
+        CsrGraph graph = builder.build();
+
+        assertTrue(graph.isWeighted());
+        assertEquals(6, graph.numEntries());
+        assertEquals(1f, graph.getWeight(1, 0));
+        assertEquals(2.5f, graph.getWeight(0, 2));
+        assertEquals(2.5f, graph.getWeight(2, 0));
+        assertEquals(-0.5f, graph.getWeight(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.getWeight(0, 0));
+
+        // Weights follow their targets through the sort
+        float[] weights = graph.weights();
+        int[] targets = graph.targets();
+        for (int i = graph.offsets()[0]; i < graph.offsets()[1]; i++) {
+            assertEquals(targets[i] == 1 ? 1f : 2.5f, weights[i]);
+        }
+    }
+
+    @Test
+    public void testBuilderRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> new CsrGraph.Builder(-1, true));
+        CsrGraph.Builder builder = new CsrGraph.Builder(2, false);
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(-1, 0));
+
+        CsrGraph empty = builder.build();
+        assertEquals(2, empty.numVertices());
+        assertEquals(0, empty.numEntries());
+        assertFalse(empty.hasEdge(0, 1));
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,4 +84,58 @@ public class GraphTest {
         assertTrue(graphMatrix.hasEdge(0, 1));
         assertFalse(graphMatrix.hasEdge(0, 2));
     }
+
+    @Test
+    public void testDegreeAndNeighborsAcrossWordsMatrix() {
+        GraphAdjMatrix graph = new GraphAdjMatrix(200);
+        graph.addEdge(0, 63);
+        graph.addEdge(0, 64);
+        graph.addEdge(0, 199);
+        graph.addEdge(0, 0);
+        assertEquals(4, graph.degree(0));
+        assertEquals(List.of(0, 63, 64, 199), graph.getNeighbors(0));
+        assertTrue(graph.hasEdge(199, 0));
+        assertFalse(graph.hasEdge(0, 65));
+        graph.removeEdge(64, 0);
+        assertEquals(List.of(0, 63, 199), graph.getNeighbors(0));
+    }
+
+    @Test
+    public void testCommonNeighborsAndTrianglesMatrix() {
+        int n = 150;
+        Random random = new Random(42);
+        GraphAdjMatrix graph = new GraphAdjMatrix(n);
+        for (int i = 0; i < 1500; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n));
+        }
+
+        long triangles = 0;
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < n; v++) {
+                int common = 0;
+                int combined = 0;
+                for (int x = 0; x < n; x++) {
+                    common += graph.hasEdge(u, x) && graph.hasEdge(v, x) ? 1 : 0;
+                    combined += graph.hasEdge(u, x) || graph.hasEdge(v, x) ? 1 : 0;
+                    if (x > v && graph.hasEdge(u, v) && graph.hasEdge(u, x) && graph.hasEdge(v, x)) {
+                        triangles++;
+                    }
+                }
+                assertEquals(common, graph.countCommonNeighbors(u, v));
+                assertEquals(combined, graph.countCombinedNeighbors(u, v));
+            }
+        }
+        assertEquals(triangles, graph.countTriangles());
+    }
+
+    @Test
+    public void testOutOfRangeEdgeMatrix() {
+        GraphAdjMatrix graph = new GraphAdjMatrix(10);
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(0, 20));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> graph.removeEdge(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> graph.hasEdge(0, 20));
+        assertTrue(graph.getNeighbors(0).isEmpty());
+        assertEquals(0, graph.countTriangles());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.nickslibrary.heaps;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.CalendarQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarQueueTest {
+    private CalendarQueue<String> queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new CalendarQueue<>();
+    }
+
+    @Test
+    void testExtractInTimeOrder() {
+        queue.schedule(40, "d");
+        queue.schedule(10, "a");
+        queue.schedule(1L << 40, "e"); // Far beyond the year, in the overflow heap
+        queue.schedule(10, "b");
+        queue.schedule(25, "c");
+
+        assertEquals(5, queue.size());
+        assertEquals(10, queue.peekMinTime());
+        assertEquals("a", queue.extractMin());
+        assertEquals("b", queue.extractMin()); // Equal times leave in scheduling order
+        assertEquals("c", queue.extractMin());
+        assertEquals(25, queue.currentTime());
+        assertEquals("d", queue.extractMin());
+        assertEquals("e", queue.extractMin());
+        assertTrue(queue.isEmpty());
+        assertThrows(IllegalStateException.class, () -> queue.extractMin());
+    }
+
+    @Test
+    void testCancel() {
+        CalendarQueue.Event<String> near = queue.schedule(10, "near");
+        CalendarQueue.Event<String> far = queue.schedule(1L << 40, "far");
+        queue.schedule(20, "kept");
+
+        assertTrue(queue.cancel(near));
+        assertTrue(queue.cancel(far));
+        assertFalse(queue.cancel(far));
+        assertFalse(near.isPending());
+        assertEquals(1, queue.size());
+        assertEquals("kept", queue.extractMin());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testAdvanceTo() {
+        queue.schedule(100, "a");
+        queue.schedule(300, "b");
+        List<String> fired = new ArrayList<>();
+
+        assertEquals(1, queue.advanceTo(200, fired::add));
+        assertEquals(200, queue.currentTime());
+        queue.schedule(150, "late"); // Already past, so due now
+        queue.schedule(250, "c");
+        assertEquals(3, queue.advanceTo(300, fired::add));
+        assertEquals(List.of("a", "late", "c", "b"), fired);
+        assertThrows(IllegalArgumentException.class, () -> queue.advanceTo(299, value -> {
+        }));
+    }
+
+    @Test
+    void testEarlyEventBeforeFarBucketedEvent() {
+        queue.schedule(100_000_000_000L, "far");
+        List<String> fired = new ArrayList<>();
+        assertEquals(0, queue.advanceTo(5, fired::add));
+        queue.schedule(6, "near"); // Moves the current day back, leaving "far" many years ahead in its bucket
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertEquals(1, queue.advanceTo(7, fired::add));
+            assertEquals(100_000_000_000L, queue.peekMinTime());
+            assertEquals("far", queue.extractMin());
+        });
+        assertEquals(List.of("near"), fired);
+    }
+
+    @Test
+    void testRandomAgainstTreeMap() {
+        Random random = new Random(7);
+        TreeMap<Long, List<String>> expected = new TreeMap<>();
+        List<CalendarQueue.Event<String>> events = new ArrayList<>();
+
+        for (int round = 0; round < 3000; round++) {
+            // Grow, then shrink, so the calendar resizes both ways
+            int schedules = round < 1500 ? 12 : 4;
+            for (int i = 0; i < schedules; i++) {
+                long offset = random.nextInt(10) == 0 ? random.nextInt(1 << 24) : random.nextInt(2000);
+                long time = queue.currentTime() + offset;
+                CalendarQueue.Event<String> event = queue.schedule(time, round + ":" + i);
+                events.add(event);
+                expected.computeIfAbsent(time, key -> new ArrayList<>()).add(event.getValue());
+            }
+            for (int i = 0; i < 3; i++) {
+                CalendarQueue.Event<String> event = events.get(random.nextInt(events.size()));
+                if (event.isPending()) {
+                    expected.get(event.getTime()).remove(event.getValue());
+                }
+                assertEquals(event.isPending(), queue.cancel(event));
+            }
+            expected.values().removeIf(List::isEmpty);
+
+            if (random.nextBoolean()) {
+                for (int i = 0; i < 8 && !expected.isEmpty(); i++) {
+                    assertEquals((long) expected.firstKey(), queue.peekMinTime());
+                    assertEquals(expected.firstEntry().getValue().remove(0), queue.extractMin());
+                    expected.values().removeIf(List::isEmpty);
+                }
+            } else {
+                long time = queue.currentTime() + random.nextInt(500);
+                List<String> due = new ArrayList<>();
+                for (List<String> values : expected.headMap(time, true).values()) {
+                    due.addAll(values);
+                }
+                expected.headMap(time, true).clear();
+                List<String> fired = new ArrayList<>();
+                queue.advanceTo(time, fired::add);
+                assertEquals(due, fired);
+            }
+            assertEquals(expected.values().stream().mapToInt(List::size).sum(), queue.size());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.nickslibrary.heaps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.FibonacciHeap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FibonacciHeapTest {
+    private FibonacciHeap<Integer> heap;
+
+    @BeforeEach
+    void setUp() {
+        heap = new FibonacciHeap<>();
+    }
+
+    @Test
+    void testInsertAndExtractInOrder() {
+        heap.insert(5);
+        heap.insert(1);
+        heap.insert(4);
+        heap.insert(2);
+
+        assertEquals(4, heap.size());
+        assertEquals(1, heap.peekMin());
+        assertEquals(1, heap.extractMin());
+        assertEquals(2, heap.extractMin());
+        assertEquals(4, heap.extractMin());
+        assertEquals(5, heap.extractMin());
+        assertTrue(heap.isEmpty());
+        assertThrows(IllegalStateException.class, () -> heap.extractMin());
+    }
+
+    @Test
+    void testDecreaseKeyDeleteAndMerge() {
+        List<FibonacciHeap.Node<Integer>> nodes = new ArrayList<>();
+        for (int i = 10; i < 20; i++) {
+            nodes.add(heap.insert(i));
+        }
+        heap.extractMin(); // Consolidates the rest into multi-level trees
+
+        heap.decreaseKey(nodes.get(7), 3);
+        assertEquals(3, heap.peekMin());
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(nodes.get(7), 4));
+
+        heap.delete(nodes.get(5));
+        heap.delete(nodes.get(7));
+        assertEquals(7, heap.size());
+
+        FibonacciHeap<Integer> other = new FibonacciHeap<>();
+        other.insert(0);
+        other.insert(30);
+        heap.merge(other);
+        assertTrue(other.isEmpty());
+        assertEquals(9, heap.size());
+
+        int[] expected = { 0, 11, 12, 13, 14, 16, 18, 19, 30 };
+        for (int value : expected) {
+            assertEquals(value, heap.extractMin());
+        }
+    }
+
+    @Test
+    void testMatchesTreeSet() {
+        Random random = new Random(13);
+        TreeSet<Integer> expected = new TreeSet<>();
+        List<FibonacciHeap.Node<Integer>> live = new ArrayList<>();
+
+        for (int step = 0; step < 20000; step++) {
+            int op = random.nextInt(4);
+            // Every value ends in a unique counter, so no two are ever equal
+            int value = random.nextInt(1000) * 100000 + step;
+            if (op == 0 || live.isEmpty()) {
+                live.add(heap.insert(value));
+                expected.add(value);
+            } else if (op == 1) {
+                FibonacciHeap.Node<Integer> node = live.get(random.nextInt(live.size()));
+                int lower = node.getValue() - random.nextInt(500) * 100000 - 20000;
+                expected.remove(node.getValue());
+                heap.decreaseKey(node, lower);
+                expected.add(lower);
+            } else if (op == 2) {
+                FibonacciHeap.Node<Integer> node = live.remove(random.nextInt(live.size()));
+                expected.remove(node.getValue());
+                heap.delete(node);
+            } else {
+                int min = expected.pollFirst();
+                assertEquals(min, heap.extractMin());
+                live.removeIf(node -> node.getValue() == min);
+            }
+            assertEquals(expected.size(), heap.size());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.nickslibrary.heaps;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.IndexedLongMinHeap;
+import com.nickslibrary.datastructures.heaps.IndexedMinHeap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedMinHeapTest {
+    private IndexedMinHeap heap;
+
+    @BeforeEach
+    void setUp() {
+        heap = new IndexedMinHeap();
+    }
+
+    @Test
+    void testInsertAndExtractInOrder() {
+        heap.insert(3, 3.5);
+        heap.insert(1, 1.5);
+        heap.insert(40, 0.5); // Beyond the initial capacity
+        heap.insert(2, 2.5);
+
+        assertEquals(4, heap.size());
+        assertEquals(40, heap.peekMin());
+        assertEquals(0.5, heap.peekMinPriority());
+        assertEquals(40, heap.extractMin());
+        assertEquals(1, heap.extractMin());
+        assertEquals(2, heap.extractMin());
+        assertEquals(3, heap.extractMin());
+        assertTrue(heap.isEmpty());
+        assertThrows(IllegalStateException.class, () -> heap.extractMin());
+    }
+
+    @Test
+    void testDecreaseKeyAndRemove() {
+        for (int i = 0; i < 10; i++) {
+            heap.insert(i, 10 + i);
+        }
+
+        heap.decreaseKey(7, 1.0);
+        assertEquals(7, heap.peekMin());
+        assertEquals(1.0, heap.getPriority(7));
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(7, 2.0));
+
+        heap.remove(7);
+        assertFalse(heap.contains(7));
+        assertEquals(0, heap.peekMin());
+        assertThrows(IllegalArgumentException.class, () -> heap.remove(7));
+        assertThrows(IllegalArgumentException.class, () -> heap.insert(3, 0.0));
+
+        heap.changePriority(0, 100.0);
+        assertEquals(1, heap.peekMin());
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(1));
+        heap.insert(1, 5.0); // Handles can be reused after clearing
+        assertEquals(1, heap.extractMin());
+    }
+
+    @Test
+    void testMatchesTreeSetForEveryArity() {
+        for (int arity : new int[] { 2, 3, 4, 8 }) {
+            IndexedMinHeap doubles = new IndexedMinHeap(0, arity);
+            IndexedLongMinHeap longs = new IndexedLongMinHeap(0, arity);
+            TreeSet<Long> expected = new TreeSet<>();
+            long[] priority = new long[500];
+            Random random = new Random(arity);
+
+            for (int step = 0; step < 20000; step++) {
+                int handle = random.nextInt(priority.length);
+                // Every priority ends in its handle, so no two are ever equal
+                long next = random.nextInt(1000) * 1000L + handle;
+                assertEquals(doubles.contains(handle), longs.contains(handle));
+                int op = random.nextInt(5);
+                if (!doubles.contains(handle)) {
+                    priority[handle] = next;
+                    doubles.insert(handle, next);
+                    longs.insert(handle, next);
+                    expected.add(next);
+                } else if (op == 0) {
+                    expected.remove(priority[handle]);
+                    doubles.remove(handle);
+                    longs.remove(handle);
+                } else if (op == 1) {
+                    expected.remove(priority[handle]);
+                    priority[handle] = next;
+                    doubles.changePriority(handle, next);
+                    longs.changePriority(handle, next);
+                    expected.add(next);
+                } else if (op == 2 && next < priority[handle]) {
+                    expected.remove(priority[handle]);
+                    priority[handle] = next;
+                    doubles.decreaseKey(handle, next);
+                    longs.decreaseKey(handle, next);
+                    expected.add(next);
+                } else if (!expected.isEmpty()) {
+                    long min = expected.pollFirst();
+                    assertEquals(min, (long) doubles.peekMinPriority(), "arity " + arity);
+                    assertEquals(min, longs.peekMinPriority(), "arity " + arity);
+                    assertEquals(min % 1000, doubles.extractMin());
+                    assertEquals(min % 1000, longs.extractMin());
+                }
+                assertEquals(expected.size(), doubles.size());
+                assertEquals(expected.size(), longs.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.nickslibrary.heaps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.LeftistHeap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeftistHeapTest {
+    private LeftistHeap<Integer> heap;
+
+    @BeforeEach
+    void setUp() {
+        heap = new LeftistHeap<>();
+    }
+
+    @Test
+    void testInsertAndExtractInOrder() {
+        heap.insert(5);
+        heap.insert(1);
+        heap.insert(4);
+        heap.insert(1);
+
+        assertEquals(4, heap.size());
+        assertEquals(1, heap.peekMin());
+        assertEquals(1, heap.extractMin());
+        assertEquals(1, heap.extractMin());
+        assertEquals(4, heap.extractMin());
+        assertEquals(5, heap.extractMin());
+        assertTrue(heap.isEmpty());
+        assertThrows(IllegalStateException.class, () -> heap.extractMin());
+    }
+
+    @Test
+    void testMergeMatchesPriorityQueue() {
+        Random random = new Random(21);
+        PriorityQueue<Integer> expected = new PriorityQueue<>();
+        for (int round = 0; round < 200; round++) {
+            LeftistHeap<Integer> other = new LeftistHeap<>();
+            int count = random.nextInt(50);
+            for (int i = 0; i < count; i++) {
+                int value = random.nextInt(1000);
+                other.insert(value);
+                expected.add(value);
+            }
+            heap.merge(other);
+            assertTrue(other.isEmpty());
+            for (int i = random.nextInt(30); i > 0 && !expected.isEmpty(); i--) {
+                assertEquals(expected.poll(), heap.extractMin());
+            }
+            assertEquals(expected.size(), heap.size());
+        }
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll(), heap.extractMin());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void testBuildAndMergeAllPartitions() {
+        Random random = new Random(22);
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            values.add(random.nextInt());
+        }
+
+        // Build shards in parallel from slices, then meld them
+        List<LeftistHeap<Integer>> shards = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += 30000) {
+            List<Integer> slice = values.subList(from, Math.min(from + 30000, values.size()));
+            shards.add(from == 0 ? LeftistHeap.build(slice) : LeftistHeap.parallelBuild(slice));
+        }
+        shards.add(new LeftistHeap<>());
+        LeftistHeap<Integer> merged = LeftistHeap.mergeAll(shards);
+        assertEquals(values.size(), merged.size());
+        for (LeftistHeap<Integer> shard : shards) {
+            assertTrue(shard.isEmpty());
+        }
+
+        values.sort(null);
+        for (int value : values) {
+            assertEquals(value, merged.extractMin());
+        }
+        assertTrue(merged.isEmpty());
+        assertTrue(LeftistHeap.<Integer>build(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,29 @@
+package com.nickslibrary.heaps;
+
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.MaxHeap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MaxHeapTest {
+
+    @Test
+    void testInsertAllBeyondDoubleCapacityAndMerge() {
+        MaxHeap<Integer> heap = new MaxHeap<>(10);
+        MaxHeap<Integer> other = new MaxHeap<>(10);
+        Integer[] values = new Integer[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+            other.insert(1000 + i);
+        }
+        heap.insertAll(values); // Needs more than one doubling
+        heap.merge(other);
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(1000 + i, heap.extractMax());
+        }
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(i, heap.extractMax());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.nickslibrary.heaps;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.MinHeap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHeapTest {
+
+    @Test
+    void testInsertAllAndMergeKeepOrder() {
+        Random random = new Random(4);
+        // Batches smaller and larger than the heap they are added to
+        for (int batch : new int[] { 1, 5, 5000 }) {
+            MinHeap<Integer> heap = new MinHeap<>(4);
+            MinHeap<Integer> other = new MinHeap<>(4);
+            Integer[] all = new Integer[1000 + 2 * batch];
+            for (int i = 0; i < 1000; i++) {
+                all[i] = random.nextInt();
+                heap.insert(all[i]);
+            }
+            Integer[] values = new Integer[batch];
+            for (int i = 0; i < batch; i++) {
+                values[i] = random.nextInt();
+                all[1000 + i] = values[i];
+                all[1000 + batch + i] = random.nextInt();
+                other.insert(all[1000 + batch + i]);
+            }
+            heap.insertAll(values);
+            heap.merge(other);
+            assertEquals(batch, other.size()); // The other heap is only copied
+
+            Arrays.sort(all);
+            for (int value : all) {
+                assertEquals(value, heap.extractMin());
+            }
+            assertTrue(heap.isEmpty());
+        }
+    }
+}
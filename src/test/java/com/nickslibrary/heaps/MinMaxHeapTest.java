@@ -0,0 +1,99 @@
+package com.nickslibrary.heaps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.MinMaxHeap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinMaxHeapTest {
+    private MinMaxHeap<Integer> heap;
+
+    @BeforeEach
+    void setUp() {
+        heap = new MinMaxHeap<>(4);
+    }
+
+    @Test
+    void testBothEnds() {
+        assertThrows(IllegalStateException.class, () -> heap.peekMin());
+        assertThrows(IllegalStateException.class, () -> heap.extractMax());
+
+        heap.insert(5);
+        assertEquals(5, heap.peekMin());
+        assertEquals(5, heap.peekMax());
+
+        for (int value : new int[] { 3, 9, 1, 7, 9, 4 }) {
+            heap.insert(value);
+        }
+        assertEquals(7, heap.size());
+        assertEquals(1, heap.peekMin());
+        assertEquals(9, heap.peekMax());
+        assertEquals(9, heap.extractMax());
+        assertEquals(9, heap.extractMax());
+        assertEquals(1, heap.extractMin());
+        assertEquals(7, heap.extractMax());
+        assertEquals(3, heap.extractMin());
+        assertEquals(5, heap.extractMax());
+        assertEquals(4, heap.extractMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void testBuildFromCollection() {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add((i * 7919) % 1000);
+        }
+        heap = new MinMaxHeap<>(values);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, heap.extractMin());
+            assertEquals(999 - i, heap.extractMax());
+        }
+        assertTrue(heap.isEmpty());
+        assertTrue(new MinMaxHeap<Integer>(List.of()).isEmpty());
+    }
+
+    @Test
+    void testBoundedBufferEviction() {
+        // Keep the 10 largest values seen, evicting the smallest
+        for (int i = 0; i < 100; i++) {
+            heap.insert(i % 37);
+            if (heap.size() > 10) {
+                heap.extractMin();
+            }
+        }
+        assertEquals(36, heap.peekMax());
+        assertEquals(32, heap.peekMin()); // 36 down to 32, each seen twice
+    }
+
+    @Test
+    void testRandomAgainstTreeMap() {
+        Random random = new Random(42);
+        TreeMap<Integer, Integer> counts = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int choice = random.nextInt(5);
+            if (choice < 3 || counts.isEmpty()) {
+                int value = random.nextInt(500);
+                heap.insert(value);
+                counts.merge(value, 1, Integer::sum);
+            } else {
+                int expected = choice == 3 ? counts.firstKey() : counts.lastKey();
+                assertEquals(expected, choice == 3 ? heap.extractMin() : heap.extractMax());
+                counts.computeIfPresent(expected, (key, count) -> count == 1 ? null : count - 1);
+            }
+            if (!counts.isEmpty()) {
+                assertEquals(counts.firstKey(), heap.peekMin());
+                assertEquals(counts.lastKey(), heap.peekMax());
+            }
+        }
+        heap.clear();
+        assertEquals(0, heap.size());
+    }
+}
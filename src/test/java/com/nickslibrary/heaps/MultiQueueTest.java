@@ -0,0 +1,91 @@
+package com.nickslibrary.heaps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.MultiQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiQueueTest {
+    private MultiQueue<Integer> queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new MultiQueue<>(4);
+    }
+
+    @Test
+    void testExtractsEverythingInRoughOrder() {
+        int count = 10000;
+        for (int i = count - 1; i >= 0; i--) {
+            queue.insert(i);
+        }
+        assertEquals(count, queue.size());
+
+        boolean[] seen = new boolean[count];
+        long totalRank = 0;
+        for (int i = 0; i < count; i++) {
+            int value = queue.extractMin();
+            assertFalse(seen[value]);
+            seen[value] = true;
+            // How far this value left from its place in sorted order
+            totalRank += Math.abs(value - i);
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.extractMin());
+
+        // Eight heaps with two choices keep the average rank error small
+        assertTrue(totalRank / count < 64, "average rank error " + totalRank / count);
+    }
+
+    @Test
+    void testRejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new MultiQueue<Integer>(0));
+        assertThrows(IllegalArgumentException.class, () -> new MultiQueue<Integer>(2, 0));
+        assertThrows(IllegalArgumentException.class, () -> queue.insert(null));
+    }
+
+    @Test
+    void testConcurrentInsertAndExtract() throws Exception {
+        int threads = 8;
+        int perThread = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ConcurrentLinkedQueue<Integer> extracted = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    queue.insert(i * threads + offset);
+                }
+                for (int i = 0; i < perThread; i++) {
+                    Integer value = queue.extractMin();
+                    assertNotNull(value);
+                    extracted.add(value);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+        boolean[] seen = new boolean[threads * perThread];
+        for (int value : extracted) {
+            assertFalse(seen[value], "extracted twice: " + value);
+            seen[value] = true;
+        }
+        assertEquals(threads * perThread, extracted.size());
+    }
+}
@@ -0,0 +1,115 @@
+package com.nickslibrary.heaps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.RadixHeap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RadixHeapTest {
+    private RadixHeap<String> heap;
+
+    @BeforeEach
+    void setUp() {
+        heap = new RadixHeap<>();
+    }
+
+    @Test
+    void testInsertAndExtractInOrder() {
+        heap.insert(50, "e");
+        heap.insert(10, "a");
+        heap.insert(40, "d");
+        heap.insert(10, "b");
+
+        assertEquals(4, heap.size());
+        assertEquals(10, heap.peekMinKey());
+        String first = heap.extractMin();
+        String second = heap.extractMin();
+        assertTrue(first.equals("a") && second.equals("b") || first.equals("b") && second.equals("a"));
+        assertEquals("d", heap.extractMin());
+        assertEquals("e", heap.extractMin());
+        assertTrue(heap.isEmpty());
+        assertThrows(IllegalStateException.class, () -> heap.extractMin());
+    }
+
+    @Test
+    void testMonotoneKeys() {
+        RadixHeap.Node<String> node = heap.insert(100, "x");
+        heap.insert(20, "y");
+        assertEquals("y", heap.extractMin());
+
+        assertThrows(IllegalArgumentException.class, () -> heap.insert(19, "z"));
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(node, 10));
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(node, 101));
+        heap.decreaseKey(node, 20); // Equal to the last key is allowed
+        assertEquals(20, heap.peekMinKey());
+
+        heap.clear();
+        heap.insert(0, "w"); // Any key is accepted again after clearing
+        assertEquals("w", heap.extractMin());
+    }
+
+    @Test
+    void testMergeAndDelete() {
+        RadixHeap<String> other = new RadixHeap<>();
+        other.insert(3, "c");
+        other.insert(8, "h");
+        heap.insert(5, "e");
+        RadixHeap.Node<String> doomed = heap.insert(6, "f");
+        heap.insert(9, "i");
+        heap.extractMin(); // The last key is now 5
+
+        heap.merge(other); // Lowers it to the other heap's last key, 0
+        assertTrue(other.isEmpty());
+        heap.delete(doomed);
+        assertEquals(3, heap.size());
+        assertEquals("c", heap.extractMin());
+        assertEquals("h", heap.extractMin());
+        assertEquals("i", heap.extractMin());
+    }
+
+    @Test
+    void testMatchesTreeSetAsDijkstraWould() {
+        Random random = new Random(11);
+        RadixHeap<Integer> radix = new RadixHeap<>();
+        TreeSet<Long> expected = new TreeSet<>();
+        List<RadixHeap.Node<Integer>> live = new ArrayList<>();
+        long last = 0;
+
+        for (int step = 0; step < 20000; step++) {
+            int op = random.nextInt(4);
+            // Keys end in a unique counter, so no two are ever equal
+            long key = (last / 100000 + 1 + random.nextInt(1 << random.nextInt(20))) * 100000 + step;
+            if (op == 0 || live.isEmpty()) {
+                live.add(radix.insert(key, step));
+                expected.add(key);
+            } else if (op == 1) {
+                RadixHeap.Node<Integer> node = live.get(random.nextInt(live.size()));
+                long lower = Math.max(last + 1, node.getKey() - random.nextInt(1000) * 100000L);
+                lower = lower / 100000 * 100000 + step; // Keep it unique
+                if (lower < node.getKey() && lower > last) {
+                    expected.remove(node.getKey());
+                    radix.decreaseKey(node, lower);
+                    expected.add(lower);
+                }
+            } else if (op == 2) {
+                RadixHeap.Node<Integer> node = live.remove(random.nextInt(live.size()));
+                expected.remove(node.getKey());
+                radix.delete(node);
+            } else {
+                last = expected.pollFirst();
+                assertEquals(last, radix.peekMinKey());
+                radix.extractMin();
+                long settled = last;
+                live.removeIf(node -> node.getKey() == settled);
+            }
+            assertEquals(expected.size(), radix.size());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.nickslibrary.heaps;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.Selection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelectionTest {
+
+    @Test
+    void testNthElementMatchesSort() {
+        Random random = new Random(9);
+        for (int length : new int[] { 1, 2, 17, 100, 10000 }) {
+            for (int trial = 0; trial < 20; trial++) {
+                int[] ints = new int[length];
+                long[] longs = new long[length];
+                double[] doubles = new double[length];
+                int bound = trial % 2 == 0 ? 10 : Integer.MAX_VALUE; // Heavy duplicates or none
+                for (int i = 0; i < length; i++) {
+                    ints[i] = random.nextInt(bound);
+                    longs[i] = random.nextLong() % bound;
+                    doubles[i] = random.nextInt(bound) * 0.5;
+                }
+                int n = random.nextInt(length);
+
+                int[] sortedInts = ints.clone();
+                Arrays.sort(sortedInts);
+                assertEquals(sortedInts[n], Selection.nthElement(ints, n));
+                assertPartitioned(ints, n);
+
+                long[] sortedLongs = longs.clone();
+                Arrays.sort(sortedLongs);
+                assertEquals(sortedLongs[n], Selection.nthElement(longs, n));
+
+                double[] sortedDoubles = doubles.clone();
+                Arrays.sort(sortedDoubles);
+                assertEquals(sortedDoubles[n], Selection.nthElement(doubles, n));
+                int[] sortedAfter = ints.clone();
+                Arrays.sort(sortedAfter);
+                assertArrayEquals(sortedInts, sortedAfter); // Only rearranged
+            }
+        }
+    }
+
+    @Test
+    void testSortedAndRangeInputs() {
+        int[] ascending = new int[5000];
+        for (int i = 0; i < ascending.length; i++) {
+            ascending[i] = i;
+        }
+        int[] descending = new int[ascending.length];
+        for (int i = 0; i < descending.length; i++) {
+            descending[i] = descending.length - 1 - i;
+        }
+        assertEquals(1234, Selection.nthElement(ascending, 1234));
+        assertEquals(4321, Selection.nthElement(descending, 4321));
+
+        double[] values = { 9, 8, 7, 6, 5, 4, 3, 2, 1, 0 };
+        assertEquals(4.0, Selection.nthElement(values, 2, 8, 4)); // Sorting [2, 8) would put 2..7 there
+        assertEquals(9.0, values[0]);
+        assertEquals(0.0, values[9]);
+
+        assertThrows(IllegalArgumentException.class, () -> Selection.nthElement(new int[3], 3));
+        assertThrows(IllegalArgumentException.class, () -> Selection.nthElement(new long[0], 0));
+    }
+
+    private static void assertPartitioned(int[] a, int n) {
+        for (int i = 0; i < n; i++) {
+            assertTrue(a[i] <= a[n]);
+        }
+        for (int i = n + 1; i < a.length; i++) {
+            assertTrue(a[i] >= a[n]);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.nickslibrary.heaps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.SkipListPriorityQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SkipListPriorityQueueTest {
+    private SkipListPriorityQueue<Integer> queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new SkipListPriorityQueue<>();
+    }
+
+    @Test
+    void testExtractsInOrderWithDuplicates() {
+        Random random = new Random(3);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(100); // Plenty of duplicates
+            queue.insert(value);
+            expected.add(value);
+        }
+        expected.sort(null);
+
+        assertEquals(1000, queue.size());
+        assertEquals(expected.get(0), queue.peekMin());
+        for (int value : expected) {
+            assertEquals(value, queue.extractMin());
+        }
+        assertTrue(queue.isEmpty());
+        assertNull(queue.extractMin());
+        assertNull(queue.peekMin());
+        assertThrows(IllegalArgumentException.class, () -> queue.insert(null));
+    }
+
+    @Test
+    void testConcurrentInsertAndExtract() throws Exception {
+        int threads = 8;
+        int perThread = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ConcurrentLinkedQueue<Integer> extracted = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Each thread inserts its own values and extracts as many as it inserted
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    queue.insert(i * threads + offset);
+                }
+                for (int i = 0; i < perThread; i++) {
+                    Integer value = queue.extractMin();
+                    assertNotNull(value);
+                    extracted.add(value);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertTrue(queue.isEmpty());
+        boolean[] seen = new boolean[threads * perThread];
+        for (int value : extracted) {
+            assertFalse(seen[value], "extracted twice: " + value);
+            seen[value] = true;
+        }
+        assertEquals(threads * perThread, extracted.size());
+    }
+}
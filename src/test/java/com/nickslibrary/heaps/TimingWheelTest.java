@@ -0,0 +1,131 @@
+package com.nickslibrary.heaps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.TimingWheel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+    private TimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel<>();
+    }
+
+    @Test
+    void testFiresInDeadlineOrder() {
+        wheel.schedule(5000, "c");
+        wheel.schedule(3, "a");
+        wheel.schedule(70, "b");
+        wheel.schedule(1L << 30, "d"); // Beyond the wheel, in the overflow heap
+        assertEquals(4, wheel.size());
+
+        List<String> fired = new ArrayList<>();
+        assertEquals(0, wheel.advanceTo(2, fired::add));
+        assertEquals(2, wheel.advanceTo(100, fired::add));
+        assertEquals(List.of("a", "b"), fired);
+        assertEquals(100, wheel.currentTime());
+
+        assertEquals(2, wheel.advanceTo(1L << 30, fired::add));
+        assertEquals(List.of("a", "b", "c", "d"), fired);
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testCancel() {
+        TimingWheel.Timer<String> near = wheel.schedule(10, "near");
+        TimingWheel.Timer<String> far = wheel.schedule(1L << 40, "far");
+        wheel.schedule(20, "kept");
+
+        assertTrue(wheel.cancel(near));
+        assertTrue(wheel.cancel(far));
+        assertFalse(wheel.cancel(near));
+        assertFalse(near.isPending());
+        assertEquals(1, wheel.size());
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(1L << 41, fired::add);
+        assertEquals(List.of("kept"), fired);
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testPastDeadlinesAndTimeMovingBack() {
+        wheel.advanceTo(500, value -> fail());
+        TimingWheel.Timer<String> late = wheel.schedule(100, "late");
+        assertEquals(100, late.getDeadline());
+
+        List<String> fired = new ArrayList<>();
+        assertEquals(1, wheel.advanceTo(500, fired::add));
+        assertEquals(List.of("late"), fired);
+        assertThrows(IllegalArgumentException.class, () -> wheel.advanceTo(499, value -> {
+        }));
+    }
+
+    @Test
+    void testActionCanSchedule() {
+        wheel.schedule(10, "first");
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(1000, value -> {
+            fired.add(value);
+            if (value.equals("first")) {
+                wheel.schedule(10, "same tick");
+                wheel.schedule(200, "later");
+            }
+        });
+        assertEquals(List.of("first", "same tick", "later"), fired);
+    }
+
+    @Test
+    void testRandomAgainstTreeMap() {
+        Random random = new Random(42);
+        wheel = new TimingWheel<>(1L << 23); // Start near a top-level boundary
+        TreeMap<Long, List<String>> expected = new TreeMap<>();
+        List<TimingWheel.Timer<String>> timers = new ArrayList<>();
+
+        for (int round = 0; round < 2000; round++) {
+            for (int i = 0; i < 20; i++) {
+                long offset = random.nextInt(4) == 0 ? random.nextInt(1 << 26) : random.nextInt(5000);
+                long deadline = wheel.currentTime() + offset;
+                TimingWheel.Timer<String> timer = wheel.schedule(deadline, round + ":" + i);
+                timers.add(timer);
+                expected.computeIfAbsent(deadline, key -> new ArrayList<>()).add(timer.getValue());
+            }
+            for (int i = 0; i < 5; i++) {
+                TimingWheel.Timer<String> timer = timers.get(random.nextInt(timers.size()));
+                if (timer.isPending()) {
+                    expected.get(timer.getDeadline()).remove(timer.getValue());
+                }
+                assertEquals(timer.isPending(), wheel.cancel(timer));
+            }
+
+            long time = wheel.currentTime() + random.nextInt(3000);
+            List<Long> firedAt = new ArrayList<>();
+            List<String> fired = new ArrayList<>();
+            wheel.advanceTo(time, value -> {
+                firedAt.add(wheel.currentTime());
+                fired.add(value);
+            });
+            List<String> due = new ArrayList<>();
+            for (List<String> values : expected.headMap(time, true).values()) {
+                due.addAll(values);
+            }
+            expected.headMap(time, true).clear();
+            // Timers on the same tick fire in no particular order
+            assertEquals(due.size(), fired.size());
+            assertTrue(fired.containsAll(due));
+            for (int i = 1; i < firedAt.size(); i++) {
+                assertTrue(firedAt.get(i - 1) <= firedAt.get(i));
+            }
+        }
+        assertEquals(expected.values().stream().mapToInt(List::size).sum(), wheel.size());
+    }
+}
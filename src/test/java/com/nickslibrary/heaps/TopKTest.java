@@ -0,0 +1,95 @@
+package com.nickslibrary.heaps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.heaps.DoubleTopK;
+import com.nickslibrary.datastructures.heaps.LongTopK;
+import com.nickslibrary.datastructures.heaps.TopK;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopKTest {
+
+    @Test
+    void testKeepsLargestElements() {
+        TopK<Integer> topK = new TopK<>(3);
+        assertThrows(IllegalStateException.class, () -> topK.peekMin());
+        assertEquals(4, topK.offerAll(List.of(5, 1, 9, 7)));
+        assertTrue(topK.isFull());
+        assertEquals(5, topK.peekMin());
+
+        assertFalse(topK.offer(5)); // Ties with the smallest kept are rejected
+        assertFalse(topK.offer(2));
+        assertTrue(topK.offer(8));
+        assertEquals(List.of(9, 8, 7), topK.toSortedList());
+        assertEquals(3, topK.size());
+        assertEquals(3, topK.capacity());
+
+        topK.clear();
+        assertTrue(topK.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(0));
+    }
+
+    @Test
+    void testPrimitiveCollectorsMatchSort() {
+        Random random = new Random(5);
+        double[] doubles = new double[50000];
+        long[] longs = new long[doubles.length];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = random.nextGaussian();
+            longs[i] = random.nextInt(1000); // Many ties
+        }
+
+        for (int k : new int[] { 1, 10, 1000 }) {
+            DoubleTopK doubleTopK = new DoubleTopK(k);
+            // Offer in two chunks to exercise the id offset
+            doubleTopK.offerAll(Arrays.copyOfRange(doubles, 0, 20000));
+            doubleTopK.offerAll(Arrays.copyOfRange(doubles, 20000, doubles.length), 20000);
+
+            Integer[] byScore = indicesByDescendingScore(doubles.length, i -> doubles[i]);
+            int[] ids = doubleTopK.toSortedIds();
+            double[] scores = doubleTopK.toSortedScores();
+            assertEquals(k, ids.length);
+            for (int i = 0; i < k; i++) {
+                assertEquals(byScore[i], ids[i]);
+                assertEquals(doubles[byScore[i]], scores[i]);
+            }
+
+            LongTopK longTopK = new LongTopK(k);
+            longTopK.offerAll(longs);
+            long[] sortedLongs = longs.clone();
+            Arrays.sort(sortedLongs);
+            long[] kept = longTopK.toSortedScores();
+            int[] keptIds = longTopK.toSortedIds();
+            for (int i = 0; i < k; i++) {
+                assertEquals(sortedLongs[sortedLongs.length - 1 - i], kept[i]);
+                assertEquals(kept[i], longs[keptIds[i]]);
+            }
+            assertEquals(kept[k - 1], longTopK.peekMinScore());
+        }
+    }
+
+    @Test
+    void testDoubleTopKIgnoresNaN() {
+        DoubleTopK topK = new DoubleTopK(2);
+        assertFalse(topK.offer(0, Double.NaN));
+        topK.offerAll(new double[] { 1.0, Double.NaN, 3.0, Double.NaN, 2.0 });
+        assertArrayEquals(new int[] { 2, 4 }, topK.toSortedIds());
+        assertArrayEquals(new double[] { 3.0, 2.0 }, topK.toSortedScores());
+    }
+
+    private static Integer[] indicesByDescendingScore(int n, java.util.function.IntToDoubleFunction score) {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            indices.add(i);
+        }
+        indices.sort(Comparator.comparingDouble((Integer i) -> score.applyAsDouble(i)).reversed());
+        return indices.toArray(new Integer[0]);
+    }
+}
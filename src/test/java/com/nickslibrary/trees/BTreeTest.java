@@ -0,0 +1,132 @@
+package com.nickslibrary.trees;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.trees.BTree;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BTreeTest {
+
+    private BTree<Integer, String> tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new BTree<>(4);
+    }
+
+    @Test
+    void testPutAndGet() {
+        for (int i = 0; i < 100; i++) {
+            tree.put(i, "v" + i);
+        }
+        assertEquals(100, tree.size());
+        assertTrue(tree.height() > 0);
+        assertEquals("v42", tree.get(42));
+        assertNull(tree.get(100));
+
+        tree.put(42, "replaced");
+        assertEquals("replaced", tree.get(42));
+        assertEquals(100, tree.size());
+        assertEquals(Integer.valueOf(0), tree.min());
+        assertEquals(Integer.valueOf(99), tree.max());
+    }
+
+    @Test
+    void testRemove() {
+        for (int i = 0; i < 50; i++) {
+            tree.put(i, "v" + i);
+        }
+        for (int i = 0; i < 50; i += 2) {
+            assertEquals("v" + i, tree.remove(i));
+        }
+        assertNull(tree.remove(0));
+        assertEquals(25, tree.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i % 2 == 1, tree.contains(i));
+        }
+
+        for (int i = 1; i < 50; i += 2) {
+            tree.remove(i);
+        }
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.height());
+    }
+
+    @Test
+    void testRange() {
+        for (int i = 0; i < 100; i += 2) {
+            tree.put(i, "v" + i);
+        }
+
+        List<Integer> keys = new ArrayList<>();
+        Iterator<Map.Entry<Integer, String>> it = tree.range(11, 21);
+        while (it.hasNext()) {
+            keys.add(it.next().getKey());
+        }
+        assertEquals(List.of(12, 14, 16, 18, 20), keys);
+
+        int count = 0;
+        it = tree.range(null, null);
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        assertEquals(50, count);
+    }
+
+    @Test
+    void testBulkLoad() {
+        List<Integer> keys = new ArrayList<>();
+        List<String> vals = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add(i);
+            vals.add("v" + i);
+        }
+        tree.bulkLoad(keys, vals);
+
+        assertEquals(1000, tree.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("v" + i, tree.get(i));
+        }
+        tree.put(1000, "v1000");
+        assertEquals("v500", tree.remove(500));
+        assertFalse(tree.contains(500));
+        assertTrue(tree.contains(1000));
+    }
+
+    @Test
+    void testRandomAgainstTreeMap() {
+        for (int order : new int[] { 4, 5, 16 }) {
+            BTree<Integer, String> tree = new BTree<>(order);
+            Random random = new Random(42);
+            TreeMap<Integer, String> expected = new TreeMap<>();
+
+            for (int i = 0; i < 20000; i++) {
+                int key = random.nextInt(2000);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), tree.remove(key));
+                } else {
+                    expected.put(key, "v" + i);
+                    tree.put(key, "v" + i);
+                }
+            }
+
+            assertEquals(expected.size(), tree.size());
+            Iterator<Map.Entry<Integer, String>> it = tree.range(null, null);
+            for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+                assertTrue(it.hasNext());
+                assertEquals(entry, it.next());
+            }
+            assertFalse(it.hasNext());
+        }
+    }
+}
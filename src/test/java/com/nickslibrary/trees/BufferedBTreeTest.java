@@ -0,0 +1,108 @@
+package com.nickslibrary.trees;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.trees.BufferedBTree;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferedBTreeTest {
+
+    private BufferedBTree<Integer, String> tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new BufferedBTree<>(4, 8, 4);
+    }
+
+    @Test
+    void testPutAndGet() {
+        for (int i = 0; i < 1000; i++) {
+            tree.put(i, "v" + i);
+        }
+        assertTrue(tree.height() > 1);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("v" + i, tree.get(i));
+        }
+        assertNull(tree.get(1000));
+
+        tree.put(500, "replaced");
+        assertEquals("replaced", tree.get(500));
+        assertEquals(1000, tree.size());
+    }
+
+    @Test
+    void testRemove() {
+        for (int i = 0; i < 200; i++) {
+            tree.put(i, "v" + i);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            tree.remove(i);
+        }
+        tree.remove(1000);
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 1, tree.contains(i));
+        }
+        assertEquals(100, tree.size());
+    }
+
+    @Test
+    void testRandomAgainstTreeMap() {
+        Random random = new Random(11);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(5000);
+            int op = random.nextInt(4);
+            if (op == 0) {
+                expected.remove(key);
+                tree.remove(key);
+            } else if (op == 1) {
+                assertEquals(expected.get(key), tree.get(key));
+            } else {
+                expected.put(key, "v" + i);
+                tree.put(key, "v" + i);
+            }
+        }
+
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), tree.get(entry.getKey()));
+        }
+        assertEquals(expected.size(), tree.size());
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(expected.get(key), tree.get(key));
+        }
+    }
+
+    @Test
+    void testLargeBuffersAgainstTreeMap() {
+        // Buffers big enough to build up a tail and several runs between flushes
+        tree = new BufferedBTree<>(4, 1024, 16);
+        Random random = new Random(13);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(3000);
+            int op = random.nextInt(5);
+            if (op == 0) {
+                expected.remove(key);
+                tree.remove(key);
+            } else if (op == 1) {
+                assertEquals(expected.get(key), tree.get(key));
+            } else {
+                expected.put(key, "v" + i);
+                tree.put(key, "v" + i);
+            }
+        }
+        for (int key = 0; key < 3000; key++) {
+            assertEquals(expected.get(key), tree.get(key));
+        }
+        assertEquals(expected.size(), tree.size());
+    }
+}
@@ -0,0 +1,143 @@
+package com.nickslibrary.trees;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.trees.ConcurrentTrie;
+import com.nickslibrary.datastructures.trees.StandardTrie;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTrieTest {
+    private ConcurrentTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new ConcurrentTrie();
+    }
+
+    @Test
+    void testInsertSearchAndDelete() {
+        trie.insert("apple");
+        trie.insert("apple");
+        trie.insert("app");
+        trie.insert("banana");
+
+        assertTrue(trie.search("apple"));
+        assertTrue(trie.search("app"));
+        assertFalse(trie.search("appl"));
+        assertTrue(trie.startsWith("appl"));
+        assertFalse(trie.startsWith("c"));
+        assertEquals(2, trie.getFrequency("apple"));
+        assertEquals(3, trie.size());
+
+        assertTrue(trie.delete("apple"));
+        assertFalse(trie.delete("apple"), "Deleting a missing word should return false.");
+        assertFalse(trie.startsWith("appl"), "Nodes left without words should be pruned.");
+        assertTrue(trie.search("app"));
+        assertEquals(2, trie.size());
+
+        assertTrue(trie.setFrequency("app", 7));
+        assertTrue(trie.incrementFrequency("app"));
+        assertFalse(trie.setFrequency("apple", 1));
+        assertEquals(8, trie.getFrequency("app"));
+
+        trie.clear();
+        assertTrue(trie.isEmpty());
+        assertFalse(trie.search("app"));
+    }
+
+    @Test
+    void testSnapshotIsIndependent() {
+        trie.insert("cat");
+        trie.insert("car");
+        ConcurrentTrie snapshot = trie.snapshot();
+
+        trie.insert("cab");
+        trie.delete("cat");
+        snapshot.insert("cow");
+
+        assertEquals(List.of("cab", "car"), trie.getAllWords());
+        assertEquals(List.of("car", "cat", "cow"), snapshot.getAllWords());
+        assertEquals(List.of("car", "cat"), snapshot.getWordsWithPrefix("ca"));
+    }
+
+    @Test
+    void testFromStandardTrie() {
+        StandardTrie standard = new StandardTrie();
+        standard.insert("zeta");
+        standard.insert("alpha");
+        standard.insert("alpha");
+        standard.insert("alp");
+
+        ConcurrentTrie copy = standard.toConcurrent();
+        standard.insert("beta");
+
+        assertEquals(3, copy.size());
+        assertEquals(List.of("alp", "alpha", "zeta"), copy.getAllWords());
+        assertEquals(2, copy.getFrequency("alpha"));
+        assertFalse(copy.search("beta"));
+
+        List<String> visited = new ArrayList<>();
+        copy.forEachWord((word, frequency) -> visited.add(word + "=" + frequency));
+        assertEquals(List.of("alp=1", "alpha=2", "zeta=1"), visited);
+    }
+
+    @Test
+    void testConcurrentReadersAndWriters() throws Exception {
+        int writers = 4;
+        int perWriter = 2000;
+        for (int i = 0; i < 100; i++) {
+            trie.insert("fixed" + i);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            readers.add(pool.submit(() -> {
+                // Words that are never touched stay visible throughout
+                while (!done.get()) {
+                    for (int i = 0; i < 100; i++) {
+                        assertTrue(trie.search("fixed" + i));
+                    }
+                    assertTrue(trie.getWordsWithPrefix("fixed").size() >= 100);
+                }
+            }));
+        }
+
+        // Each writer inserts its own words, bumps a shared word, and removes half again
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            final int id = w;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    trie.insert("w" + id + "-" + i);
+                    trie.insert("shared");
+                }
+                for (int i = 0; i < perWriter; i += 2) {
+                    assertTrue(trie.delete("w" + id + "-" + i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        done.set(true);
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        pool.shutdown();
+
+        assertEquals(writers * perWriter, trie.getFrequency("shared"));
+        assertEquals(100 + 1 + writers * perWriter / 2, trie.size());
+        assertEquals(trie.size(), trie.getAllWords().size());
+    }
+}
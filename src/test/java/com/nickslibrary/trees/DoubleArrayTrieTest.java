@@ -0,0 +1,124 @@
+package com.nickslibrary.trees;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.trees.DoubleArrayTrie;
+import com.nickslibrary.datastructures.trees.StandardTrie;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DoubleArrayTrieTest {
+    private StandardTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new StandardTrie();
+    }
+
+    @Test
+    void testSearchAndStartsWith() {
+        trie.insert("apple");
+        trie.insert("app");
+        trie.insert("banana");
+        DoubleArrayTrie compiled = trie.compile();
+
+        assertTrue(compiled.search("apple"));
+        assertTrue(compiled.search("app"));
+        assertFalse(compiled.search("appl"), "A prefix alone is not a word.");
+        assertFalse(compiled.search("cherry"));
+        assertFalse(compiled.search(""));
+        assertTrue(compiled.startsWith("ban"));
+        assertFalse(compiled.startsWith("bx"));
+        assertFalse(compiled.startsWith("z"), "Characters outside the alphabet have no edges.");
+        assertEquals(3, compiled.size());
+    }
+
+    @Test
+    void testFrequencyIsCarriedOver() {
+        trie.insert("banana");
+        trie.insert("banana");
+        trie.insert("band");
+        trie.setFrequency("band", 0);
+        DoubleArrayTrie compiled = trie.compile();
+
+        assertEquals(2, compiled.getFrequency("banana"));
+        assertEquals(0, compiled.getFrequency("band"));
+        assertTrue(compiled.search("band"), "A word with frequency 0 is still a word.");
+        assertEquals(0, compiled.getFrequency("ban"));
+    }
+
+    @Test
+    void testGetWordsWithPrefixIsSorted() {
+        for (String word : new String[] { "tea", "ten", "to", "inn", "in", "tent", "A" }) {
+            trie.insert(word);
+        }
+        DoubleArrayTrie compiled = trie.compile();
+
+        assertEquals(List.of("tea", "ten", "tent"), compiled.getWordsWithPrefix("te"));
+        assertEquals(List.of("A", "in", "inn", "tea", "ten", "tent", "to"), compiled.getWordsWithPrefix(""));
+        assertTrue(compiled.getWordsWithPrefix("x").isEmpty());
+    }
+
+    @Test
+    void testEmptyTrie() {
+        DoubleArrayTrie compiled = trie.compile();
+        assertTrue(compiled.isEmpty());
+        assertFalse(compiled.search("a"));
+        assertTrue(compiled.getWordsWithPrefix("").isEmpty());
+    }
+
+    @Test
+    void testCompiledIsSnapshot() {
+        trie.insert("one");
+        DoubleArrayTrie compiled = trie.compile();
+        trie.insert("two");
+        trie.delete("one");
+
+        assertTrue(compiled.search("one"));
+        assertFalse(compiled.search("two"));
+    }
+
+    @Test
+    void testMatchesStandardTrie() {
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(random.nextBoolean() ? 4 : 26)));
+            }
+            words.add(sb.toString());
+            trie.insert(sb.toString());
+        }
+        trie.insert("été");
+        trie.insert("中文");
+        DoubleArrayTrie compiled = trie.compile();
+
+        assertEquals(trie.size(), compiled.size());
+        for (String word : words) {
+            assertTrue(compiled.search(word));
+            assertEquals(trie.getFrequency(word), compiled.getFrequency(word));
+        }
+        assertTrue(compiled.search("été"));
+        assertTrue(compiled.search("中文"));
+        for (int i = 0; i < 2000; i++) {
+            String probe = words.get(random.nextInt(words.size())) + (char) ('a' + random.nextInt(26));
+            assertEquals(trie.search(probe), compiled.search(probe), probe);
+            assertEquals(trie.startsWith(probe), compiled.startsWith(probe), probe);
+        }
+
+        List<String> expected = trie.getWordsWithPrefix("ab");
+        Collections.sort(expected);
+        assertEquals(expected, compiled.getWordsWithPrefix("ab"));
+
+        // The arrays should be close to one slot per node
+        assertTrue(compiled.capacity() < 2 * trie.nodeCount(), "capacity " + compiled.capacity());
+    }
+}
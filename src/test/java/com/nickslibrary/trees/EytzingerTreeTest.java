@@ -0,0 +1,69 @@
+package com.nickslibrary.trees;
+
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.trees.AVLTree;
+import com.nickslibrary.datastructures.trees.BinarySearchTree;
+import com.nickslibrary.datastructures.trees.EytzingerTree;
+import com.nickslibrary.datastructures.trees.RedBlackTree;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EytzingerTreeTest {
+
+    @Test
+    void testBuildFromExistingTrees() {
+        AVLTree<Integer> avl = new AVLTree<>();
+        BinarySearchTree<Integer> bst = new BinarySearchTree<>();
+        RedBlackTree<Integer> rbt = new RedBlackTree<>();
+        for (int value : new int[] { 50, 30, 70, 20, 40, 60, 80 }) {
+            avl.insert(value);
+            bst.insert(value);
+            rbt.insert(value);
+        }
+
+        for (List<Integer> sorted : List.of(avl.inOrderTraversal(), bst.inOrderTraversal(), rbt.inOrderTraversal())) {
+            EytzingerTree<Integer> tree = new EytzingerTree<>(sorted);
+            assertEquals(7, tree.size());
+            assertTrue(tree.contains(40));
+            assertFalse(tree.contains(45));
+            assertEquals(Integer.valueOf(50), tree.ceiling(45));
+            assertEquals(Integer.valueOf(20), tree.ceiling(1));
+            assertNull(tree.ceiling(81));
+        }
+    }
+
+    @Test
+    void testRejectsUnsortedInput() {
+        assertThrows(IllegalArgumentException.class, () -> new EytzingerTree<>(List.of(2, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new EytzingerTree.OfLong(new long[] { 1, 1 }));
+    }
+
+    @Test
+    void testOfLongAgainstTreeSet() {
+        Random random = new Random(3);
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add((long) random.nextInt(5000));
+        }
+        EytzingerTree.OfLong set = EytzingerTree.OfLong.from(List.copyOf(expected));
+
+        assertEquals(expected.size(), set.size());
+        for (long key = -1; key <= 5001; key++) {
+            assertEquals(expected.contains(key), set.contains(key));
+            Long ceiling = expected.ceiling(key);
+            assertEquals(ceiling == null ? Long.MIN_VALUE : ceiling, set.ceiling(key, Long.MIN_VALUE));
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        EytzingerTree<Integer> tree = new EytzingerTree<>(List.<Integer>of());
+        assertFalse(tree.contains(1));
+        assertNull(tree.ceiling(1));
+    }
+}
@@ -0,0 +1,153 @@
+package com.nickslibrary.trees;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nickslibrary.datastructures.trees.MappedTrie;
+import com.nickslibrary.datastructures.trees.RadixTrie;
+import com.nickslibrary.datastructures.trees.StandardTrie;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedTrieTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testStandardTrieLookups() throws IOException {
+        StandardTrie trie = new StandardTrie();
+        trie.insert("apple");
+        trie.insert("apple");
+        trie.insert("application");
+        trie.insert("banana");
+        trie.insert("été");
+        trie.insert("ban");
+        trie.setFrequency("ban", 0);
+
+        Path file = dir.resolve("standard.trie");
+        trie.writeTo(file);
+        MappedTrie mapped = MappedTrie.open(file);
+
+        assertEquals(5, mapped.size());
+        assertTrue(mapped.search("apple"));
+        assertTrue(mapped.search("ban"), "A word with frequency 0 is still a word.");
+        assertTrue(mapped.search("été"));
+        assertFalse(mapped.search("app"));
+        assertFalse(mapped.search("apples"));
+        assertEquals(2, mapped.getFrequency("apple"));
+        assertEquals(0, mapped.getFrequency("appl"));
+        assertTrue(mapped.startsWith("appl"), "Prefixes ending inside a collapsed chain should match.");
+        assertTrue(mapped.startsWith("ét"));
+        assertFalse(mapped.startsWith("c"));
+        assertEquals(List.of("apple", "application"), mapped.getWordsWithPrefix("appl"));
+        assertEquals(List.of("ban", "banana"), mapped.getWordsWithPrefix("ba"));
+        assertTrue(mapped.getWordsWithPrefix("x").isEmpty());
+        assertTrue(mapped.getWordsWithPrefix(null).isEmpty());
+    }
+
+    @Test
+    void testRadixTrieLookups() throws IOException {
+        RadixTrie trie = new RadixTrie();
+        trie.add("/api/users");
+        trie.add("/api/users/42");
+        trie.add("/api/orders");
+        trie.add("/api/orders");
+        trie.add("/中文");
+
+        Path file = dir.resolve("radix.trie");
+        trie.writeTo(file);
+        MappedTrie mapped = MappedTrie.open(file);
+
+        assertEquals(4, mapped.size());
+        assertTrue(mapped.search("/api/users"));
+        assertTrue(mapped.search("/api/users/42"));
+        assertTrue(mapped.search("/中文"));
+        assertFalse(mapped.search("/api"));
+        assertEquals(2, mapped.getFrequency("/api/orders"));
+        assertTrue(mapped.startsWith("/api/us"));
+        assertTrue(mapped.startsWith("/中"));
+        assertFalse(mapped.startsWith("/apx"));
+        assertEquals(List.of("/api/orders", "/api/users", "/api/users/42"), mapped.getWordsWithPrefix("/api"));
+    }
+
+    @Test
+    void testReadFromRestoresWordsAndFrequencies() throws IOException {
+        Random random = new Random(3);
+        StandardTrie standard = new StandardTrie();
+        RadixTrie radix = new RadixTrie();
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(6)));
+            }
+            words.add(sb.toString());
+            standard.insert(sb.toString());
+            radix.add(sb.toString());
+        }
+
+        Path standardFile = dir.resolve("words.trie");
+        Path radixFile = dir.resolve("words.radix");
+        standard.writeTo(standardFile);
+        radix.writeTo(radixFile);
+        StandardTrie standardCopy = StandardTrie.readFrom(standardFile);
+        RadixTrie radixCopy = RadixTrie.readFrom(radixFile);
+
+        assertEquals(standard.size(), standardCopy.size());
+        assertEquals(radix.wordCount(), radixCopy.wordCount());
+        for (String word : words) {
+            assertEquals(standard.getFrequency(word), standardCopy.getFrequency(word), word);
+            assertEquals(radix.getFrequency(word), radixCopy.getFrequency(word), word);
+        }
+        List<String> sorted = standard.getAllWordsSorted();
+        List<String> mapped = MappedTrie.open(standardFile).getWordsWithPrefix("");
+        assertEquals(sorted, mapped);
+        Collections.sort(mapped);
+        assertEquals(radix.getAllWords(), mapped);
+    }
+
+    @Test
+    void testEmptyTries() throws IOException {
+        Path standardFile = dir.resolve("empty.trie");
+        Path radixFile = dir.resolve("empty.radix");
+        new StandardTrie().writeTo(standardFile);
+        new RadixTrie().writeTo(radixFile);
+
+        for (Path file : List.of(standardFile, radixFile)) {
+            MappedTrie mapped = MappedTrie.open(file);
+            assertEquals(0, mapped.size());
+            assertFalse(mapped.search("a"));
+            assertFalse(mapped.startsWith("a"));
+            assertTrue(mapped.getWordsWithPrefix("").isEmpty());
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("not-a-trie");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+        assertThrows(IOException.class, () -> MappedTrie.open(file));
+    }
+
+    @Test
+    void testRejectsUnknownUnitSize() throws IOException {
+        StandardTrie trie = new StandardTrie();
+        trie.insert("apple");
+        Path file = dir.resolve("bad-unit.trie");
+        trie.writeTo(file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[11] = 3; // Low byte of the big-endian unit size in the header
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> MappedTrie.open(file));
+    }
+}
@@ -0,0 +1,88 @@
+package com.nickslibrary.trees;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nickslibrary.datastructures.trees.PagedBTree;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedBTreeTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPutGetAndRemove() throws IOException {
+        try (PagedBTree tree = PagedBTree.open(tempDir.resolve("index.db"), 128, 4)) {
+            for (long i = 0; i < 1000; i++) {
+                tree.put(i, i * 10);
+            }
+            assertEquals(1000, tree.size());
+            assertTrue(tree.height() > 1);
+            assertEquals(Long.valueOf(420), tree.get(42));
+            assertNull(tree.get(1000));
+
+            tree.put(42, -1);
+            assertEquals(Long.valueOf(-1), tree.get(42));
+            assertTrue(tree.remove(42));
+            assertFalse(tree.remove(42));
+            assertFalse(tree.contains(42));
+            assertEquals(999, tree.size());
+        }
+    }
+
+    @Test
+    void testRange() throws IOException {
+        try (PagedBTree tree = PagedBTree.open(tempDir.resolve("index.db"), 128, 4)) {
+            for (long i = 0; i < 500; i += 2) {
+                tree.put(i, i);
+            }
+            Iterator<Map.Entry<Long, Long>> it = tree.range(101, 121);
+            for (long expected = 102; expected < 121; expected += 2) {
+                assertTrue(it.hasNext());
+                assertEquals(Long.valueOf(expected), it.next().getKey());
+            }
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    void testReopenWithSmallBufferPool() throws IOException {
+        Path file = tempDir.resolve("index.db");
+        Random random = new Random(7);
+        TreeMap<Long, Long> expected = new TreeMap<>();
+
+        // A pool far smaller than the index forces constant eviction
+        try (PagedBTree tree = PagedBTree.open(file, 256, 3)) {
+            for (int i = 0; i < 20000; i++) {
+                long key = random.nextInt(10000);
+                if (random.nextInt(4) == 0) {
+                    assertEquals(expected.remove(key) != null, tree.remove(key));
+                } else {
+                    expected.put(key, (long) i);
+                    tree.put(key, i);
+                }
+            }
+        }
+
+        try (PagedBTree tree = PagedBTree.open(file, 256, 8)) {
+            assertEquals(expected.size(), tree.size());
+            Iterator<Map.Entry<Long, Long>> it = tree.range(Long.MIN_VALUE, Long.MAX_VALUE);
+            for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+                assertTrue(it.hasNext());
+                assertEquals(entry, it.next());
+            }
+            assertFalse(it.hasNext());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> PagedBTree.open(file, 512, 8));
+    }
+}
@@ -0,0 +1,139 @@
+package com.nickslibrary.trees;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nickslibrary.datastructures.trees.RadixTrie;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RadixTrieTest {
+    private RadixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new RadixTrie();
+    }
+
+    @Test
+    void testAddAndSearch() {
+        assertTrue(trie.add("/api/users"));
+        assertTrue(trie.add("/api/users/42"));
+        assertTrue(trie.add("/api"));
+        assertFalse(trie.add("/api"), "Adding an existing word should return false.");
+
+        assertTrue(trie.search("/api"));
+        assertTrue(trie.search("/api/users"));
+        assertTrue(trie.search("/api/users/42"));
+        assertFalse(trie.search("/api/user"));
+        assertFalse(trie.search("/api/users/4"));
+        assertFalse(trie.search(""));
+        assertEquals(3, trie.wordCount());
+        assertEquals(2, trie.getFrequency("/api"));
+    }
+
+    @Test
+    void testHasPrefix() {
+        trie.add("romane");
+        trie.add("romanus");
+        trie.add("rubens");
+
+        assertTrue(trie.hasPrefix("r"));
+        assertTrue(trie.hasPrefix("roman"));
+        assertTrue(trie.hasPrefix("romanu"));
+        assertTrue(trie.hasPrefix("rubens"));
+        assertFalse(trie.hasPrefix("rubensx"));
+        assertFalse(trie.hasPrefix("rx"));
+        assertFalse(trie.hasPrefix(""));
+    }
+
+    @Test
+    void testDeleteMergesNodes() {
+        trie.add("test");
+        trie.add("team");
+        trie.add("tea");
+
+        assertTrue(trie.delete("team"));
+        assertFalse(trie.delete("team"), "Deleting a missing word should return false.");
+        assertTrue(trie.search("tea"));
+        assertTrue(trie.search("test"));
+
+        assertTrue(trie.delete("tea"));
+        assertFalse(trie.hasPrefix("tea"));
+        assertTrue(trie.search("test"));
+        assertEquals(List.of("test"), trie.getAllWords());
+
+        assertTrue(trie.delete("test"));
+        assertEquals(0, trie.wordCount());
+        assertTrue(trie.getAllWords().isEmpty());
+    }
+
+    @Test
+    void testNodesGrowAndShrink() {
+        // 127 distinct first characters, more than 48, push the root through every node size
+        List<String> words = new ArrayList<>();
+        for (int c = 1; c < 128; c++) {
+            words.add("" + (char) c);
+            words.add((char) c + "x");
+        }
+        for (String word : words) {
+            trie.add(word);
+        }
+        for (String word : words) {
+            assertTrue(trie.search(word), word);
+        }
+
+        for (int i = 0; i < words.size(); i += 2) {
+            assertTrue(trie.delete(words.get(i)));
+        }
+        for (int i = 0; i < words.size(); i++) {
+            assertEquals(i % 2 == 1, trie.search(words.get(i)), words.get(i));
+        }
+        assertEquals(words.size() / 2, trie.wordCount());
+    }
+
+    @Test
+    void testUnicodeWordsAreSortedByCodePoint() {
+        trie.add("zebra");
+        trie.add("été");
+        trie.add("étoile");
+        trie.add("apple");
+        trie.add("中文");
+
+        assertTrue(trie.search("été"));
+        assertTrue(trie.hasPrefix("ét"));
+        assertFalse(trie.search("ét"));
+        assertEquals(List.of("apple", "zebra", "étoile", "été", "中文"), trie.getAllWords());
+    }
+
+    @Test
+    void testMatchesTreeMap() {
+        Random random = new Random(7);
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder("/");
+            int length = random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(random.nextBoolean() ? 3 : 26)));
+            }
+            String word = sb.toString();
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(word) != null, trie.delete(word), word);
+            } else {
+                assertEquals(!expected.containsKey(word), trie.add(word), word);
+                expected.merge(word, 1, Integer::sum);
+            }
+        }
+
+        assertEquals(expected.size(), trie.wordCount());
+        assertEquals(new ArrayList<>(expected.keySet()), trie.getAllWords());
+        for (String word : expected.keySet()) {
+            assertEquals(expected.get(word), trie.getFrequency(word), word);
+        }
+    }
+}
@@ -1,5 +1,15 @@
 package com.nickslibrary.trees;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -81,4 +91,256 @@ public class StandardTrieTest {
         trie.delete("banana");
         assertEquals(2, trie.size(), "Size should decrease after deleting a word.");
     }
+
+    @Test
+    void testFuzzySearch() {
+        for (String word : new String[] { "cat", "cart", "care", "cut", "dog", "scat", "at" }) {
+            trie.insert(word);
+        }
+
+        List<String> matches = trie.fuzzySearch("cat", 1);
+        Collections.sort(matches);
+        assertEquals(List.of("at", "cart", "cat", "cut", "scat"), matches);
+        assertEquals(List.of("cat"), trie.fuzzySearch("cat", 0));
+        assertTrue(trie.fuzzySearch("zzzzzz", 2).isEmpty());
+    }
+
+    @Test
+    void testFuzzySearchMatchesBruteForce() {
+        Random random = new Random(11);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(7);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(5)));
+            }
+            words.add(sb.toString());
+            trie.insert(sb.toString());
+        }
+
+        for (int q = 0; q < 50; q++) {
+            String query = words.get(random.nextInt(words.size())) + (q % 2 == 0 ? "x" : "");
+            int maxEdits = q % 3;
+            Set<String> expected = new TreeSet<>();
+            for (String word : words) {
+                if (levenshtein(word, query) <= maxEdits) {
+                    expected.add(word);
+                }
+            }
+            assertEquals(expected, new TreeSet<>(trie.fuzzySearch(query, maxEdits)), query);
+            assertEquals(expected.size(), trie.fuzzySearch(query, maxEdits).size(), "Matches should not repeat.");
+        }
+    }
+
+    @Test
+    void testFuzzySearchTopKByFrequency() {
+        trie.insert("hello");
+        for (int i = 0; i < 5; i++) {
+            trie.insert("help");
+        }
+        for (int i = 0; i < 3; i++) {
+            trie.insert("hell");
+        }
+        trie.insert("helo");
+        trie.insert("world");
+
+        assertEquals(List.of("help", "hell"), trie.fuzzySearch("helo", 2, 2));
+        // Equal frequencies are ranked by distance
+        assertEquals(List.of("help", "hell", "helo", "hello"), trie.fuzzySearch("helo", 2, 10));
+        assertTrue(trie.fuzzySearch("helo", 2, 0).isEmpty());
+    }
+
+    @Test
+    void testSuggestRanksByFrequency() {
+        for (int i = 0; i < 3; i++) {
+            trie.insert("cart");
+        }
+        trie.insert("car");
+        trie.insert("care");
+        trie.insert("cat");
+        trie.insert("dog");
+        trie.setFrequency("cat", 5);
+
+        assertEquals(List.of("cat", "cart"), trie.suggest("ca", 2));
+        // Equal frequencies are ranked alphabetically
+        assertEquals(List.of("cat", "cart", "car", "care"), trie.suggest("ca", 10));
+        assertEquals(List.of("cart", "car", "care"), trie.suggest("car", 5));
+        assertTrue(trie.suggest("x", 3).isEmpty());
+        assertTrue(trie.suggest("ca", 0).isEmpty());
+
+        // Cached suggestions follow later changes
+        trie.incrementFrequency("care");
+        trie.incrementFrequency("care");
+        trie.incrementFrequency("care");
+        assertEquals(List.of("cat", "care"), trie.suggest("ca", 2));
+        trie.delete("cat");
+        assertEquals(List.of("care", "cart"), trie.suggest("ca", 2));
+        trie.setFrequency("care", 1);
+        assertEquals(List.of("cart", "car"), trie.suggest("ca", 2));
+    }
+
+    @Test
+    void testSuggestMatchesBruteForce() {
+        StandardTrie cached = new StandardTrie(4);
+        Random random = new Random(11);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (int step = 0; step < 20000; step++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(3)));
+            }
+            String word = sb.toString();
+            switch (random.nextInt(5)) {
+                case 0:
+                    assertEquals(frequencies.remove(word) != null, cached.delete(word), word);
+                    break;
+                case 1:
+                    int frequency = random.nextInt(6);
+                    if (cached.setFrequency(word, frequency)) {
+                        frequencies.put(word, frequency);
+                    }
+                    break;
+                case 2:
+                    String prefix = word.substring(0, random.nextInt(word.length()));
+                    int limit = 1 + random.nextInt(6);
+                    List<String> expected = new ArrayList<>();
+                    for (String candidate : frequencies.keySet()) {
+                        if (candidate.startsWith(prefix)) {
+                            expected.add(candidate);
+                        }
+                    }
+                    expected.sort((x, y) -> frequencies.get(x).equals(frequencies.get(y)) ? x.compareTo(y)
+                            : Integer.compare(frequencies.get(y), frequencies.get(x)));
+                    assertEquals(expected.subList(0, Math.min(limit, expected.size())), cached.suggest(prefix, limit),
+                            prefix);
+                    break;
+                default:
+                    cached.insert(word);
+                    frequencies.merge(word, 1, Integer::sum);
+                    break;
+            }
+        }
+    }
+
+    @Test
+    void testWildcardSearch() {
+        for (String word : List.of("cat", "cart", "coat", "cot", "scat", "ca")) {
+            trie.insert(word);
+        }
+
+        assertEquals(Set.of("cat", "cot"), new TreeSet<>(trie.wildcardSearch("c?t")));
+        assertEquals(Set.of("cat", "cart", "coat", "cot"), new TreeSet<>(trie.wildcardSearch("c*t")));
+        assertEquals(List.of("scat"), trie.wildcardSearch("*s*"));
+        // A word reachable through several expansions of '*' is still reported once
+        List<String> all = trie.wildcardSearch("**a**");
+        assertEquals(5, all.size());
+        assertEquals(Set.of("cat", "cart", "coat", "scat", "ca"), new TreeSet<>(all));
+        assertTrue(trie.wildcardSearch("d*").isEmpty());
+    }
+
+    @Test
+    void testRegexSearchMatchesPattern() {
+        Random random = new Random(5);
+        List<String> words = new ArrayList<>(List.of("a.b", "a\\b", "x-y", "日本", "😀x", "under_score", "A1", "\n"));
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(7);
+            for (int j = 0; j < length; j++) {
+                sb.append("abcxyz019 _-".charAt(random.nextInt(12)));
+            }
+            words.add(sb.toString());
+        }
+        for (String word : words) {
+            trie.insert(word);
+        }
+
+        List<String> regexes = List.of("abc", "a.*", ".*z", "^[a-c]+$", "[^abc]+", "(ab|xy)*c?", "a{2}.{1,3}",
+                "a{2,}", "(?:a|b){0,2}x", "\\d+", "\\w\\s\\w", "\\D\\S*", "[a\\-z]{3}", "a\\.b", "a\\\\b",
+                "x-y|日本", ".x", "..x", "[^x]x", "\\u65e5.", "z*?a+?", "()a", "[]a]", "(a)\\1", "(?i)ABC",
+                "a(?=b).*", "\\p{Alpha}+", "a++b", "[a-c&&[^b]]+", "");
+        for (String regex : regexes) {
+            Pattern pattern = Pattern.compile(regex);
+            Set<String> expected = new TreeSet<>();
+            for (String word : words) {
+                if (pattern.matcher(word).matches()) {
+                    expected.add(word);
+                }
+            }
+            List<String> actual = trie.regexSearch(regex);
+            assertEquals(expected.size(), actual.size(), regex);
+            assertEquals(expected, new TreeSet<>(actual), regex);
+        }
+    }
+
+    @Test
+    void testSetOperationsMatchMaps() {
+        Random random = new Random(17);
+        StandardTrie other = new StandardTrie();
+        Map<String, Integer> mine = new HashMap<>();
+        Map<String, Integer> theirs = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(5)));
+            }
+            String word = sb.toString();
+            if (random.nextBoolean()) {
+                trie.insert(word);
+                mine.merge(word, 1, Integer::sum);
+            } else {
+                other.insert(word);
+                theirs.merge(word, 1, Integer::sum);
+            }
+        }
+        trie.suggest("a", 3); // Cached suggestions must not survive the merge
+
+        StandardTrie intersection = trie.intersectWith(other);
+        StandardTrie difference = trie.differenceWith(other);
+        StandardTrie copy = trie.clone();
+        trie.mergeWith(other);
+
+        Map<String, Integer> merged = new HashMap<>(mine);
+        theirs.forEach((word, frequency) -> merged.merge(word, frequency, Integer::sum));
+        assertEquals(merged.size(), trie.wordCount());
+        assertEquals(mine.size(), copy.wordCount());
+        for (String word : merged.keySet()) {
+            assertEquals(merged.get(word), trie.getFrequency(word), word);
+            assertEquals(mine.getOrDefault(word, 0), copy.getFrequency(word), word);
+            boolean inBoth = mine.containsKey(word) && theirs.containsKey(word);
+            assertEquals(inBoth ? Math.min(mine.get(word), theirs.get(word)) : 0, intersection.getFrequency(word), word);
+            assertEquals(mine.containsKey(word) && !inBoth ? mine.get(word) : 0, difference.getFrequency(word), word);
+        }
+        assertEquals(intersection.wordCount() + difference.wordCount(), mine.size());
+
+        String best = null;
+        for (String word : merged.keySet()) {
+            if (word.startsWith("a") && (best == null || merged.get(word) > merged.get(best)
+                    || (merged.get(word).equals(merged.get(best)) && word.compareTo(best) < 0))) {
+                best = word;
+            }
+        }
+        assertEquals(List.of(best), trie.suggest("a", 1));
+
+        // Removing words from the copy leaves the original untouched
+        copy.clear();
+        assertEquals(merged.size(), trie.wordCount());
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] dp = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    dp[i][j] = i + j;
+                } else {
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    dp[i][j] = Math.min(Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1), dp[i - 1][j - 1] + cost);
+                }
+            }
+        }
+        return dp[a.length()][b.length()];
+    }
 }
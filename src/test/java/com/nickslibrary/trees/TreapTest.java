@@ -3,17 +3,23 @@ package com.nickslibrary.trees;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.nickslibrary.datastructures.trees.ImplicitTreap;
 import com.nickslibrary.datastructures.trees.Treap;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TreapTest {
 
-    private Treap treap;
+    private Treap<Integer> treap;
 
     @BeforeEach
     void setUp() {
-        treap = new Treap();
+        treap = new Treap<>();
     }
 
     @Test
@@ -72,4 +78,116 @@ class TreapTest {
 
         assertEquals("20 30 40 50 60 70 80 ", output.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSplitAndMerge() {
+        for (int i = 0; i < 100; i++) {
+            treap.insert(i);
+        }
+        treap.insert(50);
+        assertEquals(100, treap.size());
+
+        Treap<Integer> upper = treap.split(60);
+        assertEquals(60, treap.size());
+        assertEquals(40, upper.size());
+        assertFalse(treap.search(60));
+        assertTrue(upper.search(60));
+
+        assertThrows(IllegalArgumentException.class, () -> upper.merge(treap));
+        treap.merge(upper);
+        assertTrue(upper.isEmpty());
+        assertEquals(100, treap.size());
+    }
+
+    @Test
+    void testSetOperations() {
+        Random random = new Random(5);
+        TreeSet<Integer> setA = new TreeSet<>();
+        TreeSet<Integer> setB = new TreeSet<>();
+        // Large enough to exercise the parallel path
+        for (int i = 0; i < 40000; i++) {
+            setA.add(random.nextInt(100000));
+            setB.add(random.nextInt(100000));
+        }
+
+        TreeSet<Integer> union = new TreeSet<>(setA);
+        union.addAll(setB);
+        TreeSet<Integer> intersection = new TreeSet<>(setA);
+        intersection.retainAll(setB);
+        TreeSet<Integer> difference = new TreeSet<>(setA);
+        difference.removeAll(setB);
+
+        Treap<Integer> a = build(setA);
+        a.unionWith(build(setB));
+        assertEquals(new ArrayList<>(union), a.inOrderTraversal());
+
+        a = build(setA);
+        a.intersectWith(build(setB));
+        assertEquals(new ArrayList<>(intersection), a.inOrderTraversal());
+        assertEquals(intersection.size(), a.size());
+
+        a = build(setA);
+        Treap<Integer> b = build(setB);
+        a.differenceWith(b);
+        assertEquals(new ArrayList<>(difference), a.inOrderTraversal());
+        assertTrue(b.isEmpty());
+    }
+
+    @Test
+    void testSetOperationsWithItself() {
+        TreeSet<Integer> keys = new TreeSet<>(List.of(5, 1, 9, 3));
+        Treap<Integer> a = build(keys);
+        a.unionWith(a);
+        assertEquals(new ArrayList<>(keys), a.inOrderTraversal());
+        a.intersectWith(a);
+        assertEquals(new ArrayList<>(keys), a.inOrderTraversal());
+        assertEquals(4, a.size());
+        a.differenceWith(a);
+        assertTrue(a.isEmpty());
+    }
+
+    @Test
+    void testImplicitTreap() {
+        ImplicitTreap<String> sequence = new ImplicitTreap<>();
+        List<String> expected = new ArrayList<>();
+        Random random = new Random(9);
+
+        for (int i = 0; i < 2000; i++) {
+            int index = random.nextInt(expected.size() + 1);
+            sequence.add(index, "v" + i);
+            expected.add(index, "v" + i);
+        }
+        for (int i = 0; i < 500; i++) {
+            int index = random.nextInt(expected.size());
+            assertEquals(expected.remove(index), sequence.remove(index));
+        }
+        assertEquals(expected, sequence.toList());
+        assertEquals(expected.get(123), sequence.get(123));
+        assertEquals(expected.set(7, "x"), sequence.set(7, "x"));
+
+        ImplicitTreap<String> tail = sequence.split(1000);
+        assertEquals(expected.subList(1000, expected.size()), tail.toList());
+        tail.concat(sequence);
+        assertEquals(expected.size(), tail.size());
+        assertEquals(expected.get(0), tail.get(expected.size() - 1000));
+        assertThrows(IndexOutOfBoundsException.class, () -> tail.get(expected.size()));
+    }
+
+    @Test
+    void testImplicitTreapConcatWithItself() {
+        ImplicitTreap<Integer> sequence = new ImplicitTreap<>();
+        for (int i = 0; i < 5; i++) {
+            sequence.add(i, i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> sequence.concat(sequence));
+        assertEquals(List.of(0, 1, 2, 3, 4), sequence.toList());
+    }
+
+    private Treap<Integer> build(TreeSet<Integer> values) {
+        Treap<Integer> result = new Treap<>();
+        for (int value : values) {
+            result.insert(value);
+        }
+        return result;
+    }
+}